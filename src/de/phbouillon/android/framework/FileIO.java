@@ -37,6 +37,7 @@ public interface FileIO {
 	byte[] readFileContents(String fileName, int fromOffset) throws IOException;
 	File[] getFiles(String directory, String fileNamePattern);
 	boolean deleteFile(String fileName);
+	boolean renameFile(String srcFileName, String dstFileName);
 	void copyFile(String srcFileName, String dstFileName) throws IOException;
 	void zip(String zipName, String ...fileNames) throws IOException;
 	void unzip(File zipFile, File targetDirectory) throws IOException;
@@ -0,0 +1,44 @@
+package de.phbouillon.android.framework;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+/**
+ * Source of the time the timers and timed events of the game are measured in.
+ * By default it is the monotonic time of the system; a {@link VirtualClock} can be
+ * installed to step the game faster than real time or to replay it exactly.
+ */
+public class GameClock {
+	private static GameClock instance = new GameClock();
+
+	public static GameClock getInstance() {
+		return instance;
+	}
+
+	public static void setInstance(GameClock clock) {
+		instance = clock;
+	}
+
+	public static long nanoTime() {
+		return instance.getNanoTime();
+	}
+
+	public long getNanoTime() {
+		return System.nanoTime();
+	}
+}
@@ -0,0 +1,44 @@
+package de.phbouillon.android.framework;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.Random;
+
+/**
+ * Source of the random numbers of the game simulation, which can be seeded to replay
+ * a flight. Effects which are only drawn use Math.random, so rendering does not change
+ * the numbers the simulation gets.
+ */
+public final class GameRandom {
+	private static final Random random = new Random();
+
+	private GameRandom() {
+	}
+
+	public static void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * @return the next random number between 0 (inclusive) and 1 (exclusive) as Math.random.
+	 */
+	public static double nextDouble() {
+		return random.nextDouble();
+	}
+}
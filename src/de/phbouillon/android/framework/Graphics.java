@@ -38,11 +38,22 @@ public interface Graphics {
 	Rect getVisibleArea();
 	boolean existsAssetsFile(String fileName);
 
+	/**
+	 * Starts collecting the lines, rectangles and circles to draw them together.
+	 */
+	void begin();
+	/**
+	 * Draws the collected primitives, called before changing the GL state or drawing directly.
+	 */
+	void flush();
+	int getDrawCallCount();
+
 	void clear(int color);
 	void setClip(int x1, int y1, int x2, int y2);
 
 	void setColor(int color, float alpha);
 	void setColor(int color);
+	void setLineWidth(float width);
 
 	int transX(int x);
 	int transY(int y);
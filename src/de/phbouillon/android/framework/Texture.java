@@ -32,4 +32,7 @@ public interface Texture {
 	void freeAllTextures();
 	void reloadAllTextures();
 	void clear();
+	void prefetchTexture(String fileName, ResourceStream textureInputStream);
+	void beginFrame();
+	void pinTexture(String fileName);
 }
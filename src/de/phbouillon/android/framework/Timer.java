@@ -28,7 +28,7 @@ public class Timer implements Serializable {
 	private static final float MILLIS = 1000 * MICROS;
 	private static final float SECONDS = 1000 * MILLIS;
 
-	private long startTime = System.nanoTime();
+	private long startTime = GameClock.nanoTime();
 	private long currentTime = startTime;
 	private boolean autoReset;
 	private boolean skipFirstCall;
@@ -73,7 +73,7 @@ public class Timer implements Serializable {
 	}
 
 	private float getPassedTime(float unit) {
-		currentTime = System.nanoTime();
+		currentTime = GameClock.nanoTime();
 		return skipFirstCall ? 0 : (currentTime - startTime) / unit;
 	}
 
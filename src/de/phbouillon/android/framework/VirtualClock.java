@@ -0,0 +1,48 @@
+package de.phbouillon.android.framework;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+/**
+ * Game clock which only moves if it is advanced, so a simulation is independent of
+ * the time it takes to compute.
+ */
+public class VirtualClock extends GameClock {
+	private volatile long time;
+
+	public VirtualClock() {
+		this(0);
+	}
+
+	public VirtualClock(long startTime) {
+		time = startTime;
+	}
+
+	@Override
+	public long getNanoTime() {
+		return time;
+	}
+
+	public void advance(long nanos) {
+		time += nanos;
+	}
+
+	public void setNanoTime(long time) {
+		this.time = time;
+	}
+}
@@ -177,6 +177,11 @@ public class AndroidFileIO implements FileIO {
 		return getFile(fileName).delete();
 	}
 
+	@Override
+	public boolean renameFile(String srcFileName, String dstFileName) {
+		return getFile(srcFileName).renameTo(getFile(dstFileName));
+	}
+
 	@Override
 	public void copyFile(String srcFileName, String dstFileName) throws IOException {
 		try(BufferedOutputStream bos = new BufferedOutputStream(writeFile(dstFileName));
@@ -34,6 +34,7 @@ import android.view.View;
 import android.view.Window;
 import android.view.WindowManager;
 import de.phbouillon.android.framework.*;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.screens.canvas.FatalExceptionScreen;
@@ -48,6 +49,9 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 		Idle
 	}
 
+	private static final int FRAME_MILLIS = 33;
+	private static final float SIMULATION_STEP = 1.0f / 30;
+
 	public static boolean resetting = false;
 
 	private GLSurfaceView glView;
@@ -61,7 +65,7 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 	private int deviceHeight;
 	private int deviceWidth;
 	private GLGameState state = GLGameState.Initialized;
-	private Timer ticker;
+	private FramePacer framePacer;
 	private Timer scheduler;
 	private int frames = 0;
 	private int timeFactor = 1;
@@ -289,7 +293,7 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 		screen.loadAssets();
 		screen.activate();
 		screen.resume();
-		ticker = new Timer();
+		framePacer = new FramePacer(FRAME_MILLIS, SIMULATION_STEP);
 		scheduler = new Timer().setAutoReset();
 	}
 
@@ -312,17 +316,28 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 
 	@Override
 	public void onDrawFrame(GL10 unused) {
+		// The 2D primitives of the frame are collected and drawn together
+		Graphics g = getGraphics();
+		g.begin();
+		try {
+			drawFrame();
+		} finally {
+			g.flush();
+		}
+	}
+
+	private void drawFrame() {
 		if (fatalException != null) {
 			drawFatalException();
 			return;
 		}
 		try {
 			GLGameState state = this.state;
-			while (!ticker.hasPassedMillis(33));
+			float deltaTime = framePacer.waitForNextFrame();
 			if (state == GLGameState.Running && getCurrentView() == glView) {
-				float deltaTime = ticker.getPassedSeconds();
-				ticker.reset();
-				screen.update(deltaTime);
+				textureManager.beginFrame();
+				GlState.beginFrame();
+				updateScreen(deltaTime);
 				if (!screen.isDisposed()) {
 					screen.present(deltaTime);
 				}
@@ -330,7 +345,7 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 				screen.renderNavigationBar();
 				screen.postNavigationRender(deltaTime);
 				frames++;
-				if (Settings.displayFrameRate && scheduler.getPassedSeconds() >= 1) {
+				if (Settings.displayFrameRate && scheduler.hasPassedSeconds(1)) {
 					fps = frames;
 					frames = 0;
 				}
@@ -352,6 +367,18 @@ public abstract class AndroidGame extends Activity implements Game, Renderer {
 		}
 	}
 
+	private void updateScreen(float deltaTime) {
+		if (!Settings.fixedTimeStep) {
+			screen.update(deltaTime);
+			return;
+		}
+		// The world advances in steps of equal length independent of the frame time;
+		// a screen change during a step continues the remaining steps on the new screen.
+		for (int steps = framePacer.getSimulationSteps(deltaTime); steps > 0; steps--) {
+			screen.update(framePacer.getSimulationStep());
+		}
+	}
+
 	public void afterSurfaceCreated() {
 	}
 
@@ -20,7 +20,6 @@ package de.phbouillon.android.framework.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.FloatBuffer;
 
 import android.graphics.*;
 import android.graphics.Bitmap.Config;
@@ -28,7 +27,7 @@ import android.graphics.BitmapFactory.Options;
 import android.graphics.Rect;
 import android.opengl.GLES11;
 import de.phbouillon.android.framework.*;
-import de.phbouillon.android.framework.impl.gl.GlUtils;
+import de.phbouillon.android.framework.impl.gl.PrimitiveBatch;
 import de.phbouillon.android.framework.impl.gl.font.GLText;
 import de.phbouillon.android.games.alite.Settings;
 import de.phbouillon.android.games.alite.colors.ColorScheme;
@@ -37,10 +36,10 @@ import de.phbouillon.android.games.alite.model.generator.StringUtil;
 public class AndroidGraphics implements Graphics {
 	private final float scaleFactor;
 	private final Rect visibleArea;
-	private final FloatBuffer lineBuffer;
-	private final FloatBuffer rectBuffer;
-	private final FloatBuffer circleBuffer;
-	private final FloatBuffer colorBuffer;
+	private static final int MAX_BATCH_VERTICES = 16384;
+
+	private final PrimitiveBatch batch = new PrimitiveBatch(MAX_BATCH_VERTICES);
+	private float lineWidth = 1;
 	private final Texture textureManager;
 	private final Canvas converterCanvas = new Canvas();
 	private final Paint paint = new Paint();
@@ -54,10 +53,6 @@ public class AndroidGraphics implements Graphics {
 		this.fileIO = fileIO;
 		this.scaleFactor = scaleFactor;
 		this.visibleArea = visibleArea;
-		lineBuffer = GlUtils.allocateFloatBuffer(2 * 8);
-		rectBuffer = GlUtils.allocateFloatBuffer(4 * 8);
-		circleBuffer = GlUtils.allocateFloatBuffer(64 * 8);
-		colorBuffer = GlUtils.allocateFloatBuffer(4 * 16);
 		this.textureManager = textureManager;
 	}
 
@@ -172,62 +167,48 @@ public class AndroidGraphics implements Graphics {
 		return tSize;
 	}
 
+	@Override
+	public void begin() {
+		batch.begin();
+	}
+
+	@Override
+	public void flush() {
+		batch.flush();
+	}
+
+	@Override
+	public int getDrawCallCount() {
+		return batch.getDrawCallCount();
+	}
+
 	@Override
 	public void clear(int color) {
+		batch.flush();
 		GLES11.glClearColor(Color.red(color), Color.green(color), Color.blue(color), Color.alpha(color));
 		GLES11.glClear(GLES11.GL_COLOR_BUFFER_BIT);
 	}
 
 	@Override
 	public void drawLine(int x, int y, int x2, int y2, int color) {
-		x = transX(x);
-		y = transY(y);
-		x2 = transX(x2 + 1);
-		y2 = transY(y2 + 1);
-
-		GLES11.glLineWidth(scaleFactor);
-		setColor(color);
-		lineBuffer.clear();
-		lineBuffer.put(x);
-		lineBuffer.put(y);
-		lineBuffer.put(x2);
-		lineBuffer.put(y2);
-		lineBuffer.position(0);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, lineBuffer);
-		GLES11.glDrawArrays(GLES11.GL_LINES, 0, 2);
-		GLES11.glLineWidth(1);
+		batch.addLine(transX(x), transY(y), transX(x2 + 1), transY(y2 + 1), scaleFactor, color);
+		batch.end();
 	}
 
 	@Override
 	public void drawRect(int x, int y, int width, int height, int color) {
-		GLES11.glLineWidth(scaleFactor);
-		setColor(color);
-		if (!setRectBuffer(x, y, width, height)) return;
-		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, rectBuffer);
-		GLES11.glDrawArrays(GLES11.GL_LINE_LOOP, 0, 4);
-		GLES11.glLineWidth(1);
-	}
-
-	private boolean setRectBuffer(int left, int top, int width, int height) {
-		int bottom = transY(top + height);
+		int bottom = transY(y + height);
 		if (bottom < 0) {
-			return false;
+			return;
 		}
-		int right = transX(left + width);
-		left = transX(left);
-		top = transY(top);
-		rectBuffer.clear();
-		rectBuffer.put(left);
-		rectBuffer.put(top);
-		rectBuffer.put(right);
-		rectBuffer.put(top);
-		rectBuffer.put(right);
-		rectBuffer.put(bottom);
-		rectBuffer.put(left);
-		rectBuffer.put(bottom);
-		rectBuffer.position(0);
-		return true;
+		int left = transX(x);
+		int top = transY(y);
+		int right = transX(x + width);
+		batch.addLine(left, top, right, top, scaleFactor, color);
+		batch.addLine(right, top, right, bottom, scaleFactor, color);
+		batch.addLine(right, bottom, left, bottom, scaleFactor, color);
+		batch.addLine(left, bottom, left, top, scaleFactor, color);
+		batch.end();
 	}
 
 	@Override
@@ -242,89 +223,57 @@ public class AndroidGraphics implements Graphics {
 
 	@Override
 	public void fillRect(int x, int y, int width, int height, int color) {
-		setColor(color);
-		if (!setRectBuffer(x, y, width, height)) return;
-		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, rectBuffer);
-		GLES11.glDrawArrays(GLES11.GL_TRIANGLE_FAN, 0, 4);
+		gradientRect(x, y, width, height, color, color, color);
 	}
 
 	@Override
 	public void verticalGradientRect(int x, int y, int width, int height, int color1, int color2) {
-		gradientRect(x, y, width, height, false, color1, color2);
+		gradientRect(x, y, width, height, color1, color1, color2);
 	}
 
 	@Override
 	public void diagonalGradientRect(int x, int y, int width, int height, int color1, int color2) {
-		gradientRect(x, y, width, height, true, color1, color2);
+		gradientRect(x, y, width, height, color1, color2, color2);
 	}
 
-	private void gradientRect(int x, int y, int width, int height, boolean horizontal, int color1, int color2) {
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_COLOR_ARRAY);
-		if (!setRectBuffer(x, y, width, height)) return;
-		colorBuffer.clear();
-		putToColorBuffer(color1);
-		putToColorBuffer(horizontal ? color2 : color1);
-		putToColorBuffer(color2);
-		putToColorBuffer(color2);
-		colorBuffer.position(0);
-		GLES11.glColorPointer(4, GLES11.GL_FLOAT, 0, colorBuffer);
-		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, rectBuffer);
-		GLES11.glDrawArrays(GLES11.GL_TRIANGLE_FAN, 0, 4);
-		GLES11.glDisableClientState(GLES11.GL_COLOR_ARRAY);
-	}
-
-	private void putToColorBuffer(int color) {
-		colorBuffer.put(Color.red(color) / 255.0f);
-		colorBuffer.put(Color.green(color) / 255.0f);
-		colorBuffer.put(Color.blue(color) / 255.0f);
-		colorBuffer.put(Color.alpha(color) / 255.0f);
+	private void gradientRect(int x, int y, int width, int height, int topLeftColor, int topRightColor, int bottomColor) {
+		int bottom = transY(y + height);
+		if (bottom < 0) {
+			return;
+		}
+		batch.addQuad(transX(x), transY(y), transX(x + width), bottom, topLeftColor, topRightColor, bottomColor, bottomColor);
+		batch.end();
 	}
 
 	@Override
 	public void fillCircle(int cx, int cy, int r, int color) {
-		drawCircleWithMode(cx, cy, r, color, 32, GLES11.GL_TRIANGLE_FAN, 360);
+		batch.addFilledCircle(transX(cx), transY(cy), (int) (r * scaleFactor), 32, color);
+		batch.end();
 	}
 
-	private void drawCircleWithMode(int cx, int cy, int r, int color, int segments, int mode, float angle) {
-		if (segments > 64) {
-			segments = 64;
-		}
-		cx = transX(cx);
-		cy = transY(cy);
-		r = (int) (r * scaleFactor);
-
-		circleBuffer.clear();
-		float step = angle / (segments - 1);
-		for (int i = 0; i < segments; i++) {
-			float ang = (float) (Math.toRadians(i * step) - Math.PI / 2);
-			circleBuffer.put((float) (cx + Math.cos(ang) * r));
-			circleBuffer.put((float) (cy + Math.sin(ang) * r));
-		}
-		circleBuffer.position(0);
-		setColor(color);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, circleBuffer);
-		GLES11.glDrawArrays(mode, 0, segments);
+	private void drawCircleOutline(int cx, int cy, int r, int color, float angle, boolean closed, boolean dashed) {
+		batch.addCircleOutline(transX(cx), transY(cy), (int) (r * scaleFactor), 64, angle, closed, dashed, lineWidth, color);
+		batch.end();
 	}
 
 	@Override
 	public void drawArc(int cx, int cy, int r, int color, int angle) {
-		drawCircleWithMode(cx, cy, r, color,  64, GLES11.GL_LINE_STRIP, angle);
+		drawCircleOutline(cx, cy, r, color, angle, false, false);
 	}
 
 	@Override
 	public void drawCircle(int cx, int cy, int r, int color) {
-		drawCircleWithMode(cx, cy, r, color, 64, GLES11.GL_LINE_LOOP, 360);
+		drawCircleOutline(cx, cy, r, color, 360, true, false);
 	}
 
 	@Override
 	public void drawDashedCircle(int cx, int cy, int r, int color) {
-		drawCircleWithMode(cx, cy, r, color, 64, GLES11.GL_LINES, 360);
+		drawCircleOutline(cx, cy, r, color, 360, false, true);
 	}
 
 	@Override
 	public void drawPixmapUnscaled(Pixmap pixmap, int x, int y, int srcX, int srcY, int srcWidth, int srcHeight) {
+		batch.flush();
 		x = transX(x);
 		y = transY(y);
 
@@ -366,11 +315,13 @@ public class AndroidGraphics implements Graphics {
 
 	@Override
 	public void drawPixmap(Pixmap pixmap, int x, int y) {
+		batch.flush();
 		pixmap.render(transX(x), transY(y));
 	}
 
 	@Override
 	public void drawPixmap(Pixmap pixmap, int x, int y, float pixmapAlpha) {
+		batch.flush();
 		pixmap.render(transX(x), transY(y), pixmapAlpha);
 	}
 
@@ -392,6 +343,7 @@ public class AndroidGraphics implements Graphics {
 		if (font == null) {
 			return;
 		}
+		batch.flush();
 		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 		GLES11.glEnable(GLES11.GL_TEXTURE_2D);
 		drawTextCommon(text, x, y, color, font, 1);
@@ -422,6 +374,7 @@ public class AndroidGraphics implements Graphics {
 		if (font == null) {
 			return;
 		}
+		batch.flush();
 		GLES11.glDisable(GLES11.GL_LIGHTING);
 		GLES11.glDisable(GLES11.GL_CULL_FACE);
 		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE_MINUS_SRC_ALPHA);
@@ -453,6 +406,7 @@ public class AndroidGraphics implements Graphics {
 
 	@Override
 	public void setClip(int x1, int y1, int x2, int y2) {
+		batch.flush();
 		if (x1 == -1 && y1 == -1 && x2 == -1 && y2 == -1) {
 			GLES11.glDisable(GLES11.GL_SCISSOR_TEST);
 			return;
@@ -475,6 +429,12 @@ public class AndroidGraphics implements Graphics {
 		setColor(color, Color.alpha(color) / 255.0f);
 	}
 
+	@Override
+	public void setLineWidth(float width) {
+		batch.flush();
+		lineWidth = width;
+	}
+
 	@Override
 	public void drawArrow(int x1, int y1, int x2, int y2, int color, ArrowDirection arrowHead) {
 		int temp;
@@ -0,0 +1,96 @@
+package de.phbouillon.android.framework.impl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.Timer;
+
+/**
+ * Paces the frames of the render loop and splits the passed time into
+ * fixed simulation steps.
+ * Instead of spinning until the frame time has passed, the calling thread
+ * sleeps for the remaining time of the frame.
+ */
+public class FramePacer {
+	private static final long NANOS_PER_MILLI = 1000000L;
+	// Simulation time not processed when the device cannot keep up is dropped instead of being caught up.
+	private static final int MAX_STEPS_PER_FRAME = 5;
+	// Part of a step the frame time may differ from half way between two step counts before the step count changes
+	private static final float STEP_HYSTERESIS = 0.25f;
+
+	private final Timer ticker = new Timer();
+	private final long frameNanos;
+	private final float simulationStep;
+	private float accumulator;
+	// The step count of the recent frames
+	private int frameSteps = 1;
+
+	public FramePacer(int frameMillis, float simulationStep) {
+		frameNanos = frameMillis * NANOS_PER_MILLI;
+		this.simulationStep = simulationStep;
+	}
+
+	/**
+	 * Sleeps until the frame time has passed since the previous call.
+	 * @return the time passed since the previous call in seconds
+	 */
+	public float waitForNextFrame() {
+		long remainingNanos = frameNanos - ticker.getPassedNanos();
+		if (remainingNanos > 0) {
+			try {
+				Thread.sleep(remainingNanos / NANOS_PER_MILLI, (int) (remainingNanos % NANOS_PER_MILLI));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		float deltaTime = ticker.getPassedSeconds();
+		ticker.reset();
+		return deltaTime;
+	}
+
+	/**
+	 * Adds the given frame time to the not yet simulated time.
+	 * The step count of a frame follows the frame time with a hysteresis of a quarter step, so
+	 * the jitter of the frame times does not alternate between zero and two steps. The not yet
+	 * simulated time keeps the true remainder; if it drifts a whole step away, the step count of
+	 * that frame is corrected, so the simulated time keeps up with the real time.
+	 * @return the number of fixed simulation steps to be performed for this frame
+	 */
+	public int getSimulationSteps(float deltaTime) {
+		float stepsOfFrame = deltaTime / simulationStep;
+		if (Math.abs(stepsOfFrame - frameSteps) > 0.5f + STEP_HYSTERESIS) {
+			frameSteps = Math.max(1, Math.round(stepsOfFrame));
+		}
+		accumulator += deltaTime;
+		int steps = frameSteps;
+		float remainder = accumulator - steps * simulationStep;
+		if (remainder >= simulationStep || remainder < -simulationStep) {
+			steps = Math.max(0, Math.round(accumulator / simulationStep));
+		}
+		accumulator -= steps * simulationStep;
+		if (steps > MAX_STEPS_PER_FRAME) {
+			steps = MAX_STEPS_PER_FRAME;
+			accumulator = 0;
+		}
+		return steps;
+	}
+
+	public float getSimulationStep() {
+		return simulationStep;
+	}
+}
@@ -100,14 +100,14 @@ public class Box {
 
 	public void render() {
 		Alite.get().getTextureManager().setTexture(null);
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
 		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, vertexBuffer);
 		GLES11.glColor4f(r, g, b, a);
-		GLES11.glDisable(GLES11.GL_LIGHTING);
+		GlState.disable(GLES11.GL_LIGHTING);
 		GLES11.glDrawArrays(GLES11.GL_TRIANGLES, 0, 36);
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
 	}
 }
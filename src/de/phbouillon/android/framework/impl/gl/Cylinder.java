@@ -204,13 +204,13 @@ public class Cylinder implements Serializable {
 	}
 
 	public void render() {
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_CULL_FACE);
 
 		if (hasTop) {
-			GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-			GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
-			GLES11.glEnable(GLES11.GL_BLEND);
-			GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+			GlState.enable(GLES11.GL_BLEND);
+			GlState.blendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 			GLES11.glColor4f(r, g, b, a);
 			GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, diskBuffer1);
 			GLES11.glNormalPointer(GLES11.GL_FLOAT, 0, normalBuffer[0]);
@@ -220,26 +220,26 @@ public class Cylinder implements Serializable {
 		GLES11.glNormalPointer(GLES11.GL_FLOAT, 0, normalBuffer[1]);
 		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, cylinderBuffer);
 		if (textureFilename != null) {
-			GLES11.glEnable(GLES11.GL_LIGHTING);
-			GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.enable(GLES11.GL_LIGHTING);
+			GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
 			GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, texCoordBuffer);
 			Alite.get().getTextureManager().setTexture(textureFilename);
 		} else {
-			GLES11.glDisable(GLES11.GL_LIGHTING);
-			GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.disable(GLES11.GL_LIGHTING);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
 		}
         GLES11.glTexEnvf(GLES11.GL_TEXTURE_ENV, GLES11.GL_TEXTURE_ENV_MODE, GLES11.GL_MODULATE);
-	    GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
-        GLES11.glDisable(GLES11.GL_BLEND);
+	    GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+        GlState.disable(GLES11.GL_BLEND);
 		GLES11.glColor4f(r, g, b, a);
 		GLES11.glDrawArrays(GLES11.GL_TRIANGLE_STRIP, 0, segments * 2 + 2);
 
 		if (hasBottom) {
-			GLES11.glDisable(GLES11.GL_LIGHTING);
-			GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-			GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
-			GLES11.glEnable(GLES11.GL_BLEND);
-			GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
+			GlState.disable(GLES11.GL_LIGHTING);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+			GlState.enable(GLES11.GL_BLEND);
+			GlState.blendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 			GLES11.glColor4f(r, g, b, a);
 			GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, diskBuffer2);
 			GLES11.glNormalPointer(GLES11.GL_FLOAT, 0, normalBuffer[2]);
@@ -247,8 +247,8 @@ public class Cylinder implements Serializable {
 		}
 
 		GLES11.glColor4f(1, 1, 1, 1);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_LIGHTING);
 	}
 
 }
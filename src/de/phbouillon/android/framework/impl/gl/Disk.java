@@ -154,13 +154,13 @@ public class Disk implements Serializable {
 			GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, texCoordBuffer);
 			Alite.get().getTextureManager().setTexture(textureFilename);
 		} else {
-			GLES11.glDisable(GLES11.GL_LIGHTING);
-			GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.disable(GLES11.GL_LIGHTING);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
 		}
 		GLES11.glDrawArrays(glDrawMode, 0, numberOfVertices);
 		if (textureFilename == null) {
-			GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-			GLES11.glEnable(GLES11.GL_LIGHTING);
+			GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.enable(GLES11.GL_LIGHTING);
 		}
 	}
 
@@ -0,0 +1,308 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import android.opengl.GLES11;
+
+/**
+ * Remembers the capabilities, blend function, bound texture and client states set by the
+ * renderer and drops the calls which would not change them. The state is only tracked
+ * between {@link #begin()} and {@link #end()}; outside, e.g. for the HUD which still calls
+ * GLES11 directly, every call is passed on, since the state may have been changed behind
+ * the back of the tracker.
+ * The calls of each frame are counted for {@link #getFrameReport()}.
+ * Must only be used by the GL thread.
+ */
+public final class GlState {
+	public interface Backend {
+		void glEnable(int cap);
+		void glDisable(int cap);
+		boolean glIsEnabled(int cap);
+		void glBlendFunc(int sfactor, int dfactor);
+		void glBindTexture(int target, int texture);
+		void glEnableClientState(int array);
+		void glDisableClientState(int array);
+	}
+
+	private static final Backend GLES11_BACKEND = new Backend() {
+		@Override
+		public void glEnable(int cap) {
+			GLES11.glEnable(cap);
+		}
+
+		@Override
+		public void glDisable(int cap) {
+			GLES11.glDisable(cap);
+		}
+
+		@Override
+		public boolean glIsEnabled(int cap) {
+			return GLES11.glIsEnabled(cap);
+		}
+
+		@Override
+		public void glBlendFunc(int sfactor, int dfactor) {
+			GLES11.glBlendFunc(sfactor, dfactor);
+		}
+
+		@Override
+		public void glBindTexture(int target, int texture) {
+			GLES11.glBindTexture(target, texture);
+		}
+
+		@Override
+		public void glEnableClientState(int array) {
+			GLES11.glEnableClientState(array);
+		}
+
+		@Override
+		public void glDisableClientState(int array) {
+			GLES11.glDisableClientState(array);
+		}
+	};
+
+	// Counted calls
+	public static final int ENABLE = 0;
+	public static final int IS_ENABLED = 1;
+	public static final int BLEND_FUNC = 2;
+	public static final int BIND_TEXTURE = 3;
+	public static final int CLIENT_STATE = 4;
+	private static final int CALL_TYPE_COUNT = 5;
+	private static final String[] CALL_NAMES = { "enable", "isEnabled", "blendFunc", "bindTexture", "clientState" };
+
+	private static final int[] CAPABILITIES = { GLES11.GL_DEPTH_TEST, GLES11.GL_BLEND, GLES11.GL_CULL_FACE,
+		GLES11.GL_LIGHTING, GLES11.GL_TEXTURE_2D };
+	private static final int[] CLIENT_STATES = { GLES11.GL_VERTEX_ARRAY, GLES11.GL_NORMAL_ARRAY,
+		GLES11.GL_TEXTURE_COORD_ARRAY, GLES11.GL_COLOR_ARRAY };
+	private static final byte UNKNOWN = 0;
+	private static final byte ENABLED = 1;
+	private static final byte DISABLED = 2;
+	private static final int UNKNOWN_TEXTURE = -1;
+	private static final int UNKNOWN_FACTOR = -1;
+
+	private static Backend backend = GLES11_BACKEND;
+	private static boolean tracking;
+	private static final byte[] capabilities = new byte[CAPABILITIES.length];
+	private static final byte[] clientStates = new byte[CLIENT_STATES.length];
+	private static int blendSrc = UNKNOWN_FACTOR;
+	private static int blendDst = UNKNOWN_FACTOR;
+	private static int boundTexture = UNKNOWN_TEXTURE;
+
+	private static final int[] calls = new int[CALL_TYPE_COUNT];
+	private static final int[] skippedCalls = new int[CALL_TYPE_COUNT];
+	private static final int[] frameCalls = new int[CALL_TYPE_COUNT];
+	private static final int[] frameSkippedCalls = new int[CALL_TYPE_COUNT];
+
+	private GlState() {
+	}
+
+	/**
+	 * Replaces the GL calls, e.g. by a fake recording them in tests. The tracked state and the counted calls are forgotten.
+	 */
+	public static void setBackend(Backend newBackend) {
+		backend = newBackend == null ? GLES11_BACKEND : newBackend;
+		tracking = false;
+		invalidate();
+		Arrays.fill(calls, 0);
+		Arrays.fill(skippedCalls, 0);
+		Arrays.fill(frameCalls, 0);
+		Arrays.fill(frameSkippedCalls, 0);
+	}
+
+	/**
+	 * Starts tracking the state; the state of GL is unknown until it is set through the tracker.
+	 */
+	public static void begin() {
+		invalidate();
+		tracking = true;
+	}
+
+	public static void end() {
+		tracking = false;
+		invalidate();
+	}
+
+	public static boolean isTracking() {
+		return tracking;
+	}
+
+	public static void invalidate() {
+		Arrays.fill(capabilities, UNKNOWN);
+		Arrays.fill(clientStates, UNKNOWN);
+		blendSrc = UNKNOWN_FACTOR;
+		blendDst = UNKNOWN_FACTOR;
+		boundTexture = UNKNOWN_TEXTURE;
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isRedundant(byte[] states, int index, boolean enabled) {
+		if (!tracking || index < 0) {
+			return false;
+		}
+		byte state = enabled ? ENABLED : DISABLED;
+		if (states[index] == state) {
+			return true;
+		}
+		states[index] = state;
+		return false;
+	}
+
+	private static boolean count(int call, boolean redundant) {
+		if (redundant) {
+			skippedCalls[call]++;
+		} else {
+			calls[call]++;
+		}
+		return redundant;
+	}
+
+	public static void enable(int cap) {
+		if (!count(ENABLE, isRedundant(capabilities, indexOf(CAPABILITIES, cap), true))) {
+			backend.glEnable(cap);
+		}
+	}
+
+	public static void disable(int cap) {
+		if (!count(ENABLE, isRedundant(capabilities, indexOf(CAPABILITIES, cap), false))) {
+			backend.glDisable(cap);
+		}
+	}
+
+	public static void setEnabled(int cap, boolean enabled) {
+		if (enabled) {
+			enable(cap);
+		} else {
+			disable(cap);
+		}
+	}
+
+	/**
+	 * @return the tracked state of the capability, GL is only asked if it is not known.
+	 */
+	public static boolean isEnabled(int cap) {
+		int index = indexOf(CAPABILITIES, cap);
+		if (tracking && index >= 0 && capabilities[index] != UNKNOWN) {
+			count(IS_ENABLED, true);
+			return capabilities[index] == ENABLED;
+		}
+		count(IS_ENABLED, false);
+		boolean enabled = backend.glIsEnabled(cap);
+		if (tracking && index >= 0) {
+			capabilities[index] = enabled ? ENABLED : DISABLED;
+		}
+		return enabled;
+	}
+
+	public static void blendFunc(int sfactor, int dfactor) {
+		boolean redundant = tracking && blendSrc == sfactor && blendDst == dfactor;
+		if (!count(BLEND_FUNC, redundant)) {
+			backend.glBlendFunc(sfactor, dfactor);
+			if (tracking) {
+				blendSrc = sfactor;
+				blendDst = dfactor;
+			}
+		}
+	}
+
+	public static void bindTexture(int texture) {
+		boolean redundant = tracking && boundTexture == texture;
+		if (!count(BIND_TEXTURE, redundant)) {
+			backend.glBindTexture(GLES11.GL_TEXTURE_2D, texture);
+			if (tracking) {
+				boundTexture = texture;
+			}
+		}
+	}
+
+	/**
+	 * @return the texture bound through the tracker or -1 if it is not known.
+	 */
+	public static int getBoundTexture() {
+		return tracking ? boundTexture : UNKNOWN_TEXTURE;
+	}
+
+	/**
+	 * Deleting the bound texture binds the default texture.
+	 */
+	public static void textureDeleted(int texture) {
+		if (boundTexture == texture) {
+			boundTexture = 0;
+		}
+	}
+
+	public static void enableClientState(int array) {
+		if (!count(CLIENT_STATE, isRedundant(clientStates, indexOf(CLIENT_STATES, array), true))) {
+			backend.glEnableClientState(array);
+		}
+	}
+
+	public static void disableClientState(int array) {
+		if (!count(CLIENT_STATE, isRedundant(clientStates, indexOf(CLIENT_STATES, array), false))) {
+			backend.glDisableClientState(array);
+		}
+	}
+
+	/**
+	 * Closes the counting of the previous frame.
+	 */
+	public static void beginFrame() {
+		System.arraycopy(calls, 0, frameCalls, 0, CALL_TYPE_COUNT);
+		System.arraycopy(skippedCalls, 0, frameSkippedCalls, 0, CALL_TYPE_COUNT);
+		Arrays.fill(calls, 0);
+		Arrays.fill(skippedCalls, 0);
+	}
+
+	/**
+	 * @return the number of calls of the given type passed on to GL in the previous frame.
+	 */
+	public static int getFrameCallCount(int call) {
+		return frameCalls[call];
+	}
+
+	/**
+	 * @return the number of calls of the given type dropped in the previous frame.
+	 */
+	public static int getFrameSkippedCount(int call) {
+		return frameSkippedCalls[call];
+	}
+
+	public static String getFrameReport() {
+		int total = 0;
+		int skipped = 0;
+		StringBuilder details = new StringBuilder();
+		for (int i = 0; i < CALL_TYPE_COUNT; i++) {
+			total += frameCalls[i];
+			skipped += frameSkippedCalls[i];
+			details.append(i == 0 ? " (" : ", ").append(CALL_NAMES[i]).append(' ')
+				.append(frameCalls[i]).append('/').append(frameCalls[i] + frameSkippedCalls[i]);
+		}
+		return String.format(Locale.US, "GL: %d calls, %d skipped", total, skipped) + details.append(')');
+	}
+}
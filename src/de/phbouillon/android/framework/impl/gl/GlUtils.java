@@ -22,12 +22,18 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import android.graphics.Rect;
 import android.opengl.GLES11;
 import de.phbouillon.android.framework.Game;
 
 public class GlUtils {
+	// Arrays use identity for equals and hashCode, so each array has its own buffer.
+	private static final Map<float[], FloatBuffer> sharedFloatBuffers = new WeakHashMap<>();
+	private static int allocatedBufferCount;
+
 	public static void setViewport(Game game) {
 		Rect r = game.getGraphics().getVisibleArea();
 		GLES11.glViewport(r.left, r.top, r.width(), r.height());
@@ -58,6 +64,7 @@ public class GlUtils {
 	}
 
 	public static FloatBuffer toFloatBufferPositionZero(float[] values) {
+		allocatedBufferCount++;
 		ByteBuffer vbb = ByteBuffer.allocateDirect(values.length * 4);
 		vbb.order(ByteOrder.nativeOrder());
 		FloatBuffer buffer = vbb.asFloatBuffer();
@@ -66,6 +73,30 @@ public class GlUtils {
 		return buffer;
 	}
 
+	/**
+	 * Returns a direct buffer of the given values shared by all callers passing the same array,
+	 * so the array must not be modified after the first call. The buffer is released when the array
+	 * is no longer referenced.
+	 */
+	public static synchronized FloatBuffer toSharedFloatBuffer(float[] values) {
+		if (values == null) {
+			return null;
+		}
+		FloatBuffer buffer = sharedFloatBuffers.get(values);
+		if (buffer == null) {
+			buffer = toFloatBufferPositionZero(values);
+			sharedFloatBuffers.put(values, buffer);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the number of direct float buffers allocated so far.
+	 */
+	public static int getAllocatedBufferCount() {
+		return allocatedBufferCount;
+	}
+
 	public static ShortBuffer toShortBufferPositionZero(short [] values) {
 		ByteBuffer vbb = ByteBuffer.allocateDirect(values.length * 2);
 		vbb.order(ByteOrder.nativeOrder());
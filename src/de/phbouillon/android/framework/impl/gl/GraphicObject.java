@@ -39,15 +39,16 @@ public class GraphicObject implements Serializable {
 	protected Vector3f upVector;
 	protected Vector3f forwardVector;
 	private final Vector3f initialDirection = new Vector3f(1.0f, 1.0f, 1.0f);
-	private final Vector3f temp = new Vector3f(1.0f, 1.0f, 1.0f);
+	// Temporary values are not saved
+	private transient Vector3f temp = new Vector3f(1.0f, 1.0f, 1.0f);
 	private float speed;
 	private float targetSpeed;
 
 	private String id;
 
 	private final float[] currentMatrix = new float[16];
-	private final float[] tempMatrix = new float[16];
-	private final float[] tempMatrix2 = new float[16];
+	private transient float[] tempMatrix = new float[16];
+	private transient float[] tempMatrix2 = new float[16];
 	private boolean cached = false;
 	private IMethodHook updater = null;
 
@@ -124,6 +125,9 @@ public class GraphicObject implements Serializable {
 		try {
 			AliteLog.d("readObject", "GraphicObject.readObject");
 			in.defaultReadObject();
+			temp = new Vector3f(1.0f, 1.0f, 1.0f);
+			tempMatrix = new float[16];
+			tempMatrix2 = new float[16];
 			AliteLog.d("readObject", "GraphicObject.readObject I: " + toDebugString());
 		} catch (ClassNotFoundException e) {
 			AliteLog.e("Class not found", e.getMessage(), e);
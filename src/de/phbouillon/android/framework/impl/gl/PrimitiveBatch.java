@@ -0,0 +1,220 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.nio.FloatBuffer;
+
+import android.opengl.GLES11;
+
+/**
+ * Collects untextured 2D primitives as colored triangles and draws them with a single
+ * glDrawArrays call. Lines are turned into thin quads, so lines and filled shapes can
+ * share the batch and are drawn in the order they were added.
+ * Each vertex is stored as x, y, red, green, blue, alpha in one interleaved array.
+ * After begin, the primitives are collected until the batch is full or flushed;
+ * before, every primitive is drawn when it is completed by end.
+ */
+public class PrimitiveBatch {
+	private static final int FLOATS_PER_VERTEX = 6;
+	private static final int STRIDE = FLOATS_PER_VERTEX * 4;
+	private static final int MAX_SEGMENTS = 64;
+
+	private final int maxVertices;
+	private final float[] vertices;
+	private final FloatBuffer vertexBuffer;
+	private final FloatBuffer colorBuffer;
+	private final float[] circle = new float[2 * MAX_SEGMENTS];
+	private int vertexCount;
+	private boolean batching;
+	private int lastColor;
+	private int drawCallCount;
+
+	public PrimitiveBatch(int maxVertices) {
+		this.maxVertices = maxVertices;
+		vertices = new float[maxVertices * FLOATS_PER_VERTEX];
+		vertexBuffer = GlUtils.allocateFloatBuffer(vertices.length * 4);
+		vertexBuffer.position(2);
+		colorBuffer = vertexBuffer.slice();
+		vertexBuffer.position(0);
+	}
+
+	/**
+	 * Starts collecting primitives instead of drawing them one by one.
+	 */
+	public void begin() {
+		flush();
+		batching = true;
+	}
+
+	/**
+	 * Completes a primitive, it is drawn at once if primitives are not collected.
+	 */
+	public void end() {
+		if (!batching) {
+			flush();
+		}
+	}
+
+	/**
+	 * Draws the collected primitives. Has to be called before the GL state used
+	 * by the primitives is changed or anything else is drawn.
+	 */
+	public void flush() {
+		if (vertexCount == 0) {
+			return;
+		}
+		vertexBuffer.clear();
+		vertexBuffer.put(vertices, 0, vertexCount * FLOATS_PER_VERTEX);
+		vertexBuffer.position(0);
+		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
+		GLES11.glEnableClientState(GLES11.GL_COLOR_ARRAY);
+		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, STRIDE, vertexBuffer);
+		GLES11.glColorPointer(4, GLES11.GL_FLOAT, STRIDE, colorBuffer);
+		GLES11.glDrawArrays(GLES11.GL_TRIANGLES, 0, vertexCount);
+		GLES11.glDisableClientState(GLES11.GL_COLOR_ARRAY);
+		// The current color is undefined after drawing with a color array
+		GLES11.glColor4f(red(lastColor), green(lastColor), blue(lastColor), alpha(lastColor));
+		drawCallCount++;
+		vertexCount = 0;
+	}
+
+	public int getDrawCallCount() {
+		return drawCallCount;
+	}
+
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	private void ensureCapacity(int count) {
+		if (vertexCount + count > maxVertices) {
+			flush();
+		}
+	}
+
+	private void addVertex(float x, float y, int color) {
+		int i = vertexCount++ * FLOATS_PER_VERTEX;
+		vertices[i] = x;
+		vertices[i + 1] = y;
+		vertices[i + 2] = red(color);
+		vertices[i + 3] = green(color);
+		vertices[i + 4] = blue(color);
+		vertices[i + 5] = alpha(color);
+		lastColor = color;
+	}
+
+	public void addQuad(float left, float top, float right, float bottom, int topLeftColor, int topRightColor,
+			int bottomRightColor, int bottomLeftColor) {
+		ensureCapacity(6);
+		addVertex(left, top, topLeftColor);
+		addVertex(right, top, topRightColor);
+		addVertex(right, bottom, bottomRightColor);
+		addVertex(left, top, topLeftColor);
+		addVertex(right, bottom, bottomRightColor);
+		addVertex(left, bottom, bottomLeftColor);
+	}
+
+	/**
+	 * Adds a line between the given pixel coordinates as a quad through the centers of the pixels.
+	 * As a line of GL_LINES, it is at least one pixel wide, so a thinner horizontal or vertical
+	 * line still covers the centers of its pixels.
+	 */
+	public void addLine(float x1, float y1, float x2, float y2, float width, int color) {
+		float dx = x2 - x1;
+		float dy = y2 - y1;
+		float length = (float) Math.sqrt(dx * dx + dy * dy);
+		if (length == 0) {
+			return;
+		}
+		width = Math.max(1f, width);
+		float nx = -dy / length * width / 2;
+		float ny = dx / length * width / 2;
+		// The pixel centers are half a pixel off the integer coordinates
+		x1 += 0.5f;
+		y1 += 0.5f;
+		x2 += 0.5f;
+		y2 += 0.5f;
+		ensureCapacity(6);
+		addVertex(x1 + nx, y1 + ny, color);
+		addVertex(x2 + nx, y2 + ny, color);
+		addVertex(x2 - nx, y2 - ny, color);
+		addVertex(x1 + nx, y1 + ny, color);
+		addVertex(x2 - nx, y2 - ny, color);
+		addVertex(x1 - nx, y1 - ny, color);
+	}
+
+	/**
+	 * Adds the triangle fan of the given points of a circle.
+	 */
+	public void addFilledCircle(float cx, float cy, float r, int segments, int color) {
+		int count = computeCircle(cx, cy, r, segments, 360);
+		ensureCapacity(3 * (count - 2));
+		for (int i = 1; i < count - 1; i++) {
+			addVertex(circle[0], circle[1], color);
+			addVertex(circle[2 * i], circle[2 * i + 1], color);
+			addVertex(circle[2 * i + 2], circle[2 * i + 3], color);
+		}
+	}
+
+	/**
+	 * Adds the outline of a circle or an arc starting at the top of the circle.
+	 * @param closed connects the last point with the first one as a line loop
+	 * @param dashed connects only every second pair of points as separate lines
+	 */
+	public void addCircleOutline(float cx, float cy, float r, int segments, float angle, boolean closed,
+			boolean dashed, float width, int color) {
+		int count = computeCircle(cx, cy, r, segments, angle);
+		int step = dashed ? 2 : 1;
+		for (int i = 0; i < count - 1; i += step) {
+			addLine(circle[2 * i], circle[2 * i + 1], circle[2 * i + 2], circle[2 * i + 3], width, color);
+		}
+		if (closed) {
+			addLine(circle[2 * count - 2], circle[2 * count - 1], circle[0], circle[1], width, color);
+		}
+	}
+
+	private int computeCircle(float cx, float cy, float r, int segments, float angle) {
+		if (segments > MAX_SEGMENTS) {
+			segments = MAX_SEGMENTS;
+		}
+		float step = angle / (segments - 1);
+		for (int i = 0; i < segments; i++) {
+			float ang = (float) (Math.toRadians(i * step) - Math.PI / 2);
+			circle[2 * i] = (float) (cx + Math.cos(ang) * r);
+			circle[2 * i + 1] = (float) (cy + Math.sin(ang) * r);
+		}
+		return segments;
+	}
+
+	private static float red(int color) {
+		return (color >> 16 & 0xff) / 255.0f;
+	}
+
+	private static float green(int color) {
+		return (color >> 8 & 0xff) / 255.0f;
+	}
+
+	private static float blue(int color) {
+		return (color & 0xff) / 255.0f;
+	}
+
+	private static float alpha(int color) {
+		return (color >>> 24) / 255.0f;
+	}
+}
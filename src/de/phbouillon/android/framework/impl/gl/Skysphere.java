@@ -44,23 +44,23 @@ public class Skysphere extends Sphere implements Serializable {
     }
 
 	public void render() {
-		GLES11.glDisableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
+		GlState.disableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.disable(GLES11.GL_CULL_FACE);
 
 		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, vertexBuffer);
 		GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, texCoordBuffer);
 
-		GLES11.glDisable(GLES11.GL_LIGHTING);
+		GlState.disable(GLES11.GL_LIGHTING);
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
 		Alite.get().getTextureManager().setTexture(textureFilename);
-		GLES11.glDrawArrays(glDrawMode, 0, numberOfVertices);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
+		drawArrays();
+		GlState.enable(GLES11.GL_LIGHTING);
 
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, 0);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.disableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.bindTexture(0);
 	}
 }
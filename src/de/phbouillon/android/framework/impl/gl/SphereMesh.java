@@ -0,0 +1,167 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.phbouillon.android.framework.SpriteData;
+
+/**
+ * Vertices, normals and texture coordinates of a sphere with a radius of 1, built once
+ * for each tessellation and shared by all spheres using it. The size of a sphere is
+ * applied by scaling the model view matrix, so the buffers must not be changed.
+ * The vertices of a sphere with radius 1 are its normals, so they share one buffer.
+ */
+final class SphereMesh {
+	private static final Map<String, SphereMesh> meshes = new HashMap<>();
+
+	final int numberOfVertices;
+	final FloatBuffer vertexBuffer;
+	final FloatBuffer normalBuffer;
+	final FloatBuffer texCoordBuffer;
+
+	static synchronized SphereMesh get(int slices, int stacks, boolean inside, boolean hasTexture,
+			boolean hasNormals, SpriteData spriteData) {
+		String key = slices + " " + stacks + " " + inside + " " + hasTexture + " " + hasNormals +
+			(spriteData == null ? "" : " " + spriteData.x + " " + spriteData.y + " " + spriteData.x2 + " " + spriteData.y2);
+		SphereMesh mesh = meshes.get(key);
+		if (mesh == null) {
+			mesh = new SphereMesh(slices, stacks, inside, hasTexture, hasNormals, spriteData);
+			meshes.put(key, mesh);
+		}
+		return mesh;
+	}
+
+	static synchronized int getMeshCount() {
+		return meshes.size();
+	}
+
+	private SphereMesh(int slices, int stacks, boolean inside, boolean hasTexture, boolean hasNormals,
+			SpriteData spriteData) {
+		numberOfVertices = slices * stacks * 6;
+		float[] vertices = new float[3 * numberOfVertices];
+		float[] texCoords = hasTexture ? new float[2 * numberOfVertices] : null;
+		plotSpherePoints(slices, stacks, inside, spriteData, vertices, texCoords);
+
+		vertexBuffer = GlUtils.toFloatBufferPositionZero(vertices);
+		normalBuffer = hasNormals ? vertexBuffer : null;
+		texCoordBuffer = hasTexture ? GlUtils.toFloatBufferPositionZero(texCoords) : null;
+	}
+
+	/**
+	 * @return the sine and cosine of the angles the loop starting at 0 reaches if it
+	 * adds the step until the limit is reached, and of the angle one step after.
+	 */
+	private static double[][] sinCosTable(float step, double limit) {
+		int count = 0;
+		for (float angle = 0f; angle < limit; angle += step) {
+			count++;
+		}
+		double[][] table = new double[2][count + 1];
+		float angle = 0f;
+		for (int i = 0; i <= count; i++, angle += step) {
+			table[0][i] = Math.sin(angle);
+			table[1][i] = Math.cos(angle);
+		}
+		return table;
+	}
+
+	private static void plotSpherePoints(int slices, int stacks, boolean inside, SpriteData spriteData,
+			float[] vertices, float[] texCoords) {
+		float phi_step = (float) (2.0f * Math.PI / (slices - 1));
+		float theta_step = (float) (Math.PI / (stacks - 1));
+		double[][] phiTable = sinCosTable(phi_step, 2.0 * Math.PI);
+		double[] sinPhi = phiTable[0];
+		double[] cosPhi = phiTable[1];
+		double[][] thetaTable = sinCosTable(theta_step, Math.PI);
+		double[] sinTheta = thetaTable[0];
+		double[] cosTheta = thetaTable[1];
+
+		float u, v;
+		float u_step = 1.0f / (slices - 1);
+		float v_step = -1.0f / (stacks - 1);
+
+		int vertexOffset = 0;
+		int texCoordOffset = 0;
+		int i, j;
+		float phi, theta;
+
+		/* Step 360 degrees around pole (slice loop) */
+		for (phi = 0f, u = 0f, i = 0; phi < 2.0 * Math.PI; phi += phi_step, u += u_step, i++) {
+			/* For current slice calculate 180 degree stack from pole to pole */
+			for (theta = 0, v = 0, j = 0; theta < Math.PI; theta += theta_step, v += v_step, j++) {
+				/*
+				 * Calculate quad. Original showed a pole facing viewer so swapped
+				 * Y and Z to have poles going up/down rather than rotate geometry;
+				 * also negated new Y (the old Z) to flip texture so North pole
+				 * is up.
+				 */
+				float x1 = (float) (sinPhi[i] * sinTheta[j]);
+				float y1 = (float) -cosTheta[j];
+				float z1 = (float) (cosPhi[i] * sinTheta[j]);
+
+				float x2 = (float) (sinPhi[i + 1] * sinTheta[j]);
+				float y2 = (float) -cosTheta[j];
+				float z2 = (float) (cosPhi[i + 1] * sinTheta[j]);
+
+				float x3 = (float) (sinPhi[i + 1] * sinTheta[j + 1]);
+				float y3 = (float) -cosTheta[j + 1];
+				float z3 = (float) (cosPhi[i + 1] * sinTheta[j + 1]);
+
+				float x4 = (float) (sinPhi[i] * sinTheta[j + 1]);
+				float y4 = (float) -cosTheta[j + 1];
+				float z4 = (float) (cosPhi[i] * sinTheta[j + 1]);
+
+				/*
+				 * Split quad into 2 triangles (although 2 vertices are shared we output
+				 * 6 vertices because the shared vertices will need different uv values;
+				 * an index array would provide a TnL performance improvement).
+				 */
+				vertexOffset = put(vertices, vertexOffset, x1, y1, z1, x2, y2, z2, x3, y3, z3);
+				vertexOffset = put(vertices, vertexOffset, x1, y1, z1, x3, y3, z3, x4, y4, z4);
+
+				if (texCoords == null) {
+					continue;
+				}
+				if (spriteData == null) {
+					float u1 = inside ? -u : u;
+					float u2 = inside ? -(u + u_step) : u + u_step;
+					texCoordOffset = put(texCoords, texCoordOffset, u1, v, u2, v, u2, v + v_step);
+					texCoordOffset = put(texCoords, texCoordOffset, u1, v, u2, v + v_step, u1, v + v_step);
+				} else {
+					float dx = spriteData.x2 - spriteData.x;
+					float dy = spriteData.y2 - spriteData.y;
+					float s1 = spriteData.x + u * dx;
+					float s2 = spriteData.x + (u + u_step) * dx;
+					float t1 = spriteData.y + v * dy;
+					float t2 = spriteData.y + (v + v_step) * dy;
+					texCoordOffset = put(texCoords, texCoordOffset, s1, t1, s2, t1, s2, t2);
+					texCoordOffset = put(texCoords, texCoordOffset, s1, t1, s2, t2, s1, t2);
+				}
+			}
+		}
+	}
+
+	private static int put(float[] array, int offset, float... values) {
+		System.arraycopy(values, 0, array, offset, values.length);
+		return offset + values.length;
+	}
+}
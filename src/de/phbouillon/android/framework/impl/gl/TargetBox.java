@@ -78,18 +78,18 @@ public class TargetBox implements Serializable {
 
 	public void render(int color, float a) {
 		Alite.get().getTextureManager().setTexture(null);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
 		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, lineBuffer);
 		Alite.get().getGraphics().setColor(color, a);
-		GLES11.glDisable(GLES11.GL_LIGHTING);
+		GlState.disable(GLES11.GL_LIGHTING);
 		GLES11.glLineWidth(5);
 		GLES11.glDrawArrays(GLES11.GL_LINES, 0, 24);
 		GLES11.glLineWidth(1);
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_CULL_FACE);
 	}
 }
@@ -23,6 +23,7 @@ import android.content.res.Configuration;
 import android.opengl.GLES11;
 import android.os.Bundle;
 import android.view.Menu;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.Screen;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.impl.AndroidGame;
@@ -114,6 +115,7 @@ public class Alite extends AndroidGame {
 		final Thread.UncaughtExceptionHandler oldHandler = Thread.getDefaultUncaughtExceptionHandler();
 		Thread.setDefaultUncaughtExceptionHandler((paramThread, paramThrowable) -> {
 			AliteLog.e("Uncaught Exception (Alite)", "Message: " + (paramThrowable == null ? "<null>" : paramThrowable.getMessage()), paramThrowable);
+			AliteLog.flush();
 			if (oldHandler != null) {
 				oldHandler.uncaughtException(paramThread, paramThrowable);
 			} else {
@@ -129,7 +131,7 @@ public class Alite extends AndroidGame {
 
 	public void initialize() {
 		if (generator == null) {
-			generator = new GalaxyGenerator();
+			generator = new GalaxyGenerator(getFileIO());
 			generator.buildGalaxy(1);
 		}
 		if (player == null) {
@@ -254,7 +256,7 @@ public class Alite extends AndroidGame {
 		if (MissionManager.getInstance().getActiveMissions().isEmpty()) {
 			player.increaseJumpCounter();
 		}
-		boolean willEnterWitchSpace = player.getRating().ordinal() > Rating.POOR.ordinal() && Math.random() <= 0.02;
+		boolean willEnterWitchSpace = player.getRating().ordinal() > Rating.POOR.ordinal() && GameRandom.nextDouble() <= 0.02;
 		if (getCobra().getPitch() <= -2.0f && getCobra().getRoll() <= -2.0f) {
 			willEnterWitchSpace = true;
 		} else {
@@ -324,7 +326,7 @@ public class Alite extends AndroidGame {
 			AliteLog.d("Saving state", "Saving state could not identify current screen, hence the state file was deleted.");
 			return;
 		}
-		try (OutputStream stateFile = getFileIO().writeFile(AliteStartManager.ALITE_STATE_FILE)) {
+		try (OutputStream stateFile = new BufferedOutputStream(getFileIO().writeFile(AliteStartManager.ALITE_STATE_FILE))) {
 			stateFile.write(screenCode);
 			screen.saveScreenState(new DataOutputStream(stateFile));
 			AliteLog.d("Saving state", "Saving state completed successfully.");
@@ -369,6 +371,11 @@ public class Alite extends AndroidGame {
 				AliteLog.e("[ALITE]", "Autosaving commander failed.", e);
 			}
 		}
+		try {
+			fileUtils.waitForSave();
+		} catch (IOException e) {
+			AliteLog.e("[ALITE]", "Autosaving commander failed.", e);
+		}
 		while (saving) {
 			AliteLog.d("OnStop", "Still saving...");
 			try {
@@ -376,6 +383,7 @@ public class Alite extends AndroidGame {
 			} catch (InterruptedException ignored) { }
 		}
 		AliteLog.e("Alite.OnStop", "Stopping Alite Done.");
+		AliteLog.flush();
 		super.onStop();
 	}
 
@@ -530,6 +538,10 @@ public class Alite extends AndroidGame {
 		fileUtils.saveCommander(dos);
 	}
 
+	public final void deleteCommander(String fileName) throws IOException {
+		fileUtils.deleteCommander(fileName);
+	}
+
 	public CommanderData getQuickCommanderInfo(String fileName) {
 		return fileUtils.getQuickCommanderInfo(CommanderData.DIRECTORY_COMMANDER + fileName);
 	}
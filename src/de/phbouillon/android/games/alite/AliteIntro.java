@@ -89,6 +89,7 @@ public class AliteIntro extends Activity implements OnClickListener {
 		Thread.setDefaultUncaughtExceptionHandler((paramThread, paramThrowable) -> {
 			AliteLog.e("Uncaught Exception (AliteIntro)",
 				"Message: " + (paramThrowable == null ? "<null>" : paramThrowable.getMessage()), paramThrowable);
+			AliteLog.flush();
 			if (oldHandler != null) {
 				oldHandler.uncaughtException(paramThread, paramThrowable);
 			} else {
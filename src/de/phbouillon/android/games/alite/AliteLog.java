@@ -19,7 +19,6 @@ package de.phbouillon.android.games.alite;
  */
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.SimpleDateFormat;
@@ -37,21 +36,52 @@ public class AliteLog implements Loggable {
 	public static final int KB = 1024;
 	public static final int MB = 1024 * KB;
 	private static final int GB = 1024 * MB;
+	private static final int MAX_LOG_FILE_SIZE = 4 * MB;
+
+	public static final int DEBUG = 0;
+	public static final int WARNING = 1;
+	public static final int ERROR = 2;
 
 	private static Loggable instance;
 
-	private FileIO fileIO;
-	private String logFilename;
-	private boolean first = true;
-	private long started;
+	private final FileIO fileIO;
+	private final String logFilename;
+	private volatile LogWriter writer;
+
+	/**
+	 * Message of a log entry which is only built if the entry is logged.
+	 */
+	public interface Message {
+		String get();
+	}
 
 	public AliteLog(FileIO fileIO, String logFilename) {
 		this.fileIO = fileIO;
 		this.logFilename = logFilename;
 	}
 
+	/**
+	 * @return true if messages of the given level are written anywhere.
+	 */
+	public static boolean isLoggable(int level) {
+		return level >= Settings.logLevel && instance.isEnabled();
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return !Settings.suppressOnlineLog || Settings.logToFile && fileIO != null;
+	}
+
 	public static void d(String title, String message) {
-		instance.debug(title, message);
+		if (isLoggable(DEBUG)) {
+			instance.debug(title, message);
+		}
+	}
+
+	public static void d(String title, Message message) {
+		if (isLoggable(DEBUG)) {
+			instance.debug(title, message.get());
+		}
 	}
 
 	@Override
@@ -66,7 +96,15 @@ public class AliteLog implements Loggable {
 	}
 
 	public static void w(String title, String message) {
-		instance.warning(title, message);
+		if (isLoggable(WARNING)) {
+			instance.warning(title, message);
+		}
+	}
+
+	public static void w(String title, Message message) {
+		if (isLoggable(WARNING)) {
+			instance.warning(title, message.get());
+		}
 	}
 
 	@Override
@@ -81,7 +119,9 @@ public class AliteLog implements Loggable {
 	}
 
 	public static void e(String title, String message) {
-		instance.error(title, message);
+		if (isLoggable(ERROR)) {
+			instance.error(title, message);
+		}
 	}
 
 	@Override
@@ -96,7 +136,9 @@ public class AliteLog implements Loggable {
 	}
 
 	public static void e(String title, String message, Throwable cause) {
-		instance.error(title, message, cause);
+		if (isLoggable(ERROR)) {
+			instance.error(title, message, cause);
+		}
 	}
 
 	@Override
@@ -110,6 +152,23 @@ public class AliteLog implements Loggable {
 		internalWrite("[Error]", title, message, cause);
 	}
 
+	/**
+	 * Waits until the logged messages are written to the log file.
+	 */
+	public static void flush() {
+		if (instance != null) {
+			instance.flushLog();
+		}
+	}
+
+	@Override
+	public void flushLog() {
+		LogWriter logWriter = writer;
+		if (logWriter != null) {
+			logWriter.flush();
+		}
+	}
+
 	private String toReadableMemString(long memory) {
 		if (memory > GB) {
 			return StringUtil.format("%3.2f GB", (float)memory / GB);
@@ -158,45 +217,24 @@ public class AliteLog implements Loggable {
 
 	}
 
-	private void outputDeviceInfo(OutputStream logFile) throws IOException {
-		logFile.write(getDeviceInfo().getBytes());
-	}
-
 	private void internalWrite(String tag, String title, String message, Throwable cause) {
 		if (!Settings.logToFile || fileIO == null) {
 			return;
 		}
-		try {
-			fileIO.mkDir("logs");
-			OutputStream logFile = fileIO.appendFile(logFilename);
-			String errorText = null;
-			if (cause != null) {
-				StringWriter sw = new StringWriter();
-				PrintWriter pw = new PrintWriter(sw);
-				cause.printStackTrace(pw);
-				pw.close();
-				errorText = cause.getMessage() + "\n" + sw;
-			}
-			if (first) {
-				first = false;
-				started = System.currentTimeMillis();
-				logFile.write(("Info - " + AliteConfig.GAME_NAME + " Started - " +
-					AliteConfig.GAME_NAME + " version " + AliteConfig.VERSION_STRING + " started on " +
-					SimpleDateFormat.getDateTimeInstance().format(new Date()) + "\n").getBytes());
-				outputDeviceInfo(logFile);
-			}
-			long current = System.currentTimeMillis();
-
-			String result = "[" + SimpleDateFormat.getTimeInstance().format(new Date(current)) + ", " +
-				(current - started) + "ms] - " + tag + " - " + title + " - " + message +
-				(errorText == null ? "" : " - " + errorText) + "\n";
-//			result += getMemoryData();
-			logFile.write(result.getBytes());
-			logFile.close();
-		} catch (IOException e) {
-			e.printStackTrace();
+		LogWriter logWriter = writer;
+		if (logWriter == null) {
+			logWriter = createWriter();
 		}
+		logWriter.write(tag, title, message, cause);
+	}
 
+	private synchronized LogWriter createWriter() {
+		if (writer == null) {
+			writer = new LogWriter(fileIO, logFilename, MAX_LOG_FILE_SIZE, "Info - " + AliteConfig.GAME_NAME + " Started - " +
+				AliteConfig.GAME_NAME + " version " + AliteConfig.VERSION_STRING + " started on " +
+				SimpleDateFormat.getDateTimeInstance().format(new Date()) + "\n" + getDeviceInfo());
+		}
+		return writer;
 	}
 
 	@Override
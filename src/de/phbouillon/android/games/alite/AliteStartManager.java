@@ -20,8 +20,6 @@ package de.phbouillon.android.games.alite;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 import android.annotation.SuppressLint;
 import android.app.Activity;
@@ -47,6 +45,7 @@ import de.phbouillon.android.framework.impl.AndroidFileIO;
 import de.phbouillon.android.games.alite.io.AliteDownloaderService;
 import de.phbouillon.android.games.alite.io.AliteFiles;
 import de.phbouillon.android.games.alite.model.generator.StringUtil;
+import de.phbouillon.android.games.alite.oxp.OXPLoader;
 import de.phbouillon.android.games.alite.oxp.OXPParser;
 import de.phbouillon.android.games.alite.screens.canvas.PluginsScreen;
 import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObjectFactory;
@@ -143,6 +142,7 @@ public class AliteStartManager extends Activity implements IDownloaderClient {
 		Thread.setDefaultUncaughtExceptionHandler((paramThread, paramThrowable) -> {
 			AliteLog.e("Uncaught Exception (AliteStartManager)",
 				"Message: " + (paramThrowable == null ? "<null>" : paramThrowable.getMessage()), paramThrowable);
+			AliteLog.flush();
 			if (oldHandler != null) {
 				oldHandler.uncaughtException(paramThread, paramThrowable);
 			} else {
@@ -260,15 +260,15 @@ public class AliteStartManager extends Activity implements IDownloaderClient {
 					return;
 				}
 				AliteLog.d("loadBundledPlugins", "Started");
+				OXPLoader loader = new OXPLoader();
 				for (String pluginName : plugins) {
-					new OXPParser(PluginModel.DIRECTORY_PLUGINS + pluginName,
+					loader.add(new OXPParser(PluginModel.DIRECTORY_PLUGINS + pluginName,
 						fileName -> assetManager.open(PluginModel.DIRECTORY_PLUGINS + pluginName +
 							File.separatorChar + fileName),
 						directory -> assetManager.list(PluginModel.DIRECTORY_PLUGINS + pluginName +
-							File.separatorChar + directory)).isPlugged();
-					pluginProgress++;
-					publishProgress(pluginName);
+							File.separatorChar + directory)).setContentCache(fileIO));
 				}
+				loader.load(this::pluginLoaded);
 			} catch (IOException e) {
 				AliteLog.e("Bundled plugin load error", "Failed to load bundled plugin.", e);
 			}
@@ -287,17 +287,14 @@ public class AliteStartManager extends Activity implements IDownloaderClient {
 				return;
 			}
 			AliteLog.d("loadLocaleDependentPlugins", "Started");
+			// The files of the plugins are read from the same language pack
+			OXPLoader loader = new OXPLoader(1);
 			for (String pluginName : plugins) {
-				try {
-					new OXPParser(PluginModel.DIRECTORY_PLUGINS + pluginName,
-						fileName -> L.raw(PluginModel.DIRECTORY_PLUGINS + pluginName + File.separatorChar, fileName),
-						null).setLocaleDependent().isPlugged();
-					pluginProgress++;
-					publishProgress(pluginName);
-				} catch (IOException e) {
-					AliteLog.e("Plugin localization error", "Failed to load localization of plugin.", e);
-				}
+				loader.add(new OXPParser(PluginModel.DIRECTORY_PLUGINS + pluginName,
+					fileName -> L.raw(PluginModel.DIRECTORY_PLUGINS + pluginName + File.separatorChar, fileName),
+					null).setLocaleDependent());
 			}
+			loader.load(this::pluginLoaded);
 			loadExternalPlugins(true);
 		}
 
@@ -322,48 +319,25 @@ public class AliteStartManager extends Activity implements IDownloaderClient {
 				pluginTotal += plugins.length;
 				return;
 			}
-			List<OXPParser> pendingPlugins = new ArrayList<>();
-			List<OXPParser> installedPlugins = new ArrayList<>();
+			OXPLoader loader = new OXPLoader();
 			for (File f : plugins) {
 				try {
-					final OXPParser plugin = new OXPParser(fileIO, directory + f.getName(), installedPlugins);
+					final OXPParser plugin = new OXPParser(fileIO, directory + f.getName(), loader.getInstalledPlugins());
 					if (localeDependent) {
 						plugin.setLocaleDependent();
 					}
-					if (!plugin.isPluginFile()) {
-						// localization of program itself is already set by button languages on options screen
-						continue;
-					}
-					if (plugin.isPlugged()) {
-						pluginProgress++;
-						publishProgress(f.getName());
-						installedPlugins.add(plugin);
-					} else {
-						pendingPlugins.add(plugin);
-					}
+					// localization of program itself is already set by button languages on options screen
+					loader.add(plugin);
 				} catch (IOException e) {
 					AliteLog.e("Plugin load error", "Failed to load plugin " + f.getPath(), e);
 				}
 			}
-			if (pendingPlugins.isEmpty()) {
-				return;
-			}
-			boolean handled = false;
-			do {
-				for (OXPParser plugin : pendingPlugins) {
-					try {
-						if (plugin.isPlugged()) {
-							publishProgress(plugin.getPluginName());
-							installedPlugins.add(plugin);
-							pendingPlugins.remove(plugin);
-							handled = true;
-						}
-					} catch (IOException e) {
-						pendingPlugins.remove(plugin);
-						AliteLog.e("Plugin load error", "Failed to load plugin " + plugin.getIdentifier(), e);
-					}
-				}
-			} while (handled);
+			loader.load(this::pluginLoaded);
+		}
+
+		private void pluginLoaded(String pluginName) {
+			pluginProgress++;
+			publishProgress(pluginName);
 		}
 	}
 
@@ -437,6 +411,7 @@ public class AliteStartManager extends Activity implements IDownloaderClient {
 	    }
 		super.onStop();
 		AliteLog.d("AliteStartManager.onStop", "onStop end");
+		AliteLog.flush();
 	}
 
 	@Override
@@ -111,7 +111,7 @@ public class L implements Language {
 	private static Locale currentLocale;
 	private final Map<Locale,List<String>> locales = new HashMap<>();
 	private boolean isDefaultLanguage;
-	private ScriptEngine engine;
+	private ScriptCache scriptCache;
 	private static Language instance = new L();
 
 	private L() {
@@ -265,7 +265,7 @@ public class L implements Language {
 			toJs = currentResourceBundle;
 		}
 
-		engine = new ScriptEngineManager().getEngineByName("rhino");
+		ScriptEngine engine = new ScriptEngineManager().getEngineByName("rhino");
 		if (toJs.get(R.string.js) != null) {
 			try {
 				engine.eval(toJs.get(R.string.js));
@@ -273,6 +273,7 @@ public class L implements Language {
 				AliteLog.e("ScriptEvaluation", "Error during initialization java script", e);
 			}
 		}
+		scriptCache = new ScriptCache(engine, ScriptCache.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -411,7 +412,7 @@ public class L implements Language {
 				if (e < 0) {
 					return statement;
 				}
-				String eval = (String) engine.eval(statement.substring(b + 4, e));
+				String eval = scriptCache.eval(statement.substring(b + 4, e));
 				statement = statement.replace(statement.substring(b, e + 5), eval);
 			}
 		} catch (ScriptException ex) {
@@ -420,6 +421,10 @@ public class L implements Language {
 		}
 	}
 
+	ScriptCache getScriptCache() {
+		return scriptCache;
+	}
+
 	@Override
 	public String[] arrayById(@ArrayRes int id) {
 		String[] resArray = currentResourceArrayBundle.get(id);
@@ -486,6 +491,10 @@ public class L implements Language {
 	@Override
 	public InputStream rawAssetsByFilename(String fileName) throws IOException {
 		if (currentLanguagePack == null) {
+			// headless without an android context
+			if (res == null) {
+				throw new FileNotFoundException("No resources to open asset " + fileName);
+			}
 			return res.getAssets().open(fileName);
 		}
 		return raw(DIRECTORY_ASSETS, fileName);
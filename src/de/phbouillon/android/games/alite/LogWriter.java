@@ -0,0 +1,238 @@
+package de.phbouillon.android.games.alite;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import de.phbouillon.android.framework.FileIO;
+
+/**
+ * Writes the log file on a background thread.
+ * The logging threads only put their messages into a ring buffer, a writer thread formats
+ * them and appends them to the log file in batches while keeping the file open.
+ * A slot of the ring buffer can be filled if its sequence equals the sequence claimed by
+ * the logging thread and read if it is one more, so claiming a slot is a single atomic
+ * increment and no lock is needed on either side. Logging threads only wait if the buffer
+ * is full. If the log file exceeds its maximum size, a new part is started and the oldest
+ * parts are deleted.
+ */
+final class LogWriter {
+	private static final int CAPACITY = 4096;
+	private static final int MASK = CAPACITY - 1;
+	private static final int MAX_PARTS = 5;
+	private static final int MAX_BATCH_SIZE = 64 * AliteLog.KB;
+	private static final long IDLE_NANOS = 250 * 1000000L;
+	private static final long FULL_WAIT_NANOS = 100 * 1000L;
+	private static final long FLUSH_TIMEOUT_NANOS = 2000 * 1000000L;
+
+	private final FileIO fileIO;
+	private final String logFilename;
+	private final int maxFileSize;
+	private final String header;
+
+	private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+	private final long[] times = new long[CAPACITY];
+	private final String[] tags = new String[CAPACITY];
+	private final String[] titles = new String[CAPACITY];
+	private final String[] messages = new String[CAPACITY];
+	private final Throwable[] causes = new Throwable[CAPACITY];
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+	private volatile long written;
+	private volatile Thread writerThread;
+
+	// Used by the writer thread only
+	private final StringBuilder batch = new StringBuilder();
+	private final DateFormat timeFormat = SimpleDateFormat.getTimeInstance();
+	private final Date date = new Date();
+	private OutputStream logFile;
+	private long started;
+	private int part;
+	private int fileSize;
+
+	LogWriter(FileIO fileIO, String logFilename, int maxFileSize, String header) {
+		this.fileIO = fileIO;
+		this.logFilename = logFilename;
+		this.maxFileSize = maxFileSize;
+		this.header = header;
+		for (int i = 0; i < CAPACITY; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	void write(String tag, String title, String message, Throwable cause) {
+		if (writerThread == null) {
+			startWriter();
+		}
+		long sequence = tail.getAndIncrement();
+		int index = (int) sequence & MASK;
+		while (sequences.get(index) != sequence) {
+			LockSupport.unpark(writerThread);
+			LockSupport.parkNanos(FULL_WAIT_NANOS);
+		}
+		times[index] = System.currentTimeMillis();
+		tags[index] = tag;
+		titles[index] = title;
+		messages[index] = message;
+		causes[index] = cause;
+		sequences.lazySet(index, sequence + 1);
+		if (cause != null || sequence - head >= CAPACITY / 2) {
+			LockSupport.unpark(writerThread);
+		}
+	}
+
+	/**
+	 * Waits until the messages written before are in the log file, but at most 2 seconds
+	 * not to block a stopping or crashing application for long.
+	 */
+	void flush() {
+		Thread writer = writerThread;
+		if (writer == null || writer == Thread.currentThread()) {
+			return;
+		}
+		long target = tail.get();
+		long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+		while (written < target && System.nanoTime() < deadline) {
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(FULL_WAIT_NANOS);
+		}
+	}
+
+	private synchronized void startWriter() {
+		if (writerThread != null) {
+			return;
+		}
+		Thread thread = new Thread(this::run, "Log writer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		writerThread = thread;
+		thread.start();
+	}
+
+	private void run() {
+		while (true) {
+			if (!drain()) {
+				LockSupport.parkNanos(IDLE_NANOS);
+			}
+		}
+	}
+
+	private boolean drain() {
+		long next = head;
+		while (sequences.get((int) next & MASK) == next + 1) {
+			int index = (int) next & MASK;
+			append(times[index], tags[index], titles[index], messages[index], causes[index]);
+			tags[index] = null;
+			titles[index] = null;
+			messages[index] = null;
+			causes[index] = null;
+			sequences.lazySet(index, next + CAPACITY);
+			head = ++next;
+			if (batch.length() >= MAX_BATCH_SIZE) {
+				break;
+			}
+		}
+		if (batch.length() == 0) {
+			return false;
+		}
+		writeBatch();
+		written = next;
+		return true;
+	}
+
+	private void append(long time, String tag, String title, String message, Throwable cause) {
+		if (started == 0) {
+			started = time;
+		}
+		date.setTime(time);
+		batch.append('[').append(timeFormat.format(date)).append(", ").append(time - started).append("ms] - ")
+			.append(tag).append(" - ").append(title).append(" - ").append(message);
+		if (cause != null) {
+			StringWriter sw = new StringWriter();
+			PrintWriter pw = new PrintWriter(sw);
+			cause.printStackTrace(pw);
+			pw.close();
+			batch.append(" - ").append(cause.getMessage()).append('\n').append(sw);
+		}
+		batch.append('\n');
+	}
+
+	private void writeBatch() {
+		byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+		batch.setLength(0);
+		try {
+			if (logFile != null && fileSize + bytes.length > maxFileSize) {
+				logFile.close();
+				logFile = null;
+				part++;
+				if (part >= MAX_PARTS) {
+					fileIO.deleteFile(getPartFilename(part - MAX_PARTS));
+				}
+			}
+			if (logFile == null) {
+				openLogFile();
+			}
+			logFile.write(bytes);
+			logFile.flush();
+			fileSize += bytes.length;
+		} catch (IOException e) {
+			e.printStackTrace();
+			closeLogFile();
+		}
+	}
+
+	private void openLogFile() throws IOException {
+		fileIO.mkDir("logs");
+		logFile = fileIO.appendFile(getPartFilename(part));
+		fileSize = 0;
+		byte[] bytes = ((part == 0 ? "" : "Part " + (part + 1) + " of ") + header).getBytes(StandardCharsets.UTF_8);
+		logFile.write(bytes);
+		fileSize += bytes.length;
+	}
+
+	private void closeLogFile() {
+		if (logFile == null) {
+			return;
+		}
+		try {
+			logFile.close();
+		} catch (IOException ignored) {
+		}
+		logFile = null;
+	}
+
+	String getPartFilename(int part) {
+		if (part == 0) {
+			return logFilename;
+		}
+		int extension = logFilename.lastIndexOf('.');
+		return extension < 0 ? logFilename + "-" + (part + 1) :
+			logFilename.substring(0, extension) + "-" + (part + 1) + logFilename.substring(extension);
+	}
+}
@@ -23,6 +23,8 @@ public interface Loggable {
 	void warning(String title, String message);
 	void error(String title, String message);
 	void error(String title, String message, Throwable cause);
+	boolean isEnabled();
+	void flushLog();
 
 	String getGlVendorData(int name);
 	String getMemoryData();
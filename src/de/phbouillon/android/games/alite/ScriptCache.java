@@ -0,0 +1,74 @@
+package de.phbouillon.android.games.alite;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizes the results of the java script fragments of the localized texts.
+ * The fragments are evaluated after formatting, so their source already contains
+ * the arguments and equal sources always give the same result: the functions
+ * of the language packs only compute grammatical forms of their arguments.
+ * The least recently used results are dropped if the cache is full.
+ */
+final class ScriptCache {
+	static final int DEFAULT_CAPACITY = 1024;
+
+	private final ScriptEngine engine;
+	private final Map<String,String> results;
+	private int hitCount;
+	private int missCount;
+
+	ScriptCache(ScriptEngine engine, final int capacity) {
+		this.engine = engine;
+		results = new LinkedHashMap<String,String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 2712306519452717347L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,String> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	synchronized String eval(String script) throws ScriptException {
+		String result = results.get(script);
+		if (result != null) {
+			hitCount++;
+			return result;
+		}
+		missCount++;
+		result = (String) engine.eval(script);
+		if (result != null) {
+			results.put(script, result);
+		}
+		return result;
+	}
+
+	synchronized int getHitCount() {
+		return hitCount;
+	}
+
+	synchronized int getMissCount() {
+		return missCount;
+	}
+}
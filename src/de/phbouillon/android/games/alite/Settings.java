@@ -56,7 +56,9 @@ public class Settings {
 	public static boolean animationsEnabled = true;
 	private static boolean debugActive = false;
 	public static boolean logToFile = ALWAYS_WRITE_LOG;
+	public static int logLevel = AliteLog.DEBUG;
 	public static boolean displayFrameRate = false;
+	public static boolean fixedTimeStep = false;
 	public static boolean displayDockingInformation = false;
 	public static boolean memDebug = false;
 	static boolean onlineMemDebug = false;
@@ -169,6 +171,14 @@ public class Settings {
 			if (line != null) {
 				vibrateLevelOnHit = Float.parseFloat(line);
 			}
+			line = in.readLine();
+			if (line != null) {
+				fixedTimeStep = Boolean.parseBoolean(line);
+			}
+			line = in.readLine();
+			if (line != null) {
+				logLevel = Integer.parseInt(line);
+			}
 		} catch (IOException | NumberFormatException ignored) {
 			dockingComputerSpeed = fastDC ? 2 : 0;
 			continuousTutorialMode = true;
@@ -262,6 +272,8 @@ public class Settings {
 			out.write(Medal.getGameLevelMedals() + "\n");
 			out.write(watchedTocEntries + "\n");
 			out.write(vibrateLevelOnHit + "\n");
+			out.write(fixedTimeStep + "\n");
+			out.write(logLevel + "\n");
 		} catch (IOException ignored) { }
 	}
 }
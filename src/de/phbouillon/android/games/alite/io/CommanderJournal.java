@@ -0,0 +1,134 @@
+package de.phbouillon.android.games.alite.io;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.Iterator;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Keeps track of the game state last written to the auto saved commander file.
+ * Between two full snapshots only the changes of the game state are appended to the
+ * journal file of the commander. Objects are compared entry by entry up to MAX_DEPTH
+ * (the game and the player), deeper values are replaced as a whole if they changed.
+ * Removed entries are marked with JSONObject.NULL.
+ * The journal file starts with the checksum of the snapshot it belongs to, so a journal left
+ * behind by an interrupted save is not applied to the next snapshot of the file.
+ * An instance must only be used by the thread writing the auto saves.
+ */
+final class CommanderJournal {
+	static final String JOURNAL_EXTENSION = ".cmdj";
+	// After this number of journal records the next auto save is a full snapshot again
+	static final int MAX_RECORD_COUNT = 32;
+	private static final int MAX_DEPTH = 2;
+
+	private String fileName;
+	private JSONObject state;
+	private long snapshotChecksum;
+	private int recordCount;
+
+	static String getJournalFileName(String commanderFileName) {
+		int extension = commanderFileName.lastIndexOf('.');
+		return (extension < 0 ? commanderFileName : commanderFileName.substring(0, extension)) + JOURNAL_EXTENSION;
+	}
+
+	/**
+	 * Called after a full snapshot of the given state is written to the given commander file.
+	 * If the file name is null, the next auto save is a full snapshot.
+	 */
+	void reset(String fileName, JSONObject state, long snapshotChecksum) {
+		this.fileName = fileName;
+		this.state = state;
+		this.snapshotChecksum = snapshotChecksum;
+		recordCount = 0;
+	}
+
+	boolean canAppend() {
+		return fileName != null && recordCount < MAX_RECORD_COUNT;
+	}
+
+	String getFileName() {
+		return fileName;
+	}
+
+	long getSnapshotChecksum() {
+		return snapshotChecksum;
+	}
+
+	int getRecordCount() {
+		return recordCount;
+	}
+
+	JSONObject getChanges(JSONObject newState) throws JSONException {
+		return diff(state, newState);
+	}
+
+	void appended(JSONObject newState) {
+		state = newState;
+		recordCount++;
+	}
+
+	static JSONObject diff(JSONObject previous, JSONObject current) throws JSONException {
+		return diff(previous, current, 1);
+	}
+
+	private static JSONObject diff(JSONObject previous, JSONObject current, int depth) throws JSONException {
+		JSONObject changes = new JSONObject();
+		for (Iterator<String> keys = current.keys(); keys.hasNext(); ) {
+			String key = keys.next();
+			Object value = current.get(key);
+			Object previousValue = previous.opt(key);
+			if (depth < MAX_DEPTH && value instanceof JSONObject && previousValue instanceof JSONObject) {
+				JSONObject objectChanges = diff((JSONObject) previousValue, (JSONObject) value, depth + 1);
+				if (objectChanges.length() > 0) {
+					changes.put(key, objectChanges);
+				}
+			} else if (previousValue == null || !previousValue.toString().equals(value.toString())) {
+				changes.put(key, value);
+			}
+		}
+		for (Iterator<String> keys = previous.keys(); keys.hasNext(); ) {
+			String key = keys.next();
+			if (!current.has(key)) {
+				changes.put(key, JSONObject.NULL);
+			}
+		}
+		return changes;
+	}
+
+	static void apply(JSONObject state, JSONObject changes) throws JSONException {
+		apply(state, changes, 1);
+	}
+
+	private static void apply(JSONObject state, JSONObject changes, int depth) throws JSONException {
+		for (Iterator<String> keys = changes.keys(); keys.hasNext(); ) {
+			String key = keys.next();
+			Object value = changes.get(key);
+			Object stateValue = state.opt(key);
+			if (value == JSONObject.NULL) {
+				state.remove(key);
+			} else if (depth < MAX_DEPTH && value instanceof JSONObject && stateValue instanceof JSONObject) {
+				apply((JSONObject) stateValue, (JSONObject) value, depth + 1);
+			} else {
+				state.put(key, value);
+			}
+		}
+	}
+}
@@ -23,6 +23,12 @@ import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -32,6 +38,9 @@ import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 
 import android.annotation.SuppressLint;
+import de.phbouillon.android.framework.FileIO;
+import org.json.JSONException;
+import org.json.JSONObject;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.model.CommanderData;
 import de.phbouillon.android.games.alite.model.Equipment;
@@ -52,6 +61,7 @@ import de.phbouillon.android.games.alite.model.trading.TradeGoodStore;
 
 public class FileUtils {
 	private static final String ALITE_COMMANDER_EXTENSION = ".cmdr";
+	private static final String TEMP_EXTENSION = ".tmp";
 
 	private static final String[] keys = new String[] {
         "JMz343q8dmb~yC5UUTf8w151GY99P15=iZ687O(Ae8473L39iz6x468l",
@@ -158,8 +168,15 @@ public class FileUtils {
 	private static final String ENCRYPTION = "Blowfish";
 	private static final int COMMANDER_FILE_FORMAT_VERSION = 4;
 
-	private Cipher cipher;
 	private final Alite game;
+	// Commander files are written by this thread, so the caller only pays for taking the snapshot of the game state
+	private static final ExecutorService saveExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Commander save");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// Only used by the thread of the save executor
+	private final CommanderJournal journal = new CommanderJournal();
 
 	// allowed max. value is 31, after that new field has to be used for version number
 	// from version 4 format changed to json, so it will never be binary incompatibility problems again
@@ -186,18 +203,24 @@ public class FileUtils {
 
 	public FileUtils() {
 		game = Alite.get();
+	}
+
+	// A cipher must not be shared: the save thread encrypts while the caller decrypts commander files
+	private static Cipher createCipher() {
 		try {
-			cipher = Cipher.getInstance(ENCRYPTION);
+			return Cipher.getInstance(ENCRYPTION);
 		} catch (NoSuchAlgorithmException ignored) {
-			AliteLog.e("FileUtils initializer", "Encryption not available");
+			AliteLog.e("FileUtils createCipher", "Encryption not available");
 		} catch (NoSuchPaddingException ignored) {
-			AliteLog.e("FileUtils initialized", "Padding not available");
+			AliteLog.e("FileUtils createCipher", "Padding not available");
 		}
+		return null;
 	}
 
 	@SuppressLint("TrulyRandom")
 	private byte[] encrypt(byte[] toEncrypt, String strKey) {
 		byte[] result = toEncrypt;
+		Cipher cipher = createCipher();
 		if (cipher != null) {
 			try {
 				SecretKeySpec key = new SecretKeySpec(strKey.getBytes(StringUtil.CHARSET), ENCRYPTION);
@@ -212,6 +235,7 @@ public class FileUtils {
 
 	private byte[] decrypt(byte[] toDecrypt, String strKey) {
 		byte[] result = toDecrypt;
+		Cipher cipher = createCipher();
 		if (cipher != null) {
 			try {
 				SecretKeySpec key = new SecretKeySpec(strKey.getBytes(StringUtil.CHARSET), ENCRYPTION);
@@ -611,6 +635,7 @@ public class FileUtils {
 
 	public final void loadCommander(String fileName) throws IOException {
 		AliteLog.d("LOADING COMMANDER", "Filename = " + fileName);
+		waitForSave();
 		byte[] commanderData = getCommanderData(fileName);
 		if (commanderData == null) {
 			throw new IOException("Ouch! Couldn't load commander " + fileName + ". No changes to current commander were made.");
@@ -622,8 +647,73 @@ public class FileUtils {
 	}
 
 	private byte[] getCommanderData(String fileName) throws IOException {
-		return unzipBytes(decrypt(game.getFileIO().readFileContents(fileName,
+		byte[] commanderData = unzipBytes(decrypt(game.getFileIO().readFileContents(fileName,
 			2 + getHeaderLength(fileName)), getKey(fileName)));
+		List<byte[]> records = readJournalRecords(fileName);
+		if (records.isEmpty()) {
+			return commanderData;
+		}
+		return replayJournal(commanderData, records, CommanderJournal.getJournalFileName(fileName));
+	}
+
+	// Applies the changes stored in the journal records to the game state of the given commander data
+	private byte[] replayJournal(byte[] commanderData, List<byte[]> records, String journalFileName) throws IOException {
+		String name;
+		JSONObject state;
+		try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(commanderData))) {
+			if (dis.readByte() < COMMANDER_FILE_FORMAT_VERSION) {
+				return commanderData;
+			}
+			name = readStringWithLength(dis);
+			byte[] buf = new byte[dis.readInt()];
+			dis.readFully(buf);
+			state = new JSONObject(new String(buf));
+		} catch (JSONException e) {
+			throw new IOException(e);
+		}
+		String key = getKey(journalFileName);
+		for (int i = 1; i < records.size(); i += 2) {
+			try {
+				CommanderJournal.apply(state, new JSONObject(new String(unzipBytes(decrypt(records.get(i), key)))));
+			} catch (JSONException | IOException e) {
+				// The rest of the journal cannot be applied without this record
+				AliteLog.e("[Alite] replayJournal", "Invalid record " + (i / 2) + " in journal " + journalFileName + ".", e);
+				break;
+			}
+		}
+		return getCommanderData(name, state.toString());
+	}
+
+	// Returns the complete records of the journal of the given commander file as pairs of encrypted
+	// header and encrypted changes. A record interrupted while being written is ignored, as well as
+	// a journal which belongs to a previous snapshot of the file.
+	private List<byte[]> readJournalRecords(String fileName) throws IOException {
+		List<byte[]> records = new ArrayList<>();
+		String journalFileName = CommanderJournal.getJournalFileName(fileName);
+		if (!game.getFileIO().exists(journalFileName)) {
+			return records;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(game.getFileIO().readFileContents(journalFileName));
+		if (buffer.remaining() < 8 || buffer.getLong() != getChecksum(game.getFileIO().readFileContents(fileName))) {
+			AliteLog.w("[Alite] readJournalRecords", "Journal " + journalFileName + " does not belong to " + fileName + ".");
+			return records;
+		}
+		while (buffer.remaining() >= 2) {
+			byte[] header = new byte[buffer.getShort() & 0xFFFF];
+			if (buffer.remaining() < header.length + 4) {
+				break;
+			}
+			buffer.get(header);
+			int length = buffer.getInt();
+			if (length < 0 || buffer.remaining() < length) {
+				break;
+			}
+			byte[] changes = new byte[length];
+			buffer.get(changes);
+			records.add(header);
+			records.add(changes);
+		}
+		return records;
 	}
 
 	private int getHeaderLength(String fileName) throws IOException {
@@ -636,49 +726,113 @@ public class FileUtils {
 		saveCommander(commanderName, generateRandomFilename());
 	}
 
-	public final void saveCommander(String commanderName, String fileName) throws IOException {
+	public final void saveCommander(String commanderName, final String fileName) throws IOException {
 		Player player = game.getPlayer();
 		if (commanderName == null) {
 			commanderName = player.getName();
 		} else {
 			player.setName(commanderName);
 		}
+		final CommanderData info = getCommanderInfo(fileName);
+		final String state = game.toJson();
+		runOnSaveThread(() -> {
+			if (fileName.equals(journal.getFileName())) {
+				journal.reset(null, null, 0);
+			}
+			writeCommander(info, getCommanderData(info.getName(), state), fileName);
+			return null;
+		});
+		AliteLog.d("[Alite] saveCommander", "Saved Commander '" + player.getName() + "' (v" + COMMANDER_FILE_FORMAT_VERSION + ").");
+	}
+
+	private CommanderData getCommanderInfo(String fileName) {
+		Player player = game.getPlayer();
+		return new CommanderData(player.getName(), player.getCurrentSystem() == null ?
+			L.string(R.string.cmdr_unknown_system) : player.getCurrentSystem().getName(),
+			game.getGameTime(), player.getScore(), player.getRating(), fileName);
+	}
+
+	private byte[] getHeaderData(CommanderData info, String fileName) throws IOException {
 		ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-		DataOutputStream dos = new DataOutputStream(bos);
-		saveCommander(dos);
-		dos.close();
-		byte[] commanderData = encrypt(zipBytes(bos.toByteArray()), getKey(fileName));
+		try (DataOutputStream dos = new DataOutputStream(bos)) {
+			dos.writeByte(COMMANDER_FILE_FORMAT_VERSION);
+			writeString(dos, info.getName());
+			writeString(dos, info.getDockedSystem());
+			dos.writeLong(info.getGameTime());
+			dos.writeInt(info.getPoints());
+			dos.write(info.getRating().ordinal());
+		}
+		return encrypt(bos.toByteArray(), getKey(fileName));
+	}
 
-		bos = new ByteArrayOutputStream(1024);
-		dos = new DataOutputStream(bos);
-		dos.writeByte(COMMANDER_FILE_FORMAT_VERSION);
-		writeString(dos, commanderName);
-		writeString(dos, player.getCurrentSystem() == null ? L.string(R.string.cmdr_unknown_system) : player.getCurrentSystem().getName());
-		dos.writeLong(game.getGameTime());
-		dos.writeInt(player.getScore());
-		dos.write(player.getRating().ordinal());
-		byte[] headerData = encrypt(bos.toByteArray(), getKey(fileName));
-
-		game.getFileIO().mkDir(CommanderData.DIRECTORY_COMMANDER);
-		try (OutputStream fos = game.getFileIO().writeFile(fileName)) {
-			fos.write(headerData.length >> 8);
-			fos.write(headerData.length & 255);
-			fos.write(headerData);
-			fos.write(commanderData);
-		} finally {
-			try {
-				bos.close();
-			} catch (IOException e) {
-				AliteLog.e("[Alite] saveCommander", "Error when writing commander (v" + COMMANDER_FILE_FORMAT_VERSION + ").", e);
-			}
+	private byte[] getCommanderData(String commanderName, String state) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+		try (DataOutputStream dos = new DataOutputStream(bos)) {
+			saveCommander(dos, commanderName, state);
+		}
+		return bos.toByteArray();
+	}
+
+	// The file is written under a temporary name first, so an interrupted save never damages the previous one.
+	// Returns the checksum of the written file.
+	private long writeCommander(CommanderData info, byte[] commanderData, String fileName) throws IOException {
+		byte[] encryptedData = encrypt(zipBytes(commanderData), getKey(fileName));
+		byte[] headerData = getHeaderData(info, fileName);
+		ByteBuffer contents = ByteBuffer.allocate(2 + headerData.length + encryptedData.length);
+		contents.putShort((short) headerData.length);
+		contents.put(headerData);
+		contents.put(encryptedData);
+		FileIO fileIO = game.getFileIO();
+		fileIO.mkDir(CommanderData.DIRECTORY_COMMANDER);
+		String tempFileName = fileName + TEMP_EXTENSION;
+		try (OutputStream fos = fileIO.writeFile(tempFileName)) {
+			fos.write(contents.array());
+		}
+		if (!fileIO.renameFile(tempFileName, fileName)) {
+			fileIO.deleteFile(tempFileName);
+			throw new IOException("Cannot rename " + tempFileName + " to " + fileName + ".");
+		}
+		// The journal belongs to the previous content of the file. If saving stops before it is
+		// deleted, the checksum keeps it from being applied to the new content.
+		fileIO.deleteFile(CommanderJournal.getJournalFileName(fileName));
+		return getChecksum(contents.array());
+	}
+
+	private static long getChecksum(byte[] fileContents) {
+		CRC32 crc = new CRC32();
+		crc.update(fileContents);
+		return crc.getValue();
+	}
+
+	// The first record of a journal is preceded by the checksum of the commander file it belongs to
+	private void appendJournalRecord(CommanderData info, JSONObject changes, String fileName) throws IOException {
+		String journalFileName = CommanderJournal.getJournalFileName(fileName);
+		byte[] headerData = getHeaderData(info, journalFileName);
+		byte[] changesData = encrypt(zipBytes(changes.toString().getBytes()), getKey(journalFileName));
+		boolean first = journal.getRecordCount() == 0;
+		ByteBuffer record = ByteBuffer.allocate((first ? 8 : 0) + 2 + headerData.length + 4 + changesData.length);
+		if (first) {
+			record.putLong(journal.getSnapshotChecksum());
+		}
+		record.putShort((short) headerData.length);
+		record.put(headerData);
+		record.putInt(changesData.length);
+		record.put(changesData);
+		// A single write, so only the last record can be incomplete
+		try (OutputStream fos = first ? game.getFileIO().writeFile(journalFileName) :
+				game.getFileIO().appendFile(journalFileName)) {
+			fos.write(record.array());
 		}
-		AliteLog.d("[Alite] saveCommander", "Saved Commander '" + player.getName() + "' (v" + COMMANDER_FILE_FORMAT_VERSION + ").");
 	}
 
 	public final void saveCommander(DataOutputStream dos) throws IOException {
+		saveCommander(dos, game.getPlayer().getName(), game.toJson());
+	}
+
+	private void saveCommander(DataOutputStream dos, String commanderName, String state) throws IOException {
 		dos.writeByte(COMMANDER_FILE_FORMAT_VERSION);
-		writeString(dos, game.getPlayer().getName());
-		byte[] bytes = game.toJson().getBytes();
+		writeString(dos, commanderName);
+		byte[] bytes = state.getBytes();
 		dos.writeInt(bytes.length);
 		dos.write(bytes);
 	}
@@ -727,76 +881,90 @@ public class FileUtils {
 		return youngestFilename;
 	}
 
-	private void backupCommander(String oldFileName) {
+	private void backupCommander(String oldFileName, long gameTime) {
 		if (!game.getFileIO().exists(oldFileName)) {
 			return;
 		}
 		CommanderData info = getQuickCommanderInfo(oldFileName);
-		if (info == null || info.getGameTime() <= game.getGameTime()) {
+		if (info == null || info.getGameTime() <= gameTime) {
 			return;
 		}
-		String newFileName = generateRandomFilename();
-		ByteArrayInputStream bis = null;
-		OutputStream fos = null;
-		ByteArrayOutputStream bos = null;
 		try {
-			byte[] commanderData = getCommanderData(oldFileName);
-			if (commanderData == null) {
-				AliteLog.e("[Alite] backupCommander",
-					"Ouch! Couldn't load commander " + oldFileName + ". No changes to current commander were made.");
-				return;
-			}
-			bis = new ByteArrayInputStream(commanderData);
-			bos = new ByteArrayOutputStream(1024);
-			byte[] buffer = new byte[1024];
-			int len;
-			while ((len = bis.read(buffer)) != -1) {
-				bos.write(buffer, 0, len);
-			}
-			bis.close();
-			commanderData = encrypt(zipBytes(bos.toByteArray()), getKey(newFileName));
-
-			bos = new ByteArrayOutputStream(1024);
-			DataOutputStream dos = new DataOutputStream(bos);
-			dos.writeByte(COMMANDER_FILE_FORMAT_VERSION);
-			writeString(dos, info.getName());
-			writeString(dos, info.getDockedSystem());
-			dos.writeLong(info.getGameTime());
-			dos.writeInt(info.getPoints());
-			bos.write(info.getRating().ordinal());
-			byte[] headerData = encrypt(bos.toByteArray(), getKey(newFileName));
-
-			game.getFileIO().mkDir(CommanderData.DIRECTORY_COMMANDER);
-			fos = game.getFileIO().writeFile(newFileName);
-			fos.write(headerData.length >> 8);
-			fos.write(headerData.length & 255);
-			fos.write(headerData);
-			fos.write(commanderData);
+			writeCommander(info, getCommanderData(oldFileName), generateRandomFilename());
 		} catch (IOException e) {
 			AliteLog.e("[Alite] backupCommander", "Error while creating backup.", e);
-		} finally {
-			closeResource(bis);
-			closeResource(fos);
-			closeResource(bos);
+			return;
 		}
 		AliteLog.d("[Alite] backupCommander", "Copied Commander '" + info.getName() + "'.");
 	}
 
-	private void closeResource(Closeable res) {
-		try {
-			if (res != null) {
-				res.close();
+	/**
+	 * Takes a snapshot of the game state and writes it on the save thread. If the last auto save
+	 * was written in this session, only the changes are appended to its journal, otherwise the
+	 * game is saved to the oldest auto save slot.
+	 */
+	public final void autoSave() throws IOException {
+		final CommanderData info = getCommanderInfo(CommanderData.DIRECTORY_COMMANDER +
+			CommanderData.AUTO_SAVED_COMMANDER_FILENAME + ALITE_COMMANDER_EXTENSION);
+		final String state = game.toJson();
+		saveExecutor.execute(() -> {
+			try {
+				writeAutoSave(info, state);
+			} catch (IOException | JSONException e) {
+				journal.reset(null, null, 0);
+				AliteLog.e("[Alite] autoSave", "Autosaving commander failed.", e);
 			}
-		} catch (IOException ignored) { }
+		});
 	}
 
-	public final void autoSave() throws IOException {
+	private void writeAutoSave(CommanderData info, String state) throws IOException, JSONException {
+		JSONObject newState = new JSONObject(state);
+		if (journal.canAppend() && game.getFileIO().exists(journal.getFileName())) {
+			appendJournalRecord(info, journal.getChanges(newState), journal.getFileName());
+			journal.appended(newState);
+			return;
+		}
 		String fileName = determineOldestAutosaveSlot();
-		backupCommander(fileName);
-		saveCommander(null, fileName);
+		backupCommander(fileName, info.getGameTime());
+		long checksum = writeCommander(info, getCommanderData(info.getName(), state), fileName);
+		journal.reset(fileName, newState, checksum);
+	}
+
+	/**
+	 * Blocks until all commanders passed to the save thread are written.
+	 */
+	public final void waitForSave() throws IOException {
+		runOnSaveThread(() -> null);
+	}
+
+	private void runOnSaveThread(Callable<Void> task) throws IOException {
+		Future<Void> result = saveExecutor.submit(task);
+		try {
+			result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while saving commander.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	public final void deleteCommander(final String fileName) throws IOException {
+		runOnSaveThread(() -> {
+			if (fileName.equals(journal.getFileName())) {
+				journal.reset(null, null, 0);
+			}
+			game.getFileIO().deleteFile(CommanderJournal.getJournalFileName(fileName));
+			game.getFileIO().deleteFile(fileName);
+			return null;
+		});
 	}
 
 	public final void autoLoad() throws IOException {
+		waitForSave();
 		String autosaveFilename = determineYoungestAutosaveSlot();
 		if (game.getFileIO().exists(autosaveFilename)) {
 			loadCommander(autosaveFilename);
@@ -804,8 +972,7 @@ public class FileUtils {
 	}
 
 	public CommanderData getQuickCommanderInfo(String fileName) {
-		try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(decrypt(
-				game.getFileIO().readPartialFileContents(fileName, 2, getHeaderLength(fileName)), getKey(fileName))))) {
+		try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(getHeaderData(fileName)))) {
 			String name = loadVersionAndPlayerName(dis);
 			String currentSystem = fileFormatVersion == 1 ? readString(dis, 8).trim() : readStringWithLength(dis);
 			long gameTime = dis.readLong();
@@ -818,7 +985,21 @@ public class FileUtils {
 		return null;
 	}
 
+	// The header of the last journal record describes the current state of the commander
+	private byte[] getHeaderData(String fileName) throws IOException {
+		List<byte[]> records = readJournalRecords(fileName);
+		if (!records.isEmpty()) {
+			return decrypt(records.get(records.size() - 2), getKey(CommanderJournal.getJournalFileName(fileName)));
+		}
+		return decrypt(game.getFileIO().readPartialFileContents(fileName, 2, getHeaderLength(fileName)), getKey(fileName));
+	}
+
 	public File[] getCommanderFiles() {
+		try {
+			waitForSave();
+		} catch (IOException e) {
+			AliteLog.e("[Alite] getCommanderFiles", "Saving commander failed.", e);
+		}
 		return game.getFileIO().getFiles(CommanderData.DIRECTORY_COMMANDER, ".*\\" + ALITE_COMMANDER_EXTENSION);
 	}
 
@@ -182,7 +182,7 @@ public class Equipment implements Serializable {
 		return timer.hasPassedSeconds(weaponInfo.getNumericProperty(WeaponProperty.recharge_rate));
 	}
 	public float getRangeSq() {
-		Float range = weaponInfo.getNumericProperty(WeaponProperty.range);
+		float range = weaponInfo.getNumericProperty(WeaponProperty.range);
 		return range * range;
 	}
 
@@ -191,7 +191,7 @@ public class Equipment implements Serializable {
 	}
 
 	public int getDamage() {
-		return weaponInfo.getNumericProperty(WeaponProperty.damage).intValue();
+		return (int) weaponInfo.getNumericProperty(WeaponProperty.damage);
 	}
 
 	public float getShotTemperature() {
@@ -211,7 +211,7 @@ public class Equipment implements Serializable {
 	}
 
 	public int getBeamLength() {
-		return weaponInfo.getNumericProperty(WeaponProperty.beam_length).intValue();
+		return (int) weaponInfo.getNumericProperty(WeaponProperty.beam_length);
 	}
 
 	public boolean allowToFit() {
@@ -25,6 +25,7 @@ import java.util.*;
 
 import android.graphics.Point;
 import com.google.api.client.util.DateTime;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
 import de.phbouillon.android.games.alite.model.generator.SystemData;
@@ -64,9 +65,8 @@ public class Player {
 	private int intergalacticJumpCounter;
 	private int intergalacticJumpCounterSinceLastMission;
 	private boolean cheater;
-	private final Map<Integer,PlanetInfo> visitedPlanets = new HashMap<>();
+	private final VisitedPlanets visitedPlanets = new VisitedPlanets();
 	private int lastVisitedPlanet;
-	private int highestVisitCount;
 	private long minLastVisitedTime = System.currentTimeMillis();
 	private int manuallyDockedCount;
 	private long tradedAmountInGram;
@@ -91,48 +91,6 @@ public class Player {
 	private int escapeCapsuleUseCount;
 	private int pauseModes;
 
-	private class PlanetInfo {
-		int id;
-		Government government;
-		int inhabitantCode;
-		boolean isNode;
-		int visitCount;
-		long lastVisitedTime;
-
-		PlanetInfo() {
-			id = currentSystem.getId();
-			government = currentSystem.getGovernment();
-			inhabitantCode = currentSystem.getInhabitantCode().charAt(SystemData.INHABITANT_INDEX_RACE) ==
-				SystemData.INHABITANT_RACE_HUMAN ? 0 : Integer.parseInt(currentSystem.getInhabitantCode());
-			currentSystem.computeReachableSystems(Alite.get().getGenerator().getSystems());
-			isNode = currentSystem.getReachableSystems().length > 15; // contains itself
-			revisited();
-		}
-
-		PlanetInfo(int id, int visitCount, long lastVisitedTime, int government, int inhabitantCode, boolean isNode) {
-			this.id = id;
-			this.visitCount = visitCount;
-			this.lastVisitedTime = lastVisitedTime;
-			this.government = Government.values()[government];
-			this.inhabitantCode = inhabitantCode;
-			this.isNode = isNode;
-			if (visitCount > highestVisitCount) {
-				highestVisitCount = visitCount;
-			}
-		}
-
-		void revisited() {
-			if (lastVisitedTime != 0 && lastVisitedTime < minLastVisitedTime) {
-				minLastVisitedTime = lastVisitedTime;
-			}
-			visitCount++;
-			lastVisitedTime = System.currentTimeMillis();
-			if (visitCount > highestVisitCount) {
-				highestVisitCount = visitCount;
-			}
-		}
-	}
-
 	public Player() {
 		market = new AliteMarket();
 		Alite alite = Alite.get();
@@ -173,7 +131,7 @@ public class Player {
 	public void setCurrentSystem(SystemData currentSystem) {
 		this.currentSystem = currentSystem;
 		if (currentSystem != null) {
-			market.setFluct((int) (Math.random() * 256));
+			market.setFluct((int) (GameRandom.nextDouble() * 256));
 			market.setSystem(currentSystem);
 			market.generate();
 		}
@@ -447,7 +405,7 @@ public class Player {
 	}
 
 	public void setLegalValueByContraband(float legalityType, int buyAmount) {
-		if (Math.random() * 100 < getLegalProblemLikelihoodInPercent()) {
+		if (GameRandom.nextDouble() * 100 < getLegalProblemLikelihoodInPercent()) {
 			setLegalValue(legalValue + (int) (legalityType * buyAmount));
 		}
 	}
@@ -587,11 +545,11 @@ public class Player {
 		if (currentSystem != null) {
 			switch (currentSystem.getGovernment()) {
 				case ANARCHY: break; // In anarchies, you can do whatever you want.
-				case FEUDAL: if (hullStrength < 10 && Math.random() > 0.9) { increment = 16; } break;
-				case MULTI_GOVERNMENT: if (hullStrength < 10 && Math.random() > 0.8) { increment = 24; } break;
-				case DICTATORSHIP: if (hullStrength < 10 && Math.random() > 0.6) { increment = 32; } break;
-				case COMMUNIST: if (hullStrength < 20 && Math.random() > 0.4) { increment = 40; } break;
-				case CONFEDERACY: if (hullStrength < 30 && Math.random() > 0.2) { increment = 48; } break;
+				case FEUDAL: if (hullStrength < 10 && GameRandom.nextDouble() > 0.9) { increment = 16; } break;
+				case MULTI_GOVERNMENT: if (hullStrength < 10 && GameRandom.nextDouble() > 0.8) { increment = 24; } break;
+				case DICTATORSHIP: if (hullStrength < 10 && GameRandom.nextDouble() > 0.6) { increment = 32; } break;
+				case COMMUNIST: if (hullStrength < 20 && GameRandom.nextDouble() > 0.4) { increment = 40; } break;
+				case CONFEDERACY: if (hullStrength < 30 && GameRandom.nextDouble() > 0.2) { increment = 48; } break;
 				case DEMOCRACY: increment = 56; break;
 				case CORPORATE_STATE: increment = 64; break;
 			}
@@ -602,21 +560,15 @@ public class Player {
 	}
 
 	public boolean isPlanetVisited(int id) {
-		return getPlanetInfo(id) != null;
-	}
-
-	private PlanetInfo getPlanetInfo(int id) {
-		return visitedPlanets.get(id);
+		return visitedPlanets.isVisited(id);
 	}
 
 	public int getNumberOfVisits(int id) {
-		PlanetInfo planetInfo = getPlanetInfo(id);
-		return planetInfo == null ? 0 : planetInfo.visitCount;
+		return visitedPlanets.getVisitCount(id);
 	}
 
 	public long getLastVisitTime(int id) {
-		PlanetInfo planetInfo = getPlanetInfo(id);
-		return planetInfo == null ? 0 : planetInfo.lastVisitedTime;
+		return visitedPlanets.getLastVisitedTime(id);
 	}
 
 	public void addVisitedPlanetWithManualDocking() {
@@ -629,18 +581,27 @@ public class Player {
 		if (!isPlanetChanged()) {
 			return;
 		}
-		PlanetInfo planet = visitedPlanets.get(lastVisitedPlanet);
-		if (planet == null) {
-			visitedPlanets.put(lastVisitedPlanet, new PlanetInfo());
+		if (visitedPlanets.isVisited(lastVisitedPlanet)) {
+			long lastVisitedTime = visitedPlanets.getLastVisitedTime(lastVisitedPlanet);
+			if (lastVisitedTime != 0 && lastVisitedTime < minLastVisitedTime) {
+				minLastVisitedTime = lastVisitedTime;
+			}
+			visitedPlanets.revisit(lastVisitedPlanet, System.currentTimeMillis());
 		} else {
-			planet.revisited();
+			int inhabitantCode = currentSystem.getInhabitantCode().charAt(SystemData.INHABITANT_INDEX_RACE) ==
+				SystemData.INHABITANT_RACE_HUMAN ? 0 : Integer.parseInt(currentSystem.getInhabitantCode());
+			GalaxyGenerator generator = Alite.get().getGenerator();
+			currentSystem.computeReachableSystems(generator.getSystems(), generator.getRoutes());
+			boolean isNode = currentSystem.getReachableSystems().length > 15; // contains itself
+			visitedPlanets.add(lastVisitedPlanet, 1, System.currentTimeMillis(),
+				currentSystem.getGovernment().ordinal(), inhabitantCode, isNode);
 		}
 		cobra.checkLowEnergy();
 	}
 
 	private boolean isPlanetChanged() {
 		int key = currentSystem == null ? 0 : currentSystem.getId();
-		if (lastVisitedPlanet == key && visitedPlanets.containsKey(key)) {
+		if (lastVisitedPlanet == key && visitedPlanets.isVisited(key)) {
 			return false;
 		}
 		lastVisitedPlanet = key;
@@ -661,33 +622,19 @@ public class Player {
 
 	private void addVisitedPlanet(int id, int visitCount, long lastVisitedDate, int government, int inhabitantCode, boolean isNode) {
 		AliteLog.d("Planet visitor info", id + ": " + visitCount + " (" + new DateTime(lastVisitedDate) + ")");
-		visitedPlanets.put(id, new PlanetInfo(id, visitCount, lastVisitedDate, government, inhabitantCode, isNode));
+		visitedPlanets.add(id, visitCount, lastVisitedDate, government, inhabitantCode, isNode);
 	}
 
 	public int getTotalNumberOfPlanetVisit() {
-		int sum = 0;
-		for (PlanetInfo p : visitedPlanets.values()) {
-			sum += p.visitCount;
-		}
-		return sum;
-		//from API 24
-		//return visitedPlanets.values().stream().mapToInt(p -> p.visitCount).sum();
+		return visitedPlanets.getTotalVisitCount();
 	}
 
 	public int getNumberOfVisitedPlanets() {
-		return visitedPlanets.size();
+		return visitedPlanets.getPlanetCount();
 	}
 
 	public int getVisitNumberOfMostVisitedPlanet() {
-		int max = 0;
-		for (PlanetInfo p : visitedPlanets.values()) {
-			if (p.visitCount > max) {
-				max = p.visitCount;
-			}
-		}
-		return max;
-		//from API 24
-		//return visitedPlanets.values().stream().mapToInt(p -> p.visitCount).max().orElse(0);
+		return visitedPlanets.getHighestVisitCount();
 	}
 
 	public long getMinLastVisitedTime() {
@@ -695,89 +642,35 @@ public class Player {
 	}
 
 	public int getNumberOfFullyVisitedGalaxies() {
-		int count = 0;
-		Map<Integer, Integer> galaxies = new HashMap<>();
-		for (Integer id : visitedPlanets.keySet()) {
-			int galaxy = SystemData.getGalaxyOf(id);
-			Integer visitedCount = galaxies.get(galaxy);
-			visitedCount = visitedCount == null ? 1 : visitedCount + 1;
-			galaxies.put(galaxy, visitedCount);
-			if (visitedCount == GalaxyGenerator.PLANET_COUNT) {
-				count++;
-			}
-		}
-		return count;
-		//from API 24
-		//return (int) visitedPlanets.keySet().stream().collect(Collectors.groupingBy(SystemData::getGalaxyOf,
-		//	Collectors.counting())).values().stream().filter(p -> p == 256).count();
+		return visitedPlanets.getFullyVisitedGalaxyCount();
 	}
 
 	public int getNumberOfVisitedOrphanPlanets() {
-		int count = 0;
-		for (int id : visitedPlanets.keySet()) {
-			if (Alite.get().getGenerator().isOrphan(id)) {
-				count++;
-			}
-		}
-		return count;
-		//from API 24
-		//return (int) visitedPlanets.keySet().stream().filter(p -> Alite.get().getGenerator().isOrphan(p)).count();
+		return visitedPlanets.getOrphanPlanetCount();
 	}
 
 	public int getNumberOfVisitedNodePlanets() {
-		int count = 0;
-		for (PlanetInfo planet : visitedPlanets.values()) {
-			if (planet.isNode) {
-				count++;
-			}
-		}
-		return count;
-		//from API 24
-		//return (int) visitedPlanets.values().stream().filter(p -> p.isNode).count();
+		return visitedPlanets.getNodePlanetCount();
 	}
 
 	public int getNumberOfVisitedAnarchyPlanets() {
-		int count = 0;
-		for (PlanetInfo planet : visitedPlanets.values()) {
-			if (planet.government == Government.ANARCHY) {
-				count++;
-			}
-		}
-		return count;
-		//from API 24
-		//return (int) visitedPlanets.values().stream().filter(p -> p.government == Government.ANARCHY).count();
+		return visitedPlanets.getAnarchyPlanetCount();
 	}
 
 	public int getNumberOfVisitedGalaxies() {
-		Set<Integer> galaxies = new HashSet<>();
-		for (Integer id : visitedPlanets.keySet()) {
-			galaxies.add(SystemData.getGalaxyOf(id));
-		}
-		return galaxies.size();
-		//from API 24
-		//return visitedPlanets.keySet().stream().collect(Collectors.groupingBy(SystemData::getGalaxyOf)).values().size();
+		return visitedPlanets.getVisitedGalaxyCount();
 	}
 
 	public int getNumberOfVisitedSpecies() {
-		Set<Integer> species = new HashSet<>();
-		for (PlanetInfo planet : visitedPlanets.values()) {
-			species.add(planet.inhabitantCode);
-		}
-		return species.size();
-		//from API 24
-		//return visitedPlanets.values().stream().collect(Collectors.groupingBy(p -> p.inhabitantCode)).size();
+		return visitedPlanets.getSpeciesCount();
 	}
 
 	public JSONObject toJson() throws JSONException {
-		JSONArray planets = new JSONArray();
-		for (PlanetInfo p : visitedPlanets.values()) {
-			planets.put(new JSONObject()
-				.put("id", p.id)
-				.put("visitCount", p.visitCount)
-				.put("lastVisitedTime", p.lastVisitedTime)
-				.put("government", p.government.ordinal())
-				.put("inhabitantCode", p.inhabitantCode)
-				.put("isNode", p.isNode));
+		String planets;
+		try {
+			planets = visitedPlanets.encode();
+		} catch (IOException e) {
+			throw new JSONException(e.getMessage());
 		}
 
 		return new JSONObject()
@@ -885,7 +778,16 @@ public class Player {
 
 		isPlanetChanged(); // sets lastVisitedPlanet
 		visitedPlanets.clear();
-		JSONArray planets = player.getJSONArray("visitedPlanets");
+		JSONArray planets = player.optJSONArray("visitedPlanets");
+		if (planets == null) {
+			try {
+				visitedPlanets.decode(player.getString("visitedPlanets"));
+			} catch (IOException e) {
+				throw new JSONException(e.getMessage());
+			}
+			return;
+		}
+		// Planets of commanders saved before the encoded form
 		for (int i = 0; i < planets.length(); i++) {
 			JSONObject p = planets.getJSONObject(i);
 			addVisitedPlanet(p.getInt("id"), p.getInt("visitCount"), p.getLong("lastVisitedTime"),
@@ -25,16 +25,75 @@ import de.phbouillon.android.games.alite.L;
 import de.phbouillon.android.games.alite.colors.AliteColor;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-public class Repository<T> implements Serializable {
+/**
+ * Properties of an object indexed by the ordinal of their enum key. Numeric values are also
+ * kept as floats when they are set, so reading them needs neither a lookup nor unboxing.
+ * Copying a repository shares its values with the copy, they are copied only when one of
+ * the repositories sharing them sets a property. So objects created from the same template
+ * use the values of the template until they change one of them.
+ */
+public class Repository<T extends Enum<T>> implements Serializable {
 	private static final long serialVersionUID = -2688987946111213892L;
+	// Serialized form of the former hash map based repository
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("properties", Map.class),
+		new ObjectStreamField("localeDependentProperties", Map.class)
+	};
+	// Stored for a property set to null
+	private static final Object NULL_VALUE = new Object();
+
+	private static final class Values<T> {
+		private final T[] keys;
+		private final Object[] objects;
+		// Value of the numeric properties, NaN for any other
+		private final float[] numbers;
+		private boolean shared;
+
+		private Values(T[] keys) {
+			this.keys = keys;
+			objects = new Object[keys.length];
+			numbers = new float[keys.length];
+		}
+
+		private Values(Values<T> values) {
+			keys = values.keys;
+			objects = values.objects.clone();
+			numbers = values.numbers.clone();
+		}
+
+		private void set(int index, Object value) {
+			objects[index] = value == null ? NULL_VALUE : value;
+			numbers[index] = value == null ? 0 : toFloat(value);
+		}
+
+		private boolean isSet(int index) {
+			return objects[index] != null;
+		}
+
+		private Object get(int index) {
+			Object value = objects[index];
+			return value == NULL_VALUE ? null : value;
+		}
 
-	private final Map<T,Object> properties = new HashMap<>();
-	private final Map<T,Object> localeDependentProperties = new HashMap<>();
+		private Values<T> share() {
+			shared = true;
+			return this;
+		}
+	}
+
+	private transient Values<T> properties;
+	private transient Values<T> localeDependentProperties;
+	// If set, only the properties differing from the template are serialized
+	private transient Repository<T> template;
 
 	public void setProperty(T name, Object value) {
 		setProperty(name, value, false);
@@ -61,15 +120,24 @@ public class Repository<T> implements Serializable {
 //			AliteLog.d("set" + (localized ? "Localized" : "") + "Property", name + " [" +
 //				(value != null ? value.getClass().getName() : "null") + "] = " + value);
 			if (localized) {
-				localeDependentProperties.put(name, value);
+				localeDependentProperties = getWritable(localeDependentProperties, name);
+				localeDependentProperties.set(name.ordinal(), value);
 			} else {
-				properties.put(name, value);
+				properties = getWritable(properties, name);
+				properties.set(name.ordinal(), value);
 			}
 		} catch (IllegalArgumentException ignored) {
 			AliteLog.e((localized ? "Localized " : "") + "Property setting error", "Unknown property '" + name + "'");
 		}
 	}
 
+	private static <T extends Enum<T>> Values<T> getWritable(Values<T> values, T name) {
+		if (values == null) {
+			return new Values<>(name.getDeclaringClass().getEnumConstants());
+		}
+		return values.shared ? new Values<>(values) : values;
+	}
+
 	private Object getResString(String value) {
 		return value.indexOf('@') > 0 ? -value.hashCode() : value;
 	}
@@ -89,6 +157,19 @@ public class Repository<T> implements Serializable {
 		return null;
 	}
 
+	private static float toFloat(Object value) {
+		if (value instanceof Long) {
+			return ((Long) value).floatValue();
+		}
+		if (value instanceof Double) {
+			return ((Double) value).floatValue();
+		}
+		if (value instanceof Boolean) {
+			return (boolean) value ? 1f : 0f;
+		}
+		return Float.NaN;
+	}
+
 	public void setUnsetProperty(T name, Object value) {
 		if (getProperty(name) == null) {
 			setProperty(name, value);
@@ -110,9 +191,19 @@ public class Repository<T> implements Serializable {
 		return value;
 	}
 
+	private Values<T> find(int index) {
+		Values<T> values = localeDependentProperties;
+		if (values != null && values.get(index) != null) {
+			return values;
+		}
+		values = properties;
+		return values != null && values.isSet(index) ? values : null;
+	}
+
 	public Object getProperty(T name) {
-		Object property = localeDependentProperties.get(name);
-		return property != null ? property : properties.get(name);
+		int index = name.ordinal();
+		Values<T> values = find(index);
+		return values == null ? null : values.get(index);
 	}
 
 	public String getStringProperty(T name) {
@@ -124,23 +215,19 @@ public class Repository<T> implements Serializable {
 		return s instanceof Integer ? L.string((Integer) s) : (String) s;
 	}
 
-	public Float getNumericProperty(T name) {
-		Object value = getProperty(name);
-		if (value == null) {
-			return 0f;
+	public float getNumericProperty(T name) {
+		int index = name.ordinal();
+		Values<T> values = find(index);
+		if (values == null) {
+			return 0;
 		}
-		if (value instanceof Long) {
-			return ((Long) value).floatValue();
+		float value = values.numbers[index];
+		if (Float.isNaN(value)) {
+			AliteLog.e("getNumericProperty error", "Cannot get value of '" + name +
+				"' with type " + values.objects[index].getClass().getName());
+			return 0;
 		}
-		if (value instanceof Double) {
-			return ((Double) value).floatValue();
-		}
-		if (value instanceof Boolean) {
-			return (boolean) value ? 1f : 0f;
-		}
-		AliteLog.e("getNumericProperty error", "Cannot get value of '" + name +
-			"' with type " + value.getClass().getName());
-		return 0f;
+		return value;
 	}
 
 	public List<String> getArrayProperty(T name) {
@@ -152,26 +239,109 @@ public class Repository<T> implements Serializable {
 	}
 
 	public void clearLocaleDependent() {
-		localeDependentProperties.clear();
+		localeDependentProperties = null;
 	}
 
 	public void copyToIfUndefined(Repository<T> dest) {
-		dest.localeDependentProperties.clear();
-		for (Map.Entry<T, Object> p : properties.entrySet()) {
-			if (!dest.properties.containsKey(p.getKey())) {
-				dest.properties.put(p.getKey(), p.getValue());
-			}
+		dest.localeDependentProperties = null;
+		if (properties == null) {
+			return;
+		}
+		if (dest.properties == null) {
+			dest.properties = properties.share();
+			return;
 		}
+		dest.properties = copyUndefined(properties, dest.properties);
 	}
 
 	public void copyLocaleDependentTo(Repository<T> dest) {
-		dest.localeDependentProperties.clear();
-		dest.localeDependentProperties.putAll(localeDependentProperties);
+		dest.localeDependentProperties = localeDependentProperties == null ? null : localeDependentProperties.share();
 	}
 
 	public void copyTo(Repository<T> dest) {
-		dest.properties.clear();
-		dest.properties.putAll(properties);
+		dest.properties = properties == null ? null : properties.share();
+	}
+
+	/**
+	 * Sets the repository this one was copied from, only the properties differing from it are
+	 * written when this repository is serialized. After reading, the missing properties can be
+	 * restored by {@link #copyUndefinedFrom(Repository)}.
+	 */
+	public void setTemplate(Repository<T> template) {
+		this.template = template;
+	}
+
+	public void copyUndefinedFrom(Repository<T> template) {
+		properties = copyUndefined(template.properties, properties);
+		localeDependentProperties = copyUndefined(template.localeDependentProperties, localeDependentProperties);
+	}
+
+	private static <T> Values<T> copyUndefined(Values<T> source, Values<T> dest) {
+		if (source == null) {
+			return dest;
+		}
+		if (dest == null) {
+			return source.share();
+		}
+		Values<T> result = null;
+		for (int i = 0; i < source.objects.length; i++) {
+			if (source.isSet(i) && !dest.isSet(i)) {
+				if (result == null) {
+					result = dest.shared ? new Values<>(dest) : dest;
+				}
+				result.objects[i] = source.objects[i];
+				result.numbers[i] = source.numbers[i];
+			}
+		}
+		return result == null ? dest : result;
+	}
+
+	private Map<T,Object> getDifferences(Values<T> values, Values<T> templateValues) {
+		Map<T,Object> differences = new HashMap<>();
+		if (values == null || values == templateValues) {
+			return differences;
+		}
+		for (int i = 0; i < values.objects.length; i++) {
+			if (values.isSet(i) && (templateValues == null || !templateValues.isSet(i) ||
+					!Objects.equals(values.get(i), templateValues.get(i)))) {
+				differences.put(values.keys[i], values.get(i));
+			}
+		}
+		return differences;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("properties", getDifferences(properties, template == null ? null : template.properties));
+		fields.put("localeDependentProperties", getDifferences(localeDependentProperties,
+			template == null ? null : template.localeDependentProperties));
+		out.writeFields();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException {
+		try {
+			ObjectInputStream.GetField fields = in.readFields();
+			// written by writeObject with the keys of this repository
+			@SuppressWarnings("unchecked")
+			Map<T,Object> savedProperties = (Map<T,Object>) fields.get("properties", null);
+			@SuppressWarnings("unchecked")
+			Map<T,Object> savedLocaleDependentProperties = (Map<T,Object>) fields.get("localeDependentProperties", null);
+			properties = toValues(savedProperties);
+			localeDependentProperties = toValues(savedLocaleDependentProperties);
+		} catch (ClassNotFoundException e) {
+			AliteLog.e("Class not found", e.getMessage(), e);
+		}
+	}
+
+	private static <T extends Enum<T>> Values<T> toValues(Map<T,Object> map) {
+		Values<T> values = null;
+		if (map != null) {
+			for (Map.Entry<T, Object> p : map.entrySet()) {
+				values = getWritable(values, p.getKey());
+				values.set(p.getKey().ordinal(), p.getValue());
+			}
+		}
+		return values;
 	}
 
 	public static int getColor(String color) {
@@ -0,0 +1,259 @@
+package de.phbouillon.android.games.alite.model;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.dd.plist.Base64;
+import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
+import de.phbouillon.android.games.alite.model.generator.SystemData;
+import de.phbouillon.android.games.alite.model.generator.enums.Government;
+
+/**
+ * The planets visited by the commander. The planets of a galaxy are stored in a bitset and
+ * arrays indexed by the index of the planet, allocated at the first visit of the galaxy.
+ * The statistics of the medals are updated as planets are visited, so reading them does not
+ * depend on the number of visited planets.
+ */
+final class VisitedPlanets {
+	// The planets of the galaxy and Raxxla
+	private static final int PLANET_SLOTS = GalaxyGenerator.PLANET_COUNT + 1;
+	private static final int WORDS = (PLANET_SLOTS + 63) / 64;
+	private static final int NODE_FLAG = 0x80;
+
+	private static final class Galaxy {
+		final long[] visited = new long[WORDS];
+		final int[] visitCounts = new int[PLANET_SLOTS];
+		final long[] lastVisitedTimes = new long[PLANET_SLOTS];
+		// Ordinal of the government and the node flag
+		final byte[] governments = new byte[PLANET_SLOTS];
+		final char[] inhabitantCodes = new char[PLANET_SLOTS];
+		int planetCount;
+
+		boolean isVisited(int index) {
+			return (visited[index >> 6] & 1L << index) != 0;
+		}
+	}
+
+	private Galaxy[] galaxies = new Galaxy[GalaxyGenerator.EXTENDED_GALAXY_COUNT + 1];
+	private final BitSet species = new BitSet();
+	private int planetCount;
+	private int totalVisitCount;
+	private int highestVisitCount;
+	private int fullyVisitedGalaxyCount;
+	private int visitedGalaxyCount;
+	private int orphanPlanetCount;
+	private int nodePlanetCount;
+	private int anarchyPlanetCount;
+	private int speciesCount;
+
+	private Galaxy getGalaxy(int id) {
+		int galaxy = SystemData.getGalaxyOf(id);
+		return galaxy >= 0 && galaxy < galaxies.length ? galaxies[galaxy] : null;
+	}
+
+	private static int getIndex(int id) {
+		return id & 0x3FF;
+	}
+
+	boolean isVisited(int id) {
+		Galaxy galaxy = getGalaxy(id);
+		int index = getIndex(id);
+		return galaxy != null && index < PLANET_SLOTS && galaxy.isVisited(index);
+	}
+
+	int getVisitCount(int id) {
+		return isVisited(id) ? getGalaxy(id).visitCounts[getIndex(id)] : 0;
+	}
+
+	long getLastVisitedTime(int id) {
+		return isVisited(id) ? getGalaxy(id).lastVisitedTimes[getIndex(id)] : 0;
+	}
+
+	/**
+	 * Adds the planet or, if it is visited already, replaces its visit count and time. The other
+	 * attributes of a planet are given by its id, they are kept.
+	 */
+	void add(int id, int visitCount, long lastVisitedTime, int government, int inhabitantCode, boolean isNode) {
+		int g = SystemData.getGalaxyOf(id);
+		int index = getIndex(id);
+		if (g < 0 || index >= PLANET_SLOTS) {
+			return;
+		}
+		if (g >= galaxies.length) {
+			galaxies = Arrays.copyOf(galaxies, g + 1);
+		}
+		Galaxy galaxy = galaxies[g];
+		if (galaxy == null) {
+			galaxy = new Galaxy();
+			galaxies[g] = galaxy;
+			visitedGalaxyCount++;
+		}
+		if (galaxy.isVisited(index)) {
+			totalVisitCount -= galaxy.visitCounts[index];
+		} else {
+			galaxy.visited[index >> 6] |= 1L << index;
+			galaxy.governments[index] = (byte) (government | (isNode ? NODE_FLAG : 0));
+			galaxy.inhabitantCodes[index] = (char) inhabitantCode;
+			galaxy.planetCount++;
+			planetCount++;
+			if (galaxy.planetCount == GalaxyGenerator.PLANET_COUNT) {
+				fullyVisitedGalaxyCount++;
+			}
+			if (GalaxyGenerator.isOrphan(id)) {
+				orphanPlanetCount++;
+			}
+			if (isNode) {
+				nodePlanetCount++;
+			}
+			if (government == Government.ANARCHY.ordinal()) {
+				anarchyPlanetCount++;
+			}
+			if (!species.get(inhabitantCode)) {
+				species.set(inhabitantCode);
+				speciesCount++;
+			}
+		}
+		galaxy.visitCounts[index] = visitCount;
+		galaxy.lastVisitedTimes[index] = lastVisitedTime;
+		totalVisitCount += visitCount;
+		if (visitCount > highestVisitCount) {
+			highestVisitCount = visitCount;
+		}
+	}
+
+	void revisit(int id, long time) {
+		Galaxy galaxy = getGalaxy(id);
+		int index = getIndex(id);
+		galaxy.visitCounts[index]++;
+		galaxy.lastVisitedTimes[index] = time;
+		totalVisitCount++;
+		if (galaxy.visitCounts[index] > highestVisitCount) {
+			highestVisitCount = galaxy.visitCounts[index];
+		}
+	}
+
+	void clear() {
+		Arrays.fill(galaxies, null);
+		species.clear();
+		planetCount = 0;
+		totalVisitCount = 0;
+		highestVisitCount = 0;
+		fullyVisitedGalaxyCount = 0;
+		visitedGalaxyCount = 0;
+		orphanPlanetCount = 0;
+		nodePlanetCount = 0;
+		anarchyPlanetCount = 0;
+		speciesCount = 0;
+	}
+
+	int getPlanetCount() {
+		return planetCount;
+	}
+
+	int getTotalVisitCount() {
+		return totalVisitCount;
+	}
+
+	int getHighestVisitCount() {
+		return highestVisitCount;
+	}
+
+	int getFullyVisitedGalaxyCount() {
+		return fullyVisitedGalaxyCount;
+	}
+
+	int getVisitedGalaxyCount() {
+		return visitedGalaxyCount;
+	}
+
+	int getOrphanPlanetCount() {
+		return orphanPlanetCount;
+	}
+
+	int getNodePlanetCount() {
+		return nodePlanetCount;
+	}
+
+	int getAnarchyPlanetCount() {
+		return anarchyPlanetCount;
+	}
+
+	int getSpeciesCount() {
+		return speciesCount;
+	}
+
+	/**
+	 * Encodes the visited galaxies as their number and the bitset of their visited planets
+	 * followed by the visit count, the time of the last visit, the government and the
+	 * inhabitants of each visited planet.
+	 */
+	String encode() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(bos)) {
+			for (int g = 0; g < galaxies.length; g++) {
+				Galaxy galaxy = galaxies[g];
+				if (galaxy == null) {
+					continue;
+				}
+				dos.writeChar(g);
+				for (long word : galaxy.visited) {
+					dos.writeLong(word);
+				}
+				for (int i = 0; i < PLANET_SLOTS; i++) {
+					if (galaxy.isVisited(i)) {
+						dos.writeInt(galaxy.visitCounts[i]);
+						dos.writeLong(galaxy.lastVisitedTimes[i]);
+						dos.writeByte(galaxy.governments[i]);
+						dos.writeChar(galaxy.inhabitantCodes[i]);
+					}
+				}
+			}
+		}
+		return Base64.encodeBytes(bos.toByteArray());
+	}
+
+	void decode(String encoded) throws IOException {
+		clear();
+		try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(Base64.decode(encoded, Base64.DONT_GUNZIP)))) {
+			long[] visited = new long[WORDS];
+			while (dis.available() > 0) {
+				int g = dis.readChar();
+				for (int w = 0; w < WORDS; w++) {
+					visited[w] = dis.readLong();
+				}
+				for (int i = 0; i < PLANET_SLOTS; i++) {
+					if ((visited[i >> 6] & 1L << i) != 0) {
+						int visitCount = dis.readInt();
+						long lastVisitedTime = dis.readLong();
+						int government = dis.readUnsignedByte();
+						add((g << 10) + i, visitCount, lastVisitedTime, government & ~NODE_FLAG, dis.readChar(),
+							(government & NODE_FLAG) != 0);
+					}
+				}
+			}
+		}
+	}
+}
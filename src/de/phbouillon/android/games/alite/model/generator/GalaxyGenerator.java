@@ -18,9 +18,11 @@ package de.phbouillon.android.games.alite.model.generator;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import de.phbouillon.android.framework.FileIO;
 import de.phbouillon.android.games.alite.AliteLog;
 import de.phbouillon.android.games.alite.Settings;
 import de.phbouillon.android.games.alite.model.trading.TradeGood;
+import de.phbouillon.android.games.alite.model.trading.TradeGoodStore;
 
 import java.util.*;
 
@@ -124,9 +126,21 @@ public class GalaxyGenerator {
 	// All systems in this galaxy
 	private final SystemData[] system = new SystemData[PLANET_COUNT];
 	private int currentGalaxy = 1;
-	private int highestHashedGalaxyNumber = 1;
-	private final Map<String,Integer> planetNames = new HashMap<>();
-	private final Map<Integer,Map<Integer,String>> duplicates = new HashMap<>();
+	private final FileIO fileIO;
+	private PlanetNameIndex planetNames;
+	private GalaxyRoutes routes;
+
+	public GalaxyGenerator() {
+		this(null);
+	}
+
+	/**
+	 * @param fileIO used to store the planet name index between launches, if null the index is
+	 *               generated in the first build of each run.
+	 */
+	public GalaxyGenerator(FileIO fileIO) {
+		this.fileIO = fileIO;
+	}
 
 	public void buildGalaxy(int galaxyNumber) {
 		currentGalaxy = galaxyNumber;
@@ -136,15 +150,8 @@ public class GalaxyGenerator {
 	private void buildGalaxyOf(int galaxyNumber) {
 		SystemData.initialize();
 		long time = System.currentTimeMillis();
-		// store not yet stored planet names
-		if (highestHashedGalaxyNumber <= galaxyNumber) {
-			for (int i = highestHashedGalaxyNumber; i <= galaxyNumber; i++) {
-				generatePlanetsOfGalaxy(i);
-			}
-			highestHashedGalaxyNumber = galaxyNumber + 1;
-		} else {
-			generatePlanetsOfGalaxy(galaxyNumber);
-		}
+		planetNames = PlanetNameIndex.get(fileIO, BASE_SEEDS);
+		generatePlanetsOfGalaxy(galaxyNumber);
 		AliteLog.d("Galaxy generation", "Galaxy #" + galaxyNumber + " generated in " +
 			(System.currentTimeMillis() - time) + " ms");
 	}
@@ -155,49 +162,15 @@ public class GalaxyGenerator {
 			galaxyNumber = 1;
 		}
 		SeedType seed = new SeedType(BASE_SEEDS[galaxyNumber - 1][0], BASE_SEEDS[galaxyNumber - 1][1], BASE_SEEDS[galaxyNumber - 1][2]);
-
-		// Create the planet only if this is the target system
-		if (galaxyNumber == currentGalaxy) {
-			for (int systemCount = 0; systemCount < PLANET_COUNT; systemCount++) {
-				system[systemCount] = SystemData.createSystem(galaxyNumber, systemCount, seed);
-			}
-		}
-		if (highestHashedGalaxyNumber <= galaxyNumber) {
-			Map<Integer,String> duplicatesInGalaxy = new LinkedHashMap<>();
-			for (int systemCount = 0; systemCount < PLANET_COUNT; systemCount++) {
-				String planetName = (galaxyNumber == currentGalaxy ? system[systemCount].getName() :
-					// otherwise get the planet name only
-					SystemData.generateRandomName(seed)).toLowerCase();
-				Integer planet = planetNames.get(planetName);
-				int planetId = (galaxyNumber << 8) + systemCount;
-				if (planet == null) {
-					planetNames.put(planetName, planetId);
-				} else if (planet != planetId) {
-					duplicatesInGalaxy.put(systemCount, planetName);
-				}
-			}
-			duplicates.put(galaxyNumber, duplicatesInGalaxy);
+		for (int systemCount = 0; systemCount < PLANET_COUNT; systemCount++) {
+			system[systemCount] = SystemData.createSystem(galaxyNumber, systemCount, seed);
 		}
-		// then check uniqueness of planet names
-		Map<Integer,String> duplicatesInGalaxy = duplicates.get(galaxyNumber);
-		for (int index : duplicatesInGalaxy.keySet()) {
-//			String currentPlanetName = duplicatesInGalaxy.get(index);
-			Integer existsPlanet; //= planetNames.get(currentPlanetName);
-			String planetName;
-			do {
-				planetName = SystemData.generateRandomName(seed);
-				// Logging rename info are commented out for performance reasons.
-				// Seriously, it gains almost 20% (the worst case, on Galaxy S6: 11,5s -> 9,5s)!
-//				AliteLog.d("Planet name duplication", "#" + galaxyNumber + " (" + index + "): " +
-//					currentPlanetName + " exists in galaxy #" + (existsPlanet >> 8) + ", renamed to " + planetName);
-//				currentPlanetName = planetName;
-				existsPlanet = planetNames.get(planetName.toLowerCase());
-			} while (existsPlanet != null && existsPlanet != (galaxyNumber << 8) + index);
-			if (galaxyNumber == currentGalaxy) {
-				system[index].changePlanetName(planetName);
-			}
-			planetNames.put(planetName.toLowerCase(), (galaxyNumber << 8) + index);
+		// then apply the new names of planets whose names already exist in previous galaxies
+		Map<Integer,String> renamedPlanets = planetNames.getRenamedPlanets(galaxyNumber);
+		for (Map.Entry<Integer,String> renamedPlanet : renamedPlanets.entrySet()) {
+			system[renamedPlanet.getKey()].changePlanetName(renamedPlanet.getValue());
 		}
+		routes = null;
 	}
 
 	public void rebuildGalaxy() {
@@ -224,12 +197,22 @@ public class GalaxyGenerator {
 		return system;
 	}
 
+	/**
+	 * @return the jump graph of the current galaxy, built at the first call after the galaxy is generated.
+	 */
+	public GalaxyRoutes getRoutes() {
+		if (routes == null) {
+			routes = new GalaxyRoutes(system, TradeGoodStore.get().goods());
+		}
+		return routes;
+	}
+
 	public SystemData getSystem(int index) {
 		return currentGalaxy == SystemData.RAXXLA_GALAXY && index == SystemData.RAXXLA_SYSTEM_INDEX ?
 			SystemData.RAXXLA_SYSTEM : system[index % PLANET_COUNT];
 	}
 
-	public boolean isOrphan(int id) {
+	public static boolean isOrphan(int id) {
 		return ORPHAN_PLANETS.contains(id);
 	}
 
@@ -238,25 +221,10 @@ public class GalaxyGenerator {
 	}
 
 	public int findGalaxyOfPlanet(String name) {
-		int i = currentGalaxy;
-		try {
-			for (int j = 0; j < Settings.maxGalaxies - 1; j++) {
-				Integer galaxy = planetNames.get(name.toLowerCase());
-				if (galaxy != null) {
-					return galaxy >> 8;
-				}
-				i = i % (Settings.maxGalaxies + 1) + 1;
-				if (i <= highestHashedGalaxyNumber) {
-					continue;
-				}
-				AliteLog.d("Analyzing Galaxy", "Analyzing Galaxy " + i);
-				buildGalaxyOf(i);
-			}
-		} finally {
-			if (i != currentGalaxy) {
-				buildGalaxyOf(currentGalaxy);
-			}
+		if (planetNames == null) {
+			planetNames = PlanetNameIndex.get(fileIO, BASE_SEEDS);
 		}
-		return -1;
+		int planetId = planetNames.findPlanet(name);
+		return planetId < 0 || planetId >> 8 > Settings.maxGalaxies ? -1 : planetId >> 8;
 	}
 }
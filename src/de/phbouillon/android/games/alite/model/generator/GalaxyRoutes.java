@@ -0,0 +1,325 @@
+package de.phbouillon.android.games.alite.model.generator;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.phbouillon.android.games.alite.model.PlayerCobra;
+import de.phbouillon.android.games.alite.model.generator.enums.Economy;
+import de.phbouillon.android.games.alite.model.trading.TradeGood;
+
+/**
+ * Hyperspace jumps between the systems of a galaxy and route planning over them.
+ * The systems reachable with a full tank are stored in compressed sparse row form:
+ * the neighbours of system i are at positions offsets[i] to offsets[i + 1] - 1.
+ * Routes are returned as system indices from the start to the destination (both included)
+ * or null if the destination cannot be reached.
+ * The planners share their work arrays, so an instance must be used by one thread at a time.
+ */
+public class GalaxyRoutes {
+	// computeDistance is (int) sqrt(dSq) << 2, so it does not exceed the maximum fuel up to this squared distance
+	static final int MAX_JUMP_DISTANCE_SQ = ((PlayerCobra.MAX_FUEL >> 2) + 1) * ((PlayerCobra.MAX_FUEL >> 2) + 1) - 1;
+	private static final int CELL_SIZE = PlayerCobra.MAX_FUEL >> 2;
+	private static final int GRID_COLUMNS = 256 / CELL_SIZE + 1;
+	private static final int GRID_ROWS = 128 / CELL_SIZE + 1;
+	private static final int ECONOMY_COUNT = Economy.values().length;
+
+	private final int systemCount;
+	private final int[] offsets;
+	private final int[] neighbours;
+	private final int[] distances;
+	private final int[] profits;
+
+	private final int[] cost;
+	private final int[] profit;
+	private final int[] previous;
+	private final int[] queue;
+	// Binary heap of cost << 32 | system entries, outdated entries are skipped when popped
+	private final long[] heap;
+	private int heapSize;
+
+	public GalaxyRoutes(SystemData[] systems, List<TradeGood> goods) {
+		systemCount = systems.length;
+		int[] cellStart = new int[GRID_COLUMNS * GRID_ROWS + 1];
+		int[] cellSystems = new int[systemCount];
+		for (SystemData system : systems) {
+			cellStart[getCell(system) + 1]++;
+		}
+		for (int i = 0; i < GRID_COLUMNS * GRID_ROWS; i++) {
+			cellStart[i + 1] += cellStart[i];
+		}
+		int[] cellFill = Arrays.copyOf(cellStart, cellStart.length - 1);
+		for (int i = 0; i < systemCount; i++) {
+			cellSystems[cellFill[getCell(systems[i])]++] = i;
+		}
+
+		offsets = new int[systemCount + 1];
+		for (int i = 0; i < systemCount; i++) {
+			offsets[i + 1] = offsets[i] + collectNeighbours(systems, i, cellStart, cellSystems, null, 0);
+		}
+		neighbours = new int[offsets[systemCount]];
+		for (int i = 0; i < systemCount; i++) {
+			collectNeighbours(systems, i, cellStart, cellSystems, neighbours, offsets[i]);
+		}
+
+		int[][] bestProfit = computeBestProfits(goods);
+		distances = new int[neighbours.length];
+		profits = new int[neighbours.length];
+		for (int i = 0; i < systemCount; i++) {
+			for (int n = offsets[i]; n < offsets[i + 1]; n++) {
+				SystemData target = systems[neighbours[n]];
+				distances[n] = systems[i].computeDistance(target);
+				profits[n] = bestProfit[systems[i].getEconomy().ordinal()][target.getEconomy().ordinal()];
+			}
+		}
+
+		cost = new int[systemCount];
+		profit = new int[systemCount];
+		previous = new int[systemCount];
+		queue = new int[systemCount];
+		heap = new long[neighbours.length + 1];
+	}
+
+	private static int getCell(SystemData system) {
+		return system.getY() / CELL_SIZE * GRID_COLUMNS + system.getX() / CELL_SIZE;
+	}
+
+	private int collectNeighbours(SystemData[] systems, int index, int[] cellStart, int[] cellSystems, int[] dest, int destIndex) {
+		SystemData system = systems[index];
+		int column = system.getX() / CELL_SIZE;
+		int row = system.getY() / CELL_SIZE;
+		int count = 0;
+		for (int r = Math.max(0, row - 1); r <= Math.min(GRID_ROWS - 1, row + 1); r++) {
+			for (int c = Math.max(0, column - 1); c <= Math.min(GRID_COLUMNS - 1, column + 1); c++) {
+				int cell = r * GRID_COLUMNS + c;
+				for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+					int other = cellSystems[i];
+					if (other == index) {
+						continue;
+					}
+					int dx = system.getX() - systems[other].getX();
+					int dy = system.getY() - systems[other].getY();
+					if (dx * dx + dy * dy <= MAX_JUMP_DISTANCE_SQ) {
+						if (dest != null) {
+							dest[destIndex + count] = other;
+						}
+						count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	// Profit per unit of the best good bought in a system of the first economy and sold in one
+	// of the second, using the market prices without fluctuation (see AliteMarket.generate).
+	private static int[][] computeBestProfits(List<TradeGood> goods) {
+		int[][] result = new int[ECONOMY_COUNT][ECONOMY_COUNT];
+		for (int from = 0; from < ECONOMY_COUNT; from++) {
+			for (int to = 0; to < ECONOMY_COUNT; to++) {
+				for (TradeGood good : goods) {
+					if (!good.isSpecialGood()) {
+						result[from][to] = Math.max(result[from][to], getPrice(good, to) - getPrice(good, from));
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static int getPrice(TradeGood good, int economy) {
+		return (char) (good.getBasePrice() + economy * good.getGradient()) * 4;
+	}
+
+	public int getSystemCount() {
+		return systemCount;
+	}
+
+	public int getNeighbourCount(int system) {
+		return system < systemCount ? offsets[system + 1] - offsets[system] : 0;
+	}
+
+	public int getNeighbour(int system, int n) {
+		return neighbours[offsets[system] + n];
+	}
+
+	public int getDistance(int system, int n) {
+		return distances[offsets[system] + n];
+	}
+
+	/**
+	 * Returns the route with the least number of jumps.
+	 */
+	public int[] findShortestRoute(int from, int to) {
+		if (!isValid(from, to)) {
+			return null;
+		}
+		computeJumps(from);
+		return buildRoute(from, to);
+	}
+
+	/**
+	 * Returns the route which needs the least fuel in total.
+	 */
+	public int[] findCheapestRoute(int from, int to) {
+		if (!isValid(from, to)) {
+			return null;
+		}
+		Arrays.fill(cost, Integer.MAX_VALUE);
+		Arrays.fill(previous, -1);
+		cost[from] = 0;
+		heapSize = 0;
+		push(from);
+		while (heapSize > 0) {
+			long top = pop();
+			int system = (int) top;
+			if ((int) (top >>> 32) > cost[system]) {
+				continue;
+			}
+			if (system == to) {
+				break;
+			}
+			for (int n = offsets[system]; n < offsets[system + 1]; n++) {
+				int target = neighbours[n];
+				int newCost = cost[system] + distances[n];
+				if (newCost < cost[target]) {
+					cost[target] = newCost;
+					previous[target] = system;
+					push(target);
+				}
+			}
+		}
+		return buildRoute(from, to);
+	}
+
+	/**
+	 * Returns the route with the highest expected trading profit per unit of cargo among the
+	 * routes with the least number of jumps, buying the best good in each system of the route.
+	 */
+	public int[] findMostProfitableRoute(int from, int to) {
+		if (!isValid(from, to)) {
+			return null;
+		}
+		int visited = computeJumps(from);
+		Arrays.fill(profit, -1);
+		profit[from] = 0;
+		// Jumps are visited in breadth first order, so all routes to a system are known before leaving it
+		for (int i = 0; i < visited; i++) {
+			int system = queue[i];
+			for (int n = offsets[system]; n < offsets[system + 1]; n++) {
+				int target = neighbours[n];
+				if (cost[target] == cost[system] + 1 && profit[system] + profits[n] > profit[target]) {
+					profit[target] = profit[system] + profits[n];
+					previous[target] = system;
+				}
+			}
+		}
+		return buildRoute(from, to);
+	}
+
+	/**
+	 * Returns the expected trading profit per unit of cargo along the given route.
+	 */
+	public int computeProfit(int[] route) {
+		int result = 0;
+		for (int i = 1; i < route.length; i++) {
+			for (int n = offsets[route[i - 1]]; n < offsets[route[i - 1] + 1]; n++) {
+				if (neighbours[n] == route[i]) {
+					result += profits[n];
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean isValid(int from, int to) {
+		return from >= 0 && from < systemCount && to >= 0 && to < systemCount;
+	}
+
+	// Breadth first search, the queue holds the visited systems in the order of their distance.
+	private int computeJumps(int from) {
+		Arrays.fill(cost, Integer.MAX_VALUE);
+		Arrays.fill(previous, -1);
+		cost[from] = 0;
+		queue[0] = from;
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int system = queue[head++];
+			for (int n = offsets[system]; n < offsets[system + 1]; n++) {
+				int target = neighbours[n];
+				if (cost[target] == Integer.MAX_VALUE) {
+					cost[target] = cost[system] + 1;
+					previous[target] = system;
+					queue[tail++] = target;
+				}
+			}
+		}
+		return tail;
+	}
+
+	private int[] buildRoute(int from, int to) {
+		if (from != to && previous[to] < 0) {
+			return null;
+		}
+		int length = 1;
+		for (int system = to; system != from; system = previous[system]) {
+			length++;
+		}
+		int[] route = new int[length];
+		for (int system = to; length > 0; system = previous[system]) {
+			route[--length] = system;
+		}
+		return route;
+	}
+
+	private void push(int system) {
+		long entry = (long) cost[system] << 32 | system;
+		int i = heapSize++;
+		while (i > 0 && heap[(i - 1) >> 1] > entry) {
+			heap[i] = heap[(i - 1) >> 1];
+			i = (i - 1) >> 1;
+		}
+		heap[i] = entry;
+	}
+
+	private long pop() {
+		long result = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (heap[child] >= last) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return result;
+	}
+}
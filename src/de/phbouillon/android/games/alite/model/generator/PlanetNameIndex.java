@@ -0,0 +1,343 @@
+package de.phbouillon.android.games.alite.model.generator;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.FileIO;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.L;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Index of the planet names of all galaxies.
+ *
+ * Planet names must be unique over all galaxies, so a name which already exists in a previous galaxy
+ * is replaced by the next generated random name of its own galaxy. To decide whether a name is
+ * a duplicate, all the previous galaxies must be known. Instead of generating all of them again
+ * each time a galaxy is built, the names are generated once (galaxies in parallel, duplicates
+ * resolved in galaxy order afterwards), stored in a compact binary file keyed by the locale
+ * and the seed and syllable tables, and that file is mapped into memory on later launches.
+ *
+ * File layout (all values are big endian):
+ * <pre>
+ * header:  magic, version, seed hash, syllable hash, locale hash, galaxy count, slot count
+ * renames: int[galaxy count + 1] start of the rename entries of the galaxies,
+ *          followed by the rename entries: (planet index, string offset)
+ * slots:   open addressing hash table of lower case planet names: (string offset + 1, planet id)
+ * strings: (char count, chars) of each name
+ * </pre>
+ * where planet id is galaxy number &lt;&lt; 8 + planet index.
+ */
+class PlanetNameIndex {
+	private static final int MAGIC = 0x414C504E; // "ALPN"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 7 * 4;
+	private static final String INDEX_DIRECTORY = "cache" + File.separator;
+	private static final String INDEX_FILE_PREFIX = "planet_names_";
+
+	private static PlanetNameIndex instance;
+
+	private final ByteBuffer buffer;
+	private final int[] key;
+	private final int galaxyCount;
+	private final int slotMask;
+	private final int renameEntriesOffset;
+	private final int slotsOffset;
+	private final int stringsOffset;
+
+	private PlanetNameIndex(ByteBuffer buffer, int[] key) {
+		this.buffer = buffer;
+		this.key = key;
+		galaxyCount = buffer.getInt(20);
+		slotMask = buffer.getInt(24) - 1;
+		renameEntriesOffset = HEADER_SIZE + (galaxyCount + 1) * 4;
+		slotsOffset = renameEntriesOffset + getRenameStart(galaxyCount + 1) * 8;
+		stringsOffset = slotsOffset + (slotMask + 1) * 8;
+	}
+
+	/**
+	 * Returns the index of the current locale. If it is not yet in memory, it is loaded
+	 * from the index file if that matches, otherwise it is generated and, if fileIO is
+	 * not null, saved for the next launch.
+	 */
+	static synchronized PlanetNameIndex get(FileIO fileIO, char[][] baseSeeds) {
+		int[] key = computeKey(baseSeeds);
+		if (instance != null && Arrays.equals(instance.key, key) && instance.galaxyCount == baseSeeds.length) {
+			return instance;
+		}
+		String fileName = INDEX_DIRECTORY + INDEX_FILE_PREFIX + L.getInstance().getCurrentLocale() + ".idx";
+		long time = System.currentTimeMillis();
+		instance = fileIO != null ? load(fileIO, fileName, key, baseSeeds.length) : null;
+		if (instance != null) {
+			AliteLog.d("Planet name index", "Index " + fileName + " loaded in " +
+				(System.currentTimeMillis() - time) + " ms");
+			return instance;
+		}
+		instance = new PlanetNameIndex(ByteBuffer.wrap(generate(baseSeeds, key)), key);
+		AliteLog.d("Planet name index", "Index of " + baseSeeds.length + " galaxies generated in " +
+			(System.currentTimeMillis() - time) + " ms");
+		if (fileIO != null) {
+			save(fileIO, fileName, instance.buffer);
+		}
+		return instance;
+	}
+
+	private static int[] computeKey(char[][] baseSeeds) {
+		return new int[] { Arrays.deepHashCode(baseSeeds), SystemData.getPlanetNameSyllableHash(),
+			L.getInstance().getCurrentLocale().toString().hashCode() };
+	}
+
+	private static PlanetNameIndex load(FileIO fileIO, String fileName, int[] key, int galaxyCount) {
+		if (!fileIO.exists(fileName)) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer;
+			String path = fileIO.getFileName(fileName);
+			File file = path != null ? new File(path) : null;
+			if (file != null && file.isAbsolute() && file.exists()) {
+				try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+					buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+				}
+			} else {
+				buffer = ByteBuffer.wrap(fileIO.readFileContents(fileName));
+			}
+			if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ||
+					buffer.getInt(8) != key[0] || buffer.getInt(12) != key[1] || buffer.getInt(16) != key[2] ||
+					buffer.getInt(20) != galaxyCount) {
+				AliteLog.d("Planet name index", "Index " + fileName + " is outdated.");
+				return null;
+			}
+			PlanetNameIndex index = new PlanetNameIndex(buffer, key);
+			if (index.stringsOffset > buffer.limit()) {
+				AliteLog.e("Planet name index", "Index " + fileName + " is truncated.");
+				return null;
+			}
+			return index;
+		} catch (IOException | RuntimeException e) {
+			AliteLog.e("Planet name index", "Error while loading index " + fileName, e);
+			return null;
+		}
+	}
+
+	private static void save(FileIO fileIO, String fileName, ByteBuffer buffer) {
+		fileIO.mkDir(INDEX_DIRECTORY);
+		try (DataOutputStream out = new DataOutputStream(fileIO.writeFile(fileName))) {
+			out.write(buffer.array(), 0, buffer.limit());
+		} catch (IOException e) {
+			AliteLog.e("Planet name index", "Error while saving index " + fileName, e);
+			fileIO.deleteFile(fileName);
+		}
+	}
+
+	private static class GalaxyNames {
+		final String[] names = new String[GalaxyGenerator.PLANET_COUNT];
+		// The seed after generating all the names: the source of the replacement names
+		SeedType seed;
+	}
+
+	private static GalaxyNames generateGalaxyNames(char[] baseSeed) {
+		GalaxyNames result = new GalaxyNames();
+		result.seed = new SeedType(baseSeed[0], baseSeed[1], baseSeed[2]);
+		for (int i = 0; i < GalaxyGenerator.PLANET_COUNT; i++) {
+			result.names[i] = SystemData.generateRandomName(result.seed);
+		}
+		return result;
+	}
+
+	private static byte[] generate(char[][] baseSeeds, int[] key) {
+		List<Future<GalaxyNames>> galaxies = new ArrayList<>(baseSeeds.length);
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			for (final char[] baseSeed : baseSeeds) {
+				galaxies.add(executor.submit(() -> generateGalaxyNames(baseSeed)));
+			}
+
+			// Duplicates must be resolved in galaxy order, since the first occurrence keeps its name
+			Map<String,Integer> planetNames = new HashMap<>(baseSeeds.length * GalaxyGenerator.PLANET_COUNT * 4 / 3);
+			List<String> lowerCaseNames = new ArrayList<>(baseSeeds.length * GalaxyGenerator.PLANET_COUNT);
+			List<Integer> planetIds = new ArrayList<>(baseSeeds.length * GalaxyGenerator.PLANET_COUNT);
+			List<List<Object>> renames = new ArrayList<>(baseSeeds.length);
+			for (int g = 1; g <= baseSeeds.length; g++) {
+				GalaxyNames galaxy = galaxies.get(g - 1).get();
+				List<Integer> duplicatesInGalaxy = new ArrayList<>();
+				for (int i = 0; i < GalaxyGenerator.PLANET_COUNT; i++) {
+					String planetName = galaxy.names[i].toLowerCase();
+					int planetId = (g << 8) + i;
+					Integer planet = planetNames.get(planetName);
+					if (planet == null) {
+						planetNames.put(planetName, planetId);
+						lowerCaseNames.add(planetName);
+						planetIds.add(planetId);
+					} else if (planet != planetId) {
+						duplicatesInGalaxy.add(i);
+					}
+				}
+				List<Object> renamesInGalaxy = new ArrayList<>();
+				for (int index : duplicatesInGalaxy) {
+					int planetId = (g << 8) + index;
+					Integer existsPlanet;
+					String planetName;
+					do {
+						planetName = SystemData.generateRandomName(galaxy.seed);
+						existsPlanet = planetNames.get(planetName.toLowerCase());
+					} while (existsPlanet != null && existsPlanet != planetId);
+					planetNames.put(planetName.toLowerCase(), planetId);
+					lowerCaseNames.add(planetName.toLowerCase());
+					planetIds.add(planetId);
+					renamesInGalaxy.add(index);
+					renamesInGalaxy.add(planetName);
+				}
+				renames.add(renamesInGalaxy);
+			}
+			return write(baseSeeds.length, key, lowerCaseNames, planetIds, renames);
+		} catch (InterruptedException | ExecutionException e) {
+			throw new IllegalStateException("Planet name generation failed", e);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static byte[] write(int galaxyCount, int[] key, List<String> names, List<Integer> planetIds,
+			List<List<Object>> renames) {
+		int slotCount = Integer.highestOneBit(names.size() * 2 - 1) << 1;
+		int renameCount = 0;
+		int stringsSize = 0;
+		for (String name : names) {
+			stringsSize += 2 + name.length() * 2;
+		}
+		for (List<Object> renamesInGalaxy : renames) {
+			renameCount += renamesInGalaxy.size() / 2;
+			for (int i = 1; i < renamesInGalaxy.size(); i += 2) {
+				stringsSize += 2 + ((String) renamesInGalaxy.get(i)).length() * 2;
+			}
+		}
+		int renameEntriesOffset = HEADER_SIZE + (galaxyCount + 1) * 4;
+		int slotsOffset = renameEntriesOffset + renameCount * 8;
+		int stringsOffset = slotsOffset + slotCount * 8;
+		ByteBuffer buffer = ByteBuffer.allocate(stringsOffset + stringsSize);
+
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(key[0]).putInt(key[1]).putInt(key[2])
+			.putInt(galaxyCount).putInt(slotCount);
+
+		int stringPos = 0;
+		int renameStart = 0;
+		for (int g = 0; g < galaxyCount; g++) {
+			buffer.putInt(HEADER_SIZE + g * 4, renameStart);
+			List<Object> renamesInGalaxy = renames.get(g);
+			for (int i = 0; i < renamesInGalaxy.size(); i += 2) {
+				buffer.putInt(renameEntriesOffset + renameStart * 8, (Integer) renamesInGalaxy.get(i));
+				buffer.putInt(renameEntriesOffset + renameStart * 8 + 4, stringPos);
+				stringPos = putString(buffer, stringsOffset + stringPos, (String) renamesInGalaxy.get(i + 1)) - stringsOffset;
+				renameStart++;
+			}
+		}
+		buffer.putInt(HEADER_SIZE + galaxyCount * 4, renameStart);
+
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+			int slot = hash(name) & slotCount - 1;
+			while (buffer.getInt(slotsOffset + slot * 8) != 0) {
+				slot = slot + 1 & slotCount - 1;
+			}
+			buffer.putInt(slotsOffset + slot * 8, stringPos + 1);
+			buffer.putInt(slotsOffset + slot * 8 + 4, planetIds.get(i));
+			stringPos = putString(buffer, stringsOffset + stringPos, name) - stringsOffset;
+		}
+		return buffer.array();
+	}
+
+	private static int putString(ByteBuffer buffer, int position, String s) {
+		buffer.putChar(position, (char) s.length());
+		position += 2;
+		for (int i = 0; i < s.length(); i++) {
+			buffer.putChar(position, s.charAt(i));
+			position += 2;
+		}
+		return position;
+	}
+
+	private static int hash(String s) {
+		int h = s.hashCode();
+		return h ^ h >>> 16;
+	}
+
+	private int getRenameStart(int galaxy) {
+		return buffer.getInt(HEADER_SIZE + (galaxy - 1) * 4);
+	}
+
+	private String getString(int position) {
+		int length = buffer.getChar(stringsOffset + position);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = buffer.getChar(stringsOffset + position + 2 + i * 2);
+		}
+		return new String(chars);
+	}
+
+	private boolean equalsString(int position, String s) {
+		if (buffer.getChar(stringsOffset + position) != s.length()) {
+			return false;
+		}
+		for (int i = 0; i < s.length(); i++) {
+			if (buffer.getChar(stringsOffset + position + 2 + i * 2) != s.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the planet id (galaxy number << 8 + planet index) of the given planet name
+	 * or -1 if no planet exists with that name.
+	 */
+	int findPlanet(String name) {
+		String lowerCaseName = name.toLowerCase();
+		int slot = hash(lowerCaseName) & slotMask;
+		while (true) {
+			int position = buffer.getInt(slotsOffset + slot * 8);
+			if (position == 0) {
+				return -1;
+			}
+			if (equalsString(position - 1, lowerCaseName)) {
+				return buffer.getInt(slotsOffset + slot * 8 + 4);
+			}
+			slot = slot + 1 & slotMask;
+		}
+	}
+
+	/**
+	 * Returns the new names of the planets of the given galaxy (index -> name) which are renamed
+	 * because their generated names already exist.
+	 */
+	Map<Integer,String> getRenamedPlanets(int galaxy) {
+		Map<Integer,String> result = new LinkedHashMap<>();
+		for (int i = getRenameStart(galaxy); i < getRenameStart(galaxy + 1); i++) {
+			result.put(buffer.getInt(renameEntriesOffset + i * 8), getString(buffer.getInt(renameEntriesOffset + i * 8 + 4)));
+		}
+		return result;
+	}
+}
@@ -26,7 +26,6 @@ import java.util.*;
 import de.phbouillon.android.games.alite.AliteLog;
 import de.phbouillon.android.games.alite.L;
 import de.phbouillon.android.games.alite.R;
-import de.phbouillon.android.games.alite.model.PlayerCobra;
 import de.phbouillon.android.games.alite.model.generator.enums.Economy;
 import de.phbouillon.android.games.alite.model.generator.enums.Government;
 
@@ -113,11 +112,15 @@ public class SystemData implements Serializable {
 	private int fuelPrice; // 1-27 -- 32?!?!
  	private char goatSoupSeedA;
  	private char goatSoupSeedB;
+	private transient char goatSoupRandomA;
+	private transient char goatSoupRandomB;
 	private String name;
+	// Inhabitants and description are computed on first access
 	private String inhabitants;
 	private String inhabitantCode;
 	private String description;
-	String descriptionCode;
+	private String descriptionCode;
+	private boolean renamed;
 
 	private int planetTexture; // Index of the pre-generated planet texture
 	private int ringsTexture;  // Index of the ring texture or 0 for no rings
@@ -145,6 +148,10 @@ public class SystemData implements Serializable {
 		changeLocaleRaxxla(RAXXLA_SYSTEM);
 	}
 
+	static int getPlanetNameSyllableHash() {
+		return Arrays.hashCode(planetNameSyllable);
+	}
+
 	static void changeLocale() {
 		planetNameSyllable = null;
 		initialize();
@@ -198,13 +205,11 @@ public class SystemData implements Serializable {
 		result.goatSoupSeedB = (char) (result.goatSoupSeedA ^ seed.getWord(2));
 
 		result.inhabitantCode = InhabitantComputation.computeInhabitantCode(seed);
-		result.inhabitants = InhabitantComputation.computeInhabitantString(result.inhabitantCode);
 		result.name = generateRandomName(seed);
-		result.computeDescriptionString();
 
 		// The fuel price is fixed for a given system and must be
-		// computed AFTER the planet description (because the seed
-		// is twisted four times during the description generation.
+		// computed AFTER the planet name (because the seed
+		// is twisted four times during the name generation.
 		// If computed earlier, the fuel prices won't match the Amiga version).
 		result.computeFuelPrice(seed);
 
@@ -282,6 +287,14 @@ public class SystemData implements Serializable {
 	}
 
 	private void computeDescriptionString() {
+		goatSoupRandomA = goatSoupSeedA;
+		goatSoupRandomB = goatSoupSeedB;
+		if (renamed) {
+			// The description of a renamed planet has always been generated after the one of its
+			// original name, i.e. from the goat soup seed advanced by that first generation.
+			// The advance does not depend on the name, so only the code generation is repeated.
+			computeGoatSoup("%92% is%93%.", true);
+		}
 		descriptionCode = "";
 		description = computeGoatSoup("%92% is%93%.", true);
 		if (!descriptionMap.isEmpty()) {
@@ -296,11 +309,11 @@ public class SystemData implements Serializable {
 
 	// Goat soup description string generation
 	private char generateRandomNumber() {
-		char d0 = goatSoupSeedB;
-		char d1 = goatSoupSeedA;
-		goatSoupSeedA = d0;
+		char d0 = goatSoupRandomB;
+		char d1 = goatSoupRandomA;
+		goatSoupRandomA = d0;
 		d0 += d1;
-		goatSoupSeedB = d0;
+		goatSoupRandomB = d0;
 		d0 &= 0xFF;
 		return d0;
 	}
@@ -336,7 +349,8 @@ public class SystemData implements Serializable {
 
 	void changePlanetName(String planetName) {
 		name = planetName;
-		computeDescriptionString();
+		renamed = true;
+		description = null;
 	}
 
 	private String replaceCommand(String id, boolean genCode) {
@@ -351,7 +365,7 @@ public class SystemData implements Serializable {
 				}
 				return id;
 			case "random_name":
-				SeedType localSeed = new SeedType(goatSoupSeedA, goatSoupSeedB, (char) (goatSoupSeedA ^ goatSoupSeedB));
+				SeedType localSeed = new SeedType(goatSoupRandomA, goatSoupRandomB, (char) (goatSoupRandomA ^ goatSoupRandomB));
 				return generateRandomName(localSeed);
 			default:
 				if (genCode) {
@@ -398,14 +412,24 @@ public class SystemData implements Serializable {
 		return builder.toString();
 	}
 
-	public void computeReachableSystems(SystemData[] allSystems) {
+	public void computeReachableSystems(SystemData[] allSystems, GalaxyRoutes routes) {
 		if (!reachableSystems.isEmpty()) {
 			return;
 		}
 		// Computes all reachable planets. (I.e. all planets with a
-		// distance up to 7.0 light years).
+		// distance up to 7.0 light years) including this one.
+		if (index < routes.getSystemCount()) {
+			reachableSystems.add(this);
+			for (int n = 0; n < routes.getNeighbourCount(index); n++) {
+				reachableSystems.add(allSystems[routes.getNeighbour(index, n)]);
+			}
+			return;
+		}
+		// Raxxla is not part of the jump graph
 		for (SystemData data: allSystems) {
-			if (computeDistance(data) <= PlayerCobra.MAX_FUEL) {
+			int dx = x - data.x;
+			int dy = y - data.y;
+			if (dx * dx + dy * dy <= GalaxyRoutes.MAX_JUMP_DISTANCE_SQ) {
 				reachableSystems.add(data);
 			}
 		}
@@ -433,11 +457,11 @@ public class SystemData implements Serializable {
 			techLevel,
 			economy,
 			govType,
-			inhabitants,
+			getInhabitants(),
 			getGnp(),
 			diameter,
 			getPopulation(),
-			description);
+			getDescription());
 
 		StringBuilder systems = new StringBuilder(" [");
 		for (SystemData data: reachableSystems) {
@@ -492,6 +516,9 @@ public class SystemData implements Serializable {
 	}
 
 	public String getInhabitants() {
+		if (inhabitants == null) {
+			inhabitants = InhabitantComputation.computeInhabitantString(inhabitantCode);
+		}
 		return inhabitants;
 	}
 
@@ -512,9 +539,17 @@ public class SystemData implements Serializable {
 	}
 
 	public String getDescription() {
+		if (description == null) {
+			computeDescriptionString();
+		}
 		return description;
 	}
 
+	String getDescriptionCode() {
+		getDescription();
+		return descriptionCode;
+	}
+
 	public SystemData[] getReachableSystems() {
 		return reachableSystems.toArray(new SystemData[0]);
 	}
@@ -22,6 +22,7 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.games.alite.Alite;
 import de.phbouillon.android.games.alite.AliteLog;
 import de.phbouillon.android.games.alite.L;
@@ -210,7 +211,7 @@ public abstract class Mission implements Serializable {
 		if (candidates.isEmpty()) {
 			return alite.getGenerator().getSystem(current.getIndex() == 0 ? 1 : 0);
 		}
-		return candidates.get((int) (Math.random() * candidates.size()));
+		return candidates.get((int) (GameRandom.nextDouble() * candidates.size()));
 	}
 
 	boolean positionMatchesTarget() {
@@ -20,6 +20,7 @@ package de.phbouillon.android.games.alite.model.missions;
 
 import java.io.*;
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.model.EquipmentStore;
@@ -75,14 +76,14 @@ public class ThargoidDocumentsMission extends Mission implements Serializable {
 
 	private void spawnThargoids(final ObjectSpawnManager manager) {
 		if (manager.isInTorus()) {
-			if ((int) (Math.random() * 256) < 32) {
+			if ((int) (GameRandom.nextDouble() * 256) < 32) {
 				return;
 			}
 			manager.leaveTorus();
 		}
 		manager.conditionRed();
 		conditionRedEvent.pause();
-		manager.spawnThargoids(alite.getPlayer().getRating().ordinal() < 3 ? 1 : Math.random() < 0.5 ? 1 : 2);
+		manager.spawnThargoids(alite.getPlayer().getRating().ordinal() < 3 ? 1 : GameRandom.nextDouble() < 0.5 ? 1 : 2);
 	}
 
 	@Override
@@ -100,7 +101,7 @@ public class ThargoidDocumentsMission extends Mission implements Serializable {
 
 	@Override
 	public boolean willEnterWitchSpace() {
-		return Math.random() <= 0.15;
+		return GameRandom.nextDouble() <= 0.15;
 	}
 
 	@Override
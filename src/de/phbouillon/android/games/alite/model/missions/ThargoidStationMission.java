@@ -20,6 +20,7 @@ package de.phbouillon.android.games.alite.model.missions;
 
 import java.io.*;
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.model.EquipmentStore;
@@ -139,7 +140,7 @@ public class ThargoidStationMission extends Mission implements Serializable {
 		}
 		manager.conditionRed();
 		conditionRedEvent.pause();
-		manager.spawnThargoids(alite.getPlayer().getRating().ordinal() < 3 ? 1 : Math.random() < 0.5 ? 2 : 3);
+		manager.spawnThargoids(alite.getPlayer().getRating().ordinal() < 3 ? 1 : GameRandom.nextDouble() < 0.5 ? 2 : 3);
 	}
 
 	@Override
@@ -21,6 +21,8 @@ package de.phbouillon.android.games.alite.model.trading;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.phbouillon.android.framework.GameRandom;
+
 public abstract class TradeGoodStore {
 	public static final int FOOD             =  0;
 	public static final int TEXTILES         =  1;
@@ -82,7 +84,7 @@ public abstract class TradeGoodStore {
 	public TradeGood getRandomTradeGoodForContainer() {
 		TradeGood good;
 		do {
-			good = goods.get((int) (Math.random() * goods.size()));
+			good = goods.get((int) (GameRandom.nextDouble() * goods.size()));
 		} while (good.getId() == ALIEN_ITEMS || good.isSpecialGood());
 		return good;
 	}
@@ -0,0 +1,219 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.phbouillon.android.framework.FileIO;
+import de.phbouillon.android.games.alite.AliteLog;
+
+/**
+ * Parsed content of a plugin, stored between launches so that the files of the plugin
+ * are only parsed again if they changed. Each entry is stored with the modification time
+ * of its source; an entry with a different time is parsed again and replaces the old entry.
+ *
+ * File layout (all values are big endian):
+ * <pre>
+ * header: magic, version, entry count
+ * entry:  entry size, name, modification time, content
+ * </pre>
+ * where strings are stored as a short length followed by the UTF-8 bytes and the layout
+ * of the content is defined by the subclass.
+ */
+abstract class ContentCache<T> {
+	private static final int HEADER_SIZE = 3 * 4;
+	private static final String CACHE_DIRECTORY = "cache" + File.separator;
+
+	private final FileIO fileIO;
+	private final String fileName;
+	private final int magic;
+	private final int version;
+	private ByteBuffer buffer;
+	// Offsets of the entries (after their size) in the buffer
+	private final Map<String,Integer> offsets = new HashMap<>();
+	private final Map<String,Entry<T>> parsedEntries = new LinkedHashMap<>();
+
+	private static class Entry<T> {
+		final long modificationTime;
+		final T content;
+
+		Entry(long modificationTime, T content) {
+			this.modificationTime = modificationTime;
+			this.content = content;
+		}
+	}
+
+	ContentCache(FileIO fileIO, String fileName, int magic, int version) {
+		this.fileIO = fileIO;
+		this.fileName = CACHE_DIRECTORY + fileName;
+		this.magic = magic;
+		this.version = version;
+	}
+
+	abstract T read(ByteBuffer buffer) throws IOException;
+
+	abstract void write(DataOutputStream dos, T content) throws IOException;
+
+	private void load() {
+		buffer = ByteBuffer.allocate(0);
+		if (!fileIO.exists(fileName)) {
+			return;
+		}
+		try {
+			ByteBuffer content = ByteBuffer.wrap(fileIO.readFileContents(fileName));
+			if (content.limit() < HEADER_SIZE || content.getInt() != magic || content.getInt() != version) {
+				AliteLog.d("Content cache", "Content cache " + fileName + " is outdated.");
+				return;
+			}
+			Map<String,Integer> entries = new HashMap<>();
+			for (int count = content.getInt(); count > 0; count--) {
+				int size = content.getInt();
+				int offset = content.position();
+				if (size < 0 || size > content.remaining()) {
+					AliteLog.e("Content cache", "Content cache " + fileName + " is truncated.");
+					return;
+				}
+				entries.put(getString(content), offset);
+				content.position(offset + size);
+			}
+			offsets.putAll(entries);
+			buffer = content;
+		} catch (IOException | RuntimeException e) {
+			AliteLog.e("Content cache", "Error while loading content cache " + fileName, e);
+		}
+	}
+
+	/**
+	 * @return the cached content or null if it is not cached or its source has been modified since.
+	 */
+	T get(String name, long modificationTime) {
+		if (buffer == null) {
+			load();
+		}
+		Integer offset = offsets.get(name);
+		if (offset == null) {
+			return null;
+		}
+		try {
+			ByteBuffer entry = buffer.duplicate();
+			entry.position(offset);
+			getString(entry);
+			if (entry.getLong() != modificationTime) {
+				return null;
+			}
+			return read(entry);
+		} catch (IOException | RuntimeException e) {
+			AliteLog.e("Content cache", "Invalid entry " + name + " in content cache " + fileName, e);
+			return null;
+		}
+	}
+
+	void put(String name, long modificationTime, T content) {
+		parsedEntries.put(name, new Entry<>(modificationTime, content));
+	}
+
+	/**
+	 * Writes the cache file if entries were parsed since it was loaded.
+	 */
+	void save() {
+		if (parsedEntries.isEmpty()) {
+			return;
+		}
+		if (buffer == null) {
+			load();
+		}
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			int count = 0;
+			try (DataOutputStream dos = new DataOutputStream(bos)) {
+				dos.writeInt(magic);
+				dos.writeInt(version);
+				dos.writeInt(0); // entry count, set below
+				for (Map.Entry<String,Integer> offset : offsets.entrySet()) {
+					if (parsedEntries.containsKey(offset.getKey())) {
+						continue;
+					}
+					// Unchanged entries are copied as they are
+					int size = buffer.getInt(offset.getValue() - 4);
+					dos.writeInt(size);
+					dos.write(buffer.array(), offset.getValue(), size);
+					count++;
+				}
+				for (Map.Entry<String,Entry<T>> entry : parsedEntries.entrySet()) {
+					byte[] data = toBytes(entry.getKey(), entry.getValue());
+					dos.writeInt(data.length);
+					dos.write(data);
+					count++;
+				}
+			}
+			ByteBuffer content = ByteBuffer.wrap(bos.toByteArray());
+			content.putInt(8, count);
+			fileIO.mkDir(CACHE_DIRECTORY);
+			try (OutputStream out = fileIO.writeFile(fileName)) {
+				out.write(content.array());
+			}
+			AliteLog.d("Content cache", count + " entries saved to " + fileName);
+		} catch (IOException e) {
+			AliteLog.e("Content cache", "Error while saving content cache " + fileName, e);
+			fileIO.deleteFile(fileName);
+		}
+		buffer = null;
+		offsets.clear();
+		parsedEntries.clear();
+	}
+
+	private byte[] toBytes(String name, Entry<T> entry) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (DataOutputStream dos = new DataOutputStream(bos)) {
+			putString(dos, name);
+			dos.writeLong(entry.modificationTime);
+			write(dos, entry.content);
+		}
+		return bos.toByteArray();
+	}
+
+	static void putString(DataOutputStream dos, String s) throws IOException {
+		if (s == null) {
+			dos.writeShort(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		dos.writeShort(bytes.length);
+		dos.write(bytes);
+	}
+
+	static String getString(ByteBuffer buffer) {
+		int length = buffer.getShort();
+		if (length < 0) {
+			return null;
+		}
+		String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return s;
+	}
+}
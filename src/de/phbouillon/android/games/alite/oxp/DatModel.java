@@ -0,0 +1,359 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import de.phbouillon.android.games.alite.AliteLog;
+
+/**
+ * Geometry of an Oolite .dat model.
+ * The model is read line by line into a reused byte buffer and the numbers are parsed
+ * directly from that buffer, so no strings are created apart from the texture file name.
+ */
+final class DatModel {
+	private static final byte[] NVERTS = {'N', 'V', 'E', 'R', 'T', 'S'};
+	private static final byte[] NFACES = {'N', 'F', 'A', 'C', 'E', 'S'};
+	private static final byte[] VERTEX = {'V', 'E', 'R', 'T', 'E', 'X'};
+	private static final byte[] FACES = {'F', 'A', 'C', 'E', 'S'};
+	private static final byte[] TEXTURES = {'T', 'E', 'X', 'T', 'U', 'R', 'E', 'S'};
+	private static final byte[] END = {'E', 'N', 'D'};
+	private static final byte[] COMMENT = {'/', '/'};
+
+	// Powers of ten which are exact floats: a number with at most 24 bits of mantissa
+	// multiplied or divided by them gives the same result as Float.parseFloat.
+	private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+	private static final int MAX_EXACT_MANTISSA = 1 << 24;
+	private static final long MAX_MANTISSA = Long.MAX_VALUE / 10 - 9;
+
+	final float[] vertices;
+	final float[] faces;
+	final int[] indices;
+	final String textureFilename;
+	final float[] textures;
+
+	DatModel(float[] vertices, float[] faces, int[] indices, String textureFilename, float[] textures) {
+		this.vertices = vertices;
+		this.faces = faces;
+		this.indices = indices;
+		this.textureFilename = textureFilename;
+		this.textures = textures;
+	}
+
+	/**
+	 * @return the model or null if it has no vertices or faces.
+	 */
+	static DatModel parse(InputStream in) throws IOException {
+		return new Tokenizer(in).parseModel();
+	}
+
+	private static final class Tokenizer {
+		private final InputStream in;
+		private final byte[] buffer = new byte[8192];
+		private int bufferPosition;
+		private int bufferLength;
+		private byte[] line = new byte[128];
+		private int lineLength;
+		private int position;
+
+		Tokenizer(InputStream in) {
+			this.in = in;
+		}
+
+		DatModel parseModel() throws IOException {
+			float[] vertices = null;
+			float[] faces = null;
+			int[] indices = null;
+			String textureFilename = null;
+			float[] textures = null;
+
+			int vertexCounter = 0;
+			int faceCounter = 0;
+			int textureCounter = 0;
+			int section = -1; // 0 - vertex, 1 - faces, 2 - textures
+
+			while (readLine() && !isLine(END)) {
+				if (lineLength == 0 || startsWith(COMMENT)) {
+					continue;
+				}
+				if (startsWith(NVERTS)) {
+					position = NVERTS.length;
+					vertices = new float[3 * nextInt()];
+					continue;
+				}
+				if (startsWith(NFACES)) {
+					position = NFACES.length;
+					int faceCount = nextInt();
+					faces = new float[3 * faceCount];
+					indices = new int[3 * faceCount];
+					textures = new float[6 * faceCount];
+					continue;
+				}
+				if (startsWith(VERTEX)) {
+					section = 0;
+					continue;
+				}
+				if (startsWith(FACES)) {
+					section = 1;
+					continue;
+				}
+				if (startsWith(TEXTURES)) {
+					section = 2;
+					continue;
+				}
+
+				if (section == 0) { // vertex
+					if (vertices == null) {
+						AliteLog.e("Model reading error", "Missing NVERTS line");
+						break;
+					}
+					if (vertices.length <= vertexCounter + 2) {
+						AliteLog.e("Model reading error", "Max. vertices (" + vertices.length + ") exceeded");
+						break;
+					}
+					vertices[vertexCounter++] = nextFloat();
+					vertices[vertexCounter++] = nextFloat();
+					vertices[vertexCounter++] = nextFloat();
+					continue;
+				}
+
+				if (section == 1) { // faces
+					if (faces == null) {
+						AliteLog.e("Model reading error", "Missing NFACES line");
+						break;
+					}
+					if (faces.length <= faceCounter + 2) {
+						AliteLog.e("Model reading error", "Max. faces (" + faces.length + ") exceeded");
+						break;
+					}
+					// color
+					skipToken();
+					skipToken();
+					skipToken();
+					faces[faceCounter] = nextFloat();
+					faces[faceCounter + 1] = nextFloat();
+					faces[faceCounter + 2] = nextFloat();
+					// vertex count
+					skipToken();
+					indices[faceCounter] = nextInt();
+					indices[faceCounter + 1] = nextInt();
+					indices[faceCounter + 2] = nextInt();
+					faceCounter += 3;
+					continue;
+				}
+
+				if (section == 2) { // textures
+					if (textures == null) {
+						AliteLog.e("Model reading error", "Missing NFACES line");
+						break;
+					}
+					if (textures.length <= textureCounter + 5) {
+						AliteLog.e("Model reading error", "Max. textures (" + textures.length + ") exceeded");
+						break;
+					}
+					textureFilename = nextString(textureFilename);
+					// texture scale
+					skipToken();
+					skipToken();
+					for (int i = 0; i < 6; i++) {
+						textures[textureCounter++] = nextFloat();
+					}
+				}
+			}
+			if (vertices != null && faces != null && indices != null) {
+				return new DatModel(vertices, faces, indices, textureFilename, textures);
+			}
+			return null;
+		}
+
+		private int read() throws IOException {
+			if (bufferPosition == bufferLength) {
+				bufferLength = in.read(buffer);
+				bufferPosition = 0;
+				if (bufferLength <= 0) {
+					bufferLength = 0;
+					return -1;
+				}
+			}
+			return buffer[bufferPosition++];
+		}
+
+		// Both \r and \n end a line, the empty line between them is skipped as any other empty line.
+		private boolean readLine() throws IOException {
+			lineLength = 0;
+			position = 0;
+			int c;
+			while ((c = read()) != -1 && c != '\n' && c != '\r') {
+				if (lineLength == line.length) {
+					line = Arrays.copyOf(line, 2 * lineLength);
+				}
+				line[lineLength++] = (byte) c;
+			}
+			return c != -1 || lineLength > 0;
+		}
+
+		private boolean startsWith(byte[] prefix) {
+			if (lineLength < prefix.length) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length; i++) {
+				if (line[i] != prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isLine(byte[] content) {
+			return lineLength == content.length && startsWith(content);
+		}
+
+		private static boolean isSeparator(byte c) {
+			return c == ',' || c == ' ' || c == '\t';
+		}
+
+		private void skipSeparators() {
+			while (position < lineLength && isSeparator(line[position])) {
+				position++;
+			}
+		}
+
+		private int skipToken() {
+			skipSeparators();
+			int start = position;
+			while (position < lineLength && !isSeparator(line[position])) {
+				position++;
+			}
+			return start;
+		}
+
+		private boolean isTokenEnd() {
+			return position == lineLength || isSeparator(line[position]);
+		}
+
+		private boolean isDigit() {
+			return position < lineLength && line[position] >= '0' && line[position] <= '9';
+		}
+
+		// The file name is separated by white space only, an unchanged name is returned as the previous instance.
+		private String nextString(String previous) {
+			while (position < lineLength && (line[position] == ' ' || line[position] == '\t')) {
+				position++;
+			}
+			int start = position;
+			while (position < lineLength && line[position] != ' ' && line[position] != '\t') {
+				position++;
+			}
+			int length = position - start;
+			if (previous != null && previous.length() == length) {
+				int i = 0;
+				while (i < length && line[start + i] >= 0 && previous.charAt(i) == line[start + i]) {
+					i++;
+				}
+				if (i == length) {
+					return previous;
+				}
+			}
+			return new String(line, start, length, StandardCharsets.UTF_8);
+		}
+
+		private int nextInt() {
+			skipSeparators();
+			int start = position;
+			boolean negative = position < lineLength && line[position] == '-';
+			if (negative || position < lineLength && line[position] == '+') {
+				position++;
+			}
+			long value = 0;
+			boolean digits = false;
+			while (isDigit() && value <= Integer.MAX_VALUE) {
+				value = 10 * value + line[position++] - '0';
+				digits = true;
+			}
+			if (!digits || !isTokenEnd() || value > Integer.MAX_VALUE) {
+				// Let Integer.parseInt report the error
+				position = start;
+				return Integer.parseInt(getToken());
+			}
+			return (int) (negative ? -value : value);
+		}
+
+		private float nextFloat() {
+			skipSeparators();
+			int start = position;
+			boolean negative = position < lineLength && line[position] == '-';
+			if (negative || position < lineLength && line[position] == '+') {
+				position++;
+			}
+			long mantissa = 0;
+			int exponent = 0;
+			boolean digits = false;
+			while (isDigit() && mantissa <= MAX_MANTISSA) {
+				mantissa = 10 * mantissa + line[position++] - '0';
+				digits = true;
+			}
+			if (position < lineLength && line[position] == '.') {
+				position++;
+				while (isDigit() && mantissa <= MAX_MANTISSA) {
+					mantissa = 10 * mantissa + line[position++] - '0';
+					exponent--;
+					digits = true;
+				}
+			}
+			if (position < lineLength && (line[position] == 'e' || line[position] == 'E')) {
+				position++;
+				int exponentStart = position;
+				boolean negativeExponent = position < lineLength && line[position] == '-';
+				if (negativeExponent || position < lineLength && line[position] == '+') {
+					position++;
+				}
+				int value = 0;
+				while (isDigit() && value < 100) {
+					value = 10 * value + line[position++] - '0';
+				}
+				exponent += negativeExponent ? -value : value;
+				digits &= position > exponentStart && isDigit(line[position - 1]);
+			}
+			while (mantissa >= MAX_EXACT_MANTISSA && mantissa % 10 == 0) {
+				mantissa /= 10;
+				exponent++;
+			}
+			if (!digits || !isTokenEnd() || mantissa >= MAX_EXACT_MANTISSA ||
+					exponent < -POWERS_OF_TEN.length + 1 || exponent > POWERS_OF_TEN.length - 1) {
+				// Not exactly representable by the fast path (or invalid): let Float.parseFloat handle it
+				position = start;
+				return Float.parseFloat(getToken());
+			}
+			float value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+
+		private static boolean isDigit(byte c) {
+			return c >= '0' && c <= '9';
+		}
+
+		private String getToken() {
+			int start = skipToken();
+			return new String(line, start, position - start, StandardCharsets.UTF_8);
+		}
+	}
+}
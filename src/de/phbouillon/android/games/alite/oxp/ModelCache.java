@@ -0,0 +1,83 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import de.phbouillon.android.framework.FileIO;
+
+/**
+ * Parsed models of a plugin, stored between launches so that the .dat files of the plugin
+ * are only parsed again if they changed.
+ *
+ * Content of an entry (all values are big endian):
+ * <pre>
+ * texture file name (or length -1), vertex count, vertices, face count, faces,
+ * index count, indices, texture count, textures
+ * </pre>
+ */
+final class ModelCache extends ContentCache<DatModel> {
+	private static final int MAGIC = 0x414C4D43; // "ALMC"
+	private static final int VERSION = 1;
+
+	ModelCache(FileIO fileIO, String cacheName) {
+		super(fileIO, cacheName + ".mdl", MAGIC, VERSION);
+	}
+
+	@Override
+	DatModel read(ByteBuffer entry) {
+		String textureFilename = getString(entry);
+		float[] vertices = getFloats(entry);
+		float[] faces = getFloats(entry);
+		int[] indices = new int[entry.getInt()];
+		entry.asIntBuffer().get(indices);
+		entry.position(entry.position() + 4 * indices.length);
+		return new DatModel(vertices, faces, indices, textureFilename, getFloats(entry));
+	}
+
+	private static float[] getFloats(ByteBuffer buffer) {
+		float[] result = new float[buffer.getInt()];
+		buffer.asFloatBuffer().get(result);
+		buffer.position(buffer.position() + 4 * result.length);
+		return result;
+	}
+
+	@Override
+	void write(DataOutputStream dos, DatModel model) throws IOException {
+		putString(dos, model.textureFilename);
+		dos.writeInt(model.vertices.length);
+		for (float f : model.vertices) {
+			dos.writeFloat(f);
+		}
+		dos.writeInt(model.faces.length);
+		for (float f : model.faces) {
+			dos.writeFloat(f);
+		}
+		dos.writeInt(model.indices.length);
+		for (int i : model.indices) {
+			dos.writeInt(i);
+		}
+		dos.writeInt(model.textures.length);
+		for (float f : model.textures) {
+			dos.writeFloat(f);
+		}
+	}
+}
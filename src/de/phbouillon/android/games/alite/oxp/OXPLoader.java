@@ -0,0 +1,193 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.phbouillon.android.games.alite.AliteLog;
+
+/**
+ * Loads a set of plugins using a bounded pool of threads. The manifests of all plugins are read
+ * in parallel first and the plugins are ordered by their required plugins. Then the property lists
+ * and the models of the plugins are parsed in parallel, while the parsed plugins are plugged one
+ * after the other on the calling thread, so the registrations happen in the same order on every
+ * start: a plugin is plugged after the plugins it requires and otherwise in the order it was added.
+ * Plugins whose required plugins are missing or require each other are not plugged.
+ */
+public final class OXPLoader {
+	private final int threadCount;
+	private final List<OXPParser> plugins = new ArrayList<>();
+	private final List<OXPParser> installedPlugins = new ArrayList<>();
+
+	public interface ProgressListener {
+		void pluginLoaded(String pluginName);
+	}
+
+	public OXPLoader() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param threadCount the maximum number of threads reading the plugins, 1 if the plugins
+	 *                    share a resource which can't be read in parallel
+	 */
+	public OXPLoader(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * The list of the plugged plugins, to be passed to the parsers of the plugins.
+	 */
+	public List<OXPParser> getInstalledPlugins() {
+		return installedPlugins;
+	}
+
+	public void add(OXPParser plugin) {
+		if (plugin.isPluginFile()) {
+			plugins.add(plugin);
+		}
+	}
+
+	public void load(ProgressListener listener) {
+		if (plugins.isEmpty()) {
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, plugins.size()));
+		try {
+			List<Future<Void>> manifests = new ArrayList<>(plugins.size());
+			for (final OXPParser plugin : plugins) {
+				manifests.add(executor.submit(() -> {
+					plugin.readManifest();
+					return null;
+				}));
+			}
+			boolean[] readable = new boolean[plugins.size()];
+			for (int i = 0; i < plugins.size(); i++) {
+				try {
+					manifests.get(i).get();
+					readable[i] = true;
+				} catch (ExecutionException e) {
+					AliteLog.e("Plugin load error", "Failed to load plugin " + plugins.get(i).getPluginName(), e.getCause());
+				}
+			}
+
+			List<Integer> order = getLoadOrder(readable);
+			List<Future<?>> preparations = new ArrayList<>(order.size());
+			for (int i : order) {
+				preparations.add(executor.submit(plugins.get(i)::prepare));
+			}
+			for (int i = 0; i < order.size(); i++) {
+				OXPParser plugin = plugins.get(order.get(i));
+				try {
+					preparations.get(i).get();
+				} catch (ExecutionException e) {
+					// plugging reads again what could not be prepared
+					AliteLog.e("Plugin load error", "Failed to prepare plugin " + plugin.getPluginName(), e.getCause());
+				}
+				plug(plugin, listener);
+			}
+		} catch (InterruptedException e) {
+			AliteLog.e("Plugin load error", "Loading plugins interrupted.", e);
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void plug(OXPParser plugin, ProgressListener listener) {
+		try {
+			if (plugin.isPlugged()) {
+				installedPlugins.add(plugin);
+				if (listener != null) {
+					listener.pluginLoaded(plugin.getPluginName());
+				}
+			} else {
+				AliteLog.e("Plugin load error", "Plugin " + plugin.getPluginName() + " is not plugged completely.");
+			}
+		} catch (IOException e) {
+			AliteLog.e("Plugin load error", "Failed to load plugin " + plugin.getPluginName(), e);
+		}
+	}
+
+	/**
+	 * Sorts the plugins topologically by their required plugins, taking the plugin added first of
+	 * the plugins which can be plugged next.
+	 *
+	 * @return the indices of the plugins in the order they are to be plugged
+	 */
+	private List<Integer> getLoadOrder(boolean[] readable) {
+		int count = plugins.size();
+		List<List<Integer>> dependents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			dependents.add(new ArrayList<>());
+		}
+		int[] unresolved = new int[count];
+		for (int i = 0; i < count; i++) {
+			if (!readable[i]) {
+				continue;
+			}
+			for (OXPParser.PluginReference required : plugins.get(i).getRequiredPlugins()) {
+				boolean found = false;
+				for (int j = 0; j < count; j++) {
+					if (j != i && readable[j] && plugins.get(j).matches(required)) {
+						dependents.get(j).add(i);
+						unresolved[i]++;
+						found = true;
+					}
+				}
+				if (!found) {
+					AliteLog.e("Plugin load error", "Plugin " + plugins.get(i).getPluginName() +
+						" requires missing plugin " + required + ".");
+					unresolved[i]++;
+				}
+			}
+		}
+
+		PriorityQueue<Integer> ready = new PriorityQueue<>();
+		for (int i = 0; i < count; i++) {
+			if (readable[i] && unresolved[i] == 0) {
+				ready.add(i);
+			}
+		}
+		List<Integer> order = new ArrayList<>(count);
+		while (!ready.isEmpty()) {
+			int i = ready.poll();
+			order.add(i);
+			for (int dependent : dependents.get(i)) {
+				if (--unresolved[dependent] == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			if (readable[i] && unresolved[i] > 0) {
+				AliteLog.e("Plugin load error", "Plugin " + plugins.get(i).getPluginName() +
+					" is not loaded, its required plugins are missing or require each other.");
+			}
+		}
+		return order;
+	}
+}
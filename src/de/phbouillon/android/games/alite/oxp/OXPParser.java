@@ -58,13 +58,41 @@ public class OXPParser {
 	private boolean isPluginFile;
 	private boolean plugged = true;
 	private boolean localeDependent;
+	private boolean manifestRead;
 	private final List<String> pendingRegistration = new ArrayList<>();
+	private final List<PluginReference> requiredPlugins = new ArrayList<>();
+	private final List<PluginReference> conflictPlugins = new ArrayList<>();
+	// Models of the ship data parsed by prepare
+	private final Map<String,DatModel> preparedModels = new HashMap<>();
+	// Used to get the modification time of the models, null for plugins bundled with the apk
+	private FileIO pluginFileIO;
+	private ModelCache modelCache;
 	private final Repository<ManifestProperty> repoHandler = new Repository<>();
 
 	public interface ListerMethod {
 		String[] list(String directory) throws IOException;
 	}
 
+	/**
+	 * A plugin referred to by the requires_oxps or conflict_oxps list of the manifest.
+	 */
+	static final class PluginReference {
+		final String identifier;
+		final String version;
+		final String maxVersion;
+
+		PluginReference(String identifier, String version, String maxVersion) {
+			this.identifier = identifier;
+			this.version = version;
+			this.maxVersion = maxVersion;
+		}
+
+		@Override
+		public String toString() {
+			return identifier + " v" + version + (isEmpty(maxVersion) ? "" : " - v" + maxVersion);
+		}
+	}
+
 	private enum ManifestProperty {
 		identifier,
 		required_oolite_version,
@@ -112,6 +140,8 @@ public class OXPParser {
 		}
 		parser = new PListParser(inputStreamMethod);
 		repoHandler.setProperty(ManifestProperty.title, getPluginName());
+		pluginFileIO = fileIO;
+		setContentCache(fileIO, "");
 	}
 
 	public OXPParser(String pluginName, ResourceStream inputStreamMethod, ListerMethod listerMethod) {
@@ -128,11 +158,27 @@ public class OXPParser {
 		return this;
 	}
 
-	private void plug() throws IOException {
-		if (!isPluginFile) {
+	/**
+	 * Stores the parsed models and property lists of a plugin bundled with the apk between launches.
+	 */
+	public OXPParser setContentCache(FileIO fileIO) {
+		setContentCache(fileIO, "apk_");
+		return this;
+	}
+
+	private void setContentCache(FileIO fileIO, String prefix) {
+		modelCache = new ModelCache(fileIO, "models_" + prefix + getPluginName());
+		parser.setCache(new PListCache(fileIO, "plists_" + prefix + getPluginName()), this::getModificationTime);
+	}
+
+	/**
+	 * Reads the manifest and the version requirements of the plugin. It does not depend on other
+	 * plugins or on the registered objects, so the manifests of several plugins can be read in parallel.
+	 */
+	void readManifest() throws IOException {
+		if (!isPluginFile || manifestRead) {
 			return;
 		}
-		AliteLog.d("Loading plugin", "Loading plugin " + pluginName);
 		try {
 			readManifestFileProperties();
 		} catch (IOException e) {
@@ -147,6 +193,64 @@ public class OXPParser {
 			// allowed to be missed
 		}
 		checkRequiredVersion();
+		manifestRead = true;
+	}
+
+	/**
+	 * Parses the property lists and the models of the ship data of the plugin in advance
+	 * without registering anything, so several plugins can be prepared in parallel while
+	 * plugging them remains sequential. Files which cannot be prepared are read again by
+	 * plugging, which reports their errors.
+	 */
+	void prepare() {
+		if (!isPluginFile) {
+			return;
+		}
+		parser.prepare(FILE_DEMO_SHIPS);
+		parser.prepare(FILE_SHIP_LIBRARY);
+		parser.prepare(FILE_SHIP_DATA);
+		parser.prepare(FILE_SHIP_DATA_OVERRIDES);
+		parser.prepare(FILE_EQUIPMENT);
+		if (listerMethod != null) {
+			try {
+				String[] fileNameList = listerMethod.list(DIRECTORY_AIS);
+				if (fileNameList != null) {
+					for (String fileName : fileNameList) {
+						if (fileName.endsWith(".plist")) {
+							parser.prepare(DIRECTORY_AIS + File.separatorChar + fileName);
+						}
+					}
+				}
+			} catch (IOException ignored) {
+				// allowed to be missed
+			}
+		}
+		NSObject shipList = parser.getPrepared(FILE_SHIP_DATA);
+		if (!(shipList instanceof NSDictionary)) {
+			return;
+		}
+		for (NSObject ship : ((NSDictionary) shipList).values()) {
+			NSObject modelName = ship instanceof NSDictionary ? ((NSDictionary) ship).get("model") : null;
+			if (modelName instanceof NSString && !preparedModels.containsKey(((NSString) modelName).getContent())) {
+				try {
+					preparedModels.put(((NSString) modelName).getContent(), loadModel(((NSString) modelName).getContent()));
+				} catch (IOException ignored) {
+					// reported when plugged
+				}
+			}
+		}
+	}
+
+	private void plug() throws IOException {
+		if (!isPluginFile) {
+			return;
+		}
+		AliteLog.d("Loading plugin", "Loading plugin " + pluginName);
+		readManifest();
+		if (!checkPluginDependencies()) {
+			plugged = false;
+			return;
+		}
 
 		try {
 			if (!localeDependent) {
@@ -195,6 +299,12 @@ public class OXPParser {
 				// allowed to be missed
 			}
 		}
+		if (modelCache != null) {
+			modelCache.save();
+		}
+		parser.saveCache();
+		parser.clearPrepared();
+		preparedModels.clear();
 	}
 
 	private void readEquipmentProperties() throws IOException {
@@ -283,6 +393,9 @@ public class OXPParser {
 					setProperty(spaceObject, shipData, p.getKey(), p.getValue());
 				}
 			}
+			// the model of a like ship is copied with its properties
+			boolean modelDefined = spaceObject.getRepoHandler().getStringProperty(SpaceObject.Property.like_ship) != null &&
+				spaceObject.getRepoHandler().getProperty(SpaceObject.Property.model) == null;
 			String likeShipId = setDependentProperties(spaceObject);
 			if (register) {
 				setDefaultValueToUnsetPropertiesOfShip(spaceObject);
@@ -295,8 +408,6 @@ public class OXPParser {
 				}
 				continue;
 			}
-			boolean modelDefined = spaceObject.getRepoHandler().getStringProperty(SpaceObject.Property.like_ship) != null &&
-				spaceObject.getRepoHandler().getProperty(SpaceObject.Property.model) == null;
 			if (shipData && !modelDefined) {
 				modelDefined = isModelDefined(spaceObject);
 			}
@@ -326,119 +437,37 @@ public class OXPParser {
 	}
 
 	private boolean isModelDefined(SpaceObject spaceObject) throws IOException {
-		InputStream is = parser.getInputStream("Models" + File.separatorChar +
-			spaceObject.getRepoHandler().getStringProperty(SpaceObject.Property.model));
-		try(BufferedReader in = new BufferedReader(new InputStreamReader(is))) {
-			float[] vertices = null;
-			float[] faces = null;
-			int[] indices = null;
-			String textureFilename = null;
-			float[] textures = null;
-
-			int vertexCounter = 0;
-			int faceCounter = 0;
-			int textureCounter = 0;
-			int section = -1; // 0 - vertex, 1 - faces, 2 - textures
-
-			do {
-				String line = in.readLine();
-				if (line == null || "END".equals(line)) {
-					break;
-				}
-				if (line.isEmpty() || line.startsWith("//")) {
-					continue;
-				}
-				if (line.startsWith("NVERTS")) {
-					vertices = new float[3 * Integer.parseInt(line.substring(7))];
-					continue;
-				}
-				if (line.startsWith("NFACES")) {
-					faces = new float[3 * Integer.parseInt(line.substring(7))];
-					indices = new int[3 * Integer.parseInt(line.substring(7))];
-					textures = new float[6 * Integer.parseInt(line.substring(7))];
-					continue;
-				}
-				if (line.startsWith("VERTEX")) {
-					section = 0;
-					continue;
-				}
-
-				if (line.startsWith("FACES")) {
-					section = 1;
-					continue;
-				}
-
-				if (line.startsWith("TEXTURES")) {
-					section = 2;
-					continue;
-				}
-
-				if (section == 0) { // vertex
-					if (vertices == null) {
-							AliteLog.e("Model reading error", "Missing NVERTS line");
-							break;
-					}
-					if (vertices.length <= vertexCounter + 2) {
-						AliteLog.e("Model reading error", "Max. vertices (" + vertices.length + ") exceeded");
-						break;
-					}
-					String[] v = line.split(",");
-					vertices[vertexCounter] = Float.parseFloat(v[0].trim());
-					vertices[vertexCounter+1] = Float.parseFloat(v[1].trim());
-					vertices[vertexCounter+2] = Float.parseFloat(v[2].trim());
-					vertexCounter += 3;
-					continue;
-				}
-
-				if (section == 1) { // faces
-					if (faces == null) {
-						AliteLog.e("Model reading error", "Missing NFACES line");
-						break;
-					}
-					if (faces.length <= faceCounter + 2) {
-						AliteLog.e("Model reading error", "Max. faces (" + faces.length + ") exceeded");
-						break;
-					}
-					String[] v = line.split(",");
-					faces[faceCounter] = Float.parseFloat(v[3].trim());
-					faces[faceCounter+1] = Float.parseFloat(v[4].trim());
-					faces[faceCounter+2] = Float.parseFloat(v[5].trim());
-
-					indices[faceCounter] = Integer.parseInt(v[7].trim());
-					indices[faceCounter+1] = Integer.parseInt(v[8].trim());
-					indices[faceCounter+2] = Integer.parseInt(v[9].trim());
-
-					faceCounter += 3;
-					continue;
-				}
-
-				if (section == 2) { // textures
-					if (textures == null) {
-						AliteLog.e("Model reading error", "Missing NFACES line");
-						break;
-					}
-					if (textures.length <= textureCounter + 5) {
-						AliteLog.e("Model reading error", "Max. textures (" + textures.length + ") exceeded");
-						break;
-					}
-					String[] v = line.split("\\s");
-					textureFilename = v[0];
-					textures[textureCounter] = Float.parseFloat(v[3].trim());
-					textures[textureCounter+1] = Float.parseFloat(v[4].trim());
-					textures[textureCounter+2] = Float.parseFloat(v[5].trim());
-					textures[textureCounter+3] = Float.parseFloat(v[6].trim());
-					textures[textureCounter+4] = Float.parseFloat(v[7].trim());
-					textures[textureCounter+5] = Float.parseFloat(v[8].trim());
-					textureCounter += 6;
-				}
-			} while (true);
-			if (vertices != null && faces != null && indices != null) {
-				spaceObject.createFaces(vertices, faces, indices);
-				spaceObject.setTexture("Textures" + File.separatorChar + textureFilename, textures, inputStreamMethod);
-				return true;
+		String modelName = spaceObject.getRepoHandler().getStringProperty(SpaceObject.Property.model);
+		DatModel model = preparedModels.containsKey(modelName) ? preparedModels.get(modelName) : loadModel(modelName);
+		if (model == null) {
+			return false;
+		}
+		spaceObject.createFaces(model.vertices, model.faces, model.indices);
+		spaceObject.setTexture("Textures" + File.separatorChar + model.textureFilename, model.textures, inputStreamMethod);
+		return true;
+	}
+
+	private DatModel loadModel(String modelName) throws IOException {
+		String modelFileName = "Models" + File.separatorChar + modelName;
+		long modificationTime = getModificationTime(modelFileName);
+		DatModel model = modelCache != null ? modelCache.get(modelName, modificationTime) : null;
+		if (model == null) {
+			try (InputStream in = parser.getInputStream(modelFileName)) {
+				model = DatModel.parse(in);
+			}
+			if (model != null && modelCache != null) {
+				modelCache.put(modelName, modificationTime, model);
 			}
 		}
-		return false;
+		return model;
+	}
+
+	// Bundled plugins change only with the apk, files in a zip with the zip file.
+	private long getModificationTime(String fileName) {
+		if (pluginFileIO == null) {
+			return BuildConfig.VERSION_CODE;
+		}
+		return pluginFileIO.fileLastModifiedDate(manifestRequired ? pluginName : pluginName + File.separatorChar + fileName);
 	}
 
 	private void setDefaultValueToUnsetPropertiesOfShip(SpaceObject spaceObject) {
@@ -585,7 +614,7 @@ public class OXPParser {
 		return new int[] { major, minor, Integer.parseInt(versionName.substring(e + 1)) };
 	}
 
-	private boolean isEmpty(String s) {
+	private static boolean isEmpty(String s) {
 		return s == null || s.isEmpty();
 	}
 
@@ -611,53 +640,68 @@ public class OXPParser {
 			if (propertyList.get(p.getKey()) instanceof NSString) {
 				repoHandler.setProperty(ManifestProperty.valueOf(p.getKey()), getString(propertyList, p.getKey()));
 			} else if (p.getKey().equals("conflict_oxps")) {
-				NSArray conflictOxps = (NSArray) p.getValue();
-				if (conflictOxps != null) {
-					for (NSDictionary conflictOxp : (NSDictionary[]) conflictOxps.getArray()) {
-						OXPParser installed = getMatchingOxp(fileName, conflictOxp);
-						if (installed != null) {
-							throw new IOException("Conflict with plugin " + installed.getIdentifier() +
-								" v" + installed.getVersion());
-						}
-					}
-				}
+				readPluginReferences(fileName, (NSArray) p.getValue(), conflictPlugins);
 			} else if (p.getKey().equals("requires_oxps")) {
-				NSArray requiresOxps = (NSArray) p.getValue();
-				if (requiresOxps != null) {
-					for (NSDictionary requireOxps : (NSDictionary[]) requiresOxps.getArray()) {
-						OXPParser installed = getMatchingOxp(fileName, requireOxps);
-						if (installed == null) {
-							plugged = false;
-							return;
-						}
-					}
-				}
+				readPluginReferences(fileName, (NSArray) p.getValue(), requiredPlugins);
 			}
 		}
 		repoHandler.checkMissingRequiredProperty(fileName, Arrays.asList(ManifestProperty.identifier,
 			ManifestProperty.title, ManifestProperty.version));
+	}
 
-
+	private void readPluginReferences(String fileName, NSArray array, List<PluginReference> references) throws IOException {
+		if (array == null) {
+			return;
+		}
+		for (NSObject reference : array.getArray()) {
+			NSDictionary dict = (NSDictionary) reference;
+			references.add(new PluginReference(getRequiredString(dict, "identifier", fileName),
+				getRequiredString(dict, "version", fileName), getString(dict, "maximum_version")));
+		}
 	}
 
-	private OXPParser getMatchingOxp(String fileName, NSDictionary dict) throws IOException {
-		OXPParser installed = getInstalledPlugin(getRequiredString(dict, "identifier", fileName));
-		String minVersion = getRequiredString(dict, "version", fileName);
-		String maxVersion = getString(dict, "maximum_version");
-		return installed != null &&
-			"0".equals(minVersion) || compareVersions(minVersion, installed.getVersion()) <= 0 &&
-			(maxVersion.isEmpty() || compareVersions(maxVersion, installed.getVersion()) >= 0) ? installed : null;
+	/**
+	 * @return false if a required plugin is not installed yet
+	 * @throws IOException if a conflicting plugin is installed
+	 */
+	private boolean checkPluginDependencies() throws IOException {
+		for (PluginReference conflict : conflictPlugins) {
+			OXPParser installed = getInstalledPlugin(conflict);
+			if (installed != null) {
+				throw new IOException("Conflict with plugin " + installed.getIdentifier() + " v" + installed.getVersion());
+			}
+		}
+		for (PluginReference required : requiredPlugins) {
+			if (getInstalledPlugin(required) == null) {
+				AliteLog.d("Plugin dependency check", pluginName + " requires plugin " + required + ".");
+				return false;
+			}
+		}
+		return true;
 	}
 
-	private OXPParser getInstalledPlugin(String id) {
+	private OXPParser getInstalledPlugin(PluginReference reference) {
+		if (installedPlugins == null) {
+			return null;
+		}
 		for (OXPParser plugin : installedPlugins) {
-			if (id.equals(plugin.getIdentifier())) {
+			if (plugin.matches(reference)) {
 				return plugin;
 			}
 		}
 		return null;
 	}
 
+	boolean matches(PluginReference reference) {
+		return reference.identifier.equals(getIdentifier()) && ("0".equals(reference.version) ||
+			compareVersions(reference.version, getVersion()) >= 0 &&
+			(isEmpty(reference.maxVersion) || compareVersions(reference.maxVersion, getVersion()) <= 0));
+	}
+
+	List<PluginReference> getRequiredPlugins() {
+		return requiredPlugins;
+	}
+
 	public boolean isPluginFile() {
 		return isPluginFile;
 	}
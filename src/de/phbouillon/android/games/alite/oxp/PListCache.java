@@ -0,0 +1,65 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.dd.plist.BinaryPropertyListParser;
+import com.dd.plist.BinaryPropertyListWriter;
+import com.dd.plist.NSObject;
+import com.dd.plist.PropertyListFormatException;
+import de.phbouillon.android.framework.FileIO;
+
+/**
+ * Parsed property lists of a plugin, stored between launches in the binary property list
+ * format, which is read without building a document of the text and converting its values.
+ *
+ * Content of an entry (all values are big endian):
+ * <pre>
+ * size, binary property list
+ * </pre>
+ */
+final class PListCache extends ContentCache<NSObject> {
+	private static final int MAGIC = 0x414C5043; // "ALPC"
+	private static final int VERSION = 1;
+
+	PListCache(FileIO fileIO, String cacheName) {
+		super(fileIO, cacheName + ".pls", MAGIC, VERSION);
+	}
+
+	@Override
+	NSObject read(ByteBuffer entry) throws IOException {
+		byte[] data = new byte[entry.getInt()];
+		entry.get(data);
+		try {
+			return BinaryPropertyListParser.parse(data);
+		} catch (PropertyListFormatException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	void write(DataOutputStream dos, NSObject content) throws IOException {
+		byte[] data = BinaryPropertyListWriter.writeToArray(content);
+		dos.writeInt(data.length);
+		dos.write(data);
+	}
+}
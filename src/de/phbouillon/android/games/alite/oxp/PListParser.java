@@ -21,6 +21,8 @@ package de.phbouillon.android.games.alite.oxp;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -32,11 +34,34 @@ import de.phbouillon.android.games.alite.AliteLog;
 
 class PListParser {
 	private ResourceStream stream;
+	private PListCache cache;
+	private ModificationTime modificationTime;
+	// Files parsed in advance and the errors of those which could not be read
+	private final Map<String,NSObject> prepared = new HashMap<>();
+	private final Map<String,IOException> preparedErrors = new HashMap<>();
+
+	interface ModificationTime {
+		long get(String fileName);
+	}
 
 	PListParser(ResourceStream stream) {
 		this.stream = stream;
 	}
 
+	/**
+	 * Parsed files are taken from the cache as long as their modification time is unchanged.
+	 */
+	void setCache(PListCache cache, ModificationTime modificationTime) {
+		this.cache = cache;
+		this.modificationTime = modificationTime;
+	}
+
+	void saveCache() {
+		if (cache != null) {
+			cache.save();
+		}
+	}
+
 	NSDictionary parseFile(String fileName) throws IOException {
 		return (NSDictionary) parseFileInternal(fileName);
 	}
@@ -45,11 +70,47 @@ class PListParser {
 		return stream.getStream(fileName);
 	}
 
+	/**
+	 * Parses the file in advance, parsing it later returns the prepared result until
+	 * {@link #clearPrepared()} is called.
+	 */
+	void prepare(String fileName) {
+		try {
+			prepared.put(fileName, parseFileInternal(fileName));
+		} catch (IOException e) {
+			preparedErrors.put(fileName, e);
+		}
+	}
+
+	NSObject getPrepared(String fileName) {
+		return prepared.get(fileName);
+	}
+
+	void clearPrepared() {
+		prepared.clear();
+		preparedErrors.clear();
+	}
+
 	private NSObject parseFileInternal(String fileName) throws IOException {
+		if (prepared.containsKey(fileName)) {
+			return prepared.get(fileName);
+		}
+		IOException error = preparedErrors.get(fileName);
+		if (error != null) {
+			throw error;
+		}
+		long time = cache != null ? modificationTime.get(fileName) : 0;
+		NSObject cached = cache != null ? cache.get(fileName, time) : null;
+		if (cached != null) {
+			return cached;
+		}
 		try {
 			InputStream is = stream.getStream(fileName);
 			NSObject dictionary = PropertyListParser.parse(is);
 			is.close();
+			if (cache != null && dictionary != null) {
+				cache.put(fileName, time, dictionary);
+			}
 			return dictionary;
 		} catch (PropertyListFormatException | ParseException | ParserConfigurationException | SAXException e) {
 			AliteLog.e("Error reading PList", e.getMessage(), e);
@@ -138,6 +138,7 @@ public class NavigationBar {
 
 	public void render(Graphics g) {
 		if (AndroidGame.resetting) {
+			g.flush();
 			GLES11.glClear(GLES11.GL_COLOR_BUFFER_BIT);
 			return;
 		}
@@ -289,6 +289,7 @@ public abstract class AliteScreen extends Screen {
 	}
 
 	protected void initGl() {
+		game.getGraphics().flush();
 		GlUtils.setViewport(game);
 		GLES11.glDisable(GLES11.GL_FOG);
 		GLES11.glPointSize(1.0f);
@@ -540,6 +541,7 @@ public abstract class AliteScreen extends Screen {
 	}
 
 	protected final void displayObject(AliteObject object, float zNear, float zFar) {
+		game.getGraphics().flush();
 		GLES11.glEnable(GLES11.GL_TEXTURE_2D);
 		GLES11.glEnable(GLES11.GL_CULL_FACE);
 		GLES11.glMatrixMode(GLES11.GL_PROJECTION);
@@ -567,6 +569,7 @@ public abstract class AliteScreen extends Screen {
 	}
 
 	protected final void setUpForDisplay() {
+		game.getGraphics().flush();
 		GLES11.glDisable(GLES11.GL_CULL_FACE);
 		GLES11.glDisable(GLES11.GL_LIGHTING);
 		GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, 0);
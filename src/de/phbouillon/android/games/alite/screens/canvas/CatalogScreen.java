@@ -207,7 +207,11 @@ public class CatalogScreen extends AliteScreen {
 			confirmDelete = false;
 			if (messageResult == RESULT_YES) {
 				for (CommanderData cd: selectedCommanderData) {
-					game.getFileIO().deleteFile(cd.getFileName());
+					try {
+						game.deleteCommander(cd.getFileName());
+					} catch (IOException e) {
+						AliteLog.e("[ALITE]", "Deleting commander " + cd.getFileName() + " failed.", e);
+					}
 				}
 				newScreen = new CatalogScreen(L.string(R.string.title_catalog));
 			}
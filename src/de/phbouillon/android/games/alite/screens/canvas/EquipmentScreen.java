@@ -59,7 +59,7 @@ public class EquipmentScreen extends TradeScreen {
 		Equipment galDrive = EquipmentStore.get().getEquipmentById(EquipmentStore.GALACTIC_HYPERDRIVE);
 		if (currentSystem != null) {
 			techLevel = currentSystem.getTechLevel();
-			orphan = game.getGenerator().isOrphan(currentSystem.getId());
+			orphan = GalaxyGenerator.isOrphan(currentSystem.getId());
 		}
 		Iterator<Equipment> i = EquipmentStore.get().getIterator();
 		int pos = 0;
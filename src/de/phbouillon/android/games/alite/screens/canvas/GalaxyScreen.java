@@ -57,6 +57,9 @@ public class GalaxyScreen extends AliteScreen {
 	private int scalingReferenceX = -1;
 	private int scalingReferenceY;
 	private boolean wasHomeButtonPressed;
+	private SystemData routeStart;
+	private SystemData routeTarget;
+	private int[] routeSystems;
 
 	class MappedSystemData {
 		SystemData system;
@@ -303,13 +306,44 @@ public class GalaxyScreen extends AliteScreen {
 			ColorScheme.get(ColorScheme.COLOR_FUEL_CIRCLE));
 	}
 
+	// Shortest route from the current system to the hyperspace target, recomputed only if one of them changes
+	private int[] getRoute() {
+		Player player = game.getPlayer();
+		SystemData currentSystem = player.getCurrentSystem();
+		SystemData hyperspaceSystem = player.getHyperspaceSystem();
+		if (currentSystem != routeStart || hyperspaceSystem != routeTarget) {
+			routeStart = currentSystem;
+			routeTarget = hyperspaceSystem;
+			routeSystems = currentSystem == null || hyperspaceSystem == null ? null : game.getGenerator().getRoutes()
+				.findShortestRoute(currentSystem.getIndex(), hyperspaceSystem.getIndex());
+		}
+		return routeSystems;
+	}
+
+	private void renderRoute() {
+		int[] route = getRoute();
+		if (route == null || route.length < 3) {
+			return;
+		}
+		Graphics g = game.getGraphics();
+		for (int i = 1; i < route.length; i++) {
+			MappedSystemData from = systemData[route[i - 1]];
+			MappedSystemData to = systemData[route[i]];
+			g.drawLine(from.x() + from.xDiff, from.y(), to.x() + to.xDiff, to.y(),
+				ColorScheme.get(ColorScheme.COLOR_DASHED_FUEL_CIRCLE));
+		}
+	}
+
 	private void renderDistance() {
 		Player player = game.getPlayer();
 		Graphics g = game.getGraphics();
 
 		if (player.getHyperspaceSystem() != null) {
 			int distance = player.computeDistance();
-			g.drawText(L.string(R.string.galaxy_distance_info,
+			int[] route = getRoute();
+			g.drawText(route != null && route.length > 2 ? L.string(R.string.galaxy_route_info,
+				player.getHyperspaceSystem().getName(), distance / 10, distance % 10, route.length - 1) :
+				L.string(R.string.galaxy_distance_info,
 				player.getHyperspaceSystem().getName(), distance / 10, distance % 10),
 				100, 1060, ColorScheme.get(ColorScheme.COLOR_BASE_INFORMATION), Assets.regularFont);
 		}
@@ -335,6 +369,7 @@ public class GalaxyScreen extends AliteScreen {
 			}
 		}
 
+		renderRoute();
 		renderCurrentPositionCross();
 		renderCurrentFuelCircle();
 		renderDistance();
@@ -20,7 +20,6 @@ package de.phbouillon.android.games.alite.screens.canvas;
 
 import android.graphics.Color;
 import android.graphics.Point;
-import android.opengl.GLES11;
 import android.os.Messenger;
 import android.text.format.DateUtils;
 import com.google.android.vending.expansion.downloader.DownloadProgressInfo;
@@ -313,9 +312,9 @@ public class PluginsScreen extends AliteScreen implements IDownloaderClient {
 		int x = r + (AliteConfig.SCREEN_WIDTH >> 1);
 		int y = r + button.getY() - scrollPane.position.y + 20;
 		g.drawCircle(x, y, r, ColorScheme.get(ColorScheme.COLOR_BASE_INFORMATION));
-		GLES11.glLineWidth(3);
+		g.setLineWidth(3);
 		g.drawArc(x, y, r, ColorScheme.get(ColorScheme.COLOR_ADDITIONAL_TEXT), (int)(3.6 * progressInPercent));
-		GLES11.glLineWidth(1);
+		g.setLineWidth(1);
 		String text = StringUtil.format("%d%%", progressInPercent);
 		g.drawText(text, x - ((int) Assets.regularFont.getWidth(text, 1) >> 1),
 			y + ((int) Assets.regularFont.getSize() >> 1) - 10,
@@ -155,6 +155,7 @@ public class ShipIntroScreen extends AliteScreen {
 	}
 
 	private void initDisplay() {
+		game.getGraphics().flush();
 		GLES11.glEnable(GLES11.GL_TEXTURE_2D);
 		GLES11.glEnable(GLES11.GL_CULL_FACE);
 		GLES11.glMatrixMode(GLES11.GL_PROJECTION);
@@ -167,10 +167,12 @@ public abstract class TradeScreen extends AliteScreen {
 					computeCurrentFrame();
 				}
 				b.render(g, currentFrame);
+				g.flush();
 				GLES11.glEnable(GLES11.GL_BLEND);
 				GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 				GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
 				g.fillRect(b.getX(), b.getY(), b.getWidth(), b.getHeight(), ColorScheme.get(ColorScheme.COLOR_HIGHLIGHT_COLOR));
+				g.flush();
 				GLES11.glDisable(GLES11.GL_BLEND);
 				if (errorText == null) {
 					presentSelection(index);
@@ -31,6 +31,7 @@ import de.phbouillon.android.games.alite.screens.canvas.AliteScreen;
 //This screen never needs to be serialized, as it is not part of the InGame state.
 public class DebugSettingsScreen extends AliteScreen {
 	private Button logToFile;
+	private Button logLevel;
 	private Button memDebug;
 	private Button showFrameRate;
 	private Button showDockingDebug;
@@ -86,7 +87,8 @@ public class DebugSettingsScreen extends AliteScreen {
 			L.string(R.string.debug_settings_add_docking_computer));
 		unlimitedFuel = Button.createGradientTitleButton(890, 850, 780, 100,
 			L.string(R.string.debug_settings_unlimited_fuel, L.string(Settings.unlimitedFuel ? R.string.options_yes : R.string.options_no)));
-		more = Button.createGradientTitleButton(50, 970, 1620, 100, L.string(R.string.debug_settings_button_more));
+		logLevel = Button.createGradientTitleButton(50, 970, 780, 100, getLogLevelText());
+		more = Button.createGradientTitleButton(890, 970, 780, 100, L.string(R.string.debug_settings_button_more));
 	}
 
 	@Override
@@ -109,6 +111,7 @@ public class DebugSettingsScreen extends AliteScreen {
 		disableTraders.render(g);
 		addDockingComputer.render(g);
 		unlimitedFuel.render(g);
+		logLevel.render(g);
 		more.render(g);
 	}
 
@@ -238,12 +241,24 @@ public class DebugSettingsScreen extends AliteScreen {
 			Settings.save(game.getFileIO());
 			return;
 		}
+		if (logLevel.isTouched(touch.x, touch.y)) {
+			SoundManager.play(Assets.click);
+			Settings.logLevel = (Settings.logLevel + 1) % (AliteLog.ERROR + 1);
+			logLevel.setText(getLogLevelText());
+			Settings.save(game.getFileIO());
+			return;
+		}
 		if (more.isTouched(touch.x, touch.y)) {
 			SoundManager.play(Assets.click);
 			newScreen = new MoreDebugSettingsScreen();
 		}
 	}
 
+	private String getLogLevelText() {
+		return L.string(R.string.debug_settings_log_level, L.string(Settings.logLevel == AliteLog.DEBUG ? R.string.debug_settings_log_level_debug :
+			Settings.logLevel == AliteLog.WARNING ? R.string.debug_settings_log_level_warning : R.string.debug_settings_log_level_error));
+	}
+
 	@Override
 	public int getScreenCode() {
 		return ScreenCodes.DEBUG_SCREEN;
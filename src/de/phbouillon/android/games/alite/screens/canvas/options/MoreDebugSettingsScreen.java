@@ -33,7 +33,7 @@ import de.phbouillon.android.games.alite.screens.canvas.AliteScreen;
 
 //This screen never needs to be serialized, as it is not part of the InGame state.
 public class MoreDebugSettingsScreen extends AliteScreen {
-	private final Button[] buttons = new Button[7];
+	private final Button[] buttons = new Button[8];
 
 	@Override
 	public void activate() {
@@ -65,7 +65,13 @@ public class MoreDebugSettingsScreen extends AliteScreen {
 				showLargeMessageDialog(L.string(R.string.options_more_debug_completed_missions, completedMissions));
 
 			});
-		buttons[6] = Button.createGradientTitleButton(50, 970, 1620, 100, L.string(R.string.options_back))
+		buttons[6] = Button.createGradientTitleButton(50, 850, 1620, 100, getFixedTimeStepText())
+			.setEvent(b -> {
+				Settings.fixedTimeStep = !Settings.fixedTimeStep;
+				b.setText(getFixedTimeStepText());
+				Settings.save(game.getFileIO());
+			});
+		buttons[7] = Button.createGradientTitleButton(50, 970, 1620, 100, L.string(R.string.options_back))
 			.setEvent(b -> newScreen = new DebugSettingsScreen());
 	}
 
@@ -89,6 +95,11 @@ public class MoreDebugSettingsScreen extends AliteScreen {
 		}
 	}
 
+	private String getFixedTimeStepText() {
+		return L.string(R.string.options_more_debug_fixed_time_step,
+			L.string(Settings.fixedTimeStep ? R.string.options_yes : R.string.options_no));
+	}
+
 	private void startMission(int id) {
 		game.getCobra().clearSpecialCargo();
 		for (int i = 1; i < id; i++) {
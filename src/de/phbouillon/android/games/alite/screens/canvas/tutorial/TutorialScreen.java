@@ -132,6 +132,7 @@ public abstract class TutorialScreen extends AliteScreen {
 		}
 
 		Graphics g = game.getGraphics();
+		g.flush();
 		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE_MINUS_SRC_ALPHA);
 		GLES11.glEnable(GLES11.GL_BLEND);
 		if (currentX != -1 && currentY != -1) {
@@ -139,6 +140,7 @@ public abstract class TutorialScreen extends AliteScreen {
 				ColorScheme.get(ColorScheme.COLOR_TUTORIAL_BUBBLE_DARK),
 				ColorScheme.get(ColorScheme.COLOR_TUTORIAL_BUBBLE_LIGHT));
 		}
+		g.flush();
 		GLES11.glDisable(GLES11.GL_BLEND);
 		if (currentX != -1 && currentY != -1) {
 			g.rec3d(currentX, currentY, currentWidth, currentHeight, 4,
@@ -214,11 +216,13 @@ public abstract class TutorialScreen extends AliteScreen {
 			currentLine.prePresent(deltaTime);
 		}
 		doPresent(deltaTime);
+		game.getGraphics().flush();
 		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE_MINUS_SRC_ALPHA);
 		GLES11.glEnable(GLES11.GL_BLEND);
 		if (!hideCloseButton) {
 			closeButton.render(game.getGraphics());
 		}
+		game.getGraphics().flush();
 		GLES11.glDisable(GLES11.GL_BLEND);
 		if (currentLine != null) {
 			currentLine.postPresent(deltaTime);
@@ -228,9 +232,11 @@ public abstract class TutorialScreen extends AliteScreen {
 	@Override
 	public void postNavigationRender(float deltaTime) {
 		if (currentLine != null) {
+			game.getGraphics().flush();
 			GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE_MINUS_SRC_ALPHA);
 			GLES11.glEnable(GLES11.GL_BLEND);
 			currentLine.renderHighlights(deltaTime);
+			game.getGraphics().flush();
 			GLES11.glDisable(GLES11.GL_BLEND);
 		}
 	}
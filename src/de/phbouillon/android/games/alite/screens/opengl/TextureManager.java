@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -30,6 +31,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
 
 import android.graphics.Bitmap;
 import android.graphics.Bitmap.Config;
@@ -38,17 +40,26 @@ import android.graphics.BitmapFactory.Options;
 import android.opengl.GLES11;
 import android.opengl.GLUtils;
 import de.phbouillon.android.framework.Game;
+import de.phbouillon.android.framework.GameClock;
 import de.phbouillon.android.framework.MemUtil;
 import de.phbouillon.android.framework.ResourceStream;
 import de.phbouillon.android.framework.Texture;
 import de.phbouillon.android.framework.impl.Pool;
 import de.phbouillon.android.framework.impl.Pool.PoolObjectFactory;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.games.alite.AliteLog;
 import de.phbouillon.android.games.alite.Settings;
 import de.phbouillon.android.framework.SpriteData;
 
 public class TextureManager implements Texture {
 	private static final int MAX_TEXTURES = 500;
+	private static final int DECODER_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	// Decoded textures waiting for their first use
+	private static final int MAX_PREFETCHED_TEXTURES = 24;
+	private static final long UPLOAD_BUDGET_NANOS = 4000000L;
+	private static final long SPIKE_NANOS = 16000000L;
+	private static final long PREFETCH_EXPIRY_NANOS = 60000000000L;
+	private static final long DEFAULT_RESIDENT_BUDGET = 64L << 20;
 
 	private static class Texture implements Serializable {
 		private static final long serialVersionUID = 3417797379929074799L;
@@ -60,6 +71,15 @@ public class TextureManager implements Texture {
 		}
 	}
 
+	private static class DecodedTexture {
+		final Bitmap bitmap;
+		final Map <String, SpriteData> sprites = new HashMap<>();
+
+		DecodedTexture(Bitmap bitmap) {
+			this.bitmap = bitmap;
+		}
+	}
+
 	private final Map <String, Texture> textures = Collections.synchronizedMap(new HashMap<>());
 	private final Set <String> bitmaps = Collections.synchronizedSet(new HashSet<>());
 	private final Game game;
@@ -75,6 +95,20 @@ public class TextureManager implements Texture {
 		}
 	};
 	private final Pool <Texture> texturePool = new Pool<>(factory, MAX_TEXTURES);
+	private final TextureStreamer <DecodedTexture> streamer = new TextureStreamer<>(this::decodeTexture,
+		decoded -> MemUtil.freeBitmap(decoded.bitmap), Executors.newFixedThreadPool(DECODER_THREAD_COUNT, r -> {
+			Thread thread = new Thread(r, "Texture decoder");
+			thread.setDaemon(true);
+			return thread;
+		}), MAX_PREFETCHED_TEXTURES, UPLOAD_BUDGET_NANOS, SPIKE_NANOS, PREFETCH_EXPIRY_NANOS);
+	// Streams of the textures read from plugins, needed to load them again
+	private final Map <String, ResourceStream> textureInputStreams = Collections.synchronizedMap(new HashMap<>());
+	// Bound while a texture is decoded
+	private final int[] placeholder = new int[1];
+	private final TextureResidency residency = new TextureResidency(this::evictTexture, DEFAULT_RESIDENT_BUDGET);
+	// The texture last bound by setTexture, binding it again needs no lookup while the GL state is tracked
+	private String boundFileName;
+	private int boundIndex;
 
 	public TextureManager(Game game) {
 		this.game = game;
@@ -115,31 +149,67 @@ public class TextureManager implements Texture {
 		texture.index[0] = 0;
 		GLES11.glGenTextures(1, texture.index, 0);
 		loadTexture(bitmap, texture.index[0]);
+		// It cannot be loaded again
+		residency.pin(name);
+		residency.add(name, TextureResidency.estimateBytes(bitmap.getWidth(), bitmap.getHeight(), Settings.colorDepth));
 		textures.put(name, texture);
 		return texture.index[0];
 	}
 
 	private Texture forceAddTexture(String fileName, ResourceStream textureInputStream) {
+		putTextureInputStream(fileName, textureInputStream);
+		return addDecodedTexture(fileName, fileName.isEmpty() ? null : streamer.take(fileName, textureInputStream));
+	}
+
+	private Texture addDecodedTexture(String fileName, DecodedTexture decoded) {
 		Texture texture = texturePool.newObject();
 		texture.index[0] = 0;
 		GLES11.glGenTextures(1, texture.index, 0);
-		if (!fileName.isEmpty()) {
-			loadTexture(fileName, texture.index[0], textureInputStream);
+		if (decoded != null && decoded.bitmap != null) {
+			loadTexture(fileName, texture.index[0], decoded);
 		}
 		textures.put(fileName, texture);
 		return texture;
 	}
 
+	private void putTextureInputStream(String fileName, ResourceStream textureInputStream) {
+		if (textureInputStream != null) {
+			textureInputStreams.put(fileName, textureInputStream);
+		}
+	}
+
 	@Override
 	public void freeTexture(String fileName) {
 		Texture texture = textures.get(fileName);
 		if (texture != null && texture.isValid()) {
-			GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, 0);
-			GLES11.glDeleteTextures(1, texture.index, 0);
+			GlState.bindTexture(0);
+			deleteTexture(texture.index);
 			GLES11.glFinish();
 			textures.put(fileName, null);
 			bitmaps.remove(fileName);
 			texturePool.free(texture);
+			residency.remove(fileName);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used texture to keep the textures within the budget. The
+	 * texture is loaded again by the next {@link #setTexture(String, ResourceStream)}.
+	 */
+	private void evictTexture(String fileName) {
+		Texture texture = textures.get(fileName);
+		if (texture != null && texture.isValid()) {
+			deleteTexture(texture.index);
+			textures.put(fileName, null);
+			texturePool.free(texture);
+		}
+	}
+
+	private void deleteTexture(int[] index) {
+		GLES11.glDeleteTextures(1, index, 0);
+		GlState.textureDeleted(index[0]);
+		if (boundIndex == index[0]) {
+			boundIndex = 0;
 		}
 	}
 
@@ -151,23 +221,90 @@ public class TextureManager implements Texture {
 	@Override
 	public void setTexture(String fileName, ResourceStream textureInputStream) {
 		if (fileName == null) {
-			GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, 0);
+			GlState.bindTexture(0);
 			return;
 		}
-		Texture texture = textures.get(fileName);
-		if (texture == null || !texture.isValid()) {
-			addTextureFromStream(fileName, textureInputStream);
-			texture = textures.get(fileName);
+		if (boundIndex != 0 && fileName.equals(boundFileName) && GlState.getBoundTexture() == boundIndex) {
+			GlState.bindTexture(boundIndex);
+			residency.use(fileName);
+			return;
 		}
-		if (texture != null) {
-			if (!texture.isValid()) {
-				texture.index[0] = addTextureFromStream(fileName, textureInputStream);
+		Texture texture = textures.get(fileName);
+		if ((texture == null || !texture.isValid()) && !bitmaps.contains(fileName)) {
+			if (fileName.isEmpty()) {
+				texture = forceAddTexture(fileName, null);
+			} else {
+				// Decoding takes too long for a frame, the texture is uploaded when it is ready
+				putTextureInputStream(fileName, textureInputStream);
+				DecodedTexture decoded = streamer.poll(fileName, textureInputStream);
+				if (decoded == null) {
+					bindPlaceholder();
+					return;
+				}
+				texture = addDecodedTexture(fileName, decoded);
 			}
+		}
+		if (texture != null && texture.index[0] != 0) {
+			residency.use(fileName);
+			GlState.bindTexture(texture.index[0]);
+			boundFileName = fileName;
+			boundIndex = texture.index[0];
+		}
+	}
 
-			if (texture.index[0] != 0) {
-				GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, texture.index[0]);
-			}
+	private void bindPlaceholder() {
+		if (placeholder[0] == 0) {
+			GLES11.glGenTextures(1, placeholder, 0);
+			GlState.bindTexture(placeholder[0]);
+			// Without mipmaps, the default minifying filter would leave the texture incomplete
+			GLES11.glTexParameterf(GLES11.GL_TEXTURE_2D, GLES11.GL_TEXTURE_MAG_FILTER, GLES11.GL_LINEAR);
+			GLES11.glTexParameterf(GLES11.GL_TEXTURE_2D, GLES11.GL_TEXTURE_MIN_FILTER, GLES11.GL_LINEAR);
+			ByteBuffer grey = ByteBuffer.allocateDirect(4);
+			grey.put((byte) 0x80).put((byte) 0x80).put((byte) 0x80).put((byte) 0xFF).position(0);
+			GLES11.glTexImage2D(GLES11.GL_TEXTURE_2D, 0, GLES11.GL_RGBA, 1, 1, 0, GLES11.GL_RGBA,
+				GLES11.GL_UNSIGNED_BYTE, grey);
+			return;
 		}
+		GlState.bindTexture(placeholder[0]);
+	}
+
+	@Override
+	public void prefetchTexture(String fileName, ResourceStream textureInputStream) {
+		if (fileName != null && !fileName.isEmpty() && !bitmaps.contains(fileName)) {
+			putTextureInputStream(fileName, textureInputStream);
+			streamer.prefetch(fileName, textureInputStream);
+		}
+	}
+
+	@Override
+	public void beginFrame() {
+		streamer.beginFrame();
+		residency.beginFrame();
+	}
+
+	@Override
+	public void pinTexture(String fileName) {
+		residency.pin(fileName);
+	}
+
+	/**
+	 * Sets the estimated GPU memory the textures may use; least recently used textures
+	 * are deleted if they use more. Must be called by the GL thread.
+	 */
+	public void setResidentBudget(long bytes) {
+		residency.setBudget(bytes);
+	}
+
+	public long getResidentBytes() {
+		return residency.getResidentBytes();
+	}
+
+	public int getEvictionCount() {
+		return residency.getEvictionCount();
+	}
+
+	public int getReloadCount() {
+		return residency.getReloadCount();
 	}
 
 	@Override
@@ -183,7 +320,7 @@ public class TextureManager implements Texture {
 			String fileName = iterator.next();
 			Texture texture = textures.get(fileName);
 			if (texture != null) {
-				GLES11.glDeleteTextures(1, texture.index, 0);
+				deleteTexture(texture.index);
 				texturePool.free(texture);
 				toBeRemoved.add(fileName);
 			}
@@ -191,21 +328,24 @@ public class TextureManager implements Texture {
 		for (String s: toBeRemoved) {
 			textures.put(s, null);
 		}
+		if (placeholder[0] != 0) {
+			deleteTexture(placeholder);
+			placeholder[0] = 0;
+		}
 		bitmaps.clear();
-		sprites.clear();
+		// The sprites are kept for the textures loaded again in the background after a resume
+		residency.clear();
 	}
 
+	/**
+	 * Loads the textures freed by {@link #freeAllTextures()} again. Called on resume, where the
+	 * stall of loading them at once is preferred to drawing placeholders for several frames.
+	 */
 	@Override
 	public void reloadAllTextures() {
-		for (String fileName : textures.keySet()) {
-			Texture texture = textures.get(fileName);
-			if (texture != null) {
-				if (!bitmaps.contains(fileName)) {
-					continue;
-				}
-			}
-			if (!bitmaps.contains(fileName)) {
-				forceAddTexture(fileName, null);
+		for (String fileName : new ArrayList<>(textures.keySet())) {
+			if (textures.get(fileName) == null && !bitmaps.contains(fileName)) {
+				forceAddTexture(fileName, textureInputStreams.get(fileName));
 			}
 		}
 	}
@@ -213,12 +353,17 @@ public class TextureManager implements Texture {
 	@Override
 	public synchronized void clear() {
 		AliteLog.d("Clearing all Textures Mem Dump (PRE)", AliteLog.getInstance().getMemoryData());
+		AliteLog.d("Texture residency", residency.getResidentCount() + " textures, " + (residency.getResidentBytes() >> 10) +
+			" KB of " + (residency.getBudget() >> 10) + " KB, " + residency.getEvictionCount() + " evictions, " +
+			residency.getReloadCount() + " reloads");
 		freeAllTextures();
 		textures.clear();
+		sprites.clear();
 		AliteLog.d("Clearing all Textures Mem Dump (POST)", AliteLog.getInstance().getMemoryData());
 	}
 
-	private void parseTextures(String fileName, InputStream textureAtlas, float width, float height) throws IOException {
+	private void parseTextures(String fileName, InputStream textureAtlas, float width, float height,
+			Map <String, SpriteData> sprites) throws IOException {
 		if (textureAtlas == null) {
 			return;
 		}
@@ -265,32 +410,45 @@ public class TextureManager implements Texture {
 		return null;
 	}
 
-	private void loadTexture(String fileName, int index, ResourceStream textureInputStream) {
+	/**
+	 * Decodes the bitmap and reads the sprite atlas of the texture. Called by the decoder threads.
+	 */
+	private DecodedTexture decodeTexture(String fileName, ResourceStream textureInputStream) {
 		AliteLog.d("Loading Texture: " + fileName, fileName + " Creating bitmap....");
-		Bitmap bitmap = newBitmap(fileName, textureInputStream);
-		if (bitmap == null) {
-			return;
+		DecodedTexture decoded = new DecodedTexture(newBitmap(fileName, textureInputStream));
+		if (decoded.bitmap == null) {
+			return decoded;
 		}
-		loadTexture(bitmap, index);
-		try {
-			String textureAtlas = fileName.substring(0, fileName.lastIndexOf(".")) + ".txt";
-			if (game.getGraphics().existsAssetsFile(textureAtlas)) {
-				try (InputStream textureAtlasInputStream = game.getFileIO().readPrivateFile(textureAtlas)) {
-					parseTextures(fileName, textureAtlasInputStream, bitmap.getWidth(), bitmap.getHeight());
-				} catch (IOException e) {
-					AliteLog.e("Cannot read texture atlas.", e.getMessage(), e);
-				}
+		String textureAtlas = fileName.substring(0, fileName.lastIndexOf(".")) + ".txt";
+		if (game.getGraphics().existsAssetsFile(textureAtlas)) {
+			try (InputStream textureAtlasInputStream = game.getFileIO().readPrivateFile(textureAtlas)) {
+				parseTextures(fileName, textureAtlasInputStream, decoded.bitmap.getWidth(), decoded.bitmap.getHeight(),
+					decoded.sprites);
+			} catch (IOException e) {
+				AliteLog.e("Cannot read texture atlas.", e.getMessage(), e);
 			}
+		}
+		return decoded;
+	}
+
+	private void loadTexture(String fileName, int index, DecodedTexture decoded) {
+		long start = GameClock.nanoTime();
+		try {
+			loadTexture(decoded.bitmap, index);
+			sprites.putAll(decoded.sprites);
+			residency.add(fileName, TextureResidency.estimateBytes(decoded.bitmap.getWidth(), decoded.bitmap.getHeight(),
+				Settings.colorDepth));
 		} catch(IllegalArgumentException e) {
 		    // 32-bit color depth on Android 8.0
             AliteLog.e("Loading Texture: " + fileName, e.getMessage(), e);
 		} finally {
-			MemUtil.freeBitmap(bitmap);
+			MemUtil.freeBitmap(decoded.bitmap);
+			streamer.addUploadTime(GameClock.nanoTime() - start);
 		}
 	}
 
 	private void loadTexture(Bitmap bitmap, int index) {
-		GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, index);
+		GlState.bindTexture(index);
 		GLES11.glTexParameterf(GLES11.GL_TEXTURE_2D, GLES11.GL_TEXTURE_MAG_FILTER, GLES11.GL_LINEAR);
 		GLES11.glTexParameterf(GLES11.GL_TEXTURE_2D, GLES11.GL_TEXTURE_MIN_FILTER, GLES11.GL_LINEAR);
 		GLUtils.texImage2D(GLES11.GL_TEXTURE_2D, 0, bitmap, 0);
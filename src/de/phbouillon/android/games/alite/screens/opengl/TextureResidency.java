@@ -0,0 +1,165 @@
+package de.phbouillon.android.games.alite.screens.opengl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the estimated GPU memory of the loaded textures within a budget. Every use of a
+ * texture stamps it with the current frame and when a texture is loaded while the budget
+ * is exceeded, the least recently used textures are deleted until it is met again. Pinned
+ * textures and textures used by the current frame are never deleted. A deleted texture is
+ * loaded again when it is used next time.
+ */
+final class TextureResidency {
+	interface Backend {
+		void deleteTexture(String fileName);
+	}
+
+	private static class Entry {
+		final long bytes;
+		long lastUsedFrame;
+
+		Entry(long bytes, long frame) {
+			this.bytes = bytes;
+			lastUsedFrame = frame;
+		}
+	}
+
+	private final Backend backend;
+	private long budget;
+	// Least recently used first
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<String> pinned = new HashSet<>();
+	private final Set<String> evicted = new HashSet<>();
+	private long frame;
+	private long residentBytes;
+	private int evictionCount;
+	private int reloadCount;
+
+	TextureResidency(Backend backend, long budget) {
+		this.backend = backend;
+		this.budget = budget;
+	}
+
+	/**
+	 * @param colorDepth 1 for 32 bit textures, 16 bit otherwise as in the settings
+	 */
+	static long estimateBytes(int width, int height, int colorDepth) {
+		return (long) width * height * (colorDepth == 1 ? 4 : 2);
+	}
+
+	synchronized void add(String fileName, long bytes) {
+		Entry old = entries.put(fileName, new Entry(bytes, frame));
+		if (old != null) {
+			residentBytes -= old.bytes;
+		}
+		residentBytes += bytes;
+		if (evicted.remove(fileName)) {
+			reloadCount++;
+		}
+		evict();
+	}
+
+	synchronized void use(String fileName) {
+		Entry entry = entries.get(fileName);
+		if (entry != null) {
+			entry.lastUsedFrame = frame;
+		}
+	}
+
+	/**
+	 * Forgets the texture which has been deleted by the texture manager.
+	 */
+	synchronized void remove(String fileName) {
+		Entry entry = entries.remove(fileName);
+		if (entry != null) {
+			residentBytes -= entry.bytes;
+		}
+	}
+
+	/**
+	 * Forgets all textures, pinned textures stay pinned.
+	 */
+	synchronized void clear() {
+		entries.clear();
+		evicted.clear();
+		residentBytes = 0;
+	}
+
+	synchronized void pin(String fileName) {
+		pinned.add(fileName);
+	}
+
+	synchronized boolean isPinned(String fileName) {
+		return pinned.contains(fileName);
+	}
+
+	synchronized void setBudget(long budget) {
+		this.budget = budget;
+		evict();
+	}
+
+	synchronized void beginFrame() {
+		frame++;
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, Entry>> i = entries.entrySet().iterator();
+		while (residentBytes > budget && i.hasNext()) {
+			Map.Entry<String, Entry> e = i.next();
+			// The textures after it are used by the current frame as well
+			if (e.getValue().lastUsedFrame == frame) {
+				return;
+			}
+			if (pinned.contains(e.getKey())) {
+				continue;
+			}
+			i.remove();
+			residentBytes -= e.getValue().bytes;
+			evicted.add(e.getKey());
+			evictionCount++;
+			backend.deleteTexture(e.getKey());
+		}
+	}
+
+	synchronized long getBudget() {
+		return budget;
+	}
+
+	synchronized long getResidentBytes() {
+		return residentBytes;
+	}
+
+	synchronized int getResidentCount() {
+		return entries.size();
+	}
+
+	synchronized int getEvictionCount() {
+		return evictionCount;
+	}
+
+	synchronized int getReloadCount() {
+		return reloadCount;
+	}
+}
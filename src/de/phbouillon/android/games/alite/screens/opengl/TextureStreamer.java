@@ -0,0 +1,215 @@
+package de.phbouillon.android.games.alite.screens.opengl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import de.phbouillon.android.framework.GameClock;
+import de.phbouillon.android.framework.ResourceStream;
+import de.phbouillon.android.games.alite.AliteLog;
+
+/**
+ * Decodes textures on worker threads and passes them to the GL thread, which uploads them
+ * within a time budget per frame. Textures can be requested before they are used, e.g. the
+ * textures of the next system during the hyperspace countdown; a decoded texture is kept until
+ * it is taken or it expires.
+ * The time the GL thread spends on decoding and uploading textures is measured per frame and
+ * frames where it is more than the spike time are counted and logged.
+ */
+final class TextureStreamer<T> {
+	interface Decoder<T> {
+		T decode(String fileName, ResourceStream textureInputStream);
+	}
+
+	interface Disposer<T> {
+		void dispose(T texture);
+	}
+
+	private static class Request<T> {
+		final Future<T> future;
+		final long time;
+
+		Request(Future<T> future, long time) {
+			this.future = future;
+			this.time = time;
+		}
+	}
+
+	private final Decoder<T> decoder;
+	private final Disposer<T> disposer;
+	private final ExecutorService executor;
+	private final int maxPrefetched;
+	private final long uploadBudget;
+	private final long spikeTime;
+	private final long expiryTime;
+	private final Map<String, Request<T>> requests = new HashMap<>();
+
+	// Only used by the GL thread
+	private long decodeTime;
+	private long uploadTime;
+	private int frameCount;
+	private int spikeCount;
+	private long maxLoadTime;
+
+	TextureStreamer(Decoder<T> decoder, Disposer<T> disposer, ExecutorService executor, int maxPrefetched,
+			long uploadBudget, long spikeTime, long expiryTime) {
+		this.decoder = decoder;
+		this.disposer = disposer;
+		this.executor = executor;
+		this.maxPrefetched = maxPrefetched;
+		this.uploadBudget = uploadBudget;
+		this.spikeTime = spikeTime;
+		this.expiryTime = expiryTime;
+	}
+
+	/**
+	 * Starts decoding the texture if it is not requested yet and the number of requested textures
+	 * allows it.
+	 */
+	synchronized void prefetch(String fileName, ResourceStream textureInputStream) {
+		if (requests.size() < maxPrefetched) {
+			request(fileName, textureInputStream);
+		}
+	}
+
+	private synchronized Request<T> request(String fileName, ResourceStream textureInputStream) {
+		Request<T> request = requests.get(fileName);
+		if (request == null) {
+			request = new Request<>(executor.submit(() -> decoder.decode(fileName, textureInputStream)),
+				GameClock.nanoTime());
+			requests.put(fileName, request);
+		}
+		return request;
+	}
+
+	/**
+	 * @return the decoded texture if it is ready and the uploads of the current frame have not
+	 * used up the budget, null otherwise. The decoding is started if the texture is not requested yet.
+	 */
+	synchronized T poll(String fileName, ResourceStream textureInputStream) {
+		Request<T> request = request(fileName, textureInputStream);
+		if (!request.future.isDone() || uploadTime >= uploadBudget) {
+			return null;
+		}
+		requests.remove(fileName);
+		return get(request.future);
+	}
+
+	/**
+	 * @return the decoded texture, waiting for it if it is being decoded or decoding it on the
+	 * calling thread if it is not requested.
+	 */
+	T take(String fileName, ResourceStream textureInputStream) {
+		Request<T> request;
+		synchronized (this) {
+			request = requests.remove(fileName);
+		}
+		long start = GameClock.nanoTime();
+		try {
+			return request == null ? decoder.decode(fileName, textureInputStream) : get(request.future);
+		} finally {
+			decodeTime += GameClock.nanoTime() - start;
+		}
+	}
+
+	private T get(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			// Failing to decode a texture is fatal as if it was decoded by the GL thread
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	void addUploadTime(long time) {
+		uploadTime += time;
+	}
+
+	/**
+	 * Closes the measurement of the previous frame and drops the decoded textures which are
+	 * not taken in time.
+	 */
+	void beginFrame() {
+		long loadTime = decodeTime + uploadTime;
+		if (loadTime > spikeTime) {
+			spikeCount++;
+			AliteLog.d("Texture loading", String.format(Locale.US,
+				"Frame %d spent %.1f ms loading textures (decoding %.1f ms, uploading %.1f ms), %d spikes in %d frames",
+				frameCount, loadTime / 1e6, decodeTime / 1e6, uploadTime / 1e6, spikeCount, frameCount + 1));
+		}
+		maxLoadTime = Math.max(maxLoadTime, loadTime);
+		frameCount++;
+		decodeTime = 0;
+		uploadTime = 0;
+		synchronized (this) {
+			if (requests.isEmpty()) {
+				return;
+			}
+			long now = GameClock.nanoTime();
+			for (Iterator<Request<T>> i = requests.values().iterator(); i.hasNext(); ) {
+				Request<T> request = i.next();
+				if (now - request.time > expiryTime && request.future.isDone()) {
+					i.remove();
+					dispose(request.future);
+				}
+			}
+		}
+	}
+
+	private void dispose(Future<T> future) {
+		try {
+			T texture = future.get();
+			if (texture != null) {
+				disposer.dispose(texture);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ignored) {
+			// Nobody waits for the texture any more
+		}
+	}
+
+	synchronized int getRequestCount() {
+		return requests.size();
+	}
+
+	int getFrameCount() {
+		return frameCount;
+	}
+
+	int getSpikeCount() {
+		return spikeCount;
+	}
+
+	long getMaxLoadTime() {
+		return maxLoadTime;
+	}
+}
@@ -0,0 +1,110 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
+
+/**
+ * Sweep and prune broad phase of the in-game object checks.
+ * The space objects of the current frame are sorted along the x axis so that
+ * proximity and laser hit checks only look at the objects of a given x interval
+ * instead of testing every object against every other one.
+ * The index is rebuilt once per frame without allocating new memory.
+ */
+final class BroadPhase {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private float[] x = new float[INITIAL_CAPACITY];
+	private SpaceObject[] objects = new SpaceObject[INITIAL_CAPACITY];
+	private int count;
+	private float maxBoundingSphereRadius;
+
+	void update(List<AliteObject> allObjects) {
+		int n = allObjects.size();
+		if (n > keys.length) {
+			int capacity = Math.max(n, keys.length << 1);
+			keys = new long[capacity];
+			x = new float[capacity];
+			objects = new SpaceObject[capacity];
+		}
+		int previousCount = count;
+		count = 0;
+		maxBoundingSphereRadius = 0;
+		for (int i = 0; i < n; i++) {
+			AliteObject object = allObjects.get(i);
+			if (object instanceof SpaceObject) {
+				keys[count++] = (long) toSortableInt(object.getPosition().x) << 32 | i;
+				maxBoundingSphereRadius = Math.max(maxBoundingSphereRadius, object.getBoundingSphereRadius());
+			}
+		}
+		Arrays.sort(keys, 0, count);
+		for (int i = 0; i < count; i++) {
+			objects[i] = (SpaceObject) allObjects.get((int) keys[i]);
+			x[i] = objects[i].getPosition().x;
+		}
+		// Do not keep objects of the previous frames alive
+		if (previousCount > count) {
+			Arrays.fill(objects, count, previousCount, null);
+		}
+	}
+
+	private static int toSortableInt(float value) {
+		int bits = Float.floatToIntBits(value);
+		return bits < 0 ? bits ^ Integer.MAX_VALUE : bits;
+	}
+
+	int size() {
+		return count;
+	}
+
+	SpaceObject get(int index) {
+		return objects[index];
+	}
+
+	float getX(int index) {
+		return x[index];
+	}
+
+	float getMaxBoundingSphereRadius() {
+		return maxBoundingSphereRadius;
+	}
+
+	/**
+	 * @return the index of the first object whose x coordinate is not less than the given value
+	 * or size() if there is no such object
+	 */
+	int lowerBound(float minX) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (x[mid] < minX) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
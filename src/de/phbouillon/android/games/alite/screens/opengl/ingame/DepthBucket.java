@@ -20,9 +20,12 @@ package de.phbouillon.android.games.alite.screens.opengl.ingame;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
 
 class DepthBucket implements Serializable {
 	private static final long serialVersionUID = 3003956374610521180L;
@@ -30,6 +33,8 @@ class DepthBucket implements Serializable {
 	float near;
 	float far;
 	int spaceObjectCount;
+	// The objects of the bucket are out of view
+	boolean culled;
 	final List <AliteObject> sortedObjects = new ArrayList<AliteObject>();	
 	
 	DepthBucket(float near, float far) {
@@ -37,4 +42,36 @@ class DepthBucket implements Serializable {
 		this.far = far;
 		spaceObjectCount = 0;
 	}
+
+	private static final Comparator<AliteObject> TEXTURE_ORDER = (o1, o2) -> {
+		String t1 = ((SpaceObject) o1).getTextureFilename();
+		String t2 = ((SpaceObject) o2).getTextureFilename();
+		return t1 == null ? t2 == null ? 0 : -1 : t2 == null ? 1 : t1.compareTo(t2);
+	};
+
+	private static boolean isOpaqueShip(AliteObject object) {
+		return object instanceof SpaceObject && object.isDepthTest() &&
+			object.getZPositioningMode() == AliteObject.ZPositioning.Normal;
+	}
+
+	/**
+	 * Orders each run of ships by their texture, so the ships sharing a texture are drawn
+	 * one after the other. The order of the ships does not matter in a bucket: they are drawn
+	 * with depth test and their exhausts and target boxes are blended additively.
+	 * Other objects keep their place in the back to front order.
+	 */
+	void sortByTexture() {
+		int size = sortedObjects.size();
+		int start = 0;
+		while (start < size) {
+			int end = start;
+			while (end < size && isOpaqueShip(sortedObjects.get(end))) {
+				end++;
+			}
+			if (end - start > 1) {
+				Collections.sort(sortedObjects.subList(start, end), TEXTURE_ORDER);
+			}
+			start = end + 1;
+		}
+	}
 }
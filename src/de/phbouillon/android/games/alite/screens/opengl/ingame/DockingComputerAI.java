@@ -144,7 +144,7 @@ final class DockingComputerAI implements AiStateCallbackHandler, Serializable {
 		wasActive = true;
 		inGame.setPlayerControl(false);
 		dcaUpdater.orientationFound = false;
-		AliteLog.d("DC Speed", "DC Speed = " + Settings.dockingComputerSpeed);
+		AliteLog.d("DC Speed", () -> "DC Speed = " + Settings.dockingComputerSpeed);
 		if (Settings.dockingComputerSpeed == 1) {
 			Alite.get().setTimeFactor(PlayerCobra.SPEED_UP_FACTOR);
 		}
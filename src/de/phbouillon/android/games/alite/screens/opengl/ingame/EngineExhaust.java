@@ -24,6 +24,7 @@ import java.io.Serializable;
 import java.nio.FloatBuffer;
 
 import android.opengl.GLES11;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.impl.gl.GraphicObject;
 import de.phbouillon.android.games.alite.AliteLog;
@@ -236,12 +237,12 @@ public class EngineExhaust extends GraphicObject implements Serializable {
 		setPosition(x, y, owner.getBoundingBox()[5] + z);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glDepthMask(false);
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_COLOR_ARRAY);
-		GLES11.glDisable(GLES11.GL_LIGHTING);
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enableClientState(GLES11.GL_COLOR_ARRAY);
+		GlState.disable(GLES11.GL_LIGHTING);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
 		MathHelper.copyMatrix(getMatrix(), saveMatrix);
 		for (int i = 0; i < 2; i++) {
 			GLES11.glPushMatrix();
@@ -259,12 +260,12 @@ public class EngineExhaust extends GraphicObject implements Serializable {
 			scale(0.4f, 0.4f, 1.2f);
 		}
 		setMatrix(saveMatrix);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_COLOR_ARRAY);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.disableClientState(GLES11.GL_COLOR_ARRAY);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glDepthMask(true);
-		GLES11.glDisable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_BLEND);
 	}
 }
@@ -25,10 +25,13 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.List;
 
 import android.opengl.GLES11;
 import de.phbouillon.android.framework.*;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.Input.TouchEvent;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.math.Vector3f;
 import de.phbouillon.android.games.alite.Alite;
@@ -55,6 +58,17 @@ public class FlightScreen extends GlScreen implements Serializable {
 	static final Vector3f SHIP_ENTRY_POSITION          = new Vector3f(0.0f, 0.0f, 400000.0f);
 	static final float    SUN_SIZE                     = 60000.0f;
 
+	// Written before the serialized screen, states saved without it are read as version 0
+	private static final int FLIGHT_STATE_MAGIC = 0x414C4653;
+	// Version 2 keeps the timed events in a TimedEventQueue instead of a list, version 3 in a field of its own;
+	// the timed events of older versions are converted when they are read
+	private static final int FLIGHT_STATE_VERSION = 3;
+	private static final int MIN_FLIGHT_STATE_VERSION = 0;
+	private static final String STAR_MAP_TEXTURE = "textures/star_map.png";
+	private static final String STAR_GLOW_TEXTURE = "textures/glow_mask2.png";
+	private static final ObjectType[] SPAWNED_TYPES = { ObjectType.Trader, ObjectType.Pirate, ObjectType.Police, ObjectType.Asteroid };
+	private static final int PREFETCHED_TEMPLATES_PER_TYPE = 2;
+
 	private SphericalSpaceObject star;
 	private PlanetSpaceObject    planet;
 
@@ -128,6 +142,7 @@ public class FlightScreen extends GlScreen implements Serializable {
 
 	public static FlightScreen createScreen(final DataInputStream dis) throws IOException, ClassNotFoundException {
 		Alite.get().loadCommander(dis);
+		readStateVersion(dis);
 		ObjectInputStream ois = new ObjectInputStream(dis);
 		AliteLog.d("Initializing Flight Screen", "---------------------------------------------------------------");
 		FlightScreen screen = (FlightScreen) ois.readObject();
@@ -137,6 +152,20 @@ public class FlightScreen extends GlScreen implements Serializable {
 		return screen;
 	}
 
+	private static void readStateVersion(DataInputStream dis) throws IOException {
+		dis.mark(8);
+		int version = 0;
+		if (dis.readInt() == FLIGHT_STATE_MAGIC) {
+			version = dis.readInt();
+		} else {
+			dis.reset();
+		}
+		if (version < MIN_FLIGHT_STATE_VERSION || version > FLIGHT_STATE_VERSION) {
+			throw new IOException("Unsupported flight state version " + version + ", versions " +
+				MIN_FLIGHT_STATE_VERSION + " to " + FLIGHT_STATE_VERSION + " can be restored.");
+		}
+	}
+
 	private void readObject(ObjectInputStream in) throws IOException {
 		try {
 			AliteLog.d("readObject", "FlightScreen.readObject");
@@ -191,14 +220,25 @@ public class FlightScreen extends GlScreen implements Serializable {
 			setPause(true);
 			return;
 		}
-		inGame = new InGameManager(new AliteHud(new IntFunction<Float>() {
+		startFlight(false);
+	}
+
+	/**
+	 * Creates the objects of the flight, the part of the activation which does not need GL.
+	 * @param headless true if the flight has no graphics, so it has no HUD either.
+	 */
+	void startFlight(boolean headless) {
+		inGame = new InGameManager(headless ? null : new AliteHud(new IntFunction<Float>() {
 			private static final long serialVersionUID = 7872124707688525785L;
 
 			@Override
 			public Float apply(int speed) {
 				return inGame.getShip().getSpeed();
 			}
-		}), "textures/star_map.png", lightPosition, fromStation, true);
+		}), STAR_MAP_TEXTURE, lightPosition, fromStation, true);
+		if (headless) {
+			inGame.flyWithoutHud();
+		}
 		PlayerCobra cobra = game.getCobra();
 		cobra.setMissileTargetting(false);
 		cobra.setMissileLocked(false);
@@ -244,23 +284,59 @@ public class FlightScreen extends GlScreen implements Serializable {
 		return inGame;
 	}
 
+	List<AliteObject> getObjects() {
+		return allObjects;
+	}
+
+	private static String getStarTextureName(SystemData system) {
+		int starTexture = system == null ? 0 : system.getStarTexture();
+		if (starTexture == 22) {
+			return "textures/stars/dwarf/b.png";
+		}
+		if (starTexture == 21) {
+			return "textures/stars/dwarf/a.png";
+		}
+		return "textures/stars/" + ("123".charAt(starTexture / 7) + "/" + "obafgkm".charAt(starTexture % 7)) + ".png";
+	}
+
+	private static ObjectType getStationType(SystemData system) {
+		return system == null || system.getTechLevel() <= 9 ? ObjectType.Coriolis :
+			system.getTechLevel() > 13 ? ObjectType.Icosahedron : ObjectType.Dodecahedron;
+	}
+
+	/**
+	 * Starts decoding the textures which are needed when the flight in the given system starts
+	 * and the textures of the ships which are likely to be spawned there.
+	 */
+	static void prefetchTextures(SystemData system) {
+		Texture textureManager = Alite.get().getTextureManager();
+		textureManager.prefetchTexture(STAR_MAP_TEXTURE, null);
+		textureManager.prefetchTexture(getStarTextureName(system), null);
+		textureManager.prefetchTexture(STAR_GLOW_TEXTURE, null);
+		if (system != null) {
+			PlanetSpaceObject.prefetchTextures(system);
+		}
+		SpaceObjectFactory factory = SpaceObjectFactory.getInstance();
+		factory.prefetchTextures(getStationType(system), 1);
+		for (ObjectType type : SPAWNED_TYPES) {
+			factory.prefetchTextures(type, PREFETCHED_TEMPLATES_PER_TYPE);
+		}
+	}
+
 	private void initializeObjects() {
 		allObjects.clear();
 		SystemData currentSystem = game.getPlayer().getCurrentSystem();
 
 		int starTexture = currentSystem == null ? 0 : currentSystem.getStarTexture();
-		String starTextureName;
+		String starTextureName = getStarTextureName(currentSystem);
 		float sunSize;
 		if (starTexture == 22) {
-			starTextureName = "textures/stars/dwarf/b.png";
 			sunLightEmission[0] = 0.5f; sunLightEmission[1] = 0.0f; sunLightEmission[2] = 0.0f; sunLightEmission[3] = 1.0f;
 			sunSize = 5000.0f;
 		} else if (starTexture == 21) {
-			starTextureName = "textures/stars/dwarf/a.png";
 			sunLightEmission[0] = 0.5f; sunLightEmission[1] = 0.0f; sunLightEmission[2] = 0.5f; sunLightEmission[3] = 1.0f;
 			sunSize = 10000.0f;
 		} else {
-			starTextureName = "textures/stars/" + ("123".charAt(starTexture / 7) + "/" + "obafgkm".charAt(starTexture % 7)) + ".png";
 			sunSize = SUN_SIZE - (starTexture % 7) * 7000.0f;
 			int starType = starTexture % 7;
 			switch (starType) {
@@ -287,20 +363,20 @@ public class FlightScreen extends GlScreen implements Serializable {
 		};
 		star.setVisibleOnHud(false);
 
-		SphericalSpaceObject starGlow = new SphericalSpaceObject("Glow", sunSize + 60.0f, "textures/glow_mask2.png") {
+		SphericalSpaceObject starGlow = new SphericalSpaceObject("Glow", sunSize + 60.0f, STAR_GLOW_TEXTURE) {
 			private static final long serialVersionUID = -7651239619882350365L;
 
 			@Override
 			public void glSetUp() {
-				GLES11.glDisable(GLES11.GL_CULL_FACE);
-				GLES11.glEnable(GLES11.GL_BLEND);
-				GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+				GlState.disable(GLES11.GL_CULL_FACE);
+				GlState.enable(GLES11.GL_BLEND);
+				GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
 			}
 
 			@Override
 			public void glTearDown() {
-				GLES11.glEnable(GLES11.GL_CULL_FACE);
-				GLES11.glDisable(GLES11.GL_BLEND);
+				GlState.enable(GLES11.GL_CULL_FACE);
+				GlState.disable(GLES11.GL_BLEND);
 			}
 		};
 		starGlow.setDepthTest(false);
@@ -310,9 +386,7 @@ public class FlightScreen extends GlScreen implements Serializable {
 		planet.applyDeltaRotation(23, 0, 14);
 		planet.setPosition(PLANET_POSITION);
 
-		spaceStation = SpaceObjectFactory.getInstance().getRandomObjectByType(
-			currentSystem == null || currentSystem.getTechLevel() <= 9 ? ObjectType.Coriolis :
-			currentSystem.getTechLevel() > 13 ? ObjectType.Icosahedron : ObjectType.Dodecahedron);
+		spaceStation = SpaceObjectFactory.getInstance().getRandomObjectByType(getStationType(currentSystem));
 		spaceStation.setPosition(inGame.getSystemStationPosition());
 		if (fromStation) {
 			spaceStation.setIdentified();
@@ -342,14 +416,14 @@ public class FlightScreen extends GlScreen implements Serializable {
 
 	public void initializeGl() {
 		GlUtils.setViewport(game);
-		GLES11.glDisable(GLES11.GL_FOG);
+		GlState.disable(GLES11.GL_FOG);
 		GLES11.glPointSize(1.0f);
 		GLES11.glLineWidth(1.0f);
 
 		GLES11.glTexEnvf(GLES11.GL_TEXTURE_ENV, GLES11.GL_TEXTURE_ENV_MODE, GLES11.GL_MODULATE);
 
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
-		GLES11.glDisable(GLES11.GL_BLEND);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+		GlState.disable(GLES11.GL_BLEND);
 
 		GLES11.glMatrixMode(GLES11.GL_PROJECTION);
 		GLES11.glLoadIdentity();
@@ -364,21 +438,21 @@ public class FlightScreen extends GlScreen implements Serializable {
 		GLES11.glLightfv(GLES11.GL_LIGHT1, GLES11.GL_DIFFUSE, lightDiffuse, 0);
 		GLES11.glLightfv(GLES11.GL_LIGHT1, GLES11.GL_SPECULAR, lightSpecular, 0);
 		GLES11.glLightfv(GLES11.GL_LIGHT1, GLES11.GL_POSITION, lightPosition, 0);
-		GLES11.glEnable(GLES11.GL_LIGHT1);
+		GlState.enable(GLES11.GL_LIGHT1);
 
 		GLES11.glLightfv(GLES11.GL_LIGHT2, GLES11.GL_AMBIENT, sunLightAmbient, 0);
 		GLES11.glLightfv(GLES11.GL_LIGHT2, GLES11.GL_DIFFUSE, sunLightDiffuse, 0);
 		GLES11.glLightfv(GLES11.GL_LIGHT2, GLES11.GL_SPECULAR, sunLightSpecular, 0);
 		GLES11.glLightfv(GLES11.GL_LIGHT2, GLES11.GL_POSITION, sunLightPosition, 0);
-		GLES11.glEnable(GLES11.GL_LIGHT2);
+		GlState.enable(GLES11.GL_LIGHT2);
 
-		GLES11.glEnable(GLES11.GL_LIGHTING);
+		GlState.enable(GLES11.GL_LIGHTING);
 
 		GLES11.glClear(GLES11.GL_COLOR_BUFFER_BIT);
 		GLES11.glHint(GLES11.GL_PERSPECTIVE_CORRECTION_HINT, GLES11.GL_NICEST);
 		GLES11.glHint(GLES11.GL_POLYGON_SMOOTH_HINT, GLES11.GL_NICEST);
-		GLES11.glEnable(GLES11.GL_TEXTURE_2D);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_TEXTURE_2D);
+		GlState.enable(GLES11.GL_CULL_FACE);
 	}
 
 	private void performResetSpaceStation() {
@@ -419,7 +493,7 @@ public class FlightScreen extends GlScreen implements Serializable {
 					}
 				}
 			}
-			inGame.getShip().applyDeltaRotation((float) Math.random() * 360.0f, (float) Math.random() * 360.0f, (float) Math.random() * 360.0f);
+			inGame.getShip().applyDeltaRotation((float) GameRandom.nextDouble() * 360.0f, (float) GameRandom.nextDouble() * 360.0f, (float) GameRandom.nextDouble() * 360.0f);
 			inGame.getShip().assertOrthoNormal();
 		}
 		inGame.initStarDust();
@@ -451,21 +525,7 @@ public class FlightScreen extends GlScreen implements Serializable {
 			if (isDisposed() || inGame == null) {
 				return;
 			}
-			if (inGame.isPlayerAlive()) {
-				int tf = game.getTimeFactor();
-				while (--tf >= 0 && inGame.isPlayerAlive()) {
-					inGame.performUpdate(deltaTime, allObjects);
-				}
-			} else {
-				if (timeToExitTimer == null) {
-					timeToExitTimer = new Timer();
-				}
-				if (timeToExitTimer.hasPassedSeconds(10)) {
-					// Safeguard for endless loops...
-					inGame.terminateToTitleScreen();
-				}
-				inGame.performUpdate(deltaTime, allObjects);
-			}
+			updateFlight(deltaTime);
 			if (informationScreen != null) {
 				informationScreen.update(deltaTime);
 			}
@@ -482,21 +542,7 @@ public class FlightScreen extends GlScreen implements Serializable {
 			if (newScreen != null) {
 				performScreenChange(newScreen);
 			} else {
-				deltaTime *= game.getTimeFactor();
-				if (star != null) {
-					star.applyDeltaRotation(0.0f, (float) Math.toDegrees(0.02f * deltaTime), 0.0f);
-				}
-				if (planet != null) {
-					planet.applyDeltaRotation(0.0f, (float) Math.toDegrees(0.015f * deltaTime), 0.0f);
-				}
-
-				if (spaceStation != null) {
-					if (resetSpaceStation) {
-						performResetSpaceStation();
-					}
-					spaceStation.applyDeltaRotation(0.0f, 0.0f,
-						(float) Math.toDegrees(spaceStation.getSpaceStationRotationSpeed() * deltaTime));
-				}
+				rotateStellarObjects(deltaTime * game.getTimeFactor());
 			}
 		} catch (NullPointerException e) {
 			if (inGame.isDestroyed()) {
@@ -507,6 +553,56 @@ public class FlightScreen extends GlScreen implements Serializable {
 		}
 	}
 
+	private void updateFlight(float deltaTime) {
+		if (inGame.isPlayerAlive()) {
+			int tf = game.getTimeFactor();
+			while (--tf >= 0 && inGame.isPlayerAlive()) {
+				inGame.performUpdate(deltaTime, allObjects);
+			}
+		} else {
+			if (timeToExitTimer == null) {
+				timeToExitTimer = new Timer();
+			}
+			if (timeToExitTimer.hasPassedSeconds(10)) {
+				// Safeguard for endless loops...
+				inGame.terminateToTitleScreen();
+			}
+			inGame.performUpdate(deltaTime, allObjects);
+		}
+	}
+
+	private void rotateStellarObjects(float deltaTime) {
+		if (star != null) {
+			star.applyDeltaRotation(0.0f, (float) Math.toDegrees(0.02f * deltaTime), 0.0f);
+		}
+		if (planet != null) {
+			planet.applyDeltaRotation(0.0f, (float) Math.toDegrees(0.015f * deltaTime), 0.0f);
+		}
+
+		if (spaceStation != null) {
+			if (resetSpaceStation) {
+				performResetSpaceStation();
+			}
+			spaceStation.applyDeltaRotation(0.0f, 0.0f,
+				(float) Math.toDegrees(spaceStation.getSpaceStationRotationSpeed() * deltaTime));
+		}
+	}
+
+	/**
+	 * Advances the flight by a frame as performUpdate and performPresent do, but without
+	 * user input, screen changes and drawing.
+	 * @return the screen the flight would continue with or null if it goes on.
+	 */
+	Screen simulateFrame(float deltaTime) {
+		updateFlight(deltaTime);
+		Screen newScreen = inGame.getNewScreen();
+		if (newScreen == null) {
+			rotateStellarObjects(deltaTime * game.getTimeFactor());
+			inGame.calcAllObjects(deltaTime, allObjects);
+		}
+		return newScreen;
+	}
+
 	private void performScreenChange(Screen newScreen) {
 		Screen oldScreen = game.getCurrentScreen();
 		oldScreen.dispose();
@@ -631,6 +727,8 @@ public class FlightScreen extends GlScreen implements Serializable {
 		setPause(true);
 		game.saveCommander(dos);
 		inGame.clearObjectTransformations();
+		dos.writeInt(FLIGHT_STATE_MAGIC);
+		dos.writeInt(FLIGHT_STATE_VERSION);
 		ObjectOutputStream oos = new ObjectOutputStream(dos);
 		oos.writeObject(this);
 	}
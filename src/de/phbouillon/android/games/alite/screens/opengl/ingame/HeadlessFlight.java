@@ -0,0 +1,114 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.List;
+
+import de.phbouillon.android.framework.GameClock;
+import de.phbouillon.android.framework.GameRandom;
+import de.phbouillon.android.framework.Screen;
+import de.phbouillon.android.framework.VirtualClock;
+import de.phbouillon.android.games.alite.AliteConfig;
+import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+
+/**
+ * Flies without GL, graphics, user input and screen changes. The game clock is replaced by a virtual
+ * clock advanced by the length of a frame, so a flight runs as fast as it can be computed,
+ * and the random numbers are seeded, so a flight can be replayed from its seed.
+ * The game content has to be loaded and a texture manager without GL set before, as for the unit tests.
+ */
+public class HeadlessFlight {
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private final VirtualClock clock;
+	private final GameClock previousClock;
+	private final long startTime;
+	private final FlightScreen screen;
+	private Screen nextScreen;
+	private long frameCount;
+
+	public HeadlessFlight(long seed, boolean fromStation) {
+		previousClock = GameClock.getInstance();
+		// Timers created before keep working if the virtual time continues the previous one
+		startTime = GameClock.nanoTime();
+		clock = new VirtualClock(startTime);
+		GameClock.setInstance(clock);
+		GameRandom.setSeed(seed);
+		screen = new FlightScreen(fromStation);
+		screen.startFlight(true);
+		// The objects out of view are determined as on a screen of the size of the game
+		screen.getInGameManager().setViewSize(AliteConfig.SCREEN_WIDTH, AliteConfig.SCREEN_HEIGHT);
+	}
+
+	/**
+	 * Simulates the given time in frames of the given length.
+	 * @return false if the flight has ended by docking, a hyperspace jump or the death of the player.
+	 */
+	public boolean run(float seconds, float frameSeconds) {
+		long frameNanos = (long) (frameSeconds * NANOS_PER_SECOND);
+		long end = clock.getNanoTime() + (long) (seconds * NANOS_PER_SECOND);
+		while (nextScreen == null && isPlayerAlive() && end - clock.getNanoTime() > 0) {
+			clock.advance(frameNanos);
+			nextScreen = screen.simulateFrame(frameSeconds);
+			frameCount++;
+		}
+		return nextScreen == null && isPlayerAlive();
+	}
+
+	/**
+	 * The flight ends when the player dies, without the game over sequence of the game.
+	 */
+	public boolean isPlayerAlive() {
+		return screen.getInGameManager().isPlayerAlive();
+	}
+
+	public InGameManager getInGameManager() {
+		return screen.getInGameManager();
+	}
+
+	/**
+	 * @return the objects of the flight except the ship of the player, including the spawned ones.
+	 */
+	public List<AliteObject> getObjects() {
+		return screen.getObjects();
+	}
+
+	/**
+	 * @return the screen the game would continue with after the flight has ended.
+	 */
+	public Screen getNextScreen() {
+		return nextScreen;
+	}
+
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	public float getSimulatedSeconds() {
+		return (clock.getNanoTime() - startTime) / (float) NANOS_PER_SECOND;
+	}
+
+	/**
+	 * Disposes the flight and gives the game its previous clock back.
+	 */
+	public void close() {
+		screen.dispose();
+		GameClock.setInstance(previousClock);
+	}
+}
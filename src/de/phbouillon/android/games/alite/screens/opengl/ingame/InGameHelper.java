@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.List;
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.math.Vector3f;
 import de.phbouillon.android.games.alite.*;
@@ -40,6 +41,8 @@ class InGameHelper implements Serializable {
 	private static final float STATION_PROXIMITY_DISTANCE_SQ = 4000000.0f;
 	static final float STATION_VESSEL_PROXIMITY_DISTANCE_SQ = 8000000.0f;
 	private static final float PROXIMITY_WARNING_RADIUS_FACTOR = 18.0f;
+	private static final float PROXIMITY_WARNING_RADIUS_EXTENT_FACTOR = (float) Math.sqrt(PROXIMITY_WARNING_RADIUS_FACTOR);
+	private static final float STATION_APPROACH_RADIUS = 1000.0f;
 
 	private static final int DAMAGE_CARGO_COLLISION = 10;
 	private static final int DAMAGE_STATION_COLLISION = 5;
@@ -96,51 +99,51 @@ class InGameHelper implements Serializable {
 		}
 	}
 
-	void checkProximity(List <AliteObject> allObjects) {
-		int n = allObjects.size();
-		if (n < 2) {
-			return;
+	void checkProximity(BroadPhase broadPhase) {
+		int n = broadPhase.size();
+		float maxExtent = broadPhase.getMaxBoundingSphereRadius() * PROXIMITY_WARNING_RADIUS_EXTENT_FACTOR;
+		float maxStationTravelDistance = 0;
+		for (int i = 0; i < n; i++) {
+			SpaceObject object = broadPhase.get(i);
+			float distanceCamSq = object.getPosition().distanceSq(inGame.getShip().getPosition());
+			if (distanceCamSq <= object.getBoundingSphereRadiusSq() * PROXIMITY_WARNING_RADIUS_FACTOR) {
+				object.setProximity(inGame.getShip());
+			}
+			maxStationTravelDistance = Math.max(maxStationTravelDistance, -object.getSpeed() * 3.0f);
 		}
 		for (int i = 0; i < n - 1; i++) {
-			if (!(allObjects.get(i) instanceof SpaceObject)) {
-				continue;
-			}
-			SpaceObject objectA = (SpaceObject) allObjects.get(i);
+			SpaceObject objectA = broadPhase.get(i);
 			float objectAProximityDistance = objectA.getBoundingSphereRadiusSq() * PROXIMITY_WARNING_RADIUS_FACTOR;
-			float distanceCamSq = objectA.getPosition().distanceSq(inGame.getShip().getPosition());
-			if (distanceCamSq <= objectAProximityDistance) {
-				objectA.setProximity(inGame.getShip());
-			}
-			for (int j = i + 1; j < n; j++) {
-				if (!(allObjects.get(j) instanceof SpaceObject)) {
-					continue;
-				}
-				SpaceObject objectB = (SpaceObject) allObjects.get(j);
+			// distanceSq <= rA^2 * f + rB^2 * f implies |xB - xA| <= (rA + rB) * sqrt(f)
+			float maxX = broadPhase.getX(i) + objectA.getBoundingSphereRadius() * PROXIMITY_WARNING_RADIUS_EXTENT_FACTOR + maxExtent;
+			for (int j = i + 1; j < n && broadPhase.getX(j) <= maxX; j++) {
+				SpaceObject objectB = broadPhase.get(j);
 				float distanceSq = objectA.getPosition().distanceSq(objectB.getPosition());
 				float objectBProximityDistance = objectB.getBoundingSphereRadiusSq() * PROXIMITY_WARNING_RADIUS_FACTOR;
 				if (distanceSq <= objectAProximityDistance + objectBProximityDistance) {
 					objectA.setProximity(objectB);
 					objectB.setProximity(objectA);
 				}
-				distanceCamSq = objectB.getPosition().distanceSq(inGame.getShip().getPosition());
-				if (distanceCamSq <= objectBProximityDistance) {
-					objectB.setProximity(inGame.getShip());
-				}
-				if (ObjectType.isSpaceStation(objectA.getType())) {
-					float intersectionDistance = LaserManager.computeIntersectionDistance(objectB.getForwardVector(),
-						objectB.getPosition(), objectA.getPosition(), 1000.0f, tempVector);
-					float travelDistance = -objectB.getSpeed() * 3.0f;
-					if (intersectionDistance > 0 && intersectionDistance < travelDistance) {
-						objectB.setProximity(objectA);
-					}
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			SpaceObject station = broadPhase.get(i);
+			if (!ObjectType.isSpaceStation(station.getType())) {
+				continue;
+			}
+			// The intersection point lies within the station radius and within the travel distance of the object
+			float range = STATION_APPROACH_RADIUS + maxStationTravelDistance;
+			float maxX = broadPhase.getX(i) + range;
+			for (int j = broadPhase.lowerBound(broadPhase.getX(i) - range); j < n && broadPhase.getX(j) <= maxX; j++) {
+				SpaceObject object = broadPhase.get(j);
+				if (object == station) {
+					continue;
 				}
-				if (ObjectType.isSpaceStation(objectB.getType())) {
-					float intersectionDistance = LaserManager.computeIntersectionDistance(objectA.getForwardVector(),
-						objectA.getPosition(), objectB.getPosition(), 1000.0f, tempVector);
-					float travelDistance = -objectA.getSpeed() * 3.0f;
-					if (intersectionDistance > 0 && intersectionDistance < travelDistance) {
-						objectA.setProximity(objectB);
-					}
+				float intersectionDistance = LaserManager.computeIntersectionDistance(object.getForwardVector(),
+					object.getPosition(), station.getPosition(), STATION_APPROACH_RADIUS, tempVector);
+				float travelDistance = -object.getSpeed() * 3.0f;
+				if (intersectionDistance > 0 && intersectionDistance < travelDistance) {
+					object.setProximity(station);
 				}
 			}
 		}
@@ -166,7 +169,7 @@ class InGameHelper implements Serializable {
 			return;
 		}
 		Weight quantity = cargo.getType() == ObjectType.CargoPod ? cargo.getCargoQuantity() :
-			Weight.tonnes((int) (Math.random() * 3 + 1));
+			Weight.tonnes((int) (GameRandom.nextDouble() * 3 + 1));
 		if (cobra.getFreeCargo().compareTo(quantity) < 0) {
 			ramCargo(cargo);
 			inGame.getMessage().setText(L.string(R.string.msg_full_cargo));
@@ -214,7 +217,7 @@ class InGameHelper implements Serializable {
 		alite.getPlayer().setCondition(Condition.DOCKED);
 		SoundManager.stopAll();
 		inGame.getMessage().clearRepetition();
-		alite.getNavigationBar().setFlightMode(false);
+		inGame.leaveFlightMode();
 		if (inGame.getPostDockingScreen() instanceof StatusScreen) {
 			if (inGame.getDockingComputerAI().wasActiveSinceLastDock()) {
 				alite.getPlayer().addVisitedPlanet();
@@ -334,7 +337,7 @@ class InGameHelper implements Serializable {
 			// Check if target has ECM; then the missile's fate will be
 			// decided here: If the player is close enough (< 1000m (1000 * 1000 = 1000000)),
 			// he'll have a small chance to get through (10%).
-			if (target.hasEcm() && (target.getPosition().distanceSq(source.getPosition()) >= 1000000 || Math.random() > 0.1)) {
+			if (target.hasEcm() && (target.getPosition().distanceSq(source.getPosition()) >= 1000000 || GameRandom.nextDouble() > 0.1)) {
 				missile.setWillBeDestroyedByECM();
 			}
 			if (ObjectType.isSpaceStation(target.getType()) ||
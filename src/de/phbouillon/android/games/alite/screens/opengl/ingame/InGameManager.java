@@ -29,6 +29,7 @@ import java.util.List;
 import android.graphics.Color;
 import android.opengl.GLES11;
 import android.opengl.Matrix;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.Input.TouchEvent;
 import de.phbouillon.android.framework.IntFunction;
@@ -36,6 +37,7 @@ import de.phbouillon.android.framework.Rect;
 import de.phbouillon.android.framework.Screen;
 import de.phbouillon.android.framework.impl.AccelerometerHandler;
 import de.phbouillon.android.framework.impl.AndroidGame;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.math.Vector3f;
 import de.phbouillon.android.games.alite.*;
@@ -75,6 +77,9 @@ public class InGameManager implements Serializable {
 	private transient IMethodHook       hyperspaceHook;
 	private transient String            feeText;
 	private transient Alite             alite;
+	private transient BroadPhase        broadPhase;
+	// The player of a flight without graphics is alive without a HUD
+	private transient boolean           aliveWithoutHud;
 
 	private final Vector3f              deltaYawRollPitch     = new Vector3f(0, 0, 0);
 	private final Vector3f              tempVector            = new Vector3f(0, 0, -1);
@@ -85,17 +90,18 @@ public class InGameManager implements Serializable {
 	private final float[][]             tempMatrix = new float[3][16];
 	private final float[]               viewMatrix = new float[16];
 	private final float[]               lightPosition;
-	private final float                 aspectRatio;
+	private float                       aspectRatio;
 
 	private final AliteButtons          buttons;
 	private final DockingComputerAI     dockingComputerAI;
-	private final ObjectPicker          objectPicker;
+	private ObjectPicker                objectPicker;
 	private final SkySphereSpaceObject  skysphere;
 
 	private final List <AliteObject>    objectsToBeAdded = new ArrayList<>();
 	private final List <DepthBucket>    sortedObjectsToDraw = new ArrayList<>();
-	private final List <TimedEvent>     timedEvents = new ArrayList<>();
-	private final List <TimedEvent>     removedTimedEvents = new ArrayList<>();
+	private TimedEventQueue             timedEventQueue = new TimedEventQueue();
+	// The timed events of flight states saved before version 3: a list before version 2, the queue in version 2
+	private Serializable                timedEvents;
 
 	private InGameHelper                helper;
 	private AliteHud                    hud;
@@ -109,6 +115,7 @@ public class InGameManager implements Serializable {
 	private final ObjectSpawnManager    spawnManager;
 	private StarDust                    starDust;
 	private ViewingTransformationHelper viewingTransformationHelper = new ViewingTransformationHelper();
+	private transient ViewFrustum       viewFrustum;
 	private WitchSpaceRender            witchSpace;
 
 	private final SpaceObject           ship;
@@ -168,12 +175,11 @@ public class InGameManager implements Serializable {
 		}
 		buttons = hud != null ? new AliteButtons(this) : null;
 		laserManager = new LaserManager(this);
-		timedEvents.addAll(laserManager.registerTimedEvents());
-		android.graphics.Rect visibleArea = alite.getGraphics().getVisibleArea();
-		aspectRatio = visibleArea.width() / (float) visibleArea.height();
+		for (TimedEvent event : laserManager.registerTimedEvents()) {
+			timedEventQueue.add(event);
+		}
 		spawnManager.startSimulation(alite.getPlayer().getCurrentSystem());
 		alite.getCobra().setMissileLocked(false);
-		objectPicker = new ObjectPicker(this, visibleArea);
 		AccelerometerHandler.needsCalibration = true;
 	}
 
@@ -197,12 +203,12 @@ public class InGameManager implements Serializable {
 			vipersWillEngage = false;
 			return;
 		}
-		int roll = (int) (Math.random() * 100);
+		int roll = (int) (GameRandom.nextDouble() * 100);
 		int legalProblemLikelihoodInPercent = alite.getPlayer().getLegalProblemLikelihoodInPercent();
 		if (roll >= legalProblemLikelihoodInPercent) {
 			vipersWillEngage = false;
 		}
-		AliteLog.d("Checking Viper Attack", "Roll: " + roll +
+		AliteLog.d("Checking Viper Attack", () -> "Roll: " + roll +
 			", Likelihood: " + legalProblemLikelihoodInPercent + ", Result: " + vipersWillEngage);
 	}
 
@@ -216,14 +222,41 @@ public class InGameManager implements Serializable {
 		}
 	}
 
+	/**
+	 * Sets the size of the screen area the flight is drawn to. Without it the size of the
+	 * visible area of the graphics is taken, when the flight is drawn first.
+	 */
+	void setViewSize(int width, int height) {
+		aspectRatio = width / (float) height;
+		viewFrustum = new ViewFrustum();
+		viewFrustum.setPerspective(45.0f, aspectRatio, height);
+	}
+
 	float getAspectRatio() {
+		getViewFrustum();
 		return aspectRatio;
 	}
 
+	private ViewFrustum getViewFrustum() {
+		if (viewFrustum == null) {
+			android.graphics.Rect visibleArea = alite.getGraphics().getVisibleArea();
+			setViewSize(visibleArea.width(), visibleArea.height());
+		}
+		return viewFrustum;
+	}
+
+	private ObjectPicker getObjectPicker() {
+		if (objectPicker == null) {
+			objectPicker = new ObjectPicker(this, alite.getGraphics().getVisibleArea());
+		}
+		return objectPicker;
+	}
+
 	private void readObject(ObjectInputStream in) throws IOException {
 		try {
 			in.defaultReadObject();
 			alite = Alite.get();
+			restoreTimedEvents();
 			if (spawnManager != null) {
 				spawnManager.initTimedEvents(this);
 			}
@@ -232,6 +265,19 @@ public class InGameManager implements Serializable {
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private void restoreTimedEvents() {
+		if (timedEvents instanceof TimedEventQueue) {
+			timedEventQueue = (TimedEventQueue) timedEvents;
+		} else if (timedEvents instanceof List) {
+			timedEventQueue = new TimedEventQueue();
+			for (TimedEvent event : (List<TimedEvent>) timedEvents) {
+				timedEventQueue.add(event);
+			}
+		}
+		timedEvents = null;
+	}
+
 	public void setScoopCallback(ScoopCallback callback) {
 		if (helper != null) {
 			helper.setScoopCallback(callback);
@@ -425,10 +471,18 @@ public class InGameManager implements Serializable {
 
 	public void killHud() {
 		hud = null;
+		aliveWithoutHud = false;
+	}
+
+	/**
+	 * Lets the player fly without a HUD, which can only be created with graphics.
+	 */
+	void flyWithoutHud() {
+		aliveWithoutHud = true;
 	}
 
 	boolean isPlayerAlive() {
-		return hud != null;
+		return hud != null || aliveWithoutHud;
 	}
 
 	public ObjectSpawnManager getSpawnManager() {
@@ -436,7 +490,7 @@ public class InGameManager implements Serializable {
 	}
 
 	void addTimedEvent(final TimedEvent event) {
-		timedEvents.add(event);
+		timedEventQueue.add(event);
 	}
 
 	private float clamp(float val, float min, float max) {
@@ -522,15 +576,24 @@ public class InGameManager implements Serializable {
 			alite.resetPlayer();
 			alite.getPlayer().addVisitedPlanet();
 		}
-		alite.getNavigationBar().setFlightMode(false);
+		leaveFlightMode();
 		newScreen = new ShipIntroScreen();
 	}
 
+	/**
+	 * Shows the navigation bar again, which a flight without graphics does not have.
+	 */
+	void leaveFlightMode() {
+		if (alite.getNavigationBar() != null) {
+			alite.getNavigationBar().setFlightMode(false);
+		}
+	}
+
 	public void terminateToStatusScreen() {
 		SoundManager.stopAll();
 		witchSpace = null;
 		message.clearRepetition();
-		alite.getNavigationBar().setFlightMode(false);
+		leaveFlightMode();
 		try {
 			AliteLog.d("[ALITE]", "Performing autosave. [Docked]");
 			alite.autoSave();
@@ -563,7 +626,7 @@ public class InGameManager implements Serializable {
 			switch (st) {
 				case Missile: spawnMissile(ao); break;
 				case EscapeCapsule: helper.launchEscapeCapsule(ao); break;
-				default: AliteLog.d("Unknown ShipType", "Supposed to spawn a " + st + " - but don't know how."); break;
+				default: AliteLog.d("Unknown ShipType", () -> "Supposed to spawn a " + st + " - but don't know how."); break;
 			}
 		}
 		ao.clearObjectsToSpawn();
@@ -595,9 +658,13 @@ public class InGameManager implements Serializable {
 
 	private synchronized void updateObjects(float deltaTime, List <AliteObject> allObjects) {
 		helper.checkShipObjectCollision(allObjects);
-		laserManager.update(deltaTime, allObjects);
+		if (broadPhase == null) {
+			broadPhase = new BroadPhase();
+		}
+		broadPhase.update(allObjects);
+		laserManager.update(deltaTime, broadPhase);
 		Iterator <AliteObject> objectIterator = allObjects.iterator();
-		helper.checkProximity(allObjects);
+		helper.checkProximity(broadPhase);
 		if (dockingComputerAI != null && dockingComputerAI.isActive()) {
 			if (!dockingComputerAI.isOnFinalApproach()) {
 				helper.checkShipStationProximity();
@@ -635,19 +702,6 @@ public class InGameManager implements Serializable {
 		}
 	}
 
-	private synchronized void updateTimedEvents() {
-		removedTimedEvents.clear();
-		for (TimedEvent event: timedEvents) {
-			event.perform();
-			if (event.mustBeRemoved()) {
-				removedTimedEvents.add(event);
-			}
-		}
-		for (TimedEvent event: removedTimedEvents) {
-			timedEvents.remove(event);
-		}
-	}
-
 	private synchronized void handleStationAccessDeclined() {
 		if (station == null || station.isAccessDenied()) {
 			if (isDockingComputerActive()) {
@@ -700,7 +754,7 @@ public class InGameManager implements Serializable {
 
 		laserManager.performUpdate();
 
-		updateTimedEvents();
+		timedEventQueue.update();
 		if (dockingComputerAI.isActive() && Settings.dockingComputerSpeed == 2 &&
 				(alite.getPlayer().getLegalStatus() == LegalStatus.CLEAN || !vipersWillEngage ||
 				(alite.getPlayer().getCurrentSystem() == null ||
@@ -915,7 +969,7 @@ public class InGameManager implements Serializable {
 							((FlightScreen) alite.getCurrentScreen()).setPauseByTapOnLogo();
 						}
 					} else {
-						SpaceObject picked = objectPicker.handleIdentify(e.x, e.y, sortedObjectsToDraw);
+						SpaceObject picked = getObjectPicker().handleIdentify(e.x, e.y, sortedObjectsToDraw);
 						if (picked != null) {
 							SoundManager.play(Assets.identify);
 							message.setText(picked.getName());
@@ -1046,6 +1100,24 @@ public class InGameManager implements Serializable {
 		}
 	}
 
+	/**
+	 * Objects out of view are not drawn, but they are still shown by the scanner and the game
+	 * logic uses their display matrix.
+	 */
+	private void updateCulledObjects(final float deltaTime, DepthBucket bucket) {
+		for (AliteObject go: bucket.sortedObjects) {
+			if (go instanceof SpaceObject && ((SpaceObject) go).isCloaked()) {
+				continue;
+			}
+			MathHelper.copyMatrix(tempMatrix[0], viewMatrix);
+			if (viewDirection == PlayerCobra.DIR_FRONT) {
+				renderHudObject(deltaTime, go);
+			}
+			Matrix.multiplyMM(tempMatrix[2], 0, viewMatrix, 0, go.getMatrix(), 0);
+			go.setDisplayMatrix(tempMatrix[2]);
+		}
+	}
+
 	private void renderAllObjects(final float deltaTime) {
 		if (witchSpace == null) {
 			if (!isTorusDriveEngaged()) {
@@ -1068,10 +1140,10 @@ public class InGameManager implements Serializable {
 		}
 
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
-		GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnable(GLES11.GL_DEPTH_TEST);
+		GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_DEPTH_TEST);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glClear(GLES11.GL_DEPTH_BUFFER_BIT);
 
@@ -1086,17 +1158,21 @@ public class InGameManager implements Serializable {
 			AliteLog.d("----Debugging Objects----", "--------Debugging Objects--------");
 			for (DepthBucket bucket: sortedObjectsToDraw) {
 				if (bucket.near <= 0 || bucket.far <= 0) {
-					AliteLog.d("Bucket error", "[E] Bucket near: " + bucket.near + ", Bucket far: " + bucket.far);
+					AliteLog.d("Bucket error", () -> "[E] Bucket near: " + bucket.near + ", Bucket far: " + bucket.far);
 				} else {
-					AliteLog.d("Bucket ok", "[O] Bucket near: " + bucket.near + ", Bucket far: " + bucket.far);
+					AliteLog.d("Bucket ok", () -> "[O] Bucket near: " + bucket.near + ", Bucket far: " + bucket.far);
 				}
 				for (AliteObject go: bucket.sortedObjects) {
-					AliteLog.d("  OIB", "  Object: " + go.getId());
+					AliteLog.d("  OIB", () -> "  Object: " + go.getId());
 				}
 			}
 			AliteLog.d("----Debugging Objects End----", "--------Debugging Objects End--------");
 		}
 		for (DepthBucket bucket: sortedObjectsToDraw) {
+			if (bucket.culled) {
+				updateCulledObjects(deltaTime, bucket);
+				continue;
+			}
 			if (bucket.near > 0 && bucket.far > 0) {
 				GLES11.glPushMatrix();
 				GLES11.glMatrixMode(GLES11.GL_PROJECTION);
@@ -1110,6 +1186,10 @@ public class InGameManager implements Serializable {
 				if (go instanceof SpaceObject && ((SpaceObject) go).isCloaked()) {
 					continue;
 				}
+				// Ships leave culling disabled, so the ships following them need not enable it again
+				if (!(go instanceof SpaceObject)) {
+					GlState.enable(GLES11.GL_CULL_FACE);
+				}
 				if (go instanceof LaserCylinder) {
 					laserManager.renderLaser((LaserCylinder) go);
 					continue;
@@ -1129,9 +1209,9 @@ public class InGameManager implements Serializable {
 					renderHudObject(deltaTime, go);
 				}
 				if (go.isDepthTest()) {
-					GLES11.glEnable(GLES11.GL_DEPTH_TEST);
+					GlState.enable(GLES11.GL_DEPTH_TEST);
 				} else {
-					GLES11.glDisable(GLES11.GL_DEPTH_TEST);
+					GlState.disable(GLES11.GL_DEPTH_TEST);
 				}
 				float distSq = 1.0f;
 				if (go instanceof SpaceObject) {
@@ -1139,9 +1219,9 @@ public class InGameManager implements Serializable {
 				}
 				if (go instanceof Billboard) {
 					((Billboard) go).update(ship);
-					GLES11.glEnable(GLES11.GL_BLEND);
-					GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
-					GLES11.glDisable(GLES11.GL_CULL_FACE);
+					GlState.enable(GLES11.GL_BLEND);
+					GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+					GlState.disable(GLES11.GL_CULL_FACE);
 				}
 				float[] goMatrix;
 				if (go instanceof SpaceObject && ObjectType.isSpaceStation(((SpaceObject) go).getType())) {
@@ -1159,7 +1239,7 @@ public class InGameManager implements Serializable {
 						if (targetMissile && alite.getCobra().getMissiles() > 0 || Settings.autoId && !((SpaceObject) go).isIdentified()) {
 							if (laserManager.isUnderCross((SpaceObject) go)) {
 								if (targetMissile) {
-									AliteLog.d("Targetted", "Targetted " + go.getId());
+									AliteLog.d("Targetted", () -> "Targetted " + go.getId());
 									setMessage(L.string(R.string.msg_missile_locked, go.getName()));
 									alite.getCobra().setMissileLocked(true);
 									missileLock = (SpaceObject) go;
@@ -1174,28 +1254,31 @@ public class InGameManager implements Serializable {
 						}
 					}
 				}
-				go.render();
+				if (!(go instanceof SpaceObject) || !((SpaceObject) go).isTooSmallToRender()) {
+					go.render();
+				}
 				if (go instanceof SpaceObject) {
 					((SpaceObject) go).renderTargetBox(distSq);
 				}
 				if (go instanceof Billboard) {
-					GLES11.glDisable(GLES11.GL_BLEND);
-					GLES11.glEnable(GLES11.GL_CULL_FACE);
+					GlState.disable(GLES11.GL_BLEND);
+					GlState.enable(GLES11.GL_CULL_FACE);
 				}
 				GLES11.glPopMatrix();
 			}
 		}
-		GLES11.glDisable(GLES11.GL_DEPTH_TEST);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_DEPTH_TEST);
 		GLES11.glPushMatrix();
 		GLES11.glMatrixMode(GLES11.GL_PROJECTION);
 		GLES11.glLoadIdentity();
 		GlUtils.gluPerspective(alite, 45.0f, 1.0f, 900000.0f);
 		GLES11.glMatrixMode(GLES11.GL_MODELVIEW);
 		GLES11.glPopMatrix();
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glBindTexture(GLES11.GL_TEXTURE_2D, 0);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.disableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.disableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.bindTexture(0);
 	}
 
 	void renderScroller(final float deltaTime) {
@@ -1244,14 +1327,17 @@ public class InGameManager implements Serializable {
 		}
 		MathHelper.copyMatrix(viewMatrix, tempMatrix[0]);
 
-		viewingTransformationHelper.sortObjects(objects, viewMatrix, tempMatrix[2], laserManager.activeLasers,
+		viewingTransformationHelper.sortObjects(objects, viewMatrix, getViewFrustum(), laserManager.activeLasers,
 			sortedObjectsToDraw, witchSpace != null, ship);
+		GlState.begin();
 		try {
 			renderAllObjects(deltaTime);
 		} catch (ConcurrentModificationException ignored) {
 			// This can happen if the game state is being paused while the current
 			// screen is being rendered. Ignoring it is a bit of a hack, but gets
 			// rid of the issue...
+		} finally {
+			GlState.end();
 		}
 
 		if (hud != null) {
@@ -1278,6 +1364,7 @@ public class InGameManager implements Serializable {
 			if (Settings.displayFrameRate) {
 				alite.getGraphics().drawText(String.format("FPS: %3.1f", AndroidGame.fps), 400, 10, 0xFFE6B300,
 					Assets.regularFont, 1.0f);
+				alite.getGraphics().drawText(GlState.getFrameReport(), 400, 60, 0xFFE6B300, Assets.regularFont, 1.0f);
 				alite.getGraphics().setColor(Color.WHITE);
 			}
 			if (Settings.displayDockingInformation) {
@@ -1357,7 +1444,7 @@ public class InGameManager implements Serializable {
 		}
 		MathHelper.copyMatrix(viewMatrix, tempMatrix[0]);
 
-		viewingTransformationHelper.sortObjects(objects, viewMatrix, tempMatrix[2], laserManager.activeLasers,
+		viewingTransformationHelper.sortObjects(objects, viewMatrix, getViewFrustum(), laserManager.activeLasers,
 			sortedObjectsToDraw, witchSpace != null, ship);
 		try {
 			for (DepthBucket bucket: sortedObjectsToDraw) {
@@ -1502,13 +1589,7 @@ public class InGameManager implements Serializable {
 			oldMessage = null;
 			calibrate();
 		}
-		for (TimedEvent te: timedEvents) {
-			if (p) {
-				te.pause();
-			} else {
-				te.resume();
-			}
-		}
+		timedEventQueue.setPaused(p);
 		if (dockingComputerAI != null) {
 			if (paused) {
 				dockingComputerAI.pauseMusic();
@@ -1546,7 +1627,11 @@ public class InGameManager implements Serializable {
 		}
 		initialHyperspaceSystem = alite.getPlayer().getHyperspaceSystem();
 		hyperspaceTimer = new HyperspaceTimer(this, galacticNumber);
-		timedEvents.add(hyperspaceTimer);
+		timedEventQueue.add(hyperspaceTimer);
+		// The countdown leaves time to decode the textures of the destination
+		if (galacticNumber == 0) {
+			FlightScreen.prefetchTextures(initialHyperspaceSystem);
+		}
 		return true;
 	}
 
@@ -1562,7 +1647,7 @@ public class InGameManager implements Serializable {
 		ship.setCloaked(!ship.isCloaked());
 		if (ship.isCloaked()) {
 			cloakingEvent = new CloakingEvent(this);
-			timedEvents.add(cloakingEvent);
+			timedEventQueue.add(cloakingEvent);
 		} else {
 			cloakingEvent.pause();
 			cloakingEvent.remove();
@@ -1681,7 +1766,7 @@ public class InGameManager implements Serializable {
 		ship.setEcmJammer(!ship.isEcmJammer());
 		if (ship.isEcmJammer()) {
 			jammingEvent = new JammingEvent(this);
-			timedEvents.add(jammingEvent);
+			timedEventQueue.add(jammingEvent);
 		} else {
 			jammingEvent.pause();
 			jammingEvent.remove();
@@ -29,6 +29,7 @@ import android.content.Context;
 import android.opengl.GLES11;
 import android.opengl.Matrix;
 import android.os.Vibrator;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.impl.Pool;
@@ -42,7 +43,6 @@ import de.phbouillon.android.games.alite.model.PlayerCobra;
 import de.phbouillon.android.games.alite.model.Weight;
 import de.phbouillon.android.games.alite.model.missions.ThargoidStationMission;
 import de.phbouillon.android.games.alite.model.trading.TradeGood;
-import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
 import de.phbouillon.android.games.alite.screens.opengl.objects.Explosion;
 import de.phbouillon.android.games.alite.screens.opengl.objects.LaserCylinder;
 import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
@@ -141,9 +141,9 @@ public class LaserManager implements Serializable {
 	}
 
 	private void spawnPlatlets(final SpaceObject so, final Equipment laser) {
-		int platletCount = Math.random() < 0.9 ? 0 : 1;
+		int platletCount = GameRandom.nextDouble() < 0.9 ? 0 : 1;
 		if (laser != null && laser.isMining()) {
-			platletCount = (int) (Math.random() * (so.getMaxCargoCanisters() + 1));
+			platletCount = (int) (GameRandom.nextDouble() * (so.getMaxCargoCanisters() + 1));
 		}
 		for (int i = 0; i < platletCount; i++) {
 			final SpaceObject platlet = SpaceObjectFactory.getInstance().getRandomObjectByType(ObjectType.Alloy);
@@ -164,10 +164,10 @@ public class LaserManager implements Serializable {
 			return;
 		}
 		final int forceCount = so.getCargoCanisterOverrideCount();
-		int numberOfCanistersToSpawn = forceCount > 0 ? forceCount : (int) (Math.random() * (so.getMaxCargoCanisters() + 1));
+		int numberOfCanistersToSpawn = forceCount > 0 ? forceCount : (int) (GameRandom.nextDouble() * (so.getMaxCargoCanisters() + 1));
 		for (int i = 0; i < numberOfCanistersToSpawn; i++) {
 			final SpaceObject cargo = SpaceObjectFactory.getInstance().getRandomObjectByType(ObjectType.CargoPod);
-			cargo.setCargoContent(tradeGood, Weight.unit(tradeGood.getUnit(), (int) (Math.random() * 3 + 1)));
+			cargo.setCargoContent(tradeGood, Weight.unit(tradeGood.getUnit(), (int) (GameRandom.nextDouble() * 3 + 1)));
 			inGame.getSpawnManager().spawnTumbleObject(cargo, so.getPosition());
 		}
 	}
@@ -229,7 +229,7 @@ public class LaserManager implements Serializable {
 		if (installedLosableEquipment.isEmpty()) {
 			return;
 		}
-		int i = (int) (Math.random() * installedLosableEquipment.size());
+		int i = (int) (GameRandom.nextDouble() * installedLosableEquipment.size());
 		Equipment lostEquip = installedLosableEquipment.get(i);
 		inGame.setMessage(L.string(R.string.msg_equipment_lost, lostEquip.getShortName()));
 		alite.getCobra().removeEquipment(lostEquip);
@@ -301,9 +301,9 @@ public class LaserManager implements Serializable {
 				alite.getCobra().setEnergy(newVal);
 				checkEnergyLow();
 				if (newVal <= 2 * PlayerCobra.MAX_ENERGY_BANK) {
-					if (Math.random() * 256 < 20) {
+					if (GameRandom.nextDouble() * 256 < 20) {
 						if (!inGame.getMessage().isActive()) {
-							if (Math.random() * 20 < 1) {
+							if (GameRandom.nextDouble() * 20 < 1) {
 								loseCargo();
 							} else {
 								loseEquipment();
@@ -347,10 +347,15 @@ public class LaserManager implements Serializable {
 		alite.getCobra().addHitByLaser(damageAmount);
 	}
 
-	private void checkObjectHit(final LaserCylinder laser, final float distanceToNextShot, List<AliteObject> allObjects) {
-		for (AliteObject eo: allObjects) {
-			if (!(eo instanceof SpaceObject) || laser.getOrigin() == eo || ((SpaceObject) eo).isCloaked() ||
-					!isIntersect((SpaceObject) eo, distanceToNextShot, true)) {
+	private void checkObjectHit(final LaserCylinder laser, final float distanceToNextShot, BroadPhase broadPhase) {
+		// Only objects whose (at most 3 times scaled) bounding sphere can reach the x range of the shot are tested
+		float shotEndX = shotOrigin.x + shotDirection.x * distanceToNextShot;
+		float maxRadius = broadPhase.getMaxBoundingSphereRadius() * 3.0f;
+		float maxX = Math.max(shotOrigin.x, shotEndX) + maxRadius;
+		int n = broadPhase.size();
+		for (int i = broadPhase.lowerBound(Math.min(shotOrigin.x, shotEndX) - maxRadius); i < n && broadPhase.getX(i) <= maxX; i++) {
+			SpaceObject eo = broadPhase.get(i);
+			if (laser.getOrigin() == eo || eo.isCloaked() || !isIntersect(eo, distanceToNextShot, true)) {
 				continue;
 			}
 			// Make sure the laser is at least rendered once...
@@ -359,27 +364,27 @@ public class LaserManager implements Serializable {
 				lc.removeInNFrames(4);
 			}
 			SoundManager.play(Assets.laserHit);
-			if (!ObjectType.isSpaceStation(((SpaceObject) eo).getType()) || ThargoidStationMission.ALIEN_SPACE_STATION.equals(eo.getId())) {
+			if (!ObjectType.isSpaceStation(eo.getType()) || ThargoidStationMission.ALIEN_SPACE_STATION.equals(eo.getId())) {
 				// Space Stations are invulnerable --- in general ;)
 				if (Settings.laserPowerOverride != 0) {
 					alite.getPlayer().setCheater(true);
 				}
-				int hullStrength = ((SpaceObject) eo).applyDamage(laser.getLaser().getDamage() + Settings.laserPowerOverride);
+				int hullStrength = eo.applyDamage(laser.getLaser().getDamage() + Settings.laserPowerOverride);
 				if (hullStrength <= 0) {
 					if (laser.getOrigin() == null) {
 						// Player has destroyed something by laser
-						inGame.computeBounty((SpaceObject) eo, EquipmentStore.PULSE_LASER);
+						inGame.computeBounty(eo, EquipmentStore.PULSE_LASER);
 					}
-					explodeWithCargo((SpaceObject) eo, laser.getLaser());
+					explodeWithCargo(eo, laser.getLaser());
 					eo.setRemove(true);
 				}
 			}
 			vibrate((long) (Settings.vibrateLevelOnDamage * 30));
-			((SpaceObject) eo).executeHit(inGame.getShip());
+			eo.executeHit(inGame.getShip());
 		}
 	}
 
-	final void update(float deltaTime, List<AliteObject> allObjects) {
+	final void update(float deltaTime, BroadPhase broadPhase) {
 		Iterator<LaserCylinder> laserIterator = activeLasers.iterator();
 		while (laserIterator.hasNext()) {
 			LaserCylinder laser = laserIterator.next();
@@ -396,7 +401,7 @@ public class LaserManager implements Serializable {
 					if (laser.getOrigin() != null) {
 						checkPlayerHit(laser, distanceToNextShot);
 					} else {
-						checkObjectHit(laser, distanceToNextShot, allObjects);
+						checkObjectHit(laser, distanceToNextShot, broadPhase);
 					}
 				}
 				if (distanceSq > AliteHud.MAX_DISTANCE_SQ) {
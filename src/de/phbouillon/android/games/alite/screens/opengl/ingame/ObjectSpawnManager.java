@@ -24,6 +24,7 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 import android.opengl.Matrix;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.math.Vector3f;
@@ -339,15 +340,15 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	private long getDelayToTraderEncounter() {
-		return (long) ((200.0f + 100.0f * Math.random()) / 16.7f * 1000000000L);
+		return (long) ((200.0f + 100.0f * GameRandom.nextDouble()) / 16.7f * 1000000000L);
 	}
 
 	private long getDelayToAsteroidEncounter() {
-		return (long) ((200.0f + 100.0f * Math.random()) / 16.7f * 1000000000L);
+		return (long) ((200.0f + 100.0f * GameRandom.nextDouble()) / 16.7f * 1000000000L);
 	}
 
 	public long getDelayToShuttleEncounter() {
-		return (long) ((200.0f + 100.0f * Math.random()) / 16.7f * 1000000000L);
+		return (long) ((200.0f + 100.0f * GameRandom.nextDouble()) / 16.7f * 1000000000L);
 	}
 
 	public long getDelayToViperEncounter() {
@@ -387,7 +388,7 @@ public class ObjectSpawnManager implements Serializable {
 	private Vector3f getSpawnPosition() {
 		MathHelper.setRandomDirection(vector);
 		Vector3f spawnPosition = MathHelper.getRandomPosition(inGame.getShip().getPosition(), vector,
-			(float) (16384 + 8192 * Math.random()), 1000.0f);
+			(float) (16384 + 8192 * GameRandom.nextDouble()), 1000.0f);
 		spawnPosition.copy(vector);
 		return spawnPosition;
 	}
@@ -446,7 +447,7 @@ public class ObjectSpawnManager implements Serializable {
 				if (inGame.getWitchSpace() != null) {
 					inGame.getWitchSpace().increaseWitchSpaceKillCounter();
 				}
-				long secondsToSpawn = (long) ((Math.random() * 6 + 6) * 1000000000L);
+				long secondsToSpawn = (long) ((GameRandom.nextDouble() * 6 + 6) * 1000000000L);
 				TimedEvent event = new TimedEvent(secondsToSpawn);
 				inGame.addTimedEvent(event.addAlarmEvent(new IMethodHook() {
 					private static final long serialVersionUID = -8236066205369429808L;
@@ -492,7 +493,7 @@ public class ObjectSpawnManager implements Serializable {
 			return;
 		}
 		if (torus) {
-			int randByte = (int) (Math.random() * 256);
+			int randByte = (int) (GameRandom.nextDouble() * 256);
 			if (system.getGovernment().ordinal() << 5 > randByte) {
 				return;
 			}
@@ -527,8 +528,8 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	public long computeSpawnThargonDistanceSq() {
-		if ((int) (Math.random() * 5) < alite.getPlayer().getRating().ordinal()) {
-			long d = (long) (8192 + 8192 * Math.random());
+		if ((int) (GameRandom.nextDouble() * 5) < alite.getPlayer().getRating().ordinal()) {
+			long d = (long) (8192 + 8192 * GameRandom.nextDouble());
 			return d * d;
 		}
 		return -1;
@@ -543,8 +544,8 @@ public class ObjectSpawnManager implements Serializable {
 		int minNum = 1;
 		int maxNum = 2 + Settings.difficultyLevel - 3;
 
-		if ((int) (Math.random() * 100) < Math.min(prob, maxProb)) {
-			return alite.getPlayer().getRating().ordinal() < 5 ? 1 : Math.random() < 0.8 ? minNum : maxNum;
+		if ((int) (GameRandom.nextDouble() * 100) < Math.min(prob, maxProb)) {
+			return alite.getPlayer().getRating().ordinal() < 5 ? 1 : GameRandom.nextDouble() < 0.8 ? minNum : maxNum;
 		}
 		return 0;
 	}
@@ -580,17 +581,18 @@ public class ObjectSpawnManager implements Serializable {
 		if (calcSpeed >= -20.0f) {
 			vector.sub(inGame.getShip().getPosition(), vector2);
 			vector2.normalize();
-			AliteLog.d("Forward vector", "FV (speed near 0): " + vector2);
+			AliteLog.d("Forward vector", () -> "FV (speed near 0): " + vector2);
 		} else {
 			inGame.getShip().getForwardVector().copy(vector2);
 			vector2.negate();
-			AliteLog.d("Forward vector", "FV (speed normal): " + vector2);
+			AliteLog.d("Forward vector", () -> "FV (speed normal): " + vector2);
 		}
 		float intersectionDistance = LaserManager.computeIntersectionDistance(vector2, inGame.getShip().getPosition(), vector, 580, vector3);
 		float travelDistance = -calcSpeed * 8.5f;
 		float distShipStationSq = inGame.getShip().getPosition().distanceSq(vector);
-		AliteLog.d("Intersection check", "Intersection distance: " + intersectionDistance +
-			", travelDistance: " + travelDistance + ", Speed: " + calcSpeed +
+		float speed = calcSpeed;
+		AliteLog.d("Intersection check", () -> "Intersection distance: " + intersectionDistance +
+			", travelDistance: " + travelDistance + ", Speed: " + speed +
 			", Distance: " + inGame.getShip().getPosition().distance(vector));
 		if (intersectionDistance >= 0 && distShipStationSq < 640000) {
 			if (calcSpeed > -40.0f) {
@@ -634,7 +636,7 @@ public class ObjectSpawnManager implements Serializable {
 				public void execute(float deltaTime) {
 					if (lastExecution.hasPassedSeconds(1)) {
 						float distance = inGame.getShip().getPosition().distance(inGame.getSystemStationPosition());
-						AliteLog.d("Distance to Station", "Distance to Station: " + distance);
+						AliteLog.d("Distance to Station", () -> "Distance to Station: " + distance);
 						if (distance > 4000) {
 							inGame.getShip().setUpdater(null);
 							return;
@@ -648,7 +650,7 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	private void spawnTrader() {
-		traderTimer.event.updateDelay((long) ((600.0f + 300.0f * Math.random() / 16.7f) * 1000000000L / (float) alite.getTimeFactor()));
+		traderTimer.event.updateDelay((long) ((600.0f + 300.0f * GameRandom.nextDouble() / 16.7f) * 1000000000L / (float) alite.getTimeFactor()));
 		if (inGame.getWitchSpace() != null) {
 			return;
 		}
@@ -745,7 +747,7 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	private void spawnAsteroid() {
-		asteroidTimer.event.updateDelay((long) ((600.0f + 300.0f * Math.random()) / 16.7f * 1000000000L / (float) alite.getTimeFactor()));
+		asteroidTimer.event.updateDelay((long) ((600.0f + 300.0f * GameRandom.nextDouble()) / 16.7f * 1000000000L / (float) alite.getTimeFactor()));
 		if (inGame.getWitchSpace() != null) {
 			return;
 		}
@@ -761,7 +763,7 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	public void spawnTumbleObject(final SpaceObject createdObject, Vector3f position) {
-		spawnObject(createdObject, 0.2f + (createdObject.getMaxSpeed() - 0.2f) * (float) Math.random(), position);
+		spawnObject(createdObject, 0.2f + (createdObject.getMaxSpeed() - 0.2f) * (float) GameRandom.nextDouble(), position);
 	}
 
 	private void spawnObject(SpaceObject createdObject, float speed, Vector3f position) {
@@ -798,14 +800,14 @@ public class ObjectSpawnManager implements Serializable {
 	}
 
 	private static void createRandomVector() {
-		vector2.x = (float) (-2.0 + Math.random() * 4.0);
-		vector2.y = (float) (-2.0 + Math.random() * 4.0);
-		vector2.z = (float) (-2.0 + Math.random() * 4.0);
+		vector2.x = (float) (-2.0 + GameRandom.nextDouble() * 4.0);
+		vector2.y = (float) (-2.0 + GameRandom.nextDouble() * 4.0);
+		vector2.z = (float) (-2.0 + GameRandom.nextDouble() * 4.0);
 		vector2.normalize();
 	}
 
 	private void spawnShuttle() {
-		shuttleOrTransportTimer.event.updateDelay((long) ((600.0f + 300.0f * Math.random()) / 16.7f * 1000000000L / (float) alite.getTimeFactor()));
+		shuttleOrTransportTimer.event.updateDelay((long) ((600.0f + 300.0f * GameRandom.nextDouble()) / 16.7f * 1000000000L / (float) alite.getTimeFactor()));
 		if (inGame.getWitchSpace() != null || !InGameManager.playerInSafeZone) {
 			return;
 		}
@@ -843,7 +845,7 @@ public class ObjectSpawnManager implements Serializable {
 
 	private void spawnViper() {
 		if (lastLogTime.hasPassedSeconds(1)) {
-			AliteLog.d("Spawn Viper", "SafeZoneViolated: " + InGameManager.safeZoneViolated +
+			AliteLog.d("Spawn Viper", () -> "SafeZoneViolated: " + InGameManager.safeZoneViolated +
 				", VipersWillEngage: " + inGame.isVipersWillEngage());
 		}
 		if (inGame.getWitchSpace() != null) {
@@ -912,13 +914,13 @@ public class ObjectSpawnManager implements Serializable {
 
 	private int calculateNumberOfObjectsToSpawn() {
 		int d = Settings.difficultyLevel;
-		int result = (int) (Math.random() * (alite.getPlayer().getRating().ordinal() + 3 >> 1)) + 1;
+		int result = (int) (GameRandom.nextDouble() * (alite.getPlayer().getRating().ordinal() + 3 >> 1)) + 1;
 		if (d > 3) {
 			result += d - 3;
 		}
-		result += alite.getPlayer().getLegalStatus().ordinal() * (Math.random() < 0.05 ? 1 : 0);
+		result += alite.getPlayer().getLegalStatus().ordinal() * (GameRandom.nextDouble() < 0.05 ? 1 : 0);
 		if (alite.getPlayer().getCurrentSystem() != null && alite.getPlayer().getCurrentSystem().getGovernment().ordinal() < 2) {
-			result += Math.random() < 0.05 ? 1 : 0;
+			result += GameRandom.nextDouble() < 0.05 ? 1 : 0;
 		}
 		return Math.min(result, d == 0 ? 0 : d == 1 ? 2 : d == 2 ? 3 : d == 3 ? 4 : d == 4 ? 6 : 12);
 	}
@@ -927,7 +929,7 @@ public class ObjectSpawnManager implements Serializable {
 		if (!THARGONS_ENABLED) {
 			return;
 		}
-		int numberOfThargons = (int) (Math.random() * (mother.getMaxDrones() - mother.getMinDrones() + 1) + mother.getMinDrones());
+		int numberOfThargons = (int) (GameRandom.nextDouble() * (mother.getMaxDrones() - mother.getMinDrones() + 1) + mother.getMinDrones());
 		mother.getForwardVector().copy(vector);
 		vector.scale(40);
 		vector.add(mother.getPosition());
@@ -26,6 +26,7 @@ import java.nio.ShortBuffer;
 
 import android.opengl.GLES11;
 import de.phbouillon.android.framework.impl.AndroidGame;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.impl.gl.GraphicObject;
 import de.phbouillon.android.framework.math.Vector3f;
@@ -85,18 +86,18 @@ class StarDust extends GraphicObject implements Serializable {
 	}
 
 	void render(boolean torusSpeed) {
-		GLES11.glEnable(GLES11.GL_FOG);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
-		GLES11.glDisable(GLES11.GL_LIGHTING);
-		GLES11.glDisableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_VERTEX_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glDisableClientState(GLES11.GL_COLOR_ARRAY);
+		GlState.enable(GLES11.GL_FOG);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_LIGHTING);
+		GlState.disableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.disableClientState(GLES11.GL_COLOR_ARRAY);
 		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, dustParticles);
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.blendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 		GLES11.glHint(GLES11.GL_POINT_SMOOTH_HINT, GLES11.GL_NICEST);
-		GLES11.glDisable(GLES11.GL_DEPTH_TEST);
+		GlState.disable(GLES11.GL_DEPTH_TEST);
 		GLES11.glColor4f(0.7f, 0.7f, 1.0f, 0.8f);
 		if (torusSpeed) {
 			GLES11.glLineWidth(4 * AndroidGame.scaleFactor);
@@ -104,21 +105,21 @@ class StarDust extends GraphicObject implements Serializable {
 			GLES11.glLineWidth(1);
 		} else {
 			Alite.get().getTextureManager().setTexture("textures/glow_mask.png");
-			GLES11.glEnable(GLES11.GL_POINT_SPRITE_OES);
+			GlState.enable(GLES11.GL_POINT_SPRITE_OES);
 			GLES11.glTexEnvf(GLES11.GL_POINT_SPRITE_OES, GLES11.GL_COORD_REPLACE_OES, GLES11.GL_TRUE);
 			GLES11.glPointSize(8 * AndroidGame.scaleFactor);
 			GLES11.glDrawArrays(GLES11.GL_POINTS, 0, particleCount);
-			GLES11.glDisable(GLES11.GL_POINT_SPRITE_OES);
+			GlState.disable(GLES11.GL_POINT_SPRITE_OES);
 			GLES11.glPointSize(1);
 		}
-		GLES11.glEnable(GLES11.GL_DEPTH_TEST);
-		GLES11.glDisableClientState(GLES11.GL_COLOR_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
-		GLES11.glDisable(GLES11.GL_BLEND);
-		GLES11.glDisable(GLES11.GL_FOG);
+		GlState.enable(GLES11.GL_DEPTH_TEST);
+		GlState.disableClientState(GLES11.GL_COLOR_ARRAY);
+		GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_FOG);
 	}
 	private void adjustPosition(int index) {
 		for (int i = 0; i < 3; i++) {
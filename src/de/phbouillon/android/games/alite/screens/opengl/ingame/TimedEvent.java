@@ -18,20 +18,33 @@ package de.phbouillon.android.games.alite.screens.opengl.ingame;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import de.phbouillon.android.framework.GameClock;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.Timer;
+import de.phbouillon.android.games.alite.AliteLog;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
+/**
+ * Executes its method whenever more than the delay has passed since the last execution.
+ * The times are taken from the clock of the queue the event is added to, every change
+ * of the time the event is due at is passed to the queue.
+ */
 public class TimedEvent implements Serializable {
 	private static final long serialVersionUID = -7887711369377615831L;
 
-	private final Timer timer = new Timer().setAutoReset();
 	long delay;
 	private IMethodHook method;
+	private long startTime;
 	private long pauseTime;
 	private boolean remove;
 	protected boolean locked;
+	long sequence;
+	transient TimedEventQueue queue;
+	transient int heapIndex;
+	transient int index;
 
 	public TimedEvent(long delayInNanos) {
 		this(delayInNanos, -1, -1);
@@ -39,12 +52,32 @@ public class TimedEvent implements Serializable {
 
 	public TimedEvent(long delayInNanos, long lastExecutionTime, long pauseTime) {
 		delay = delayInNanos;
-		if (lastExecutionTime != -1) {
-			timer.setTimer(lastExecutionTime);
-		}
+		// If not given, the start time is set when the event is added to the queue
+		startTime = lastExecutionTime;
 		this.pauseTime = pauseTime;
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException {
+		try {
+			ObjectInputStream.GetField fields = in.readFields();
+			delay = fields.get("delay", 0L);
+			method = (IMethodHook) fields.get("method", null);
+			pauseTime = fields.get("pauseTime", -1L);
+			remove = fields.get("remove", false);
+			locked = fields.get("locked", false);
+			sequence = fields.get("sequence", 0L);
+			if (fields.getObjectStreamClass().getField("timer") != null) {
+				// Saved before the events were queued, the timer was reset at the last execution
+				Timer timer = (Timer) fields.get("timer", null);
+				startTime = timer == null ? -1 : timer.getTimer();
+			} else {
+				startTime = fields.get("startTime", -1L);
+			}
+		} catch (ClassNotFoundException e) {
+			AliteLog.e("Class not found", e.getMessage(), e);
+		}
+	}
+
 	public TimedEvent addAlarmEvent(IMethodHook method) {
 		this.method = method;
 		return this;
@@ -52,6 +85,9 @@ public class TimedEvent implements Serializable {
 
 	public void remove() {
 		remove = true;
+		if (queue != null) {
+			queue.remove(this);
+		}
 	}
 
 	boolean mustBeRemoved() {
@@ -60,39 +96,60 @@ public class TimedEvent implements Serializable {
 
 	void updateDelay(long newDelay) {
 		delay = newDelay;
-		timer.reset();
+		startTime = now();
 		pauseTime = -1;
+		reschedule();
 	}
 
 	long timeToNextTrigger() {
-		return delay - timer.getPassedNanos();
+		return delay - getPassedNanos();
 	}
+
 	long getLastExecutionTime() {
-		return timer.getTimer();
+		return startTime;
 	}
 
-	void perform() {
-		if (pauseTime == -1 && !locked) {
-			if (timer.hasPassedNanos(delay)) {
-				if (method != null) method.execute(0);
-			}
+	void start(long time) {
+		if (startTime == -1) {
+			startTime = time;
 		}
 	}
 
+	/**
+	 * @return the time the event is due after, if it is neither paused nor locked.
+	 */
+	long getDueTime() {
+		return startTime + delay;
+	}
+
+	boolean isScheduled() {
+		return pauseTime == -1 && !locked && !remove;
+	}
+
+	void perform(long time) {
+		startTime = time;
+		if (method != null) method.execute(0);
+	}
+
 	public void lock() {
-		locked = true;
+		if (!locked) {
+			locked = true;
+			reschedule();
+		}
 	}
 
 	void unlock() {
 		if (locked) {
-			timer.reset();
+			startTime = now();
 			locked = false;
+			reschedule();
 		}
 	}
 
 	public long pause() {
 		if (pauseTime == -1) {
-			pauseTime = timer.getPassedNanos();
+			pauseTime = getPassedNanos();
+			reschedule();
 		}
 		return pauseTime;
 	}
@@ -103,9 +160,23 @@ public class TimedEvent implements Serializable {
 
 	public void resume() {
 		if (pauseTime != -1) {
-			timer.setTimer(pauseTime);
+			startTime = now() - pauseTime;
 			pauseTime = -1;
+			reschedule();
 		}
 	}
 
+	private long getPassedNanos() {
+		return startTime == -1 ? 0 : now() - startTime;
+	}
+
+	private long now() {
+		return queue != null ? queue.now() : GameClock.nanoTime();
+	}
+
+	private void reschedule() {
+		if (queue != null) {
+			queue.reschedule(this);
+		}
+	}
 }
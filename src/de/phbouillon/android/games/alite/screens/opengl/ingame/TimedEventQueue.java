@@ -0,0 +1,238 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.phbouillon.android.framework.GameClock;
+import de.phbouillon.android.games.alite.AliteLog;
+
+/**
+ * Keeps the timed events of the flight in a binary min-heap ordered by the time they are
+ * due at, so an update only looks at the events which are due and scheduling, removing,
+ * pausing or resuming an event costs O(log n). Paused and locked events are kept out of
+ * the heap until they are resumed or unlocked.
+ * The time of an update is read once from the game clock and used for all events
+ * performed by the update. Events due at the same update are performed in the order
+ * they were added and an event is performed at most once per update, as if the update
+ * went through all events.
+ */
+final class TimedEventQueue implements Serializable {
+	private static final long serialVersionUID = 2946208441725430593L;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final List<TimedEvent> events = new ArrayList<>();
+	private long sequence;
+	private transient TimedEvent[] heap = new TimedEvent[INITIAL_CAPACITY];
+	private transient int size;
+	private transient List<TimedEvent> due = new ArrayList<>();
+	private transient boolean updating;
+	private transient long updateTime;
+
+	private void readObject(ObjectInputStream in) throws IOException {
+		try {
+			in.defaultReadObject();
+			due = new ArrayList<>();
+			heap = new TimedEvent[Math.max(INITIAL_CAPACITY, events.size())];
+			for (int i = 0; i < events.size(); i++) {
+				TimedEvent event = events.get(i);
+				event.queue = this;
+				event.index = i;
+				event.heapIndex = -1;
+				if (event.isScheduled()) {
+					push(event);
+				}
+			}
+		} catch (ClassNotFoundException e) {
+			AliteLog.e("Class not found", e.getMessage(), e);
+		}
+	}
+
+	long now() {
+		return updating ? updateTime : GameClock.nanoTime();
+	}
+
+	synchronized void add(TimedEvent event) {
+		if (event.queue == this || event.mustBeRemoved()) {
+			return;
+		}
+		if (event.queue != null) {
+			event.queue.remove(event);
+		}
+		event.queue = this;
+		event.sequence = sequence++;
+		event.index = events.size();
+		events.add(event);
+		event.heapIndex = -1;
+		event.start(now());
+		if (event.isScheduled()) {
+			push(event);
+		}
+	}
+
+	synchronized void remove(TimedEvent event) {
+		if (event.queue != this) {
+			return;
+		}
+		if (event.heapIndex >= 0) {
+			removeAt(event.heapIndex);
+		}
+		TimedEvent last = events.remove(events.size() - 1);
+		if (last != event) {
+			events.set(event.index, last);
+			last.index = event.index;
+		}
+		event.queue = null;
+	}
+
+	/**
+	 * Moves the event to its place in the heap after the time it is due at has changed
+	 * or it has been paused, resumed, locked or unlocked.
+	 */
+	synchronized void reschedule(TimedEvent event) {
+		if (event.queue != this) {
+			return;
+		}
+		if (event.heapIndex >= 0) {
+			removeAt(event.heapIndex);
+		}
+		if (event.isScheduled()) {
+			push(event);
+		}
+	}
+
+	synchronized void update() {
+		long now = GameClock.nanoTime();
+		while (size > 0 && now - heap[0].getDueTime() > 0) {
+			due.add(heap[0]);
+			removeAt(0);
+		}
+		if (due.isEmpty()) {
+			return;
+		}
+		if (due.size() > 1) {
+			Collections.sort(due, (e1, e2) -> Long.compare(e1.sequence, e2.sequence));
+		}
+		updating = true;
+		updateTime = now;
+		try {
+			for (TimedEvent event : due) {
+				// An event performed before may have removed, paused or rescheduled this one.
+				if (event.queue != this || event.heapIndex >= 0 || !event.isScheduled()) {
+					continue;
+				}
+				event.perform(now);
+				if (event.queue == this && event.heapIndex < 0 && event.isScheduled()) {
+					push(event);
+				}
+			}
+		} finally {
+			updating = false;
+			due.clear();
+		}
+	}
+
+	synchronized void setPaused(boolean paused) {
+		for (int i = 0; i < events.size(); i++) {
+			if (paused) {
+				events.get(i).pause();
+			} else {
+				events.get(i).resume();
+			}
+		}
+	}
+
+	synchronized int size() {
+		return events.size();
+	}
+
+	synchronized int getScheduledCount() {
+		return size;
+	}
+
+	private void push(TimedEvent event) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		heap[size] = event;
+		event.heapIndex = size;
+		siftUp(size++);
+	}
+
+	private void removeAt(int i) {
+		heap[i].heapIndex = -1;
+		size--;
+		TimedEvent last = heap[size];
+		heap[size] = null;
+		if (i == size) {
+			return;
+		}
+		place(last, i);
+		siftDown(i);
+		if (heap[i] == last) {
+			siftUp(i);
+		}
+	}
+
+	private void siftUp(int i) {
+		TimedEvent event = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!isBefore(event, heap[parent])) {
+				break;
+			}
+			place(heap[parent], i);
+			i = parent;
+		}
+		place(event, i);
+	}
+
+	private void siftDown(int i) {
+		TimedEvent event = heap[i];
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!isBefore(heap[child], event)) {
+				break;
+			}
+			place(heap[child], i);
+			i = child;
+		}
+		place(event, i);
+	}
+
+	private void place(TimedEvent event, int i) {
+		heap[i] = event;
+		event.heapIndex = i;
+	}
+
+	private static boolean isBefore(TimedEvent e1, TimedEvent e2) {
+		long diff = e1.getDueTime() - e2.getDueTime();
+		return diff < 0 || diff == 0 && e1.sequence < e2.sequence;
+	}
+}
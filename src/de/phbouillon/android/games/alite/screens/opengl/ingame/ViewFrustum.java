@@ -0,0 +1,56 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+/**
+ * The symmetric perspective of the flight view as GlUtils.gluPerspective sets it up. Since the
+ * depth buckets choose their near and far planes to contain their objects, only the side planes
+ * through the eye and the near side are checked. Positions are given in view space as their
+ * offsets from the view direction and their depth along it, which is the negated z coordinate.
+ */
+final class ViewFrustum {
+	private float tanX;
+	private float tanY;
+	// Distance factors of the side planes: the cosine of the half field of view
+	private float cosX;
+	private float cosY;
+	// Size on the screen of a unit length at a depth of 1
+	private float pixelsPerUnit;
+
+	void setPerspective(float fovy, float aspect, float screenHeight) {
+		tanY = (float) Math.tan(fovy * Math.PI / 360.0);
+		tanX = tanY * aspect;
+		cosY = (float) (1 / Math.sqrt(1 + tanY * tanY));
+		cosX = (float) (1 / Math.sqrt(1 + tanX * tanX));
+		pixelsPerUnit = screenHeight / 2 / tanY;
+	}
+
+	boolean isVisible(float x, float y, float depth, float radius) {
+		return depth >= -radius &&
+			(Math.abs(x) - tanX * depth) * cosX <= radius &&
+			(Math.abs(y) - tanY * depth) * cosY <= radius;
+	}
+
+	/**
+	 * @return the diameter of the sphere on the screen in pixels.
+	 */
+	float getProjectedSize(float depth, float radius) {
+		return depth <= radius ? Float.MAX_VALUE : 2 * radius * pixelsPerUnit / depth;
+	}
+}
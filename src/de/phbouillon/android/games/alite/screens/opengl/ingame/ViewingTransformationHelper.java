@@ -27,7 +27,6 @@ import java.util.Comparator;
 import java.util.List;
 
 import android.opengl.GLES11;
-import android.opengl.Matrix;
 import de.phbouillon.android.framework.impl.Pool;
 import de.phbouillon.android.framework.impl.Pool.PoolObjectFactory;
 import de.phbouillon.android.games.alite.AliteLog;
@@ -40,6 +39,8 @@ import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObjec
 public class ViewingTransformationHelper implements Serializable {
 	private static final long serialVersionUID = -4312341410231970141L;
 	private static final boolean USE_DEPTH_BUCKETS = true;
+	// Space objects smaller on the screen are not rendered, only their target box
+	private static final float MIN_PROJECTED_SIZE = 1.0f;
 
 	private List <DistanceObjectPair> distancePairs = new ArrayList<DistanceObjectPair>();
 	class DistanceFactory implements PoolObjectFactory<DistanceObjectPair> {
@@ -69,6 +70,7 @@ public class ViewingTransformationHelper implements Serializable {
 
 		float distance;
 		AliteObject object;
+		boolean culled;
 
 		DistanceObjectPair(float distance, AliteObject object) {
 			this.distance = distance;
@@ -173,7 +175,7 @@ public class ViewingTransformationHelper implements Serializable {
 		}
 	}
 
-	private final void sortObjects(final List <? extends AliteObject> objects, final float [] viewMatrix, final float [] tempMatrix, boolean witchSpace, SpaceObject ship) {
+	private final void sortObjects(final List <? extends AliteObject> objects, final float [] viewMatrix, ViewFrustum frustum, boolean witchSpace, SpaceObject ship) {
 		for (AliteObject eo: objects) {
 			if (witchSpace && (eo.getId().equals("Planet") ||
 					eo.getId().equals("Sun") ||
@@ -181,10 +183,22 @@ public class ViewingTransformationHelper implements Serializable {
 					eo.getId().equals("Glow"))) {
 				continue;
 			}
-			Matrix.multiplyMM(tempMatrix, 0, viewMatrix, 0, eo.getMatrix(), 0);
+			// Position of the object in view space
+			float[] matrix = eo.getMatrix();
+			float x = viewMatrix[0] * matrix[12] + viewMatrix[4] * matrix[13] + viewMatrix[ 8] * matrix[14] + viewMatrix[12];
+			float y = viewMatrix[1] * matrix[12] + viewMatrix[5] * matrix[13] + viewMatrix[ 9] * matrix[14] + viewMatrix[13];
+			float z = viewMatrix[2] * matrix[12] + viewMatrix[6] * matrix[13] + viewMatrix[10] * matrix[14] + viewMatrix[14];
 			DistanceObjectPair distancePair = distancePairPool.newObject();
-			distancePair.distance = Math.abs(tempMatrix[14]);
+			distancePair.distance = Math.abs(z);
 			distancePair.object = eo;
+			distancePair.culled = false;
+			// Stations are scaled down when they are far away, they are always drawn
+			if (eo instanceof SpaceObject && !ObjectType.isSpaceStation(((SpaceObject) eo).getType())) {
+				SpaceObject so = (SpaceObject) eo;
+				distancePair.culled = !frustum.isVisible(x, y, -z, so.getDrawnRadius());
+				// The target box is drawn even if the mesh is skipped
+				so.setTooSmallToRender(frustum.getProjectedSize(-z, so.getMeshRadius()) < MIN_PROJECTED_SIZE);
+			}
 			distancePairs.add(distancePair);
 		}
 	}
@@ -195,6 +209,7 @@ public class ViewingTransformationHelper implements Serializable {
 		currentBucket.near = 1.0f;
 		currentBucket.far = 1000000000f;
 		currentBucket.spaceObjectCount = 0;
+		currentBucket.culled = false;
 
 		for (DistanceObjectPair p: distancePairs) {
 			currentBucket.sortedObjects.add(p.object);
@@ -205,26 +220,26 @@ public class ViewingTransformationHelper implements Serializable {
 
 	private final void partitionDepths(final List <DepthBucket> sortedObjectsToDraw) {
 		DepthBucket currentBucket = null;
-		DepthBucket behind = bucketPool.newObject();
-		behind.near = -1;
-		behind.far = -1;
-		behind.spaceObjectCount = 0;
-		behind.sortedObjects.clear();
+		// Objects out of view are kept for the objects of the last frame, but not drawn
+		DepthBucket culled = bucketPool.newObject();
+		culled.near = -1;
+		culled.far = -1;
+		culled.spaceObjectCount = 0;
+		culled.sortedObjects.clear();
+		culled.culled = true;
 
 		for (DistanceObjectPair p: distancePairs) {
 			if (p.object != null) {
+				if (p.culled) {
+					culled.sortedObjects.add(p.object);
+					culled.spaceObjectCount++;
+					continue;
+				}
 				float dist = p.distance;
 				float size = p.object.getBoundingSphereRadius();
 				if (Settings.targetBox && p.object instanceof SpaceObject) {
 					size *= 1.3f;
 				}
-				if (dist < -size) {
-					behind.sortedObjects.add(p.object);
-					if (p.object instanceof SpaceObject) {
-						behind.spaceObjectCount++;
-					}
-					continue;
-				}
 				float near = dist - size;
 				float far = dist + size;
 				if (near < 1.0f && far > 1.0f) {
@@ -235,6 +250,7 @@ public class ViewingTransformationHelper implements Serializable {
 					currentBucket.sortedObjects.clear();
 					currentBucket.near = near;
 					currentBucket.far = far;
+					currentBucket.culled = false;
 					currentBucket.spaceObjectCount = p.object instanceof SpaceObject ? 1 : 0;
 					currentBucket.sortedObjects.add(p.object);
 				} else {
@@ -255,6 +271,7 @@ public class ViewingTransformationHelper implements Serializable {
 						currentBucket = bucketPool.newObject();
 						currentBucket.near = near;
 						currentBucket.far = newFar;
+						currentBucket.culled = false;
 						currentBucket.sortedObjects.clear();
 						currentBucket.sortedObjects.add(p.object);
 						currentBucket.spaceObjectCount = p.object instanceof SpaceObject ? 1 : 0;
@@ -265,10 +282,10 @@ public class ViewingTransformationHelper implements Serializable {
 		if (currentBucket != null) {
 			sortedObjectsToDraw.add(currentBucket);
 		}
-		if (behind.sortedObjects.size() > 0) {
-			sortedObjectsToDraw.add(behind);
+		if (culled.sortedObjects.size() > 0) {
+			sortedObjectsToDraw.add(culled);
 		} else {
-			bucketPool.free(behind);
+			bucketPool.free(culled);
 		}
 	}
 
@@ -282,13 +299,13 @@ public class ViewingTransformationHelper implements Serializable {
 		sortedObjectsToDraw.clear();
 	}
 
-	final void sortObjects(final List <AliteObject> objects, final float [] viewMatrix, final float [] tempMatrix, List <LaserCylinder> lasers, final List <DepthBucket> sortedObjectsToDraw, boolean witchSpace, SpaceObject ship) {
+	final void sortObjects(final List <AliteObject> objects, final float [] viewMatrix, ViewFrustum frustum, List <LaserCylinder> lasers, final List <DepthBucket> sortedObjectsToDraw, boolean witchSpace, SpaceObject ship) {
 		for (DistanceObjectPair dop: distancePairs) {
 			distancePairPool.free(dop);
 		}
 		distancePairs.clear();
-		sortObjects(objects, viewMatrix, tempMatrix, witchSpace, ship);
-		sortObjects(lasers, viewMatrix, tempMatrix, witchSpace, ship);
+		sortObjects(objects, viewMatrix, frustum, witchSpace, ship);
+		sortObjects(lasers, viewMatrix, frustum, witchSpace, ship);
 		Collections.sort(distancePairs, objectPairComparator);
 		sortedObjectsToDraw.clear();
 		if (USE_DEPTH_BUCKETS) {
@@ -296,5 +313,10 @@ public class ViewingTransformationHelper implements Serializable {
 		} else {
 			createSingleBucket(sortedObjectsToDraw);
 		}
+		for (DepthBucket bucket: sortedObjectsToDraw) {
+			if (!bucket.culled) {
+				bucket.sortByTexture();
+			}
+		}
 	}
 }
@@ -20,6 +20,7 @@ package de.phbouillon.android.games.alite.screens.opengl.ingame;
 
 import java.io.Serializable;
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.games.alite.*;
 import de.phbouillon.android.games.alite.model.Rating;
@@ -42,7 +43,7 @@ public class WitchSpaceRender implements Serializable {
 				witchSpaceKillCounter < Math.min(8, Alite.get().getPlayer().getRating().ordinal() + 1)) {
 			return;
 		}
-		driveRepairedMessage = new TimedEvent((long) ((Math.random() * 5 + 3) * 1000000000L));
+		driveRepairedMessage = new TimedEvent((long) ((GameRandom.nextDouble() * 5 + 3) * 1000000000L));
 		inGame.addTimedEvent(driveRepairedMessage.addAlarmEvent(new IMethodHook() {
 			private static final long serialVersionUID = -5599485138177057364L;
 
@@ -73,7 +74,7 @@ public class WitchSpaceRender implements Serializable {
 		}
 		inGame.getMessage().repeatText(L.string(R.string.com_hyperdrive_malfunction), 1, 4, 1);
 		SoundManager.play(Assets.com_hyperdriveMalfunction);
-		int attackers = (int) (Math.random() * (Alite.get().getPlayer().getRating().ordinal() - Rating.AVERAGE.ordinal()));
+		int attackers = (int) (GameRandom.nextDouble() * (Alite.get().getPlayer().getRating().ordinal() - Rating.AVERAGE.ordinal()));
 		if (attackers < 1) {
 			attackers = 1;
 		} else if (attackers > 4) {
@@ -18,12 +18,15 @@ package de.phbouillon.android.games.alite.screens.opengl.objects;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.impl.gl.GraphicObject;
 import de.phbouillon.android.framework.math.Vector3f;
+import de.phbouillon.android.games.alite.AliteLog;
 
 public class AliteObject extends GraphicObject implements Serializable {
 	private static final long serialVersionUID = -5229181033103145634L;
@@ -46,19 +49,36 @@ public class AliteObject extends GraphicObject implements Serializable {
 	float distanceFromCenterToBorder;
 	private boolean depthTest = true;
 
-	protected final Vector3f v0    = new Vector3f(0, 0, 0);
-	protected final Vector3f v1    = new Vector3f(0, 0, 0);
-	private final Vector3f v2    = new Vector3f(0, 0, 0);
-	private final Vector3f edge1 = new Vector3f(0, 0, 0);
-	private final Vector3f edge2 = new Vector3f(0, 0, 0);
-	private final Vector3f pvec  = new Vector3f(0, 0, 0);
-	private final Vector3f qvec  = new Vector3f(0, 0, 0);
-	private final Vector3f tvec  = new Vector3f(0, 0, 0);
+	// Temporary values are not saved
+	protected transient Vector3f v0    = new Vector3f(0, 0, 0);
+	protected transient Vector3f v1    = new Vector3f(0, 0, 0);
+	private transient Vector3f v2    = new Vector3f(0, 0, 0);
+	private transient Vector3f edge1 = new Vector3f(0, 0, 0);
+	private transient Vector3f edge2 = new Vector3f(0, 0, 0);
+	private transient Vector3f pvec  = new Vector3f(0, 0, 0);
+	private transient Vector3f qvec  = new Vector3f(0, 0, 0);
+	private transient Vector3f tvec  = new Vector3f(0, 0, 0);
 
 	public AliteObject(String id) {
 		super(id);
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException {
+		try {
+			in.defaultReadObject();
+			v0    = new Vector3f(0, 0, 0);
+			v1    = new Vector3f(0, 0, 0);
+			v2    = new Vector3f(0, 0, 0);
+			edge1 = new Vector3f(0, 0, 0);
+			edge2 = new Vector3f(0, 0, 0);
+			pvec  = new Vector3f(0, 0, 0);
+			qvec  = new Vector3f(0, 0, 0);
+			tvec  = new Vector3f(0, 0, 0);
+		} catch (ClassNotFoundException e) {
+			AliteLog.e("Class not found", e.getMessage(), e);
+		}
+	}
+
 	public void setSaving(boolean b) {
 		saving = b;
 		if (saving) {
@@ -23,6 +23,7 @@ import java.io.ObjectInputStream;
 import java.nio.FloatBuffer;
 
 import android.opengl.GLES11;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.impl.gl.GraphicObject;
 import de.phbouillon.android.games.alite.Alite;
@@ -195,15 +196,15 @@ public class Billboard extends AliteObject {
 
 	@Override
 	public void render() {
-		GLES11.glDisableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.disableClientState(GLES11.GL_NORMAL_ARRAY);
 		GLES11.glVertexPointer(2, GLES11.GL_FLOAT, 0, vertexBuffer);
 		GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, texCoordBuffer);
-		GLES11.glDisable(GLES11.GL_LIGHTING);
+		GlState.disable(GLES11.GL_LIGHTING);
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
 		Alite.get().getTextureManager().setTexture(textureFilename);
 		GLES11.glDrawArrays(GLES11.GL_TRIANGLE_STRIP, 0, 4);
-		GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enable(GLES11.GL_LIGHTING);
 	}
 
 	void batchRender() {
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import android.opengl.GLES11;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.math.Vector3f;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.games.alite.Alite;
 import de.phbouillon.android.games.alite.screens.opengl.ingame.InGameManager;
 import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
@@ -101,9 +102,9 @@ public class Explosion implements Serializable {
 		GLES11.glColor4f(0.94f, 0, 0, 1.0f);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glDepthMask(false);
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
 		for (int i = 0; i < 3; i++) {
 			if (explosions[i] == null) {
 				continue;
@@ -114,10 +115,10 @@ public class Explosion implements Serializable {
 			GLES11.glPopMatrix();
 		}
 		Alite.get().getTextureManager().setTexture(null);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_CULL_FACE);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glDepthMask(true);
-		GLES11.glDisable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_BLEND);
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
 		rendered = true;
 	}
@@ -27,6 +27,7 @@ import java.util.List;
 
 import android.graphics.Color;
 import android.opengl.GLES11;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.games.alite.Alite;
 import de.phbouillon.android.games.alite.AliteLog;
@@ -115,20 +116,20 @@ public class LaserCylinder extends AliteObject implements Serializable {
 		}
 		GLES11.glDepthFunc(GLES11.GL_LEQUAL);
 		GLES11.glDepthMask(false);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_CULL_FACE);
 		if (textureFilename != null) {
-			GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-			GLES11.glEnable(GLES11.GL_LIGHTING);
+			GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.enable(GLES11.GL_LIGHTING);
 			Alite.get().getTextureManager().setTexture(textureFilename);
 		} else {
-			GLES11.glDisableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
-			GLES11.glDisable(GLES11.GL_LIGHTING);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.disable(GLES11.GL_LIGHTING);
 			Alite.get().getTextureManager().setTexture(null);
 		}
-		GLES11.glEnableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
 
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.blendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
 		Alite.get().getGraphics().setColor(color);
 		for (int i = 0; i < 2; i++) {
 			GLES11.glPushMatrix();
@@ -161,13 +162,13 @@ public class LaserCylinder extends AliteObject implements Serializable {
 			Alite.get().getGraphics().setColor(AliteColor.lighten(color, 0.2));
 		}
 		setMatrix(saveMatrix);
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glEnableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
 		Alite.get().getTextureManager().setTexture(null);
 		GLES11.glDepthFunc(GLES11.GL_LESS);
 		GLES11.glDepthMask(true);
-		GLES11.glDisable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_BLEND);
 	}
 
 	public void setBeam(int beamLength) {
@@ -21,7 +21,9 @@ package de.phbouillon.android.games.alite.screens.opengl.objects;
 import java.io.Serializable;
 
 import android.opengl.GLES11;
+import de.phbouillon.android.framework.Texture;
 import de.phbouillon.android.framework.impl.gl.Disk;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.Sphere;
 import de.phbouillon.android.games.alite.Alite;
 import de.phbouillon.android.games.alite.AliteLog;
@@ -30,6 +32,8 @@ import de.phbouillon.android.framework.SpriteData;
 
 public class PlanetSpaceObject extends AliteObject implements Serializable {
 	private static final long serialVersionUID = -8124332316784922499L;
+	private static final String ATMOSPHERE_TEXTURE = "textures/atmosphere2.png";
+
 	private final Disk rings;
 	private final Disk ringShadow;
 	private final Sphere planet;
@@ -48,62 +52,99 @@ public class PlanetSpaceObject extends AliteObject implements Serializable {
 		final float cloudStart      = preview ? 10150.0f : 30150.0f;
 		final float atmosphereStart = preview ? 10300.0f : 30800.0f; //30300.0f;
 
-		if (alite.getGenerator().getCurrentGalaxy() == 1 && system.getIndex() == SystemData.LAVE_SYSTEM_INDEX) {
-			alite.getTextureManager().addTexture("textures/planets/lave.png");
-			planet = new Sphere(planetRadius, 32, 32, "textures/planets/lave.png", null, false);
-			rings = null;
-			ringShadow = null;
-		} else if (system == SystemData.RAXXLA_SYSTEM) {
-			alite.getTextureManager().addTexture("textures/planets/bdwarf.png");
-			planet = new Sphere(planetRadius, 32, 32, "textures/planets/bdwarf.png", null, false);
-			rings = new Disk(ringStart, ringSize, 80, 360, 60, 20, 256, "textures/planets/ring16.png");
-			ringShadow = new Disk(ringStart, ringSize, 360, 80, 20, 60, 256, "textures/planets/ring16s.png");
-		} else {
-			int planetTexture = system.getPlanetTexture();
-			int fileIndex = planetTexture / 8 + 1;
-			alite.getTextureManager().addTexture("textures/planets/0" + fileIndex + ".png");
-			SpriteData spriteData = alite.getTextureManager().getSprite("textures/planets/0" + fileIndex + ".png", "" + (planetTexture + 1));
-			planet = new Sphere(planetRadius, 32, 32, "textures/planets/0" + fileIndex + ".png", spriteData, false);
-			int ringsTexture = system.getRingsTexture();
-			rings = ringsTexture != 0 ?
-				new Disk(ringStart, ringSize, 80, 360, 60, 20, 256, "textures/planets/ring" + ringsTexture + ".png") : null;
-			ringShadow = ringsTexture != 0 ? new Disk(ringStart, ringSize, 360, 80, 20, 60, 256, "textures/planets/ring" + ringsTexture + "s.png") : null;
-		}
+		String planetTextureName = getPlanetTextureName(system);
+		alite.getTextureManager().addTexture(planetTextureName);
+		SpriteData spriteData = isTextureAtlas(system) ?
+			alite.getTextureManager().getSprite(planetTextureName, "" + (system.getPlanetTexture() + 1)) : null;
+		planet = new Sphere(planetRadius, 32, 32, planetTextureName, spriteData, false);
+		String ringsTextureName = getRingsTextureName(system, false);
+		rings = ringsTextureName != null ? new Disk(ringStart, ringSize, 80, 360, 60, 20, 256, ringsTextureName) : null;
+		ringShadow = ringsTextureName != null ?
+			new Disk(ringStart, ringSize, 360, 80, 20, 60, 256, getRingsTextureName(system, true)) : null;
 
-		AliteLog.d("Planet Debugger", "Planet " + system.getName() + " has " + (rings == null ? "no rings." : "rings with texture ring" + system.getRingsTexture()));
-		int cloudsTexture = system.getCloudsTexture();
-		clouds = cloudsTexture != 0 ?
-					new Sphere(cloudStart, 32, 32, "textures/planets/clouds" + cloudsTexture + ".png", null, false) : null;
-		atmosphere = new Sphere(atmosphereStart, 32, 32, "textures/atmosphere2.png", null, false);
+		AliteLog.d("Planet Debugger", "Planet " + system.getName() + " has " + (rings == null ? "no rings." : "rings with texture " + ringsTextureName));
+		String cloudsTextureName = getCloudsTextureName(system);
+		clouds = cloudsTextureName != null ? new Sphere(cloudStart, 32, 32, cloudsTextureName, null, false) : null;
+		atmosphere = new Sphere(atmosphereStart, 32, 32, ATMOSPHERE_TEXTURE, null, false);
 		boundingSphereRadius = rings == null ? atmosphereStart : ringSize;
 		distanceFromCenterToBorder = boundingSphereRadius;
 	}
 
+	private static boolean isLave(SystemData system) {
+		return Alite.get().getGenerator().getCurrentGalaxy() == 1 && system.getIndex() == SystemData.LAVE_SYSTEM_INDEX;
+	}
+
+	private static boolean isTextureAtlas(SystemData system) {
+		return !isLave(system) && system != SystemData.RAXXLA_SYSTEM;
+	}
+
+	private static String getPlanetTextureName(SystemData system) {
+		if (isLave(system)) {
+			return "textures/planets/lave.png";
+		}
+		if (system == SystemData.RAXXLA_SYSTEM) {
+			return "textures/planets/bdwarf.png";
+		}
+		return "textures/planets/0" + (system.getPlanetTexture() / 8 + 1) + ".png";
+	}
+
+	private static String getRingsTextureName(SystemData system, boolean shadow) {
+		if (isLave(system)) {
+			return null;
+		}
+		int ringsTexture = system == SystemData.RAXXLA_SYSTEM ? 16 : system.getRingsTexture();
+		return ringsTexture != 0 ? "textures/planets/ring" + ringsTexture + (shadow ? "s" : "") + ".png" : null;
+	}
+
+	private static String getCloudsTextureName(SystemData system) {
+		int cloudsTexture = system.getCloudsTexture();
+		return cloudsTexture != 0 ? "textures/planets/clouds" + cloudsTexture + ".png" : null;
+	}
+
+	/**
+	 * Starts decoding the textures of the planet of the given system in the background,
+	 * so the planet can be created without waiting for them when the system is entered.
+	 */
+	public static void prefetchTextures(SystemData system) {
+		Texture textureManager = Alite.get().getTextureManager();
+		textureManager.prefetchTexture(getPlanetTextureName(system), null);
+		String ringsTextureName = getRingsTextureName(system, false);
+		if (ringsTextureName != null) {
+			textureManager.prefetchTexture(ringsTextureName, null);
+			textureManager.prefetchTexture(getRingsTextureName(system, true), null);
+		}
+		String cloudsTextureName = getCloudsTextureName(system);
+		if (cloudsTextureName != null) {
+			textureManager.prefetchTexture(cloudsTextureName, null);
+		}
+		textureManager.prefetchTexture(ATMOSPHERE_TEXTURE, null);
+	}
+
 	@Override
 	public void render() {
-		GLES11.glDisable(GLES11.GL_LIGHTING);
+		GlState.disable(GLES11.GL_LIGHTING);
 		planet.render();
-		GLES11.glDisable(GLES11.GL_DEPTH_TEST);
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+		GlState.disable(GLES11.GL_DEPTH_TEST);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
 		if (clouds != null) {
 			clouds.render();
 		}
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glDisable(GLES11.GL_CULL_FACE);
-		GLES11.glBlendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
-		GLES11.glEnable(GLES11.GL_DEPTH_TEST);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.blendFunc(GLES11.GL_ONE, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_DEPTH_TEST);
 		atmosphere.render();
 
-		GLES11.glEnable(GLES11.GL_LIGHTING);
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+		GlState.enable(GLES11.GL_LIGHTING);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
 		if (rings != null) {
 			rings.render();
 			ringShadow.render();
 		}
-		GLES11.glDisable(GLES11.GL_DEPTH_TEST);
+		GlState.disable(GLES11.GL_DEPTH_TEST);
 
-		GLES11.glEnable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_CULL_FACE);
 		Alite.get().getTextureManager().setTexture(null);
 	}
 
@@ -21,6 +21,7 @@ package de.phbouillon.android.games.alite.screens.opengl.objects;
 import java.io.Serializable;
 
 import android.opengl.GLES11;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.Skysphere;
 
 public class SkySphereSpaceObject extends AliteObject implements Serializable {
@@ -36,9 +37,9 @@ public class SkySphereSpaceObject extends AliteObject implements Serializable {
 
 	@Override
 	public void render() {
-		GLES11.glDisable(GLES11.GL_DEPTH_TEST);
+		GlState.disable(GLES11.GL_DEPTH_TEST);
 		sphere.render();
-		GLES11.glEnable(GLES11.GL_DEPTH_TEST);
+		GlState.enable(GLES11.GL_DEPTH_TEST);
 	}
 
 	public void destroy() {
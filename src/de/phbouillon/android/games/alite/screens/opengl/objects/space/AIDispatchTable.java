@@ -0,0 +1,103 @@
+package de.phbouillon.android.games.alite.screens.opengl.objects.space;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of an AI state machine: the methods of a (state, message) pair are found by two
+ * array lookups. State and message names are mapped to ids once; message ids are shared by all AIs.
+ */
+final class AIDispatchTable {
+	private static final Map<String, Integer> messageIds = new HashMap<>();
+
+	static final int MESSAGE_UPDATE = getMessageId("UPDATE");
+	static final int MESSAGE_ENTER = getMessageId("ENTER");
+	static final int MESSAGE_EXIT = getMessageId("EXIT");
+
+	private final Map<String, Integer> stateIds = new HashMap<>();
+	private final AIMethod[][][] methods;
+
+	AIDispatchTable(Map<String, Map<String, List<AIMethod>>> ai) {
+		methods = new AIMethod[ai.size()][][];
+		List<Map.Entry<String, Map<String, List<AIMethod>>>> states = new ArrayList<>(ai.entrySet());
+		for (Map.Entry<String, Map<String, List<AIMethod>>> state : states) {
+			for (String message : state.getValue().keySet()) {
+				getMessageId(message);
+			}
+		}
+		int messageCount = getMessageCount();
+		for (int i = 0; i < states.size(); i++) {
+			stateIds.put(states.get(i).getKey(), i);
+			methods[i] = new AIMethod[messageCount][];
+			for (Map.Entry<String, List<AIMethod>> message : states.get(i).getValue().entrySet()) {
+				List<AIMethod> resolved = new ArrayList<>(message.getValue().size());
+				for (AIMethod method : message.getValue()) {
+					if (method.isResolved()) {
+						resolved.add(method);
+					}
+				}
+				methods[i][getMessageId(message.getKey())] = resolved.toArray(new AIMethod[0]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the id of the given message, registering it if it is not known yet.
+	 */
+	static synchronized int getMessageId(String message) {
+		Integer id = messageIds.get(message);
+		if (id == null) {
+			id = messageIds.size();
+			messageIds.put(message, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given message or -1 if no AI handles it.
+	 */
+	static synchronized int findMessageId(String message) {
+		Integer id = messageIds.get(message);
+		return id == null ? -1 : id;
+	}
+
+	private static synchronized int getMessageCount() {
+		return messageIds.size();
+	}
+
+	int getStateId(String state) {
+		Integer id = stateIds.get(state);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the methods to be called for the given message in the given state or null if there are none.
+	 */
+	AIMethod[] getMethods(int stateId, int messageId) {
+		if (stateId < 0 || messageId < 0) {
+			return null;
+		}
+		AIMethod[][] messages = methods[stateId];
+		return messageId < messages.length ? messages[messageId] : null;
+	}
+}
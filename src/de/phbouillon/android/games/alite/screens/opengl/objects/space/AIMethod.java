@@ -18,13 +18,27 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import de.phbouillon.android.games.alite.AliteLog;
+
 public class AIMethod {
+	private static final String[] NO_ARGUMENTS = new String[0];
+
 	private final String name;
 	private final String parameter;
+	// Resolved once, so that calling the method needs neither lookup nor argument splitting
+	private final Method method;
+	private final Object[] arguments;
+	private final String callDescription;
 
 	public AIMethod(String name, String parameter) {
 		this.name = name;
 		this.parameter = parameter;
+		method = SpaceObjectAI.findAIMethod(name);
+		arguments = new Object[] { parameter == null ? NO_ARGUMENTS : parameter.split(" ") };
+		callDescription = "AI method " + name + "(" + (parameter == null ? "" : parameter) + ") called.";
 	}
 
 	String getName() {
@@ -34,4 +48,22 @@ public class AIMethod {
 	String getParameter() {
 		return parameter;
 	}
+
+	boolean isResolved() {
+		return method != null;
+	}
+
+	void invoke(SpaceObjectAI ai) {
+		if (method == null) {
+			return;
+		}
+		try {
+			method.invoke(ai, arguments);
+			AliteLog.d("AI methods", callDescription);
+		} catch (IllegalAccessException e) {
+			AliteLog.e("AI methods", "No AI method " + name + " found.", e);
+		} catch (InvocationTargetException e) {
+			AliteLog.e("ai.syntax." + name, e.getCause().getMessage(), e.getCause());
+		}
+	}
 }
@@ -18,6 +18,7 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.math.Vector3f;
 
 public class MathHelper {
@@ -28,7 +29,7 @@ public class MathHelper {
 	public static Vector3f getRandomPosition(Vector3f origin, Vector3f direction, float distance, float radius) {
 		setRandomDirection(v1);
 		v1.normalize();
-		v1.scale((float) (Math.random() * radius));
+		v1.scale((float) (GameRandom.nextDouble() * radius));
 		direction.scale(distance, v0);
 		v0.add(origin);
 		v0.add(v1, v2);
@@ -42,9 +43,9 @@ public class MathHelper {
 	}
 
 	public static void setRandomDirection(Vector3f v) {
-		v.x = (float) (0.7 - Math.random() * 1.4);
-		v.y = (float) (0.7 - Math.random() * 1.4);
-		v.z = (float) (0.7 - Math.random() * 1.4);
+		v.x = (float) (0.7 - GameRandom.nextDouble() * 1.4);
+		v.y = (float) (0.7 - GameRandom.nextDouble() * 1.4);
+		v.z = (float) (0.7 - GameRandom.nextDouble() * 1.4);
 	}
 
 	public static void copyMatrix(float [] src, float [] dest) {
@@ -58,7 +59,7 @@ public class MathHelper {
 	}
 
 	private static float getRandomRotationAngle() {
-		return Math.random() < 0.5 ? (float) Math.random() * 2.0f + 2.0f : -(float) Math.random() * 2.0f - 2.0f;
+		return GameRandom.nextDouble() < 0.5 ? (float) GameRandom.nextDouble() * 2.0f + 2.0f : -(float) GameRandom.nextDouble() * 2.0f - 2.0f;
 	}
 
 	public static void updateAxes(Vector3f currentDelta, Vector3f targetDelta) {
@@ -20,14 +20,19 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OptionalDataException;
 import java.io.Serializable;
+import java.nio.FloatBuffer;
 import java.util.*;
 
 import android.opengl.GLES11;
 import android.opengl.Matrix;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.IMethodHook;
 import de.phbouillon.android.framework.ResourceStream;
 import de.phbouillon.android.framework.Timer;
+import de.phbouillon.android.framework.impl.gl.GlState;
 import de.phbouillon.android.framework.impl.gl.GlUtils;
 import de.phbouillon.android.framework.impl.gl.GraphicObject;
 import de.phbouillon.android.framework.math.Quaternion;
@@ -219,10 +224,18 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 	private final Repository<Property> repoHandler = new Repository<>();
 	private String textureFilename;
-	private float[] vertexBuffer;
-	private float[] facesBuffer;
-	private float[] texCoordBuffer;
+	private String templateId;
+	// Model data shared with the template, it is taken from the template when loading
+	private transient float[] vertexBuffer;
+	private transient float[] facesBuffer;
+	private transient float[] texCoordBuffer;
+	// Direct buffers of the arrays above, shared by all clones of the same template
+	private transient FloatBuffer vertexFloatBuffer;
+	private transient FloatBuffer facesFloatBuffer;
+	private transient FloatBuffer texCoordFloatBuffer;
 	private transient ResourceStream textureInputStream;
+	// Set when sorting the objects to draw, if the object covers less than a pixel of the screen
+	private transient boolean tooSmallToRender;
 
 	private float[] boundingBox = new float[6];
 	private int hullStrength; // current energy, normally started from max_energy
@@ -301,12 +314,26 @@ public class SpaceObject extends AliteObject implements Serializable {
 			AliteLog.d("readObject", "SpaceObject.readObject");
 			in.defaultReadObject();
 			AliteLog.d("readObject", "SpaceObject.readObject I");
-			SpaceObject so = SpaceObjectFactory.getInstance().getObjectById(getId());
-			if (so == null) {
-				so = SpaceObjectFactory.getInstance().getRandomObjectByType(type);
+			float[][] modelData = null;
+			try {
+				modelData = (float[][]) in.readObject();
+			} catch (OptionalDataException ignored) {
+				// saved with its model data and all properties before they were taken from the template
 			}
-			if (so != null) {
-				textureInputStream = so.textureInputStream;
+			SpaceObject template = SpaceObjectFactory.getInstance().getTemplateObject(getTemplateId());
+			if (template == null) {
+				AliteLog.w("readObject", "Template " + getTemplateId() + " of space object not found.");
+				template = SpaceObjectFactory.getInstance().getRandomObjectByType(type);
+			}
+			if (template != null) {
+				repoHandler.copyUndefinedFrom(template.repoHandler);
+				template.setModelBuffers(this);
+			}
+			if (modelData != null) {
+				vertexBuffer = modelData[0];
+				facesBuffer = modelData[1];
+				texCoordBuffer = modelData[2];
+				vertexFloatBuffer = null;
 			}
 			scaleBoundingBox(scale);
 			AliteLog.d("readObject", "SpaceObject.readObject II");
@@ -315,6 +342,25 @@ public class SpaceObject extends AliteObject implements Serializable {
 		}
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		SpaceObject template = SpaceObjectFactory.getInstance().getTemplateObject(getTemplateId());
+		if (template == this || template != null && template.vertexBuffer != vertexBuffer) {
+			template = null;
+		}
+		repoHandler.setTemplate(template == null ? null : template.repoHandler);
+		try {
+			out.defaultWriteObject();
+		} finally {
+			repoHandler.setTemplate(null);
+		}
+		// The model data is only written if it cannot be taken from the template
+		out.writeObject(template == null ? new float[][] {vertexBuffer, facesBuffer, texCoordBuffer} : null);
+	}
+
+	private String getTemplateId() {
+		return templateId == null ? getId() : templateId;
+	}
+
 	private void addObjectToSpawn(ObjectType type) {
 		objectsToSpawn.add(type);
 	}
@@ -382,7 +428,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 	}
 
 	private long getMissileCount() {
-		return repoHandler.getNumericProperty(Property.missiles).longValue();
+		return (long) repoHandler.getNumericProperty(Property.missiles);
 	}
 
 	private boolean canFireMissile() {
@@ -437,7 +483,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 	}
 
 	private boolean receivesProximityWarning() {
-		return repoHandler.getNumericProperty(Property.proximity_warning).intValue() == 1 && (!drone || hasLivingMother());
+		return (int) repoHandler.getNumericProperty(Property.proximity_warning) == 1 && (!drone || hasLivingMother());
 	}
 
 	private void hasBeenHitByPlayer() {
@@ -584,14 +630,17 @@ public class SpaceObject extends AliteObject implements Serializable {
 	public void render() {
 		Alite.get().getTextureManager().setTexture(textureFilename, textureInputStream);
 
-		boolean enabled = GLES11.glIsEnabled(GLES11.GL_CULL_FACE);
-		if (enabled) {
-			GLES11.glDisable(GLES11.GL_CULL_FACE);
+		// While the state is tracked, the next object enables culling if it needs it
+		boolean restoreCullFace = !GlState.isTracking() && GlState.isEnabled(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		if (vertexFloatBuffer == null) {
+			// e.g. after deserialization
+			initFloatBuffers();
 		}
 		GLES11.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
-		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, GlUtils.toFloatBufferPositionZero(vertexBuffer));
-		GLES11.glNormalPointer(GLES11.GL_FLOAT, 0, GlUtils.toFloatBufferPositionZero(facesBuffer));
-		GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, GlUtils.toFloatBufferPositionZero(texCoordBuffer));
+		GLES11.glVertexPointer(3, GLES11.GL_FLOAT, 0, vertexFloatBuffer);
+		GLES11.glNormalPointer(GLES11.GL_FLOAT, 0, facesFloatBuffer);
+		GLES11.glTexCoordPointer(2, GLES11.GL_FLOAT, 0, texCoordFloatBuffer);
 		GLES11.glDrawArrays(GLES11.GL_TRIANGLES, 0, facesBuffer.length / 3);
 
 		for (SpaceObject part : parts) {
@@ -600,26 +649,34 @@ public class SpaceObject extends AliteObject implements Serializable {
 			part.render();
 			GLES11.glPopMatrix();
 		}
-		Alite.get().getTextureManager().setTexture(null);
-		if (Settings.engineExhaust && !exhaust.isEmpty() && getSpeed() < 0f) {
+		boolean exhaustVisible = Settings.engineExhaust && !exhaust.isEmpty() && getSpeed() < 0f;
+		// While the state is tracked, the next object binds its own texture
+		if (exhaustVisible || !GlState.isTracking()) {
+			Alite.get().getTextureManager().setTexture(null);
+		}
+		if (exhaustVisible) {
 			for (EngineExhaust ex: exhaust) {
 				ex.render(this);
 			}
 		}
 
-		if (enabled) {
-			GLES11.glEnable(GLES11.GL_CULL_FACE);
+		if (restoreCullFace) {
+			GlState.enable(GLES11.GL_CULL_FACE);
 		}
 	}
 
+	public String getTextureFilename() {
+		return textureFilename;
+	}
+
 	public void renderTargetBox(float distSq) {
 		if (!Settings.targetBox || targetBox == null || distSq <= TARGETING_DISTANCE_SQ) {
 			return;
 		}
-		GLES11.glEnable(GLES11.GL_BLEND);
-		GLES11.glBlendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
 		targetBox.render(hudColor, (distSq - TARGETING_DISTANCE_SQ) / (AliteHud.MAX_DISTANCE_SQ - TARGETING_DISTANCE_SQ));
-		GLES11.glDisable(GLES11.GL_BLEND);
+		GlState.disable(GLES11.GL_BLEND);
 	}
 
 	public final void createFaces(float[] vertexData, float[] faces, int ...indices) {
@@ -639,6 +696,13 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 			offset += 3;
 		}
+		initFloatBuffers();
+	}
+
+	private void initFloatBuffers() {
+		vertexFloatBuffer = GlUtils.toSharedFloatBuffer(vertexBuffer);
+		facesFloatBuffer = GlUtils.toSharedFloatBuffer(facesBuffer);
+		texCoordFloatBuffer = GlUtils.toSharedFloatBuffer(texCoordBuffer);
 	}
 
 	private void calculateBoundingBox() {
@@ -708,6 +772,47 @@ public class SpaceObject extends AliteObject implements Serializable {
 		return getMaxExtentBase(0);
 	}
 
+	/**
+	 * @return the radius of the sphere around the position of the object containing everything
+	 * drawn for it: the model with its parts, the engine exhaust and the target box.
+	 */
+	public float getDrawnRadius() {
+		float radius = getMeshRadius();
+		return Settings.targetBox && targetBox != null ? Math.max(radius, targetBox.getBoundingSphereRadius()) : radius;
+	}
+
+	/**
+	 * @return the radius of the sphere around the position of the object containing the model
+	 * with its parts and the engine exhaust, but not the target box drawn on its own.
+	 */
+	public float getMeshRadius() {
+		float x = Math.max(Math.abs(boundingBox[0]), Math.abs(boundingBox[1]));
+		float y = Math.max(Math.abs(boundingBox[2]), Math.abs(boundingBox[3]));
+		float z = Math.max(Math.abs(boundingBox[4]), Math.abs(boundingBox[5]));
+		for (EngineExhaust e : exhaust) {
+			x = Math.max(x, Math.abs(e.getX()) + e.getRadiusX());
+			y = Math.max(y, Math.abs(e.getY()) + e.getRadiusY());
+			z = Math.max(z, Math.abs(boundingBox[5] + e.getZ()) + e.getMaxLen());
+		}
+		return (float) Math.sqrt(x * x + y * y + z * z);
+	}
+
+	public void setTooSmallToRender(boolean tooSmallToRender) {
+		this.tooSmallToRender = tooSmallToRender;
+	}
+
+	public boolean isTooSmallToRender() {
+		return tooSmallToRender;
+	}
+
+	public int getTriangleCount() {
+		int count = facesBuffer == null ? 0 : facesBuffer.length / 9;
+		for (SpaceObject part : parts) {
+			count += part.getTriangleCount();
+		}
+		return count;
+	}
+
 	public void dispose() {
 		if (textureFilename != null) {
 			Alite.get().getTextureManager().freeTexture(textureFilename);
@@ -748,19 +853,19 @@ public class SpaceObject extends AliteObject implements Serializable {
 	}
 
 	int getAggressionLevel() {
-		return repoHandler.getNumericProperty(Property.aggression_level).intValue();
+		return (int) repoHandler.getNumericProperty(Property.aggression_level);
 	}
 
 	public int getMaxCargoCanisters() {
-		return repoHandler.getNumericProperty(Property.max_cargo).intValue();
+		return (int) repoHandler.getNumericProperty(Property.max_cargo);
 	}
 
 	public boolean hasFreeSpace() {
-		return getMaxCargoCanisters() > repoHandler.getNumericProperty(Property.cargo_carried).longValue();
+		return getMaxCargoCanisters() > (long) repoHandler.getNumericProperty(Property.cargo_carried);
 	}
 
 	public TradeGood getCargoType() {
-		TradeGood good = TradeGoodStore.get().getGoodById(repoHandler.getNumericProperty(Property.likely_cargo).intValue());
+		TradeGood good = TradeGoodStore.get().getGoodById((int) repoHandler.getNumericProperty(Property.likely_cargo));
 		return good == null ? TradeGoodStore.get().getRandomTradeGoodForContainer() : good;
 	}
 
@@ -839,7 +944,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 	public void update(float deltaTime) {
 		if (escapePod > 0 && hullStrength < 2 && !hasEjected()) {
-			if (Math.random() < 0.1) {
+			if (GameRandom.nextDouble() < 0.1) {
 				ejectedPods++;
 				addObjectToSpawn(ObjectType.EscapeCapsule);
 			}
@@ -1011,7 +1116,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 	}
 
 	public int getBounty() {
-		return repoHandler.getNumericProperty(Property.bounty).intValue();
+		return (int) repoHandler.getNumericProperty(Property.bounty);
 	}
 
 	public int getScore() {
@@ -1024,9 +1129,9 @@ public class SpaceObject extends AliteObject implements Serializable {
 			case Missile:
 			case TieFighter: return 0;
 			case Constrictor: return 5000;
-			case Trader: return (int) (repoHandler.getNumericProperty(Property.max_energy).intValue() * 0.6f);
+			case Trader: return (int) ((int) repoHandler.getNumericProperty(Property.max_energy) * 0.6f);
 		}
-		return repoHandler.getNumericProperty(SpaceObject.Property.max_energy).intValue();
+		return (int) repoHandler.getNumericProperty(SpaceObject.Property.max_energy);
 	}
 
 	@Override
@@ -1091,7 +1196,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 		if (!ObjectType.isSpaceStation(type)) {
 			return 50;
 		}
-		Float radius = repoHandler.getNumericProperty(Property.port_radius);
+		float radius = repoHandler.getNumericProperty(Property.port_radius);
 		if (radius != 0) {
 			return radius;
 		}
@@ -1128,7 +1233,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 	public int getMinDrones() {
 		if (repoHandler.getArrayProperty(Property.escort_roles) == null) {
-			return repoHandler.getNumericProperty(Property.escorts).intValue();
+			return (int) repoHandler.getNumericProperty(Property.escorts);
 		}
 		String[] p = repoHandler.getArrayProperty(Property.escort_roles).get(0).split(" ");
 		return Integer.parseInt(p[1].substring(1, p[1].length() - 1));
@@ -1136,7 +1241,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 	public int getMaxDrones() {
 		if (repoHandler.getArrayProperty(Property.escort_roles) == null) {
-			return repoHandler.getNumericProperty(Property.escorts).intValue();
+			return (int) repoHandler.getNumericProperty(Property.escorts);
 		}
 		String[] p = repoHandler.getArrayProperty(Property.escort_roles).get(0).split(" ");
 		return Integer.parseInt(p[2].substring(1, p[2].length() - 1));
@@ -1157,9 +1262,16 @@ public class SpaceObject extends AliteObject implements Serializable {
 	public void setTexture(String textureFilename, float[] texCoordBuffer, ResourceStream textureInputStream) {
 		this.textureFilename = textureFilename;
 		this.texCoordBuffer = texCoordBuffer;
+		texCoordFloatBuffer = GlUtils.toSharedFloatBuffer(texCoordBuffer);
 		this.textureInputStream = textureInputStream;
-		if (Alite.get() != null) {
-			Alite.get().getTextureManager().addTextureFromStream(textureFilename, textureInputStream);
+	}
+
+	/**
+	 * Starts decoding the texture of the object in the background if it is not loaded yet.
+	 */
+	public void prefetchTexture() {
+		if (Alite.get() != null && textureFilename != null && !Alite.get().getTextureManager().checkTexture(textureFilename)) {
+			Alite.get().getTextureManager().prefetchTexture(textureFilename, textureInputStream);
 		}
 	}
 
@@ -1188,6 +1300,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 	SpaceObject cloneObject(ObjectType type) {
 		SpaceObject object = new SpaceObject(getId());
+		object.templateId = getTemplateId();
 		object.setType(type);
 		repoHandler.copyLocaleDependentTo(object.repoHandler);
 		repoHandler.copyTo(object.repoHandler);
@@ -1205,7 +1318,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 
 				private long computeNextUpdateTime() {
 					// 6 - 12 seconds later.
-					return (long) (6 * Math.random() + 6);
+					return (long) (6 * GameRandom.nextDouble() + 6);
 				}
 
 				@Override
@@ -1231,7 +1344,7 @@ public class SpaceObject extends AliteObject implements Serializable {
 		object.unpunishedWeight = unpunishedWeight;
 		object.specialCargoContent = specialCargoContent;
 		object.cargoPrice = cargoPrice;
-		object.hullStrength = repoHandler.getNumericProperty(SpaceObject.Property.max_energy).intValue();
+		object.hullStrength = (int) repoHandler.getNumericProperty(SpaceObject.Property.max_energy);
 
 		for (SpaceObject part: parts) {
 			object.parts.add(part.cloneObject(part.getType()));
@@ -1244,6 +1357,9 @@ public class SpaceObject extends AliteObject implements Serializable {
 			object.laserHardpoint.add(new Vector3f(l.x, l.y, l.z));
 		}
 		object.initTargetBox();
+		// Uploaded when the object is rendered first, so spawning an object does not wait for the decoding.
+		// Templates are not prefetched, the prefetched textures would be dropped for the ones of all plugins.
+		object.prefetchTexture();
 		return object;
 	}
 
@@ -1260,12 +1376,24 @@ public class SpaceObject extends AliteObject implements Serializable {
 	private void setModelData(SpaceObject dest) {
 		dest.vertexBuffer = vertexBuffer;
 		dest.facesBuffer = facesBuffer;
+		dest.vertexFloatBuffer = vertexFloatBuffer;
+		dest.facesFloatBuffer = facesFloatBuffer;
 		dest.boundingBox = boundingBox;
 		dest.setTexture(textureFilename, texCoordBuffer, textureInputStream);
 	}
 
+	private void setModelBuffers(SpaceObject dest) {
+		dest.vertexBuffer = vertexBuffer;
+		dest.facesBuffer = facesBuffer;
+		dest.texCoordBuffer = texCoordBuffer;
+		dest.vertexFloatBuffer = vertexFloatBuffer;
+		dest.facesFloatBuffer = facesFloatBuffer;
+		dest.texCoordFloatBuffer = texCoordFloatBuffer;
+		dest.textureInputStream = textureInputStream;
+	}
+
 	private boolean hasByProbability(float probability) {
-		return probability > Math.random();
+		return probability > GameRandom.nextDouble();
 	}
 
 	public void setPlayer(boolean b) {
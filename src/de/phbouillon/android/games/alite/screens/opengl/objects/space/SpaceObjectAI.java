@@ -24,11 +24,14 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
 // http://wiki.alioth.net/index.php/Oolite_PriorityAI_Tutorial
 // d:\TOM\java\oolite-master\Resources\Scripts\oolite-priorityai.js
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
 
 import android.opengl.Matrix;
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.framework.Timer;
 import de.phbouillon.android.framework.math.Quaternion;
 import de.phbouillon.android.framework.math.Vector3f;
@@ -74,13 +77,14 @@ public final class SpaceObjectAI implements Serializable {
 	// => ~30 FPS at Elite.
 	private final SpaceObject so;
 
-	private final Quaternion q1 = new Quaternion();
-	private final Quaternion q2 = new Quaternion();
-	private final Quaternion q3 = new Quaternion();
-	private final Vector3f   v0 = new Vector3f(0, 0, 0);
-	private final Vector3f   v1 = new Vector3f(0, 0, 0);
-	private final Vector3f   v2 = new Vector3f(0, 0, 0);
-	private final Vector3f   v3 = new Vector3f(0, 0, 0);
+	// Temporary values are not saved
+	private transient Quaternion q1 = new Quaternion();
+	private transient Quaternion q2 = new Quaternion();
+	private transient Quaternion q3 = new Quaternion();
+	private transient Vector3f   v0 = new Vector3f(0, 0, 0);
+	private transient Vector3f   v1 = new Vector3f(0, 0, 0);
+	private transient Vector3f   v2 = new Vector3f(0, 0, 0);
+	private transient Vector3f   v3 = new Vector3f(0, 0, 0);
 
 	private final Stack <String> currentState = new Stack<>();
 	private SpaceObject target = null;
@@ -100,6 +104,8 @@ public final class SpaceObjectAI implements Serializable {
 //	private Timer updateTimer = new Timer().setAutoReset();
 //	private float pauseAI = 1f / 8; // sec;
 	private String stateName = AI_STATE_GLOBAL;
+	private transient AIDispatchTable dispatchTable;
+	private transient int stateId;
 	private String lastMessage;
 	private float timeSpent;
 
@@ -108,6 +114,21 @@ public final class SpaceObjectAI implements Serializable {
 		currentState.push(AI_STATE_GLOBAL);
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException {
+		try {
+			in.defaultReadObject();
+			q1 = new Quaternion();
+			q2 = new Quaternion();
+			q3 = new Quaternion();
+			v0 = new Vector3f(0, 0, 0);
+			v1 = new Vector3f(0, 0, 0);
+			v2 = new Vector3f(0, 0, 0);
+			v3 = new Vector3f(0, 0, 0);
+		} catch (ClassNotFoundException e) {
+			AliteLog.e("Class not found", e.getMessage(), e);
+		}
+	}
+
 	void orientUsingRollPitchOnly(Vector3f targetPosition, float deltaTime) {
 		trackInternal(targetPosition, 1000.0f, deltaTime, false);
 		executeSteeringNoSpeedChange(targetPosition);
@@ -421,7 +442,7 @@ public final class SpaceObjectAI implements Serializable {
 			BASE_DELAY_BETWEEN_SHOOT_CHECKS - (rating + 2) * SHOOT_DELAY_REDUCE_PER_RATING_LEVEL)) {
 			return;
 		}
-		if (Alite.get().getLaserManager() != null && so.getAggressionLevel() > Math.random() * 256) {
+		if (Alite.get().getLaserManager() != null && so.getAggressionLevel() > GameRandom.nextDouble() * 256) {
 			Alite.get().getLaserManager().fire(so, target);
 		}
 	}
@@ -578,7 +599,7 @@ public final class SpaceObjectAI implements Serializable {
 	private void initiateFollowCurve() {
 		pushIfNewState(AI_STATE_FOLLOW_CURVE);
 		waypoints.clear();
-		curve = Math.random() < 0.5 ? new BreakUp(so) : new BreakDown(so);
+		curve = GameRandom.nextDouble() < 0.5 ? new BreakUp(so) : new BreakDown(so);
 		curveFollowStart.reset();
 		currentDistance = -1;
 		so.adjustSpeed(-so.getMaxSpeed());
@@ -643,7 +664,7 @@ public final class SpaceObjectAI implements Serializable {
 
 	private void pushState(String newState) {
 		if (!currentState.isEmpty()) {
-			sendAIMessage("EXIT");
+			executeAIMessage(AIDispatchTable.MESSAGE_EXIT);
 		}
 		switch (newState) {
 			case AI_STATE_ATTACK:
@@ -680,7 +701,10 @@ public final class SpaceObjectAI implements Serializable {
 				break;
 		}
 		stateName = newState;
-		sendAIMessage("ENTER");
+		if (dispatchTable != null) {
+			stateId = dispatchTable.getStateId(stateName);
+		}
+		executeAIMessage(AIDispatchTable.MESSAGE_ENTER);
 	}
 
 	final void setState(String newState) {
@@ -714,7 +738,7 @@ public final class SpaceObjectAI implements Serializable {
 //		}
 //		deltaTime+= pauseAI;
 		timeSpent = deltaTime;
-		executeAIMessage("UPDATE");
+		executeAIMessage(AIDispatchTable.MESSAGE_UPDATE);
 
 		switch (currentState.peek()) {
 			case AI_STATE_ATTACK:
@@ -761,7 +785,7 @@ public final class SpaceObjectAI implements Serializable {
 				case AI_STATE_FOLLOW_CURVE: sl = "FC"; break;
 				default:           sl = "DE"; break;
 				}
-				AliteLog.d("AIS", "SOPATH: Player " + sl + " (" + so.getPosition().x + ":" + so.getPosition().y + ":" + so.getPosition().z +
+				AliteLog.d("AIS", () -> "SOPATH: Player " + sl + " (" + so.getPosition().x + ":" + so.getPosition().y + ":" + so.getPosition().z +
 					   ":" + so.getForwardVector().x + ":" + so.getForwardVector().y + ":" + so.getForwardVector().z +
 					   ":" + so.getUpVector().x + ":" + so.getUpVector().y + ":" + so.getUpVector().z +
 					   ":" + so.getRightVector().x + ":" + so.getRightVector().y + ":" + so.getRightVector().z +
@@ -787,24 +811,24 @@ public final class SpaceObjectAI implements Serializable {
 
 	private void bankOrAttack(SpaceObject player) {
 		String state = getState();
-		AliteLog.d("Object has been hit", "Object has been hit. Current State == " + state);
+		AliteLog.d("Object has been hit", () -> "Object has been hit. Current State == " + state);
 		if (AI_STATE_FOLLOW_CURVE.equals(state)) {
 			return;
 		}
 		if (AI_STATE_LURKING.equals(state) || AI_STATE_EVADE.equals(state) || AI_STATE_FLY_PATH.equals(state)) {
-			float f = (float) Math.random();
+			float f = (float) GameRandom.nextDouble();
 			if (f < 0.3) {
 				// Do nothing...
-				AliteLog.d("NPC got Hit", "On Hit (should be 'no change'): New AI Stack: " + getStateStack());
+				AliteLog.d("NPC got Hit", () -> "On Hit (should be 'no change'): New AI Stack: " + getStateStack());
 				return;
 			}
 			popState();
 			target = player;
 			if (f < 0.7) {
 				so.getForwardVector().copy(v0);
-				v0.x *= -Math.random() * 2 + 1;
-				v0.y *= -Math.random() * 2 + 1;
-				v0.z *= -Math.random() * 2 + 1;
+				v0.x *= -GameRandom.nextDouble() * 2 + 1;
+				v0.y *= -GameRandom.nextDouble() * 2 + 1;
+				v0.z *= -GameRandom.nextDouble() * 2 + 1;
 				if (v0.isZeroVector()) {
 					v0.x = 1;
 					v0.y = 0;
@@ -815,12 +839,12 @@ public final class SpaceObjectAI implements Serializable {
 				setWaypoints(WayPoint.newWayPoint(MathHelper.getRandomPosition(so.getPosition(), v0,
 					5000, 1000), so.getUpVector()));
 				pushState(AI_STATE_FLY_PATH);
-				AliteLog.d("NPC got Hit", "On Hit (should be fly path): New AI Stack: " + getStateStack());
+				AliteLog.d("NPC got Hit", () -> "On Hit (should be fly path): New AI Stack: " + getStateStack());
 				return;
 			}
 			pushState(AI_STATE_ATTACK);
 			pushState(AI_STATE_FOLLOW_CURVE);
-			AliteLog.d("NPC got Hit", "On Hit (should be follow curve): New AI Stack: " + getStateStack());
+			AliteLog.d("NPC got Hit", () -> "On Hit (should be follow curve): New AI Stack: " + getStateStack());
 		} else if (!AI_STATE_ATTACK.equals(state)) {
 			target = player;
 			pushState(AI_STATE_LURKING);
@@ -831,7 +855,7 @@ public final class SpaceObjectAI implements Serializable {
 		if (AI_STATE_FLEE.equals(getState())) {
 			return;
 		}
-		if (Math.random() * 100 < FIRE_MISSILE_UPON_FIRST_HIT_PROBABILITY) {
+		if (GameRandom.nextDouble() * 100 < FIRE_MISSILE_UPON_FIRST_HIT_PROBABILITY) {
 			so.spawnMissile(player);
 		}
 		target = player;
@@ -850,7 +874,7 @@ public final class SpaceObjectAI implements Serializable {
 			target = player;
 			pushState(AI_STATE_LURKING);
 		} else if (AI_STATE_FLY_PATH.equals(state) || AI_STATE_FLY_STRAIGHT.equals(state) || AI_STATE_GLOBAL.equals(state)) {
-			if (Math.random() * 50 < so.getAggressionLevel()) {
+			if (GameRandom.nextDouble() * 50 < so.getAggressionLevel()) {
 				bankOrAttack(player);
 			} else {
 				flee(player);
@@ -878,44 +902,44 @@ public final class SpaceObjectAI implements Serializable {
 
 	void sendAIMessage(String message) {
 		if (priorityMessages.contains(message)) {
-			executeAIMessage(message);
+			executeAIMessage(AIDispatchTable.findMessageId(message));
 		} else {
 			queueAIMessage(message);
 		}
 	}
 
-	private void executeAIMessage(String message) {
-//		if (message.equals(lastMessage)) {
-//			return;
-//		}
-//		lastMessage = message;
-
+	private void executeAIMessage(int messageId) {
 //		AliteLog.d("AI message received", "Object: " + so.getId() +
 //			", AI: '" + so.getAIType() + "', state: '" + stateName + "', message: '" + message + "'");
-		List<AIMethod> methods = SpaceObjectFactory.getInstance().getMethods(so.getAIType(), stateName, message);
-		if (methods == null) {
-			if (!SpaceObjectFactory.getInstance().isAIType(so.getAIType())) {
+		if (dispatchTable == null) {
+			dispatchTable = SpaceObjectFactory.getInstance().getDispatchTable(so.getAIType());
+			if (dispatchTable == null) {
 //				AliteLog.e("AI type error", "AI type " + so.getAIType() + " not found.");
 				return;
 			}
-			if (!SpaceObjectFactory.getInstance().isAIState(so.getAIType(), stateName)) {
-//				AliteLog.e("AI state error", "AI state " + stateName + " not found for AI type " + so.getAIType() + ".");
-				return;
-			}
+			stateId = dispatchTable.getStateId(stateName);
+		}
+		AIMethod[] methods = dispatchTable.getMethods(stateId, messageId);
+		if (methods == null) {
 //			AliteLog.d("AI methods", "No method for state.");
 			return;
 		}
 		for (AIMethod method : methods) {
-			try {
-				SpaceObjectAI.class.getDeclaredMethod(method.getName(), String[].class).invoke(this,
-					new Object[] { method.getParameter() == null ? new String[0] : method.getParameter().split(" ")});
-				AliteLog.d("AI methods", "AI method " + method.getName() + "(" +
-					(method.getParameter() == null ? "" : method.getParameter()) + ") called.");
-			} catch (IllegalAccessException | NoSuchMethodException e) {
-				AliteLog.e("AI methods", "No AI method " + method.getName() + " found.", e);
-			} catch (InvocationTargetException e) {
-				AliteLog.e("ai.syntax." + method.getName(), e.getCause().getMessage(), e.getCause());
-			}
+			method.invoke(this);
+		}
+	}
+
+	/**
+	 * Returns the AI method of the given name callable by AI state machines or null if there is no such method.
+	 */
+	static Method findAIMethod(String name) {
+		try {
+			Method method = SpaceObjectAI.class.getDeclaredMethod(name, String[].class);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException e) {
+			AliteLog.e("AI methods", "No AI method " + name + " found.", e);
+			return null;
 		}
 	}
 
@@ -987,7 +1011,7 @@ public final class SpaceObjectAI implements Serializable {
 		if (start < 0 || end < 0 || end <= start) {
 			throw new IllegalArgumentException("Invalid value: " + Arrays.toString(intervalString));
 		}
-//		pauseAI = (float) (start + (end - start) * Math.random());
+//		pauseAI = (float) (start + (end - start) * GameRandom.nextDouble());
 	}
 
 	@SuppressWarnings("unused")
@@ -18,6 +18,7 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import de.phbouillon.android.framework.GameRandom;
 import de.phbouillon.android.games.alite.Alite;
 import de.phbouillon.android.games.alite.screens.opengl.ingame.ObjectType;
 
@@ -30,6 +31,7 @@ public class SpaceObjectFactory {
 	private final Set<String> demoObjectId = new HashSet<>();
 	//         AI file     States      Messages     Methods
 	private final Map<String, Map<String, Map<String, List<AIMethod>>>> AIs = new HashMap<>();
+	private final Map<String, AIDispatchTable> dispatchTables = new HashMap<>();
 
 	public static SpaceObjectFactory getInstance() {
 		if (instance == null) {
@@ -51,10 +53,10 @@ public class SpaceObjectFactory {
 		if (totalWeight == 0) {
 			return null;
 		}
-		double rnd = Math.random();
+		double rnd = GameRandom.nextDouble();
 		double sumWeight = 0;
 		for (SpaceObject object : objects) {
-			int allowedGalaxy = object.getRepoHandler().getNumericProperty(SpaceObject.Property.galaxy).intValue();
+			int allowedGalaxy = (int) object.getRepoHandler().getNumericProperty(SpaceObject.Property.galaxy);
 			if (allowedGalaxy == 0 || allowedGalaxy == Alite.get().getGenerator().getCurrentGalaxy()) {
 				sumWeight += getWeight(object, type);
 				if (rnd < sumWeight / totalWeight) {
@@ -65,10 +67,29 @@ public class SpaceObjectFactory {
 		return null;
 	}
 
+	/**
+	 * Starts decoding the textures of the given number of templates of the type that are most
+	 * likely to be spawned in the current galaxy.
+	 */
+	public void prefetchTextures(ObjectType type, int count) {
+		List<SpaceObject> candidates = new ArrayList<>();
+		for (SpaceObject object : objects) {
+			int allowedGalaxy = (int) object.getRepoHandler().getNumericProperty(SpaceObject.Property.galaxy);
+			if ((allowedGalaxy == 0 || allowedGalaxy == Alite.get().getGenerator().getCurrentGalaxy()) &&
+					getWeight(object, type) > 0) {
+				candidates.add(object);
+			}
+		}
+		Collections.sort(candidates, (o1, o2) -> Double.compare(getWeight(o2, type), getWeight(o1, type)));
+		for (int i = 0; i < Math.min(count, candidates.size()); i++) {
+			candidates.get(i).prefetchTexture();
+		}
+	}
+
 	private double getTotalWeight(ObjectType type) {
 		double totalWeight = 0;
 		for (SpaceObject object : objects) {
-			int allowedGalaxy = object.getRepoHandler().getNumericProperty(SpaceObject.Property.galaxy).intValue();
+			int allowedGalaxy = (int) object.getRepoHandler().getNumericProperty(SpaceObject.Property.galaxy);
 			if (allowedGalaxy == 0 || allowedGalaxy == Alite.get().getGenerator().getCurrentGalaxy()) {
 				totalWeight += getWeight(object, type);
 			}
@@ -175,18 +196,20 @@ public class SpaceObjectFactory {
 			ai.put(stateName, state);
 		}
 		state.put(messageName, methods);
+		dispatchTables.remove(aiName);
 	}
 
-	List<AIMethod> getMethods(String aiName, String stateName, String messageName) {
-		Map<String, Map<String, List<AIMethod>>> ai = AIs.get(aiName);
-		if (ai == null) {
-			return null;
-		}
-		Map<String, List<AIMethod>> state = ai.get(stateName);
-		if (state == null) {
-			return null;
+	AIDispatchTable getDispatchTable(String aiName) {
+		AIDispatchTable table = dispatchTables.get(aiName);
+		if (table == null) {
+			Map<String, Map<String, List<AIMethod>>> ai = AIs.get(aiName);
+			if (ai == null) {
+				return null;
+			}
+			table = new AIDispatchTable(ai);
+			dispatchTables.put(aiName, table);
 		}
-		return state.get(messageName);
+		return table;
 	}
 
 	public boolean isAIType(String aiName) {
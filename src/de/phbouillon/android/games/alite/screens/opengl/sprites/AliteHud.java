@@ -78,6 +78,7 @@ public class AliteHud extends Sprite implements Serializable {
 
 	public AliteHud(IntFunction<Float> getSpeed) {
 		super(RADAR_X1, RADAR_Y1, RADAR_X2, RADAR_Y2, 0, 0, 1, 1, TEXTURE_FILE);
+		Alite.get().getTextureManager().pinTexture(TEXTURE_FILE);
 		this.getSpeed = getSpeed;
 		setTextureCoords(Alite.get().getTextureManager().getSprite(TEXTURE_FILE, "radar"));
 
@@ -111,6 +112,7 @@ public class AliteHud extends Sprite implements Serializable {
 			AliteLog.d("readObject", "AliteHud.readObject I");
 			lollipop = new Sprite(0,0,0,0,0,0,1,1,"");
 			Alite.get().getTextureManager().addTexture(TEXTURE_FILE);
+			Alite.get().getTextureManager().pinTexture(TEXTURE_FILE);
 			setTextureCoords(Alite.get().getTextureManager().getSprite(TEXTURE_FILE, "radar"));
 			currentLaserIndex = null;
 			computeLaser();
@@ -99,6 +99,7 @@ public class AliteButtons implements Serializable {
 		this.inGame = inGame;
 
 		alite.getTextureManager().addTexture(TEXTURE_FILE);
+		alite.getTextureManager().pinTexture(TEXTURE_FILE);
 		reset();
 
 		greenOverlay = genSprite("green_overlay", 0, 0);
@@ -0,0 +1,182 @@
+package android.opengl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+/**
+ * The matrix operations of android used by the game, computed in java for the unit tests.
+ * The android.jar of the unit tests returns default values only, so the objects of a simulated
+ * flight would neither move nor turn. The test classes precede android.jar in the class path.
+ * Matrices are 4x4 in column-major order as in android.
+ */
+public class Matrix {
+	private static final float[] temp = new float[32];
+
+	public static synchronized void multiplyMM(float[] result, int resultOffset, float[] lhs, int lhsOffset,
+			float[] rhs, int rhsOffset) {
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				float sum = 0;
+				for (int k = 0; k < 4; k++) {
+					sum += lhs[lhsOffset + i + 4 * k] * rhs[rhsOffset + k + 4 * j];
+				}
+				temp[i + 4 * j] = sum;
+			}
+		}
+		System.arraycopy(temp, 0, result, resultOffset, 16);
+	}
+
+	public static synchronized void multiplyMV(float[] resultVec, int resultVecOffset, float[] lhsMat, int lhsMatOffset,
+			float[] rhsVec, int rhsVecOffset) {
+		for (int i = 0; i < 4; i++) {
+			float sum = 0;
+			for (int k = 0; k < 4; k++) {
+				sum += lhsMat[lhsMatOffset + i + 4 * k] * rhsVec[rhsVecOffset + k];
+			}
+			temp[i] = sum;
+		}
+		System.arraycopy(temp, 0, resultVec, resultVecOffset, 4);
+	}
+
+	public static void setIdentityM(float[] sm, int smOffset) {
+		for (int i = 0; i < 16; i++) {
+			sm[smOffset + i] = i % 5 == 0 ? 1 : 0;
+		}
+	}
+
+	public static void translateM(float[] m, int mOffset, float x, float y, float z) {
+		for (int i = 0; i < 4; i++) {
+			m[mOffset + 12 + i] += m[mOffset + i] * x + m[mOffset + 4 + i] * y + m[mOffset + 8 + i] * z;
+		}
+	}
+
+	public static void scaleM(float[] sm, int smOffset, float[] m, int mOffset, float x, float y, float z) {
+		for (int i = 0; i < 4; i++) {
+			sm[smOffset + i] = m[mOffset + i] * x;
+			sm[smOffset + 4 + i] = m[mOffset + 4 + i] * y;
+			sm[smOffset + 8 + i] = m[mOffset + 8 + i] * z;
+			sm[smOffset + 12 + i] = m[mOffset + 12 + i];
+		}
+	}
+
+	public static void scaleM(float[] m, int mOffset, float x, float y, float z) {
+		scaleM(m, mOffset, m, mOffset, x, y, z);
+	}
+
+	public static float length(float x, float y, float z) {
+		return (float) Math.sqrt(x * x + y * y + z * z);
+	}
+
+	public static void setRotateM(float[] rm, int rmOffset, float a, float x, float y, float z) {
+		float length = length(x, y, z);
+		if (length != 1) {
+			x /= length;
+			y /= length;
+			z /= length;
+		}
+		double radians = Math.toRadians(a);
+		float s = (float) Math.sin(radians);
+		float c = (float) Math.cos(radians);
+		float nc = 1 - c;
+		rm[rmOffset]      = x * x * nc + c;
+		rm[rmOffset + 1]  = x * y * nc + z * s;
+		rm[rmOffset + 2]  = z * x * nc - y * s;
+		rm[rmOffset + 3]  = 0;
+		rm[rmOffset + 4]  = x * y * nc - z * s;
+		rm[rmOffset + 5]  = y * y * nc + c;
+		rm[rmOffset + 6]  = y * z * nc + x * s;
+		rm[rmOffset + 7]  = 0;
+		rm[rmOffset + 8]  = z * x * nc + y * s;
+		rm[rmOffset + 9]  = y * z * nc - x * s;
+		rm[rmOffset + 10] = z * z * nc + c;
+		rm[rmOffset + 11] = 0;
+		rm[rmOffset + 12] = 0;
+		rm[rmOffset + 13] = 0;
+		rm[rmOffset + 14] = 0;
+		rm[rmOffset + 15] = 1;
+	}
+
+	public static void rotateM(float[] rm, int rmOffset, float[] m, int mOffset, float a, float x, float y, float z) {
+		float[] rotation = new float[16];
+		setRotateM(rotation, 0, a, x, y, z);
+		multiplyMM(rm, rmOffset, m, mOffset, rotation, 0);
+	}
+
+	public static void rotateM(float[] m, int mOffset, float a, float x, float y, float z) {
+		rotateM(m, mOffset, m, mOffset, a, x, y, z);
+	}
+
+	public static boolean invertM(float[] mInv, int mInvOffset, float[] m, int mOffset) {
+		float[] inverse = new float[16];
+		// The cofactors of the transposed matrix, i.e. the adjugate
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				float[] minor = new float[9];
+				int n = 0;
+				for (int col = 0; col < 4; col++) {
+					for (int row = 0; row < 4; row++) {
+						if (col != i && row != j) {
+							minor[n++] = m[mOffset + row + 4 * col];
+						}
+					}
+				}
+				float determinant = minor[0] * (minor[4] * minor[8] - minor[7] * minor[5]) -
+					minor[3] * (minor[1] * minor[8] - minor[7] * minor[2]) +
+					minor[6] * (minor[1] * minor[5] - minor[4] * minor[2]);
+				inverse[i + 4 * j] = (i + j) % 2 == 0 ? determinant : -determinant;
+			}
+		}
+		float determinant = 0;
+		for (int i = 0; i < 4; i++) {
+			determinant += m[mOffset + 4 * i] * inverse[i];
+		}
+		if (determinant == 0) {
+			return false;
+		}
+		for (int i = 0; i < 16; i++) {
+			mInv[mInvOffset + i] = inverse[i] / determinant;
+		}
+		return true;
+	}
+
+	public static void setLookAtM(float[] rm, int rmOffset, float eyeX, float eyeY, float eyeZ,
+			float centerX, float centerY, float centerZ, float upX, float upY, float upZ) {
+		float fx = centerX - eyeX;
+		float fy = centerY - eyeY;
+		float fz = centerZ - eyeZ;
+		float length = length(fx, fy, fz);
+		fx /= length;
+		fy /= length;
+		fz /= length;
+		// s = f x up
+		float sx = fy * upZ - fz * upY;
+		float sy = fz * upX - fx * upZ;
+		float sz = fx * upY - fy * upX;
+		length = length(sx, sy, sz);
+		sx /= length;
+		sy /= length;
+		sz /= length;
+		// u = s x f
+		float ux = sy * fz - sz * fy;
+		float uy = sz * fx - sx * fz;
+		float uz = sx * fy - sy * fx;
+		float[] values = { sx, ux, -fx, 0, sy, uy, -fy, 0, sz, uz, -fz, 0, 0, 0, 0, 1 };
+		System.arraycopy(values, 0, rm, rmOffset, 16);
+		translateM(rm, rmOffset, -eyeX, -eyeY, -eyeZ);
+	}
+}
@@ -0,0 +1,107 @@
+package de.phbouillon.android.framework;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * File access relative to a directory of the local file system.
+ */
+public class DirectoryFileIO extends TestFileIO {
+	private final File root;
+
+	public DirectoryFileIO(File root) {
+		this.root = root;
+	}
+
+	@Override
+	public InputStream readFile(String fileName) throws IOException {
+		return new FileInputStream(new File(root, fileName));
+	}
+
+	@Override
+	public OutputStream writeFile(String fileName) throws IOException {
+		return new FileOutputStream(new File(root, fileName));
+	}
+
+	@Override
+	public OutputStream appendFile(String fileName) throws IOException {
+		return new FileOutputStream(new File(root, fileName), true);
+	}
+
+	@Override
+	public long fileLastModifiedDate(String fileName) {
+		return new File(root, fileName).lastModified();
+	}
+
+	@Override
+	public boolean exists(String fileName) {
+		return new File(root, fileName).exists();
+	}
+
+	@Override
+	public boolean mkDir(String fileName) {
+		return new File(root, fileName).mkdirs();
+	}
+
+	@Override
+	public byte[] readFileContents(String fileName) throws IOException {
+		return Files.readAllBytes(new File(root, fileName).toPath());
+	}
+
+	@Override
+	public byte[] readPartialFileContents(String fileName, int length) throws IOException {
+		return readPartialFileContents(fileName, 0, length);
+	}
+
+	@Override
+	public byte[] readPartialFileContents(String fileName, int offset, int length) throws IOException {
+		byte[] content = new byte[length];
+		System.arraycopy(readFileContents(fileName), offset, content, 0, length);
+		return content;
+	}
+
+	@Override
+	public byte[] readFileContents(String fileName, int fromOffset) throws IOException {
+		byte[] content = readFileContents(fileName);
+		return readPartialFileContents(fileName, fromOffset, content.length - fromOffset);
+	}
+
+	@Override
+	public File[] getFiles(String directory, String fileNamePattern) {
+		File[] files = new File(root, directory).listFiles((dir, name) -> name.matches(fileNamePattern));
+		return files == null ? new File[0] : files;
+	}
+
+	@Override
+	public boolean deleteFile(String fileName) {
+		return new File(root, fileName).delete();
+	}
+
+	@Override
+	public boolean renameFile(String srcFileName, String dstFileName) {
+		return new File(root, srcFileName).renameTo(new File(root, dstFileName));
+	}
+}
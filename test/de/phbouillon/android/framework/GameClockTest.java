@@ -0,0 +1,69 @@
+package de.phbouillon.android.framework;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GameClockTest {
+	private final VirtualClock clock = new VirtualClock(1000);
+	private GameClock systemClock;
+
+	@Before
+	public void setUp() {
+		systemClock = GameClock.getInstance();
+		GameClock.setInstance(clock);
+	}
+
+	@After
+	public void tearDown() {
+		GameClock.setInstance(systemClock);
+	}
+
+	@Test
+	public void timerTest() {
+		Timer timer = new Timer().setAutoReset();
+		Assert.assertEquals(1000, timer.getTimer());
+		Assert.assertFalse(timer.hasPassedSeconds(2));
+		// Only the virtual time counts
+		clock.advance(2000000000L);
+		Assert.assertFalse(timer.hasPassedSeconds(2));
+		clock.advance(1000000L);
+		Assert.assertTrue(timer.hasPassedSeconds(2));
+		Assert.assertEquals(0, timer.getPassedNanos());
+		clock.advance(500000000L);
+		Assert.assertEquals(500, timer.getPassedMillis());
+	}
+
+	@Test
+	public void randomTest() {
+		GameRandom.setSeed(42);
+		double[] first = new double[100];
+		for (int i = 0; i < first.length; i++) {
+			first[i] = GameRandom.nextDouble();
+			Assert.assertTrue(first[i] >= 0 && first[i] < 1);
+		}
+		GameRandom.setSeed(42);
+		for (double value : first) {
+			Assert.assertEquals(value, GameRandom.nextDouble(), 0);
+		}
+	}
+}
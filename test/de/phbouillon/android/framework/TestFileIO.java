@@ -86,6 +86,11 @@ public class TestFileIO implements FileIO {
 		return false;
 	}
 
+	@Override
+	public boolean renameFile(String srcFileName, String dstFileName) {
+		return false;
+	}
+
 	@Override
 	public void copyFile(String srcFileName, String dstFileName) throws IOException {
 
@@ -0,0 +1,94 @@
+package de.phbouillon.android.framework.impl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class FramePacerTest {
+	private static final float STEP = 1.0f / 30;
+
+	@Test
+	public void simulationStepsTest() {
+		FramePacer framePacer = new FramePacer(33, STEP);
+		// A short frame is simulated in advance, the next frame makes up for it
+		Assert.assertEquals(1, framePacer.getSimulationSteps(STEP / 2));
+		Assert.assertEquals(1, framePacer.getSimulationSteps(STEP / 2 + 0.0001f));
+		Assert.assertEquals(2, framePacer.getSimulationSteps(STEP * 2));
+		// The time taken in advance is given back
+		Assert.assertEquals(0, framePacer.getSimulationSteps(0));
+	}
+
+	/**
+	 * Simulates the frames of the given length with the given jitter and checks that the simulated
+	 * time equals the real time and that the step count changes at most in the given share of frames.
+	 */
+	private static void assertSimulatedTime(float frameSeconds, float jitter, float maxChangedShare) {
+		FramePacer framePacer = new FramePacer(33, STEP);
+		Random random = new Random(1);
+		double realTime = 0;
+		long steps = 0;
+		int previousSteps = -1;
+		int changes = 0;
+		int frames = 10000;
+		for (int i = 0; i < frames; i++) {
+			float deltaTime = frameSeconds * (1 - jitter + 2 * jitter * random.nextFloat());
+			realTime += deltaTime;
+			int frameSteps = framePacer.getSimulationSteps(deltaTime);
+			Assert.assertTrue("Steps " + frameSteps, frameSteps >= 0 && frameSteps <= 3);
+			if (previousSteps >= 0 && frameSteps != previousSteps) {
+				changes++;
+			}
+			previousSteps = frameSteps;
+			steps += frameSteps;
+			Assert.assertEquals("Frame " + i, realTime, steps * STEP, STEP * 1.01);
+		}
+		Assert.assertTrue(changes + " changes of the step count for frames of " + frameSeconds + " s",
+			changes <= maxChangedShare * frames);
+	}
+
+	@Test
+	public void jitterTest() {
+		assertSimulatedTime(STEP, 0.2f, 0.05f);
+		assertSimulatedTime(STEP, 0, 0);
+		// Frames of 40 and 26.7 ms
+		assertSimulatedTime(0.04f, 0.1f, 0.5f);
+		assertSimulatedTime(0.0267f, 0.1f, 0.5f);
+		// One and a half steps per frame cannot be simulated in whole steps without alternating
+		assertSimulatedTime(STEP * 1.5f, 0, 1);
+		assertSimulatedTime(STEP * 2, 0.2f, 0.1f);
+	}
+
+	@Test
+	public void backlogIsDroppedTest() {
+		FramePacer framePacer = new FramePacer(33, STEP);
+		Assert.assertEquals(5, framePacer.getSimulationSteps(2));
+		Assert.assertEquals(1, framePacer.getSimulationSteps(STEP + 0.0001f));
+	}
+
+	@Test
+	public void waitForNextFrameTest() {
+		FramePacer framePacer = new FramePacer(20, STEP);
+		framePacer.waitForNextFrame();
+		float deltaTime = framePacer.waitForNextFrame();
+		Assert.assertTrue("Frame time " + deltaTime, deltaTime >= 0.02f);
+	}
+}
@@ -0,0 +1,253 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import android.opengl.GLES11;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class GlStateTest {
+	// Records the calls passed on to GL and keeps the state as GL would
+	private static class RecordingGl implements GlState.Backend {
+		final List<String> calls = new ArrayList<>();
+		final Set<Integer> enabled = new HashSet<>();
+		int boundTexture;
+
+		@Override
+		public void glEnable(int cap) {
+			calls.add("enable " + cap);
+			enabled.add(cap);
+		}
+
+		@Override
+		public void glDisable(int cap) {
+			calls.add("disable " + cap);
+			enabled.remove(cap);
+		}
+
+		@Override
+		public boolean glIsEnabled(int cap) {
+			calls.add("isEnabled " + cap);
+			return enabled.contains(cap);
+		}
+
+		@Override
+		public void glBlendFunc(int sfactor, int dfactor) {
+			calls.add("blendFunc " + sfactor + " " + dfactor);
+		}
+
+		@Override
+		public void glBindTexture(int target, int texture) {
+			calls.add("bindTexture " + texture);
+			boundTexture = texture;
+		}
+
+		@Override
+		public void glEnableClientState(int array) {
+			calls.add("enableClientState " + array);
+		}
+
+		@Override
+		public void glDisableClientState(int array) {
+			calls.add("disableClientState " + array);
+		}
+	}
+
+	private RecordingGl gl;
+
+	@Before
+	public void setUp() {
+		gl = new RecordingGl();
+		GlState.setBackend(gl);
+	}
+
+	@After
+	public void tearDown() {
+		GlState.setBackend(null);
+	}
+
+	@Test
+	public void redundantEnableTest() {
+		GlState.begin();
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.enable(GLES11.GL_CULL_FACE);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.setEnabled(GLES11.GL_CULL_FACE, false);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.enableClientState(GLES11.GL_VERTEX_ARRAY);
+		GlState.disableClientState(GLES11.GL_COLOR_ARRAY);
+		GlState.end();
+		Assert.assertEquals(Arrays.asList("enable " + GLES11.GL_CULL_FACE, "disable " + GLES11.GL_CULL_FACE,
+			"enableClientState " + GLES11.GL_VERTEX_ARRAY, "disableClientState " + GLES11.GL_COLOR_ARRAY), gl.calls);
+	}
+
+	@Test
+	public void notTrackingTest() {
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.enable(GLES11.GL_BLEND);
+		Assert.assertTrue(GlState.isEnabled(GLES11.GL_BLEND));
+		GlState.bindTexture(3);
+		GlState.bindTexture(3);
+		Assert.assertEquals(-1, GlState.getBoundTexture());
+		Assert.assertEquals(5, gl.calls.size());
+		// The state may have been changed directly in between, so it is not known when tracking starts
+		GlState.begin();
+		GlState.enable(GLES11.GL_BLEND);
+		GlState.bindTexture(3);
+		GlState.end();
+		Assert.assertEquals(7, gl.calls.size());
+	}
+
+	@Test
+	public void isEnabledTest() {
+		gl.enabled.add(GLES11.GL_CULL_FACE);
+		GlState.begin();
+		Assert.assertTrue(GlState.isEnabled(GLES11.GL_CULL_FACE));
+		Assert.assertTrue(GlState.isEnabled(GLES11.GL_CULL_FACE));
+		// Known from the enable, GL is not asked
+		GlState.disable(GLES11.GL_CULL_FACE);
+		Assert.assertFalse(GlState.isEnabled(GLES11.GL_CULL_FACE));
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.end();
+		Assert.assertEquals(Arrays.asList("isEnabled " + GLES11.GL_CULL_FACE, "disable " + GLES11.GL_CULL_FACE), gl.calls);
+	}
+
+	@Test
+	public void blendFuncAndTextureTest() {
+		GlState.begin();
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+		GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE_MINUS_SRC_ALPHA);
+		GlState.bindTexture(5);
+		GlState.bindTexture(5);
+		Assert.assertEquals(5, GlState.getBoundTexture());
+		// The id of a deleted texture can be reused by the next texture loaded
+		GlState.textureDeleted(5);
+		Assert.assertEquals(0, GlState.getBoundTexture());
+		GlState.bindTexture(5);
+		GlState.end();
+		Assert.assertEquals(Arrays.asList("blendFunc " + GLES11.GL_SRC_ALPHA + " " + GLES11.GL_ONE,
+			"blendFunc " + GLES11.GL_SRC_ALPHA + " " + GLES11.GL_ONE_MINUS_SRC_ALPHA, "bindTexture 5", "bindTexture 5"),
+			gl.calls);
+	}
+
+	@Test
+	public void frameReportTest() {
+		GlState.begin();
+		GlState.enable(GLES11.GL_DEPTH_TEST);
+		GlState.enable(GLES11.GL_DEPTH_TEST);
+		GlState.bindTexture(1);
+		GlState.bindTexture(1);
+		GlState.bindTexture(2);
+		GlState.end();
+		// Counted for the frame only after it is closed
+		Assert.assertEquals(0, GlState.getFrameCallCount(GlState.BIND_TEXTURE));
+		GlState.beginFrame();
+		Assert.assertEquals(1, GlState.getFrameCallCount(GlState.ENABLE));
+		Assert.assertEquals(1, GlState.getFrameSkippedCount(GlState.ENABLE));
+		Assert.assertEquals(2, GlState.getFrameCallCount(GlState.BIND_TEXTURE));
+		Assert.assertEquals(1, GlState.getFrameSkippedCount(GlState.BIND_TEXTURE));
+		Assert.assertEquals("GL: 3 calls, 2 skipped (enable 1/2, isEnabled 0/0, blendFunc 0/0, bindTexture 2/3, " +
+			"clientState 0/0)", GlState.getFrameReport());
+		GlState.beginFrame();
+		Assert.assertEquals(0, GlState.getFrameCallCount(GlState.BIND_TEXTURE));
+	}
+
+	// The calls of SpaceObject.render and its exhaust, before and after the tracker
+	private static void renderShip(int texture, boolean exhaust, boolean tracked) {
+		boolean restoreCullFace = !tracked && GlState.isEnabled(GLES11.GL_CULL_FACE);
+		if (tracked) {
+			GlState.enable(GLES11.GL_DEPTH_TEST);
+			GlState.enable(GLES11.GL_LIGHTING);
+		}
+		GlState.bindTexture(texture);
+		GlState.disable(GLES11.GL_CULL_FACE);
+		GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+		GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+		if (exhaust || !tracked) {
+			GlState.bindTexture(0);
+		}
+		if (exhaust) {
+			GlState.enable(GLES11.GL_BLEND);
+			GlState.blendFunc(GLES11.GL_SRC_ALPHA, GLES11.GL_ONE);
+			GlState.disableClientState(GLES11.GL_NORMAL_ARRAY);
+			GlState.disableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.disable(GLES11.GL_LIGHTING);
+			GlState.enable(GLES11.GL_LIGHTING);
+			GlState.enableClientState(GLES11.GL_NORMAL_ARRAY);
+			GlState.enableClientState(GLES11.GL_TEXTURE_COORD_ARRAY);
+			GlState.disable(GLES11.GL_BLEND);
+		}
+		if (restoreCullFace) {
+			GlState.enable(GLES11.GL_CULL_FACE);
+		}
+	}
+
+	public static void main(String[] args) {
+		int ships = 40;
+		int textures = 8;
+		int frames = 1000;
+		Random random = new Random(1);
+		int[] shipTextures = new int[ships];
+		boolean[] exhausts = new boolean[ships];
+		for (int i = 0; i < ships; i++) {
+			shipTextures[i] = 1 + random.nextInt(textures);
+			exhausts[i] = random.nextInt(4) == 0;
+		}
+		int[] sortedTextures = shipTextures.clone();
+		Arrays.sort(sortedTextures);
+		RecordingGl gl = new RecordingGl();
+		GlState.setBackend(gl);
+		for (int run = 0; run < 3; run++) {
+			boolean tracked = run > 0;
+			int[] order = run == 2 ? sortedTextures : shipTextures;
+			int calls = 0;
+			int skipped = 0;
+			GlState.beginFrame();
+			for (int f = 0; f < frames; f++) {
+				gl.calls.clear();
+				gl.enabled.add(GLES11.GL_CULL_FACE);
+				if (tracked) {
+					GlState.begin();
+				}
+				for (int i = 0; i < ships; i++) {
+					renderShip(order[i], exhausts[i], tracked);
+				}
+				GlState.end();
+				GlState.beginFrame();
+				for (int call = 0; call <= GlState.CLIENT_STATE; call++) {
+					calls += GlState.getFrameCallCount(call);
+					skipped += GlState.getFrameSkippedCount(call);
+				}
+			}
+			System.out.println((tracked ? run == 2 ? "Tracked, sorted by texture" : "Tracked" : "Untracked") + ": " +
+				calls / frames + " GL calls per frame, " + skipped / frames + " skipped; " + GlState.getFrameReport());
+		}
+		GlState.setBackend(null);
+	}
+}
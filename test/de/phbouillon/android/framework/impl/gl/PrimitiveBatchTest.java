@@ -0,0 +1,136 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.L;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
+import de.phbouillon.android.games.alite.model.generator.SystemData;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+public class PrimitiveBatchTest {
+	private static final int MAX_VERTICES = 16384;
+	private static SystemData[] systems;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+		GalaxyGenerator generator = new GalaxyGenerator();
+		generator.buildGalaxy(1);
+		systems = generator.getSystems();
+	}
+
+	@Test
+	public void immediateModeTest() {
+		PrimitiveBatch batch = new PrimitiveBatch(MAX_VERTICES);
+		batch.addFilledCircle(100, 100, 10, 32, 0xffff0000);
+		Assert.assertEquals(3 * 30, batch.getVertexCount());
+		batch.end();
+		Assert.assertEquals(0, batch.getVertexCount());
+		Assert.assertEquals(1, batch.getDrawCallCount());
+		batch.addLine(0, 0, 0, 0, 1, 0xffffffff);
+		batch.end();
+		Assert.assertEquals(1, batch.getDrawCallCount());
+	}
+
+	@Test
+	public void primitivesTest() {
+		PrimitiveBatch batch = new PrimitiveBatch(MAX_VERTICES);
+		batch.begin();
+		batch.addQuad(0, 0, 10, 10, 0xffffffff, 0xff000000, 0xff000000, 0xff000000);
+		Assert.assertEquals(6, batch.getVertexCount());
+		batch.addLine(0, 0, 10, 0, 2, 0xffffffff);
+		Assert.assertEquals(12, batch.getVertexCount());
+		batch.addCircleOutline(50, 50, 10, 64, 360, true, false, 1, 0xffffffff);
+		// The last point of the circle is the first one, so the closing line is empty
+		Assert.assertEquals(12 + 6 * 63, batch.getVertexCount());
+		batch.addCircleOutline(50, 50, 10, 64, 360, false, true, 1, 0xffffffff);
+		Assert.assertEquals(12 + 6 * 63 + 6 * 32, batch.getVertexCount());
+		batch.end();
+		Assert.assertEquals(0, batch.getDrawCallCount());
+		batch.flush();
+		Assert.assertEquals(1, batch.getDrawCallCount());
+		Assert.assertEquals(0, batch.getVertexCount());
+	}
+
+	@Test
+	public void fullBatchTest() {
+		PrimitiveBatch batch = new PrimitiveBatch(100);
+		batch.begin();
+		for (int i = 0; i < 20; i++) {
+			batch.addLine(0, i, 10, i, 1, 0xffffffff);
+		}
+		Assert.assertEquals(1, batch.getDrawCallCount());
+		Assert.assertEquals(20 * 6 - 96, batch.getVertexCount());
+	}
+
+	@Test
+	public void galaxyChartTest() {
+		// Each primitive is a draw call: the systems, every second of them underlined, the cross and the fuel circle
+		Assert.assertEquals(systems.length + systems.length / 2 + 8 + 1,
+			drawGalaxyChart(new PrimitiveBatch(MAX_VERTICES), false));
+		// 90 vertices of each system circle, 6 of each line and 6 * 63 of the fuel circle fill two batches
+		Assert.assertEquals(2, drawGalaxyChart(new PrimitiveBatch(MAX_VERTICES), true));
+	}
+
+	// The primitives of GalaxyScreen.present: a circle for each system, underlined if it has been
+	// visited, the cross at the current position and the fuel circle.
+	private static int drawGalaxyChart(PrimitiveBatch batch, boolean batching) {
+		if (batching) {
+			batch.begin();
+		}
+		for (SystemData system : systems) {
+			int x = system.getX() * 7;
+			int y = system.getY() * 7;
+			batch.addFilledCircle(x, y, 3, 32, 0xff00ff00);
+			batch.end();
+			if (system.getIndex() % 2 == 0) {
+				batch.addLine(x - 3, y + 5, x + 4, y + 6, 1, 0xff00ff00);
+				batch.end();
+			}
+		}
+		for (int i = 0; i < 4; i++) {
+			batch.addLine(100 + i, 80, 100 + i, 120, 1, 0xffff0000);
+			batch.end();
+			batch.addLine(80, 100 + i, 120, 100 + i, 1, 0xffff0000);
+			batch.end();
+		}
+		batch.addCircleOutline(100, 100, 49, 64, 360, true, false, 1, 0xffff0000);
+		batch.end();
+		batch.flush();
+		return batch.getDrawCallCount();
+	}
+
+	public static void main(String[] args) throws IOException {
+		beforeClass();
+		int immediate = drawGalaxyChart(new PrimitiveBatch(MAX_VERTICES), false);
+		int batched = drawGalaxyChart(new PrimitiveBatch(MAX_VERTICES), true);
+		System.out.println("Galaxy chart draw calls: " + immediate + " without batching, " + batched + " with batching");
+	}
+}
@@ -0,0 +1,155 @@
+package de.phbouillon.android.framework.impl.gl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.SpriteData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+
+public class SphereMeshTest {
+	private static final SpriteData SPRITE = new SpriteData("planet", 0.25f, 0.5f, 0.5f, 0.75f, 256, 256);
+
+	@Test
+	public void sameAsPlottedTest() {
+		assertPlotted(32, 32, false, true, null);
+		assertPlotted(16, 16, true, true, null);
+		assertPlotted(32, 32, false, true, SPRITE);
+		assertPlotted(20, 10, false, false, null);
+	}
+
+	@Test
+	public void sharedTest() {
+		SphereMesh mesh = SphereMesh.get(24, 24, false, true, true, null);
+		int count = SphereMesh.getMeshCount();
+		Assert.assertSame(mesh, SphereMesh.get(24, 24, false, true, true, null));
+		Assert.assertSame(mesh.vertexBuffer, mesh.normalBuffer);
+		Assert.assertNotSame(mesh, SphereMesh.get(24, 24, true, true, false, null));
+		Assert.assertNotSame(mesh, SphereMesh.get(24, 24, false, true, true, SPRITE));
+		Assert.assertEquals(count + 2, SphereMesh.getMeshCount());
+		Assert.assertNull(SphereMesh.get(24, 24, true, true, false, null).normalBuffer);
+		Assert.assertNull(SphereMesh.get(24, 24, false, false, true, null).texCoordBuffer);
+	}
+
+	private static void assertPlotted(int slices, int stacks, boolean inside, boolean hasTexture, SpriteData spriteData) {
+		float[][] expected = plotSpherePoints(slices, stacks, 1, inside, hasTexture, spriteData);
+		SphereMesh mesh = SphereMesh.get(slices, stacks, inside, hasTexture, !inside, spriteData);
+		Assert.assertArrayEquals(expected[0], toArray(mesh.vertexBuffer), 0);
+		if (hasTexture) {
+			Assert.assertArrayEquals(expected[1], toArray(mesh.texCoordBuffer), 0);
+		}
+	}
+
+	private static float[] toArray(FloatBuffer buffer) {
+		float[] values = new float[buffer.capacity()];
+		buffer.get(values);
+		buffer.position(0);
+		return values;
+	}
+
+	// The vertices and texture coordinates as each sphere computed them for itself.
+	private static float[][] plotSpherePoints(int slices, int stacks, float radius, boolean inside, boolean hasTexture,
+			SpriteData spriteData) {
+		int numberOfVertices = slices * stacks * 6;
+		FloatBuffer vertexBuffer = FloatBuffer.allocate(3 * numberOfVertices);
+		FloatBuffer texCoordBuffer = hasTexture ? FloatBuffer.allocate(2 * numberOfVertices) : null;
+		float theta, phi;
+		float phi_step = (float) (2.0f * Math.PI / (slices - 1));
+		float theta_step = (float) (Math.PI / (stacks - 1));
+
+		float u, v;
+		float u_step = 1.0f / (slices - 1);
+		float v_step = -1.0f / (stacks - 1);
+
+		for (phi = 0f, u = 0f; phi < 2.0 * Math.PI; phi += phi_step, u += u_step) {
+			for (theta = 0, v = 0; theta < Math.PI; theta += theta_step, v += v_step) {
+				float x1 = (float) (Math.sin(phi) * Math.sin(theta));
+				float y1 = (float) (-Math.cos(theta));
+				float z1 = (float) (Math.cos(phi) * Math.sin(theta));
+
+				float x2 = (float) (Math.sin(phi + phi_step) * Math.sin(theta));
+				float y2 = (float) (-Math.cos(theta));
+				float z2 = (float) (Math.cos(phi + phi_step) * Math.sin(theta));
+
+				float x3 = (float) (Math.sin(phi + phi_step) * Math.sin(theta + theta_step));
+				float y3 = (float) (-Math.cos(theta + theta_step));
+				float z3 = (float) (Math.cos(phi + phi_step) * Math.sin(theta + theta_step));
+
+				float x4 = (float) (Math.sin(phi) * Math.sin(theta + theta_step));
+				float y4 = (float) (-Math.cos(theta + theta_step));
+				float z4 = (float) (Math.cos(phi) * Math.sin(theta + theta_step));
+
+				vertexBuffer.put(radius * x1).put(radius * y1).put(radius * z1);
+				vertexBuffer.put(radius * x2).put(radius * y2).put(radius * z2);
+				vertexBuffer.put(radius * x3).put(radius * y3).put(radius * z3);
+				vertexBuffer.put(radius * x1).put(radius * y1).put(radius * z1);
+				vertexBuffer.put(radius * x3).put(radius * y3).put(radius * z3);
+				vertexBuffer.put(radius * x4).put(radius * y4).put(radius * z4);
+
+				if (texCoordBuffer == null) {
+					continue;
+				}
+				if (spriteData == null) {
+					texCoordBuffer.put(inside ? -u : u).put(v);
+					texCoordBuffer.put(inside ? -(u + u_step) : u + u_step).put(v);
+					texCoordBuffer.put(inside ? -(u + u_step) : u + u_step).put(v + v_step);
+					texCoordBuffer.put(inside ? -u : u).put(v);
+					texCoordBuffer.put(inside ? -(u + u_step) : u + u_step).put(v + v_step);
+					texCoordBuffer.put(inside ? -u : u).put(v + v_step);
+				} else {
+					float dx = spriteData.x2 - spriteData.x;
+					float dy = spriteData.y2 - spriteData.y;
+					texCoordBuffer.put(spriteData.x + u * dx).put(spriteData.y + v * dy);
+					texCoordBuffer.put(spriteData.x + (u + u_step) * dx).put(spriteData.y + v * dy);
+					texCoordBuffer.put(spriteData.x + (u + u_step) * dx).put(spriteData.y + (v + v_step) * dy);
+					texCoordBuffer.put(spriteData.x + u * dx).put(spriteData.y + v * dy);
+					texCoordBuffer.put(spriteData.x + (u + u_step) * dx).put(spriteData.y + (v + v_step) * dy);
+					texCoordBuffer.put(spriteData.x + u * dx).put(spriteData.y + (v + v_step) * dy);
+				}
+			}
+		}
+		return new float[][] { vertexBuffer.array(), texCoordBuffer == null ? null : texCoordBuffer.array() };
+	}
+
+	public static void main(String[] args) {
+		// The spheres of a system: planet, clouds, atmosphere, sun, glow and the sky
+		int systems = 200;
+		for (int run = 0; run < 2; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < systems; i++) {
+				for (int s = 0; s < 5; s++) {
+					plotSpherePoints(32, 32, 1000, false, true, null);
+				}
+				plotSpherePoints(16, 16, 8000, true, true, null);
+			}
+			long plotted = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < systems; i++) {
+				for (int s = 0; s < 5; s++) {
+					SphereMesh.get(32, 32, false, true, true, null);
+				}
+				SphereMesh.get(16, 16, true, true, false, null);
+			}
+			long cached = System.nanoTime() - start;
+			System.out.println("Spheres of a system: plotted " + plotted / systems / 1000 + " us, cached " +
+				cached / systems / 1000 + " us");
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package de.phbouillon.android.games.alite;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.DirectoryFileIO;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class LogWriterTest {
+	private static final String LOG_FILE_NAME = "logs/test.txt";
+
+	@Test
+	public void concurrentWriteTest() throws IOException, InterruptedException {
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("logs").toFile());
+		LogWriter writer = new LogWriter(fileIO, LOG_FILE_NAME, AliteLog.MB * 16, "Header\n");
+		int threadCount = 4;
+		int messageCount = 10000;
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < messageCount; i++) {
+					writer.write("[Debug]", "Thread " + thread, "Message " + i, null);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		writer.write("[Error]", "Test", "Failure", new IllegalStateException("Cause"));
+		writer.flush();
+
+		List<String> lines = readLines(fileIO, LOG_FILE_NAME);
+		Assert.assertEquals("Header", lines.get(0));
+		int[] next = new int[threadCount];
+		for (String line : lines) {
+			int title = line.indexOf(" - Thread ");
+			if (title < 0) {
+				continue;
+			}
+			String[] parts = line.substring(title + 10).split(" - Message ");
+			int thread = Integer.parseInt(parts[0]);
+			Assert.assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+		}
+		for (int t = 0; t < threadCount; t++) {
+			Assert.assertEquals(messageCount, next[t]);
+		}
+		String content = String.join("\n", lines);
+		Assert.assertTrue(content.contains("[Error] - Test - Failure - Cause\njava.lang.IllegalStateException: Cause"));
+	}
+
+	@Test
+	public void rotationTest() throws IOException {
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("logs").toFile());
+		LogWriter writer = new LogWriter(fileIO, LOG_FILE_NAME, 2 * AliteLog.KB, "Header\n");
+		for (int i = 0; i < 1000; i++) {
+			writer.write("[Debug]", "Rotation", "Message " + i, null);
+			if (i % 20 == 19) {
+				writer.flush();
+			}
+		}
+		writer.flush();
+		Assert.assertEquals("logs/test-7.txt", writer.getPartFilename(6));
+		File[] files = fileIO.getFiles("logs", ".*");
+		Assert.assertEquals(5, files.length);
+		for (File file : files) {
+			Assert.assertTrue(file.length() <= 2 * AliteLog.KB);
+		}
+		int last = 1000;
+		while (!fileIO.exists(writer.getPartFilename(last))) {
+			last--;
+		}
+		Assert.assertTrue(fileIO.exists(writer.getPartFilename(last - 4)));
+		List<String> lines = readLines(fileIO, writer.getPartFilename(last));
+		Assert.assertTrue(lines.get(0).startsWith("Part "));
+		Assert.assertTrue(lines.get(lines.size() - 1).endsWith("Message 999"));
+		Assert.assertFalse(fileIO.exists(LOG_FILE_NAME));
+	}
+
+	private static List<String> readLines(DirectoryFileIO fileIO, String fileName) throws IOException {
+		List<String> lines = new ArrayList<>();
+		for (String line : new String(fileIO.readFileContents(fileName), StandardCharsets.UTF_8).split("\n")) {
+			lines.add(line);
+		}
+		return lines;
+	}
+
+	// Appends every message by opening and closing the log file, as AliteLog did before the log writer.
+	private static void writeDirectly(DirectoryFileIO fileIO, long started, String tag, String title, String message) throws IOException {
+		fileIO.mkDir("logs");
+		try (OutputStream logFile = fileIO.appendFile(LOG_FILE_NAME)) {
+			long current = System.currentTimeMillis();
+			logFile.write(("[" + SimpleDateFormat.getTimeInstance().format(new Date(current)) + ", " +
+				(current - started) + "ms] - " + tag + " - " + title + " - " + message + "\n").getBytes());
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int count = 20000;
+		for (int run = 0; run < 2; run++) {
+			DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("logs").toFile());
+			long started = System.currentTimeMillis();
+			long start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				writeDirectly(fileIO, started, "[Debug]", "readObject", "SpaceObject.readObject " + i);
+			}
+			long direct = System.nanoTime() - start;
+
+			fileIO = new DirectoryFileIO(Files.createTempDirectory("logs").toFile());
+			LogWriter writer = new LogWriter(fileIO, LOG_FILE_NAME, 4 * AliteLog.MB, "Header\n");
+			start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				writer.write("[Debug]", "readObject", "SpaceObject.readObject " + i, null);
+			}
+			long buffered = System.nanoTime() - start;
+			writer.flush();
+			long flushed = System.nanoTime() - start;
+			System.out.println("Per call: open, write and close " + direct / count + " ns, log writer " +
+				buffered / count + " ns (" + flushed / count + " ns including the writer thread)");
+		}
+	}
+}
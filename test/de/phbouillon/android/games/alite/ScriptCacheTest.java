@@ -0,0 +1,113 @@
+package de.phbouillon.android.games.alite;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
+import de.phbouillon.android.games.alite.model.generator.SystemData;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+public class ScriptCacheTest {
+	private ScriptEngine engine;
+
+	@Before
+	public void setUp() throws ScriptException {
+		engine = new ScriptEngineManager().getEngineByName("rhino");
+		engine.eval("var calls = 0; function suffix(word, back, front) { calls++; " +
+			"return word + (word.length > 4 ? back : front); }");
+	}
+
+	@Test
+	public void memoizedResultTest() throws ScriptException {
+		ScriptCache cache = new ScriptCache(engine, ScriptCache.DEFAULT_CAPACITY);
+		Assert.assertEquals("Laveben", cache.eval("suffix('Lave', 'ban', 'ben')"));
+		Assert.assertEquals("Diso", cache.eval("'Diso'"));
+		Assert.assertEquals("Laveben", cache.eval("suffix('Lave', 'ban', 'ben')"));
+		Assert.assertEquals("Leeshban", cache.eval("suffix('Leesh', 'ban', 'ben')"));
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(3, cache.getMissCount());
+		Assert.assertEquals(2, ((Number) engine.eval("calls")).intValue());
+		Assert.assertNull(cache.eval("null"));
+	}
+
+	@Test
+	public void leastRecentlyUsedEvictionTest() throws ScriptException {
+		ScriptCache cache = new ScriptCache(engine, 2);
+		cache.eval("suffix('Lave', 'ban', 'ben')");
+		cache.eval("suffix('Diso', 'ban', 'ben')");
+		cache.eval("suffix('Lave', 'ban', 'ben')");
+		cache.eval("suffix('Leesh', 'ban', 'ben')");
+		// Diso has been evicted, Lave has been used recently
+		cache.eval("suffix('Lave', 'ban', 'ben')");
+		cache.eval("suffix('Diso', 'ban', 'ben')");
+		Assert.assertEquals(2, cache.getHitCount());
+		Assert.assertEquals(4, cache.getMissCount());
+	}
+
+	@Test
+	public void executeScriptTest() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+		ScriptCache cache = ((L) L.getInstance()).getScriptCache();
+		int missCount = cache.getMissCount();
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals("Galaxy 8 of 8", L.getInstance().executeScript("Galaxy <js>'' + 4 * 2</js> of <js>'8'</js>"));
+		}
+		Assert.assertEquals(missCount + 2, cache.getMissCount());
+		Assert.assertEquals("no script", L.getInstance().executeScript("no script"));
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage:\n  ScriptCacheTest <path of desired non-US locale> <locale name (in form of lang_ctry)>");
+			return;
+		}
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().addLocalizedResource(new File(args[0]).getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(L.getLocaleOf(args[1]));
+		Settings.maxGalaxies = GalaxyGenerator.EXTENDED_GALAXY_COUNT;
+
+		ScriptCache cache = ((L) L.getInstance()).getScriptCache();
+		GalaxyGenerator generator = new GalaxyGenerator();
+		for (int run = 1; run <= 2; run++) {
+			long time = System.currentTimeMillis();
+			for (int g = 1; g <= Settings.maxGalaxies; g++) {
+				generator.buildGalaxy(g);
+				// Descriptions and inhabitants are generated on first access
+				for (SystemData system : generator.getSystems()) {
+					system.getDescription();
+					system.getInhabitants();
+				}
+			}
+			System.out.println("Build #" + run + " of all galaxies with descriptions: " + (System.currentTimeMillis() - time) +
+				" ms, script cache hits: " + cache.getHitCount() + ", misses: " + cache.getMissCount());
+		}
+	}
+}
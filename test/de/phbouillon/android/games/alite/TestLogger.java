@@ -39,6 +39,15 @@ public class TestLogger implements Loggable {
 		System.out.println("[ERROR " + title + "] " + message + "\n" + cause.getMessage());
 	}
 
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public void flushLog() {
+	}
+
 	@Override
 	public String getGlVendorData(int name) {
 		return null;
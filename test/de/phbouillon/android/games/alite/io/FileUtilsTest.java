@@ -0,0 +1,184 @@
+package de.phbouillon.android.games.alite.io;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.DirectoryFileIO;
+import de.phbouillon.android.framework.FileIO;
+import de.phbouillon.android.framework.Input;
+import de.phbouillon.android.framework.Texture;
+import de.phbouillon.android.framework.TestInput;
+import de.phbouillon.android.games.alite.Alite;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.L;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.CommanderData;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Locale;
+
+public class FileUtilsTest {
+	private static final Input input = new TestInput();
+	private static final Texture texture = new TestTexture();
+	private static DirectoryFileIO fileIO;
+	private static Alite alite;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+		fileIO = new DirectoryFileIO(Files.createTempDirectory("commanders").toFile());
+		alite = new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+
+			@Override
+			public FileIO getFileIO() {
+				return fileIO;
+			}
+
+			@Override
+			public Input getInput() {
+				return input;
+			}
+		};
+		alite.initialize();
+	}
+
+	@Before
+	public void setUp() {
+		for (File file : fileIO.getFiles(CommanderData.DIRECTORY_COMMANDER, ".*")) {
+			Assert.assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void changesTest() throws JSONException {
+		JSONObject previous = new JSONObject("{\"gameTime\":1,\"currentGalaxy\":1,\"player\":" +
+			"{\"cash\":100,\"positionX\":5,\"market\":{\"food\":1,\"gold\":2}}}");
+		JSONObject current = new JSONObject("{\"gameTime\":2,\"currentGalaxy\":1,\"player\":" +
+			"{\"cash\":100,\"market\":{\"food\":1,\"gold\":3}}}");
+		JSONObject changes = CommanderJournal.diff(previous, current);
+		Assert.assertEquals(2, changes.length());
+		Assert.assertEquals(2, changes.getInt("gameTime"));
+		JSONObject player = changes.getJSONObject("player");
+		Assert.assertEquals(2, player.length());
+		Assert.assertEquals(JSONObject.NULL, player.get("positionX"));
+		Assert.assertEquals(3, player.getJSONObject("market").getInt("gold"));
+
+		CommanderJournal.apply(previous, new JSONObject(changes.toString()));
+		Assert.assertEquals(0, CommanderJournal.diff(previous, current).length());
+		Assert.assertFalse(previous.getJSONObject("player").has("positionX"));
+	}
+
+	@Test
+	public void journalTest() throws IOException {
+		alite.getPlayer().setCash(1000);
+		alite.autoSave();
+		for (int i = 1; i <= 5; i++) {
+			alite.getPlayer().setCash(1000 + i);
+			alite.autoSave();
+		}
+		File[] files = alite.getCommanderFiles();
+		Assert.assertEquals(1, files.length);
+		String fileName = CommanderData.DIRECTORY_COMMANDER + files[0].getName();
+		Assert.assertTrue(fileIO.exists(CommanderJournal.getJournalFileName(fileName)));
+		Assert.assertEquals(alite.getPlayer().getScore(), alite.getQuickCommanderInfo(files[0].getName()).getPoints());
+
+		alite.getPlayer().setCash(0);
+		alite.autoLoad();
+		Assert.assertEquals(1005, alite.getPlayer().getCash());
+
+		// A manual save to the same file replaces the snapshot and its journal
+		alite.saveCommander(null, fileName);
+		Assert.assertFalse(fileIO.exists(CommanderJournal.getJournalFileName(fileName)));
+		alite.loadCommander(fileName);
+		Assert.assertEquals(1005, alite.getPlayer().getCash());
+	}
+
+	@Test
+	public void incompleteJournalRecordTest() throws IOException {
+		alite.getPlayer().setCash(2000);
+		alite.autoSave();
+		alite.getPlayer().setCash(2001);
+		alite.autoSave();
+		String fileName = CommanderData.DIRECTORY_COMMANDER + alite.getCommanderFiles()[0].getName();
+		try (OutputStream out = fileIO.appendFile(CommanderJournal.getJournalFileName(fileName))) {
+			out.write(new byte[] {0, 10, 1, 2, 3});
+		}
+		alite.loadCommander(fileName);
+		Assert.assertEquals(2001, alite.getPlayer().getCash());
+	}
+
+	@Test
+	public void staleJournalTest() throws IOException {
+		alite.getPlayer().setCash(3000);
+		alite.autoSave();
+		alite.getPlayer().setCash(3001);
+		alite.autoSave();
+		String name = alite.getCommanderFiles()[0].getName();
+		String fileName = CommanderData.DIRECTORY_COMMANDER + name;
+		String journalFileName = CommanderJournal.getJournalFileName(fileName);
+		byte[] journal = fileIO.readFileContents(journalFileName);
+		alite.getPlayer().setCash(3002);
+		alite.saveCommander(null, fileName);
+		// As if saving had stopped after the new snapshot was renamed, before the journal was deleted
+		try (OutputStream out = fileIO.writeFile(journalFileName)) {
+			out.write(journal);
+		}
+		alite.getPlayer().setCash(0);
+		alite.loadCommander(fileName);
+		Assert.assertEquals(3002, alite.getPlayer().getCash());
+		Assert.assertEquals(alite.getPlayer().getScore(), alite.getQuickCommanderInfo(name).getPoints());
+	}
+
+	public static void main(String[] args) throws IOException {
+		beforeClass();
+		int runs = 100;
+		String fileName = CommanderData.DIRECTORY_COMMANDER + "benchmark.cmdr";
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			alite.getPlayer().setCash(i);
+			alite.saveCommander(null, fileName);
+		}
+		long fullSave = System.nanoTime() - start;
+		alite.autoSave();
+		alite.getCommanderFiles();
+		start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			alite.getPlayer().setCash(i);
+			alite.autoSave();
+		}
+		long autoSave = System.nanoTime() - start;
+		alite.getCommanderFiles();
+		long total = System.nanoTime() - start;
+		System.out.println("Calling thread: full save " + fullSave / runs / 1000 + " us, auto save " +
+			autoSave / runs / 1000 + " us (" + total / runs / 1000 + " us including the save thread)");
+	}
+}
@@ -0,0 +1,219 @@
+package de.phbouillon.android.games.alite.model;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject.Property;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RepositoryTest {
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+	}
+
+	private static Repository<Property> createTemplate() {
+		Repository<Property> template = new Repository<>();
+		template.setProperty(Property.name, "Cobra Mark III");
+		template.setProperty(Property.roles, "trader pirate");
+		template.setProperty(Property.max_energy, 150L);
+		template.setProperty(Property.max_flight_speed, 350L);
+		template.setProperty(Property.max_flight_roll, 2.5);
+		template.setProperty(Property.has_ecm, true);
+		template.setProperty(Property.missiles, 3L);
+		template.setProperty(Property.escort_roles, Arrays.asList("escort", "wingman"));
+		template.setLocalizedProperty(Property.display_name, "Cobra");
+		return template;
+	}
+
+	@Test
+	public void numericPropertyTest() {
+		Repository<Property> repo = createTemplate();
+		Assert.assertEquals(150, repo.getNumericProperty(Property.max_energy), 0);
+		Assert.assertEquals(2.5, repo.getNumericProperty(Property.max_flight_roll), 0);
+		Assert.assertEquals(1, repo.getNumericProperty(Property.has_ecm), 0);
+		Assert.assertEquals(0, repo.getNumericProperty(Property.bounty), 0);
+		// Not a number
+		Assert.assertEquals(0, repo.getNumericProperty(Property.roles), 0);
+		Assert.assertEquals(150L, repo.getProperty(Property.max_energy));
+		repo.setProperty(Property.max_energy, null);
+		Assert.assertNull(repo.getProperty(Property.max_energy));
+		Assert.assertEquals(0, repo.getNumericProperty(Property.max_energy), 0);
+		// Locale dependent values are taken first
+		Assert.assertEquals("Cobra", repo.getStringProperty(Property.display_name));
+		repo.setProperty(Property.display_name, "Cobra Mk III");
+		Assert.assertEquals("Cobra", repo.getStringProperty(Property.display_name));
+		repo.clearLocaleDependent();
+		Assert.assertEquals("Cobra Mk III", repo.getStringProperty(Property.display_name));
+	}
+
+	private static Repository<Property> copy(Repository<Property> template) {
+		// As cloneObject does
+		Repository<Property> clone = new Repository<>();
+		template.copyLocaleDependentTo(clone);
+		template.copyTo(clone);
+		return clone;
+	}
+
+	@Test
+	public void copyTest() {
+		Repository<Property> template = createTemplate();
+		Repository<Property> clone = copy(template);
+		Assert.assertEquals("Cobra Mark III", clone.getStringProperty(Property.name));
+		Assert.assertEquals(3, clone.getNumericProperty(Property.missiles), 0);
+		Assert.assertEquals("Cobra", clone.getStringProperty(Property.display_name));
+		// Changes are not seen by the other repository sharing the values
+		clone.setProperty(Property.missiles, 2L);
+		clone.setProperty(Property.roles, null);
+		Assert.assertEquals(2, clone.getNumericProperty(Property.missiles), 0);
+		Assert.assertEquals(3, template.getNumericProperty(Property.missiles), 0);
+		Assert.assertNull(clone.getProperty(Property.roles));
+		Assert.assertEquals("trader pirate", template.getStringProperty(Property.roles));
+		Repository<Property> other = copy(template);
+		template.setProperty(Property.bounty, 10L);
+		Assert.assertEquals(0, other.getNumericProperty(Property.bounty), 0);
+		Assert.assertEquals(10, template.getNumericProperty(Property.bounty), 0);
+
+		template.clearLocaleDependent();
+		template.setLocalizedProperty(Property.display_name, "Kobra");
+		Assert.assertEquals("Cobra", clone.getStringProperty(Property.display_name));
+		template.copyLocaleDependentTo(clone);
+		Assert.assertEquals("Kobra", clone.getStringProperty(Property.display_name));
+
+		// Only the undefined properties are copied
+		Repository<Property> likeShip = new Repository<>();
+		likeShip.setProperty(Property.name, "Cobra Mark IV");
+		template.copyToIfUndefined(likeShip);
+		Assert.assertEquals("Cobra Mark IV", likeShip.getStringProperty(Property.name));
+		Assert.assertEquals(350, likeShip.getNumericProperty(Property.max_flight_speed), 0);
+		Assert.assertNull(likeShip.getProperty(Property.display_name));
+		Assert.assertEquals("Cobra Mark III", template.getStringProperty(Property.name));
+	}
+
+	@Test
+	public void serializationTest() throws IOException, ClassNotFoundException {
+		Repository<Property> template = createTemplate();
+		Repository<Property> clone = copy(template);
+		clone.setProperty(Property.missiles, 1L);
+		clone.setProperty(Property.bounty, 20L);
+
+		Repository<Property> full = serializeAndRead(clone);
+		Assert.assertEquals("Cobra Mark III", full.getStringProperty(Property.name));
+		Assert.assertEquals("Cobra", full.getStringProperty(Property.display_name));
+		Assert.assertEquals(1, full.getNumericProperty(Property.missiles), 0);
+
+		clone.setTemplate(template);
+		Repository<Property> differences = serializeAndRead(clone);
+		Assert.assertNull(differences.getProperty(Property.name));
+		Assert.assertNull(differences.getProperty(Property.display_name));
+		Assert.assertEquals(20, differences.getNumericProperty(Property.bounty), 0);
+		differences.copyUndefinedFrom(template);
+		for (Property p : Property.values()) {
+			Assert.assertEquals(p.name(), clone.getProperty(p), differences.getProperty(p));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Repository<Property> serializeAndRead(Repository<Property> repo) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(repo);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (Repository<Property>) ois.readObject();
+		}
+	}
+
+	private static float getNumericProperty(Map<Property,Object> properties, Property name) {
+		// The reading of the former hash map based repository
+		Object value = properties.get(name);
+		if (value == null) {
+			return 0f;
+		}
+		if (value instanceof Long) {
+			return ((Long) value).floatValue();
+		}
+		if (value instanceof Double) {
+			return ((Double) value).floatValue();
+		}
+		return (boolean) value ? 1f : 0f;
+	}
+
+	public static void main(String[] args) {
+		beforeClass();
+		Repository<Property> template = createTemplate();
+		Map<Property,Object> templateMap = new HashMap<>();
+		for (Property p : Property.values()) {
+			if (template.getProperty(p) != null) {
+				templateMap.put(p, template.getProperty(p));
+			}
+		}
+		Property[] reads = { Property.max_flight_speed, Property.max_flight_roll, Property.max_energy,
+			Property.has_ecm, Property.bounty };
+		int readCount = 10000000;
+		int cloneCount = 1000000;
+		for (int run = 0; run < 3; run++) {
+			Repository<Property> ship = copy(template);
+			ship.setProperty(Property.missiles, 1L);
+			Map<Property,Object> shipMap = new HashMap<>(templateMap);
+			float sum = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < readCount; i++) {
+				sum += getNumericProperty(shipMap, reads[i % reads.length]);
+			}
+			long mapReads = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < readCount; i++) {
+				sum += ship.getNumericProperty(reads[i % reads.length]);
+			}
+			long arrayReads = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < cloneCount; i++) {
+				// What cloneObject did for each spawned ship
+				Map<Property,Object> clone = new HashMap<>();
+				clone.putAll(templateMap);
+				Map<Property,Object> localeDependent = new HashMap<>();
+				localeDependent.put(Property.display_name, "Cobra");
+				sum += clone.size() + localeDependent.size();
+			}
+			long mapClones = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < cloneCount; i++) {
+				sum += copy(template).getNumericProperty(Property.max_energy);
+			}
+			long sharingClones = System.nanoTime() - start;
+			System.out.println("Numeric property read: hash map " + mapReads * 1000 / readCount + " ps, array " +
+				arrayReads * 1000 / readCount + " ps; repository of a clone: copied " + mapClones / cloneCount +
+				" ns, shared " + sharingClones / cloneCount + " ns (" + sum + ")");
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package de.phbouillon.android.games.alite.model;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.L;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
+import de.phbouillon.android.games.alite.model.generator.SystemData;
+import de.phbouillon.android.games.alite.model.generator.enums.Government;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class VisitedPlanetsTest {
+	private static final int[] ORPHANS = { (8 << 10) + 162, (10 << 10) + 34, (17 << 10) + 26 };
+	private static final int RAXXLA_ID = (SystemData.RAXXLA_GALAXY << 10) + SystemData.RAXXLA_SYSTEM_INDEX;
+
+	// The visited planets as they were stored in a map: visit count, government, inhabitants and node flag
+	private final Map<Integer, int[]> planets = new HashMap<>();
+	private final Map<Integer, Long> times = new HashMap<>();
+	private final VisitedPlanets visitedPlanets = new VisitedPlanets();
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+	}
+
+	private void visit(int id, Random random) {
+		int[] planet = planets.get(id);
+		long time = 1500000000000L + random.nextInt(1000000);
+		times.put(id, time);
+		if (planet != null) {
+			planet[0]++;
+			visitedPlanets.revisit(id, time);
+			return;
+		}
+		// The same planet has always the same attributes
+		Random attributes = new Random(id);
+		planet = new int[] { 1, attributes.nextInt(Government.values().length),
+			attributes.nextBoolean() ? 0 : 10000 + attributes.nextInt(897), attributes.nextInt(20) == 0 ? 1 : 0 };
+		planets.put(id, planet);
+		visitedPlanets.add(id, 1, time, planet[1], planet[2], planet[3] == 1);
+	}
+
+	@Test
+	public void statisticsTest() {
+		Random random = new Random(1);
+		for (int i = 0; i < 20000; i++) {
+			visit((1 + random.nextInt(16) << 10) + random.nextInt(GalaxyGenerator.PLANET_COUNT), random);
+			if (i % 1000 == 0) {
+				assertStatistics(visitedPlanets);
+			}
+		}
+		for (int id : ORPHANS) {
+			visit(id, random);
+		}
+		visit(RAXXLA_ID, random);
+		assertStatistics(visitedPlanets);
+		Assert.assertTrue(visitedPlanets.getOrphanPlanetCount() >= ORPHANS.length);
+		Assert.assertFalse(visitedPlanets.isVisited(40 << 10));
+		Assert.assertEquals(0, visitedPlanets.getVisitCount(40 << 10));
+	}
+
+	@Test
+	public void fullyVisitedGalaxyTest() {
+		Random random = new Random(2);
+		for (int i = 0; i < GalaxyGenerator.PLANET_COUNT - 1; i++) {
+			visit((3 << 10) + i, random);
+			visit((3 << 10) + i, random);
+		}
+		Assert.assertEquals(0, visitedPlanets.getFullyVisitedGalaxyCount());
+		visit((3 << 10) + GalaxyGenerator.PLANET_COUNT - 1, random);
+		Assert.assertEquals(1, visitedPlanets.getFullyVisitedGalaxyCount());
+		Assert.assertEquals(1, visitedPlanets.getVisitedGalaxyCount());
+		Assert.assertEquals(2 * GalaxyGenerator.PLANET_COUNT - 1, visitedPlanets.getTotalVisitCount());
+		assertStatistics(visitedPlanets);
+		visitedPlanets.clear();
+		planets.clear();
+		assertStatistics(visitedPlanets);
+	}
+
+	@Test
+	public void encodeTest() throws IOException {
+		Random random = new Random(3);
+		for (int i = 0; i < 5000; i++) {
+			visit((1 + random.nextInt(GalaxyGenerator.EXTENDED_GALAXY_COUNT) << 10) + random.nextInt(GalaxyGenerator.PLANET_COUNT), random);
+		}
+		visit(RAXXLA_ID, random);
+		VisitedPlanets decoded = new VisitedPlanets();
+		decoded.decode(visitedPlanets.encode());
+		assertStatistics(decoded);
+		decoded.decode(new VisitedPlanets().encode());
+		Assert.assertEquals(0, decoded.getPlanetCount());
+	}
+
+	private void assertStatistics(VisitedPlanets visitedPlanets) {
+		int totalVisitCount = 0;
+		int highestVisitCount = 0;
+		int nodeCount = 0;
+		int anarchyCount = 0;
+		int orphanCount = 0;
+		Map<Integer, Integer> galaxies = new HashMap<>();
+		Set<Integer> species = new HashSet<>();
+		for (Map.Entry<Integer, int[]> p : planets.entrySet()) {
+			int id = p.getKey();
+			int[] planet = p.getValue();
+			Assert.assertTrue(visitedPlanets.isVisited(id));
+			Assert.assertEquals(planet[0], visitedPlanets.getVisitCount(id));
+			Assert.assertEquals((long) times.get(id), visitedPlanets.getLastVisitedTime(id));
+			totalVisitCount += planet[0];
+			highestVisitCount = Math.max(highestVisitCount, planet[0]);
+			nodeCount += planet[3];
+			anarchyCount += planet[1] == Government.ANARCHY.ordinal() ? 1 : 0;
+			orphanCount += GalaxyGenerator.isOrphan(id) ? 1 : 0;
+			Integer count = galaxies.get(SystemData.getGalaxyOf(id));
+			galaxies.put(SystemData.getGalaxyOf(id), count == null ? 1 : count + 1);
+			species.add(planet[2]);
+		}
+		int fullyVisitedGalaxyCount = 0;
+		for (int count : galaxies.values()) {
+			if (count >= GalaxyGenerator.PLANET_COUNT) {
+				fullyVisitedGalaxyCount++;
+			}
+		}
+		Assert.assertEquals(planets.size(), visitedPlanets.getPlanetCount());
+		Assert.assertEquals(totalVisitCount, visitedPlanets.getTotalVisitCount());
+		Assert.assertEquals(highestVisitCount, visitedPlanets.getHighestVisitCount());
+		Assert.assertEquals(fullyVisitedGalaxyCount, visitedPlanets.getFullyVisitedGalaxyCount());
+		Assert.assertEquals(galaxies.size(), visitedPlanets.getVisitedGalaxyCount());
+		Assert.assertEquals(orphanCount, visitedPlanets.getOrphanPlanetCount());
+		Assert.assertEquals(nodeCount, visitedPlanets.getNodePlanetCount());
+		Assert.assertEquals(anarchyCount, visitedPlanets.getAnarchyPlanetCount());
+		Assert.assertEquals(species.size(), visitedPlanets.getSpeciesCount());
+	}
+
+	/**
+	 * The statistics of the medals as they were computed from the map of visited planets.
+	 */
+	private int computeStatistics() {
+		int sum = 0;
+		int max = 0;
+		int nodes = 0;
+		int anarchies = 0;
+		int orphans = 0;
+		for (Map.Entry<Integer, int[]> p : planets.entrySet()) {
+			int[] planet = p.getValue();
+			sum += planet[0];
+			max = Math.max(max, planet[0]);
+			nodes += planet[3];
+			anarchies += planet[1] == Government.ANARCHY.ordinal() ? 1 : 0;
+			orphans += GalaxyGenerator.isOrphan(p.getKey()) ? 1 : 0;
+		}
+		int fullyVisited = 0;
+		Map<Integer, Integer> galaxies = new HashMap<>();
+		for (Integer id : planets.keySet()) {
+			int galaxy = SystemData.getGalaxyOf(id);
+			Integer visitedCount = galaxies.get(galaxy);
+			visitedCount = visitedCount == null ? 1 : visitedCount + 1;
+			galaxies.put(galaxy, visitedCount);
+			if (visitedCount == GalaxyGenerator.PLANET_COUNT) {
+				fullyVisited++;
+			}
+		}
+		Set<Integer> visitedGalaxies = new HashSet<>();
+		for (Integer id : planets.keySet()) {
+			visitedGalaxies.add(SystemData.getGalaxyOf(id));
+		}
+		Set<Integer> species = new HashSet<>();
+		for (int[] planet : planets.values()) {
+			species.add(planet[2]);
+		}
+		return planets.size() + sum + max + fullyVisited + orphans + nodes + anarchies + visitedGalaxies.size() +
+			species.size();
+	}
+
+	private int readStatistics() {
+		return visitedPlanets.getPlanetCount() + visitedPlanets.getTotalVisitCount() +
+			visitedPlanets.getHighestVisitCount() + visitedPlanets.getFullyVisitedGalaxyCount() +
+			visitedPlanets.getOrphanPlanetCount() + visitedPlanets.getNodePlanetCount() +
+			visitedPlanets.getAnarchyPlanetCount() + visitedPlanets.getVisitedGalaxyCount() +
+			visitedPlanets.getSpeciesCount();
+	}
+
+	private String toJsonArray() throws JSONException {
+		JSONArray array = new JSONArray();
+		for (Map.Entry<Integer, int[]> p : planets.entrySet()) {
+			int[] planet = p.getValue();
+			array.put(new JSONObject()
+				.put("id", p.getKey())
+				.put("visitCount", planet[0])
+				.put("lastVisitedTime", times.get(p.getKey()))
+				.put("government", planet[1])
+				.put("inhabitantCode", planet[2])
+				.put("isNode", planet[3] == 1));
+		}
+		return array.toString();
+	}
+
+	public static void main(String[] args) throws IOException, JSONException {
+		beforeClass();
+		// A commander who has visited every planet of every galaxy
+		VisitedPlanetsTest commander = new VisitedPlanetsTest();
+		Random random = new Random(4);
+		for (int galaxy = 1; galaxy <= GalaxyGenerator.EXTENDED_GALAXY_COUNT; galaxy++) {
+			for (int i = 0; i < GalaxyGenerator.PLANET_COUNT; i++) {
+				commander.visit((galaxy << 10) + i, random);
+			}
+		}
+		int runs = 20;
+		for (int warmUp = 0; warmUp < 2; warmUp++) {
+			long start = System.nanoTime();
+			int result = 0;
+			for (int run = 0; run < runs; run++) {
+				result += commander.computeStatistics();
+			}
+			long mapTime = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs * 1000; run++) {
+				result -= commander.readStatistics() / 1000;
+			}
+			long storeTime = System.nanoTime() - start;
+			System.out.println(commander.planets.size() + " visited planets, medal statistics: map " +
+				mapTime / runs / 1000 + " us, store " + storeTime / runs / 1000 + " ns (" + result + ")");
+		}
+		for (int warmUp = 0; warmUp < 2; warmUp++) {
+			long start = System.nanoTime();
+			String json = commander.toJsonArray();
+			long jsonTime = System.nanoTime() - start;
+			start = System.nanoTime();
+			String encoded = commander.visitedPlanets.encode();
+			long encodeTime = System.nanoTime() - start;
+			start = System.nanoTime();
+			new VisitedPlanets().decode(encoded);
+			long decodeTime = System.nanoTime() - start;
+			System.out.println("JSON array " + json.length() / 1024 + " KB in " + jsonTime / 1000000 + " ms, " +
+				"encoded " + encoded.length() / 1024 + " KB in " + encodeTime / 1000000 + " ms, decoded in " +
+				decodeTime / 1000000 + " ms");
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package de.phbouillon.android.games.alite.model.generator;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.L;
+import de.phbouillon.android.games.alite.Settings;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.PlayerCobra;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class GalaxyRoutesTest {
+	private final GalaxyGenerator generator = new GalaxyGenerator();
+
+	@Before
+	public void setUp() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+		Settings.maxGalaxies = GalaxyGenerator.EXTENDED_GALAXY_COUNT;
+	}
+
+	@Test
+	public void neighboursTest() {
+		for (int g = 1; g <= GalaxyGenerator.GALAXY_COUNT; g++) {
+			generator.buildGalaxy(g);
+			SystemData[] systems = generator.getSystems();
+			GalaxyRoutes routes = generator.getRoutes();
+			for (int i = 0; i < systems.length; i++) {
+				Set<Integer> expected = new HashSet<>();
+				for (int j = 0; j < systems.length; j++) {
+					if (i != j && systems[i].computeDistance(systems[j]) <= PlayerCobra.MAX_FUEL) {
+						expected.add(j);
+					}
+				}
+				Set<Integer> actual = new HashSet<>();
+				for (int n = 0; n < routes.getNeighbourCount(i); n++) {
+					actual.add(routes.getNeighbour(i, n));
+					Assert.assertEquals(systems[i].computeDistance(systems[routes.getNeighbour(i, n)]), routes.getDistance(i, n));
+				}
+				Assert.assertEquals(expected, actual);
+				systems[i].computeReachableSystems(systems, routes);
+				Assert.assertEquals(expected.size() + 1, systems[i].getReachableSystems().length);
+			}
+		}
+	}
+
+	@Test
+	public void routesTest() {
+		generator.buildGalaxy(1);
+		SystemData[] systems = generator.getSystems();
+		GalaxyRoutes routes = generator.getRoutes();
+		for (int from = 0; from < systems.length; from += 5) {
+			for (int to = 0; to < systems.length; to++) {
+				int[] shortest = routes.findShortestRoute(from, to);
+				int[] cheapest = routes.findCheapestRoute(from, to);
+				int[] profitable = routes.findMostProfitableRoute(from, to);
+				if (shortest == null) {
+					Assert.assertNull(cheapest);
+					Assert.assertNull(profitable);
+					continue;
+				}
+				assertValidRoute(systems, from, to, shortest);
+				assertValidRoute(systems, from, to, cheapest);
+				assertValidRoute(systems, from, to, profitable);
+				Assert.assertTrue(shortest.length <= cheapest.length);
+				Assert.assertEquals(shortest.length, profitable.length);
+				Assert.assertTrue(computeFuel(systems, cheapest) <= computeFuel(systems, shortest));
+				Assert.assertTrue(routes.computeProfit(profitable) >= routes.computeProfit(shortest));
+			}
+		}
+	}
+
+	@Test
+	public void raxxlaTest() {
+		generator.buildGalaxy(SystemData.RAXXLA_GALAXY);
+		GalaxyRoutes routes = generator.getRoutes();
+		Assert.assertEquals(0, routes.getNeighbourCount(SystemData.RAXXLA_SYSTEM_INDEX));
+		Assert.assertNull(routes.findShortestRoute(0, SystemData.RAXXLA_SYSTEM_INDEX));
+	}
+
+	private static void assertValidRoute(SystemData[] systems, int from, int to, int[] route) {
+		Assert.assertEquals(from, route[0]);
+		Assert.assertEquals(to, route[route.length - 1]);
+		for (int i = 1; i < route.length; i++) {
+			Assert.assertTrue(systems[route[i - 1]].computeDistance(systems[route[i]]) <= PlayerCobra.MAX_FUEL);
+		}
+	}
+
+	private static int computeFuel(SystemData[] systems, int[] route) {
+		int fuel = 0;
+		for (int i = 1; i < route.length; i++) {
+			fuel += systems[route[i - 1]].computeDistance(systems[route[i]]);
+		}
+		return fuel;
+	}
+
+	public static void main(String[] args) throws IOException {
+		GalaxyRoutesTest test = new GalaxyRoutesTest();
+		test.setUp();
+		long buildTime = 0;
+		long[] routeTime = new long[3];
+		int queries = 0;
+		for (int g = 1; g <= GalaxyGenerator.EXTENDED_GALAXY_COUNT; g++) {
+			test.generator.buildGalaxy(g);
+			long start = System.nanoTime();
+			GalaxyRoutes routes = test.generator.getRoutes();
+			buildTime += System.nanoTime() - start;
+			for (int from = 0; from < routes.getSystemCount(); from++) {
+				for (int to = 0; to < routes.getSystemCount(); to++) {
+					start = System.nanoTime();
+					routes.findShortestRoute(from, to);
+					long time = System.nanoTime();
+					routeTime[0] += time - start;
+					routes.findCheapestRoute(from, to);
+					start = System.nanoTime();
+					routeTime[1] += start - time;
+					routes.findMostProfitableRoute(from, to);
+					routeTime[2] += System.nanoTime() - start;
+					queries++;
+				}
+			}
+		}
+		System.out.println(GalaxyGenerator.EXTENDED_GALAXY_COUNT + " galaxies: graph " +
+			buildTime / GalaxyGenerator.EXTENDED_GALAXY_COUNT / 1000 + " us per galaxy, shortest " +
+			routeTime[0] / queries + " ns, cheapest " + routeTime[1] / queries + " ns, most profitable " +
+			routeTime[2] / queries + " ns per route");
+	}
+}
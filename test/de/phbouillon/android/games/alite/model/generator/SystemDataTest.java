@@ -59,7 +59,7 @@ public class SystemDataTest {
 			generator.buildGalaxy(g);
 			SystemData[] systems = generator.getSystems();
 			for (SystemData system : systems) {
-				system.computeReachableSystems(systems);
+				system.computeReachableSystems(systems, generator.getRoutes());
 				out.write(g + "\t" + formatSystemInfo(system));
 			}
 		}
@@ -79,7 +79,7 @@ public class SystemDataTest {
 			system.getGnp() + "\t" +
 			system.getDiameter() + "\t" +
 			system.getPopulation() + "\t" +
-			system.descriptionCode + "\t" +
+			system.getDescriptionCode() + "\t" +
 			system.getDescription() + "\t" +
 			(system.getReachableSystems().length - 1) + "\n";
 	}
@@ -96,4 +96,33 @@ public class SystemDataTest {
 		Assert.assertEquals(244, generator.findGalaxyOfPlanet("estia"));
 		Assert.assertEquals(245, generator.findGalaxyOfPlanet("ususaon"));
 	}
+
+	@Test
+	public void findPlanetOutOfMaxGalaxiesTest() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+
+		Settings.maxGalaxies = GalaxyGenerator.GALAXY_COUNT;
+		generator.buildGalaxy(1);
+		Assert.assertEquals(6, generator.findGalaxyOfPlanet("Gearge"));
+		Assert.assertEquals(-1, generator.findGalaxyOfPlanet("estia"));
+		Assert.assertEquals(-1, generator.findGalaxyOfPlanet("no such planet"));
+	}
+
+	@Test
+	public void lazyDescriptionTest() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+
+		generator.buildGalaxy(1);
+		SystemData lave = generator.getSystem(SystemData.LAVE_SYSTEM_INDEX);
+		Assert.assertEquals("1022422", lave.getDescriptionCode());
+		Assert.assertEquals("The planet Lave is most well known for its hoopy casinos.", lave.getDescription());
+		lave.changePlanetName("Leave");
+		// The description of a renamed planet is generated from the advanced goat soup seed
+		Assert.assertEquals("Leave is ravaged by dreadful civil war.", lave.getDescription());
+		Assert.assertEquals(lave.getDescription(), lave.getDescription());
+	}
 }
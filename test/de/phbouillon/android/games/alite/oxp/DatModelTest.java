@@ -0,0 +1,232 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.DirectoryFileIO;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class DatModelTest {
+	private static final File MODELS = new File("assets/plugins/so.oxp/Models");
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+	}
+
+	@Test
+	public void parseTest() throws IOException {
+		DatModel model = parse("// comment\r\nNVERTS 3\r\nNFACES 1\r\n\r\nVERTEX\r\n" +
+			"1.5, -2, 3e2\r\n0.000001,1000000.0 , -0.125\r\n\t7 ,8,9\r\n\r\n" +
+			"FACES\r\n0,0,0,\t0.25,-0.5,1,\t3,2,1,0\r\n\r\n" +
+			"TEXTURES\r\nship.png 1.0 1.0 0.1 0.2 0.3 0.4 0.5 0.6\r\nEND\r\n");
+		Assert.assertArrayEquals(new float[] {1.5f, -2, 300, 0.000001f, 1000000, -0.125f, 7, 8, 9}, model.vertices, 0);
+		Assert.assertArrayEquals(new float[] {0.25f, -0.5f, 1}, model.faces, 0);
+		Assert.assertArrayEquals(new int[] {2, 1, 0}, model.indices);
+		Assert.assertEquals("ship.png", model.textureFilename);
+		Assert.assertArrayEquals(new float[] {0.1f, 0.2f, 0.3f, 0.4f, 0.5f, 0.6f}, model.textures, 0);
+	}
+
+	@Test
+	public void floatTest() throws IOException {
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			String value = String.format(Locale.US, "%." + random.nextInt(8) + "f",
+				(random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10)));
+			if (i % 2 == 1) {
+				value = Float.toString((float) (random.nextGaussian() * Math.pow(10, random.nextInt(16) - 8)));
+			}
+			DatModel model = parse("NVERTS 1\nNFACES 0\nVERTEX\n" + value + "," + value + "," + value + "\n");
+			Assert.assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(model.vertices[0]));
+		}
+	}
+
+	@Test
+	public void bundledModelsTest() throws IOException {
+		for (File file : getModelFiles()) {
+			byte[] content = Files.readAllBytes(file.toPath());
+			DatModel expected = parseLines(new ByteArrayInputStream(content));
+			DatModel model = DatModel.parse(new ByteArrayInputStream(content));
+			Assert.assertArrayEquals(file.getName(), expected.vertices, model.vertices, 0);
+			Assert.assertArrayEquals(file.getName(), expected.faces, model.faces, 0);
+			Assert.assertArrayEquals(file.getName(), expected.indices, model.indices);
+			Assert.assertEquals(file.getName(), expected.textureFilename, model.textureFilename);
+			Assert.assertArrayEquals(file.getName(), expected.textures, model.textures, 0);
+		}
+	}
+
+	@Test
+	public void cacheTest() throws IOException {
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("models").toFile());
+		ModelCache cache = new ModelCache(fileIO, "test");
+		File[] files = getModelFiles();
+		for (File file : files) {
+			Assert.assertNull(cache.get(file.getName(), file.lastModified()));
+			cache.put(file.getName(), file.lastModified(), DatModel.parse(Files.newInputStream(file.toPath())));
+		}
+		cache.save();
+
+		cache = new ModelCache(fileIO, "test");
+		for (File file : files) {
+			DatModel expected = DatModel.parse(Files.newInputStream(file.toPath()));
+			DatModel model = cache.get(file.getName(), file.lastModified());
+			Assert.assertNotNull(file.getName(), model);
+			Assert.assertArrayEquals(expected.vertices, model.vertices, 0);
+			Assert.assertArrayEquals(expected.faces, model.faces, 0);
+			Assert.assertArrayEquals(expected.indices, model.indices);
+			Assert.assertEquals(expected.textureFilename, model.textureFilename);
+			Assert.assertArrayEquals(expected.textures, model.textures, 0);
+		}
+
+		// A modified model replaces its entry, the others are kept
+		Assert.assertNull(cache.get(files[0].getName(), files[0].lastModified() + 1));
+		DatModel modified = parse("NVERTS 1\nNFACES 0\nVERTEX\n1,2,3\n");
+		cache.put(files[0].getName(), files[0].lastModified() + 1, modified);
+		cache.save();
+
+		cache = new ModelCache(fileIO, "test");
+		Assert.assertArrayEquals(modified.vertices, cache.get(files[0].getName(), files[0].lastModified() + 1).vertices, 0);
+		Assert.assertNull(cache.get(files[0].getName(), files[0].lastModified()));
+		for (int i = 1; i < files.length; i++) {
+			Assert.assertNotNull(files[i].getName(), cache.get(files[i].getName(), files[i].lastModified()));
+		}
+	}
+
+	private static File[] getModelFiles() {
+		File[] files = MODELS.listFiles((dir, name) -> name.endsWith(".dat"));
+		Assert.assertNotNull(files);
+		Assert.assertTrue(files.length > 0);
+		return files;
+	}
+
+	private static DatModel parse(String content) throws IOException {
+		return DatModel.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	// Line based parsing as OXPParser did before the streaming parser, used as reference.
+	private static DatModel parseLines(InputStream is) throws IOException {
+		float[] vertices = null;
+		float[] faces = null;
+		int[] indices = null;
+		float[] textures = null;
+		String textureFilename = null;
+		int vertexCount = 0;
+		int faceCount = 0;
+		int textureCount = 0;
+		int section = -1;
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(is))) {
+			String line;
+			while ((line = in.readLine()) != null && !"END".equals(line)) {
+				if (line.isEmpty() || line.startsWith("//")) {
+					continue;
+				}
+				if (line.startsWith("NVERTS")) {
+					vertices = new float[3 * Integer.parseInt(line.substring(7))];
+				} else if (line.startsWith("NFACES")) {
+					int count = Integer.parseInt(line.substring(7));
+					faces = new float[3 * count];
+					indices = new int[3 * count];
+					textures = new float[6 * count];
+				} else if (line.startsWith("VERTEX")) {
+					section = 0;
+				} else if (line.startsWith("FACES")) {
+					section = 1;
+				} else if (line.startsWith("TEXTURES")) {
+					section = 2;
+				} else if (section == 0 && vertexCount + 2 < vertices.length) {
+					String[] values = line.split(",");
+					for (int i = 0; i < 3; i++) {
+						vertices[vertexCount++] = Float.parseFloat(values[i].trim());
+					}
+				} else if (section == 1 && faceCount + 2 < faces.length) {
+					String[] values = line.split(",");
+					for (int i = 0; i < 3; i++) {
+						faces[faceCount] = Float.parseFloat(values[3 + i].trim());
+						indices[faceCount++] = Integer.parseInt(values[7 + i].trim());
+					}
+				} else if (section == 2 && textureCount + 5 < textures.length) {
+					String[] values = line.split("\\s");
+					textureFilename = values[0];
+					for (int i = 0; i < 6; i++) {
+						textures[textureCount++] = Float.parseFloat(values[3 + i].trim());
+					}
+				}
+			}
+		}
+		return new DatModel(vertices, faces, indices, textureFilename, textures);
+	}
+
+	public static void main(String[] args) throws IOException {
+		beforeClass();
+		List<byte[]> contents = new ArrayList<>();
+		for (File file : getModelFiles()) {
+			contents.add(Files.readAllBytes(file.toPath()));
+		}
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("models").toFile());
+		ModelCache cache = new ModelCache(fileIO, "benchmark");
+		for (int i = 0; i < contents.size(); i++) {
+			cache.put(Integer.toString(i), 0, DatModel.parse(new ByteArrayInputStream(contents.get(i))));
+		}
+		cache.save();
+
+		int runs = 200;
+		for (int warmUp = 0; warmUp < 2; warmUp++) {
+			long start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				for (byte[] content : contents) {
+					parseLines(new ByteArrayInputStream(content));
+				}
+			}
+			long lines = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				for (byte[] content : contents) {
+					DatModel.parse(new ByteArrayInputStream(content));
+				}
+			}
+			long streaming = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				cache = new ModelCache(fileIO, "benchmark");
+				for (int i = 0; i < contents.size(); i++) {
+					cache.get(Integer.toString(i), 0);
+				}
+			}
+			long cached = System.nanoTime() - start;
+			System.out.println(contents.size() + " models: line parser " + lines / runs / 1000 + " us, streaming parser " +
+				streaming / runs / 1000 + " us, model cache " + cached / runs / 1000 + " us");
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.DirectoryFileIO;
+import de.phbouillon.android.framework.FileIO;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.Settings;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObjectFactory;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class OXPLoaderTest {
+	private static final String DIRECTORY_PLUGINS = "plugins" + File.separatorChar;
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+	}
+
+	@Test
+	public void dependencyOrderTest() throws IOException {
+		FileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plugins").toFile());
+		writePlugin(fileIO, "a.oxp", "orderTest.a", "1.0", "requires_oxps = ({identifier = \"orderTest.b\"; version = \"1.0\";});",
+			"orderTestShared", "orderTestA");
+		writeFile(fileIO, DIRECTORY_PLUGINS + "a.oxp/AIs/orderTestA.plist", "{GLOBAL = {ENTER = (\"setStateTo: ATTACK\");};}");
+		writePlugin(fileIO, "b.oxp", "orderTest.b", "1.2", "", "orderTestShared", "orderTestB");
+		// required plugin does not exist
+		writePlugin(fileIO, "c.oxp", "orderTest.c", "1.0", "requires_oxps = ({identifier = \"orderTest.x\"; version = \"0\";});",
+			"orderTestC", "GLOBAL");
+		// required by each other
+		writePlugin(fileIO, "d.oxp", "orderTest.d", "1.0", "requires_oxps = ({identifier = \"orderTest.e\"; version = \"0\";});",
+			"orderTestD", "GLOBAL");
+		writePlugin(fileIO, "e.oxp", "orderTest.e", "1.0", "requires_oxps = ({identifier = \"orderTest.d\"; version = \"0\";});",
+			"orderTestE", "GLOBAL");
+		writePlugin(fileIO, "f.oxp", "orderTest.f", "1.0", "conflict_oxps = ({identifier = \"orderTest.b\"; version = \"1.0\";});",
+			"orderTestF", "GLOBAL");
+		// version of b is too high
+		writePlugin(fileIO, "g.oxp", "orderTest.g", "1.0",
+			"requires_oxps = ({identifier = \"orderTest.b\"; version = \"1.0\"; maximum_version = \"1.1\";});", "orderTestG", "GLOBAL");
+
+		OXPLoader loader = new OXPLoader(4);
+		for (String name : new String[] { "a.oxp", "b.oxp", "c.oxp", "d.oxp", "e.oxp", "f.oxp", "g.oxp" }) {
+			loader.add(new OXPParser(fileIO, DIRECTORY_PLUGINS + name, loader.getInstalledPlugins()));
+		}
+		List<String> loaded = new ArrayList<>();
+		loader.load(loaded::add);
+		// b is plugged before a since a requires it, f conflicts with b
+		Assert.assertEquals("[b.oxp, a.oxp]", loaded.toString());
+		Assert.assertEquals(2, loader.getInstalledPlugins().size());
+		// The AI of the plugin plugged first is kept
+		Assert.assertTrue(SpaceObjectFactory.getInstance().isAIState("orderTestShared.plist", "orderTestB"));
+		Assert.assertFalse(SpaceObjectFactory.getInstance().isAIState("orderTestShared.plist", "orderTestA"));
+		Assert.assertTrue(SpaceObjectFactory.getInstance().existsAI("orderTestA.plist"));
+		for (String ai : new String[] { "orderTestC.plist", "orderTestD.plist", "orderTestE.plist", "orderTestF.plist", "orderTestG.plist" }) {
+			Assert.assertFalse(ai, SpaceObjectFactory.getInstance().existsAI(ai));
+		}
+	}
+
+	@Test
+	public void shipDataTest() throws IOException {
+		FileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plugins").toFile());
+		Random random = new Random(1);
+		writeShipPlugin(fileIO, "ships.oxp", "shipTest.ships", "", "shipTest", 3, random);
+		// Ships of a plugin can be like the ships of a required plugin
+		writeFile(fileIO, DIRECTORY_PLUGINS + "like.oxp/manifest.plist", "{identifier = \"shipTest.like\"; title = \"like\"; " +
+			"version = \"1.0\"; requires_oxps = ({identifier = \"shipTest.ships\"; version = \"1.0\";});}");
+		writeFile(fileIO, DIRECTORY_PLUGINS + "like.oxp/Config/shipdata.plist",
+			"{shipTestLike = {like_ship = \"shipTest_1\"; name = \"Like\"; roles = \"trader\";};}");
+
+		OXPLoader loader = new OXPLoader(2);
+		loader.add(new OXPParser(fileIO, DIRECTORY_PLUGINS + "like.oxp", loader.getInstalledPlugins()));
+		loader.add(new OXPParser(fileIO, DIRECTORY_PLUGINS + "ships.oxp", loader.getInstalledPlugins()));
+		List<String> loaded = new ArrayList<>();
+		loader.load(loaded::add);
+		Assert.assertEquals("[ships.oxp, like.oxp]", loaded.toString());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertNotNull(SpaceObjectFactory.getInstance().getTemplateObject("shipTest_" + i));
+		}
+		Assert.assertNotNull(SpaceObjectFactory.getInstance().getTemplateObject("shipTestLike"));
+		// The parsed models are cached
+		Assert.assertTrue(fileIO.exists("cache/models_ships.oxp.mdl"));
+	}
+
+	private static void writePlugin(FileIO fileIO, String name, String identifier, String version, String manifest,
+			String aiName, String state) throws IOException {
+		writeFile(fileIO, DIRECTORY_PLUGINS + name + "/manifest.plist", "{identifier = \"" + identifier +
+			"\"; title = \"" + name + "\"; version = \"" + version + "\"; " + manifest + "}");
+		writeFile(fileIO, DIRECTORY_PLUGINS + name + "/Config/equipment.plist", "()");
+		writeFile(fileIO, DIRECTORY_PLUGINS + name + "/AIs/" + aiName + ".plist",
+			"{" + state + " = {ENTER = (\"setStateTo: ATTACK\");};}");
+	}
+
+	private static void writeShipPlugin(FileIO fileIO, String name, String identifier, String manifest, String shipPrefix,
+			int shipCount, Random random) throws IOException {
+		String directory = DIRECTORY_PLUGINS + name + File.separatorChar;
+		writeFile(fileIO, directory + "manifest.plist", "{identifier = \"" + identifier +
+			"\"; title = \"" + name + "\"; version = \"1.0\"; " + manifest + "}");
+		StringBuilder shipData = new StringBuilder("{");
+		for (int i = 0; i < shipCount; i++) {
+			String ship = shipPrefix + "_" + i;
+			shipData.append(ship).append(" = {name = \"").append(ship).append("\"; roles = \"trader pirate\"; ")
+				.append("max_energy = 100; max_flight_speed = 300; model = \"").append(ship).append(".dat\";};");
+			writeFile(fileIO, directory + "Models/" + ship + ".dat", createModel(random, 200));
+		}
+		writeFile(fileIO, directory + "Config/shipdata.plist", shipData.append("}").toString());
+		writeFile(fileIO, directory + "AIs/" + shipPrefix + "AI.plist",
+			"{GLOBAL = {ENTER = (\"setStateTo: ATTACK\");}; ATTACK = {TARGET_LOST = (\"setStateTo: GLOBAL\");};}");
+	}
+
+	private static String createModel(Random random, int faceCount) {
+		int vertexCount = faceCount / 2 + 2;
+		StringBuilder model = new StringBuilder();
+		model.append("NVERTS ").append(vertexCount).append("\nNFACES ").append(faceCount).append("\n\nVERTEX\n");
+		for (int i = 0; i < vertexCount; i++) {
+			model.append(String.format(Locale.US, "%.3f, %.3f, %.3f\n", random.nextFloat() * 100 - 50,
+				random.nextFloat() * 100 - 50, random.nextFloat() * 100 - 50));
+		}
+		model.append("\nFACES\n");
+		for (int i = 0; i < faceCount; i++) {
+			model.append(String.format(Locale.US, "0,0,0,\t%.4f,%.4f,%.4f,\t3,%d,%d,%d\n", random.nextFloat(),
+				random.nextFloat(), random.nextFloat(), random.nextInt(vertexCount), random.nextInt(vertexCount),
+				random.nextInt(vertexCount)));
+		}
+		model.append("\nTEXTURES\n");
+		for (int i = 0; i < faceCount; i++) {
+			model.append(String.format(Locale.US, "ship.png 1.0 1.0 %.4f %.4f %.4f %.4f %.4f %.4f\n", random.nextFloat(),
+				random.nextFloat(), random.nextFloat(), random.nextFloat(), random.nextFloat(), random.nextFloat()));
+		}
+		return model.append("END\n").toString();
+	}
+
+	private static void writeFile(FileIO fileIO, String fileName, String content) throws IOException {
+		fileIO.mkDir(fileName.substring(0, fileName.lastIndexOf('/')));
+		try (OutputStream out = fileIO.writeFile(fileName)) {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		beforeClass();
+		Settings.logLevel = AliteLog.ERROR;
+		int pluginCount = 48;
+		int shipCount = 6;
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int run = 0; run < 3; run++) {
+			for (int threadCount : new int[] { 1, cores }) {
+				// Every run uses new ship ids, since ships already registered are not loaded again
+				FileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plugins").toFile());
+				Random random = new Random(1);
+				String prefix = "benchmark" + run + "_" + threadCount;
+				for (int p = 0; p < pluginCount; p++) {
+					// Every fourth plugin requires the one before it
+					String manifest = p % 4 == 0 ? "" : "requires_oxps = ({identifier = \"" + prefix + "." + (p - 1) +
+						"\"; version = \"1.0\";});";
+					writeShipPlugin(fileIO, "p" + p + ".oxp", prefix + "." + p, manifest, prefix + "_" + p, shipCount, random);
+				}
+				OXPLoader loader = new OXPLoader(threadCount);
+				for (int p = pluginCount - 1; p >= 0; p--) {
+					loader.add(new OXPParser(fileIO, DIRECTORY_PLUGINS + "p" + p + ".oxp", loader.getInstalledPlugins()));
+				}
+				long start = System.nanoTime();
+				loader.load(null);
+				long time = System.nanoTime() - start;
+				System.out.println(pluginCount + " plugins with " + shipCount + " ships each, " + threadCount +
+					" thread(s): " + time / 1000000 + " ms, " + loader.getInstalledPlugins().size() + " plugged");
+			}
+		}
+	}
+}
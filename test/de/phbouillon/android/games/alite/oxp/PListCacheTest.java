@@ -0,0 +1,191 @@
+package de.phbouillon.android.games.alite.oxp;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import com.dd.plist.NSArray;
+import com.dd.plist.NSDictionary;
+import com.dd.plist.NSNumber;
+import com.dd.plist.NSObject;
+import com.dd.plist.NSString;
+import com.dd.plist.PropertyListParser;
+import de.phbouillon.android.framework.DirectoryFileIO;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PListCacheTest {
+	private static final File PLUGIN = new File("assets/plugins/so.oxp");
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+	}
+
+	@Test
+	public void bundledPListsTest() throws Exception {
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plists").toFile());
+		PListCache cache = new PListCache(fileIO, "test");
+		List<File> files = getPListFiles();
+		for (File file : files) {
+			Assert.assertNull(cache.get(file.getPath(), file.lastModified()));
+			cache.put(file.getPath(), file.lastModified(), PropertyListParser.parse(file));
+		}
+		cache.save();
+
+		cache = new PListCache(fileIO, "test");
+		for (File file : files) {
+			NSObject expected = PropertyListParser.parse(file);
+			NSObject cached = cache.get(file.getPath(), file.lastModified());
+			Assert.assertEquals(file.getName(), expected, cached);
+			// The order of the keys is kept, since it is the order of registration
+			Assert.assertEquals(file.getName(), expected.toXMLPropertyList(), cached.toXMLPropertyList());
+		}
+	}
+
+	@Test
+	public void invalidationTest() throws IOException {
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plists").toFile());
+		PListCache cache = new PListCache(fileIO, "test");
+		cache.put("a.plist", 1, createShipData(new Random(1), 3));
+		cache.put("b.plist", 1, createShipData(new Random(2), 3));
+		cache.save();
+
+		// A modified file replaces its entry, the others are kept
+		cache = new PListCache(fileIO, "test");
+		Assert.assertNull(cache.get("a.plist", 2));
+		NSObject modified = createShipData(new Random(3), 2);
+		cache.put("a.plist", 2, modified);
+		cache.save();
+		cache = new PListCache(fileIO, "test");
+		Assert.assertEquals(modified, cache.get("a.plist", 2));
+		Assert.assertNull(cache.get("a.plist", 1));
+		Assert.assertEquals(createShipData(new Random(2), 3), cache.get("b.plist", 1));
+
+		// The models of the plugin are cached in a different file
+		Assert.assertNull(new ModelCache(fileIO, "test").get("a.plist", 2));
+
+		// A cache of an other version is dropped
+		byte[] content = fileIO.readFileContents("cache/test.pls");
+		content[7]++;
+		write(fileIO, "cache/test.pls", content);
+		Assert.assertNull(new PListCache(fileIO, "test").get("b.plist", 1));
+
+		// So is a truncated one
+		content[7]--;
+		byte[] truncated = new byte[content.length - 10];
+		System.arraycopy(content, 0, truncated, 0, truncated.length);
+		write(fileIO, "cache/test.pls", truncated);
+		cache = new PListCache(fileIO, "test");
+		Assert.assertNull(cache.get("b.plist", 1));
+		cache.put("b.plist", 1, modified);
+		cache.save();
+		Assert.assertEquals(modified, new PListCache(fileIO, "test").get("b.plist", 1));
+	}
+
+	private static void write(DirectoryFileIO fileIO, String fileName, byte[] content) throws IOException {
+		try (OutputStream out = fileIO.writeFile(fileName)) {
+			out.write(content);
+		}
+	}
+
+	private static List<File> getPListFiles() {
+		List<File> files = new ArrayList<>();
+		files.add(new File(PLUGIN, "manifest.plist"));
+		File[] config = new File(PLUGIN, "Config").listFiles((dir, name) -> name.endsWith(".plist"));
+		Assert.assertNotNull(config);
+		for (File file : config) {
+			files.add(file);
+		}
+		return files;
+	}
+
+	private static NSDictionary createShipData(Random random, int shipCount) {
+		NSDictionary shipData = new NSDictionary();
+		for (int i = 0; i < shipCount; i++) {
+			NSDictionary ship = new NSDictionary();
+			ship.put("name", new NSString("Ship " + i));
+			ship.put("roles", new NSString("trader pirate(0.5) hunter"));
+			ship.put("max_flight_speed", new NSNumber(100 + random.nextInt(300)));
+			ship.put("max_flight_roll", new NSNumber(Double.toString(random.nextDouble() * 3)));
+			ship.put("has_ecm", new NSNumber(random.nextBoolean()));
+			ship.put("model", new NSString("ship" + i + ".dat"));
+			NSArray exhaust = new NSArray(2);
+			exhaust.setValue(0, new NSString("-50.0 0.0 0.0 13 13 30.0"));
+			exhaust.setValue(1, new NSString("50.0 0.0 0.0 13 13 30.0"));
+			ship.put("exhaust", exhaust);
+			shipData.put("ship_" + random.nextInt(1000000) + "_" + i, ship);
+		}
+		return shipData;
+	}
+
+	public static void main(String[] args) throws Exception {
+		beforeClass();
+		DirectoryFileIO fileIO = new DirectoryFileIO(Files.createTempDirectory("plists").toFile());
+		NSDictionary shipData = createShipData(new Random(1), 400);
+		byte[] xml = shipData.toXMLPropertyList().getBytes(StandardCharsets.UTF_8);
+		byte[] ascii = shipData.toASCIIPropertyList().getBytes(StandardCharsets.UTF_8);
+		List<File> files = getPListFiles();
+		int runs = 50;
+		for (int warmUp = 0; warmUp < 3; warmUp++) {
+			long start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				PropertyListParser.parse(new ByteArrayInputStream(xml));
+				PropertyListParser.parse(new ByteArrayInputStream(ascii));
+				for (File file : files) {
+					PropertyListParser.parse(file);
+				}
+			}
+			long cold = System.nanoTime() - start;
+
+			PListCache cache = new PListCache(fileIO, "benchmark");
+			cache.put("xml", 1, PropertyListParser.parse(new ByteArrayInputStream(xml)));
+			cache.put("ascii", 1, PropertyListParser.parse(new ByteArrayInputStream(ascii)));
+			for (File file : files) {
+				cache.put(file.getName(), 1, PropertyListParser.parse(file));
+			}
+			cache.save();
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				// Each launch reads the cache file again
+				cache = new PListCache(fileIO, "benchmark");
+				cache.get("xml", 1);
+				cache.get("ascii", 1);
+				for (File file : files) {
+					cache.get(file.getName(), 1);
+				}
+			}
+			long warm = System.nanoTime() - start;
+			System.out.println("400 ships as xml and ascii and " + files.size() + " bundled property lists: parsed " +
+				cold / runs / 1000 + " us, cached " + warm / runs / 1000 + " us (" +
+				fileIO.readFileContents("cache/benchmark.pls").length + " bytes)");
+		}
+	}
+}
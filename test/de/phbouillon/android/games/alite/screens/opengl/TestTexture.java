@@ -78,4 +78,19 @@ public class TestTexture implements Texture {
 	public void clear() {
 
 	}
+
+	@Override
+	public void prefetchTexture(String fileName, ResourceStream textureInputStream) {
+
+	}
+
+	@Override
+	public void beginFrame() {
+
+	}
+
+	@Override
+	public void pinTexture(String fileName) {
+
+	}
 }
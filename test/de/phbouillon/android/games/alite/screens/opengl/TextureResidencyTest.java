@@ -0,0 +1,188 @@
+package de.phbouillon.android.games.alite.screens.opengl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TextureResidencyTest {
+	// Textures in the GPU memory, as the texture manager would load and delete them
+	private static class FakeGl implements TextureResidency.Backend {
+		final Map<String, Long> textures = new HashMap<>();
+		final List<String> deleted = new ArrayList<>();
+		TextureResidency residency;
+		int uploads;
+
+		@Override
+		public void deleteTexture(String fileName) {
+			Assert.assertNotNull(fileName, textures.remove(fileName));
+			deleted.add(fileName);
+		}
+
+		void setTexture(String fileName, long bytes) {
+			if (!textures.containsKey(fileName)) {
+				textures.put(fileName, bytes);
+				uploads++;
+				residency.add(fileName, bytes);
+			}
+			residency.use(fileName);
+		}
+
+		long getBytes() {
+			long bytes = 0;
+			for (long b : textures.values()) {
+				bytes += b;
+			}
+			return bytes;
+		}
+	}
+
+	private static FakeGl createGl(long budget) {
+		FakeGl gl = new FakeGl();
+		gl.residency = new TextureResidency(gl, budget);
+		return gl;
+	}
+
+	@Test
+	public void leastRecentlyUsedTest() {
+		FakeGl gl = createGl(100);
+		gl.setTexture("a", 40);
+		gl.residency.beginFrame();
+		gl.setTexture("b", 40);
+		gl.residency.beginFrame();
+		gl.setTexture("a", 40);
+		gl.residency.beginFrame();
+		gl.setTexture("c", 40);
+		Assert.assertEquals("[b]", gl.deleted.toString());
+		Assert.assertEquals(80, gl.residency.getResidentBytes());
+		Assert.assertEquals(gl.getBytes(), gl.residency.getResidentBytes());
+		gl.residency.beginFrame();
+		gl.setTexture("b", 40);
+		Assert.assertEquals("[b, a]", gl.deleted.toString());
+		Assert.assertEquals(2, gl.residency.getEvictionCount());
+		Assert.assertEquals(1, gl.residency.getReloadCount());
+	}
+
+	@Test
+	public void pinnedTest() {
+		FakeGl gl = createGl(100);
+		gl.residency.pin("hud");
+		gl.setTexture("hud", 60);
+		for (int i = 0; i < 10; i++) {
+			gl.residency.beginFrame();
+			gl.setTexture("ship" + i, 30);
+		}
+		Assert.assertTrue(gl.textures.containsKey("hud"));
+		Assert.assertEquals(90, gl.residency.getResidentBytes());
+		Assert.assertEquals(9, gl.residency.getEvictionCount());
+		// Pinned textures above the budget stay resident
+		gl.residency.beginFrame();
+		gl.residency.pin("ui");
+		gl.setTexture("ui", 60);
+		Assert.assertTrue(gl.textures.containsKey("ui"));
+		Assert.assertEquals(120, gl.residency.getResidentBytes());
+	}
+
+	@Test
+	public void currentFrameTest() {
+		FakeGl gl = createGl(100);
+		gl.setTexture("a", 60);
+		gl.setTexture("b", 60);
+		// Both are needed by the frame, the budget is exceeded until the next frame
+		Assert.assertTrue(gl.deleted.isEmpty());
+		gl.residency.beginFrame();
+		gl.setTexture("b", 60);
+		gl.setTexture("c", 10);
+		Assert.assertEquals("[a]", gl.deleted.toString());
+	}
+
+	@Test
+	public void budgetAndClearTest() {
+		FakeGl gl = createGl(1000);
+		for (int i = 0; i < 10; i++) {
+			gl.setTexture("t" + i, 100);
+			gl.residency.beginFrame();
+		}
+		gl.residency.setBudget(350);
+		Assert.assertEquals("[t0, t1, t2, t3, t4, t5, t6]", gl.deleted.toString());
+		Assert.assertEquals(300, gl.residency.getResidentBytes());
+		gl.residency.remove("t9");
+		Assert.assertEquals(200, gl.residency.getResidentBytes());
+		gl.residency.clear();
+		Assert.assertEquals(0, gl.residency.getResidentBytes());
+		Assert.assertEquals(0, gl.residency.getResidentCount());
+		// Loading after all textures have been freed is not counted as reload
+		gl.textures.clear();
+		gl.setTexture("t0", 100);
+		Assert.assertEquals(0, gl.residency.getReloadCount());
+		Assert.assertEquals(1024 * 1024 * 4, TextureResidency.estimateBytes(1024, 1024, 1));
+		Assert.assertEquals(1024 * 1024 * 2, TextureResidency.estimateBytes(1024, 1024, 0));
+	}
+
+	public static void main(String[] args) {
+		// Textures of the systems visited in a session: HUD, sky, planet and the ships met
+		int systems = 200;
+		int templates = 40;
+		int shipsPerSystem = 8;
+		int framesPerSystem = 3000;
+		long hud = TextureResidency.estimateBytes(2048, 2048, 1);
+		long planet = TextureResidency.estimateBytes(2048, 2048, 1);
+		long system = TextureResidency.estimateBytes(1024, 1024, 1);
+		long ship = TextureResidency.estimateBytes(512, 512, 1);
+		for (long budget : new long[] { Long.MAX_VALUE, 64L << 20, 32L << 20 }) {
+			Random random = new Random(1);
+			FakeGl gl = createGl(budget);
+			gl.residency.pin("hud");
+			gl.residency.pin("buttons");
+			long maxBytes = 0;
+			long start = System.nanoTime();
+			for (int s = 0; s < systems; s++) {
+				int[] ships = new int[shipsPerSystem];
+				for (int i = 0; i < shipsPerSystem; i++) {
+					ships[i] = random.nextInt(templates);
+				}
+				for (int f = 0; f < framesPerSystem; f++) {
+					gl.residency.beginFrame();
+					gl.setTexture("hud", hud);
+					gl.setTexture("buttons", system);
+					gl.setTexture("star_map", system);
+					gl.setTexture("planets/0" + s % 8, planet);
+					gl.setTexture("clouds" + s % 5, system);
+					gl.setTexture("star" + s % 23, system);
+					// Ships come and go during the flight
+					for (int i = f * shipsPerSystem / framesPerSystem; i < shipsPerSystem; i++) {
+						gl.setTexture("ship" + ships[i], ship);
+					}
+					maxBytes = Math.max(maxBytes, gl.residency.getResidentBytes());
+				}
+			}
+			long time = System.nanoTime() - start;
+			System.out.println((budget == Long.MAX_VALUE ? "No budget" : "Budget " + (budget >> 20) + " MB") +
+				": max " + (maxBytes >> 20) + " MB resident, " + gl.uploads + " uploads, " +
+				gl.residency.getEvictionCount() + " evictions, " + gl.residency.getReloadCount() + " reloads, " +
+				time / ((long) systems * framesPerSystem) + " ns per frame");
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package de.phbouillon.android.games.alite.screens.opengl;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.GameClock;
+import de.phbouillon.android.framework.VirtualClock;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TextureStreamerTest {
+	private static final long MS = 1000000L;
+	private static final long DECODE_TIME = 20 * MS;
+
+	private final VirtualClock clock = new VirtualClock();
+	private GameClock systemClock;
+	private final List<String> decoded = new ArrayList<>();
+	private final List<String> disposed = new ArrayList<>();
+
+	// Decodes the textures on the calling thread, so a test does not depend on the scheduling of threads
+	private static class DirectExecutor extends AbstractExecutorService {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return false;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return false;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		AliteLog.setInstance(new TestLogger());
+		systemClock = GameClock.getInstance();
+		GameClock.setInstance(clock);
+	}
+
+	@After
+	public void tearDown() {
+		GameClock.setInstance(systemClock);
+	}
+
+	private TextureStreamer<String> createStreamer(int maxPrefetched) {
+		return new TextureStreamer<>((fileName, textureInputStream) -> {
+			decoded.add(fileName);
+			clock.advance(DECODE_TIME);
+			return fileName.toUpperCase();
+		}, disposed::add, new DirectExecutor(), maxPrefetched, 4 * MS, 16 * MS, 1000 * MS);
+	}
+
+	@Test
+	public void uploadBudgetTest() {
+		TextureStreamer<String> streamer = createStreamer(8);
+		streamer.prefetch("a", null);
+		streamer.prefetch("b", null);
+		Assert.assertEquals("A", streamer.poll("a", null));
+		streamer.addUploadTime(5 * MS);
+		// Decoded, but the uploads of this frame have used up the budget
+		Assert.assertNull(streamer.poll("b", null));
+		streamer.beginFrame();
+		Assert.assertEquals("B", streamer.poll("b", null));
+		Assert.assertEquals(0, streamer.getRequestCount());
+		Assert.assertEquals("[a, b]", decoded.toString());
+	}
+
+	@Test
+	public void prefetchLimitTest() {
+		TextureStreamer<String> streamer = createStreamer(2);
+		streamer.prefetch("a", null);
+		streamer.prefetch("a", null);
+		streamer.prefetch("b", null);
+		streamer.prefetch("c", null);
+		Assert.assertEquals(2, streamer.getRequestCount());
+		// A texture to be rendered is always requested
+		Assert.assertEquals("C", streamer.poll("c", null));
+		Assert.assertEquals("[a, b, c]", decoded.toString());
+	}
+
+	@Test
+	public void takeTest() {
+		TextureStreamer<String> streamer = createStreamer(8);
+		streamer.prefetch("a", null);
+		Assert.assertEquals("A", streamer.take("a", null));
+		Assert.assertEquals("B", streamer.take("b", null));
+		Assert.assertEquals("B", streamer.take("b", null));
+		// The prefetched texture is not decoded again, a texture which is not requested is decoded each time
+		Assert.assertEquals("[a, b, b]", decoded.toString());
+		Assert.assertEquals(0, streamer.getRequestCount());
+	}
+
+	@Test
+	public void expiryTest() {
+		TextureStreamer<String> streamer = createStreamer(8);
+		streamer.prefetch("a", null);
+		long requested = clock.getNanoTime();
+		clock.setNanoTime(requested + 1000 * MS);
+		streamer.beginFrame();
+		Assert.assertEquals(1, streamer.getRequestCount());
+		clock.setNanoTime(requested + 1000 * MS + 1);
+		streamer.beginFrame();
+		Assert.assertEquals(0, streamer.getRequestCount());
+		Assert.assertEquals("[A]", disposed.toString());
+		// Requested again after it has expired
+		Assert.assertEquals("A", streamer.take("a", null));
+		Assert.assertEquals("[a, a]", decoded.toString());
+	}
+
+	@Test
+	public void spikeTest() {
+		TextureStreamer<String> streamer = createStreamer(8);
+		// Decoded by the GL thread
+		streamer.take("a", null);
+		streamer.beginFrame();
+		Assert.assertEquals(1, streamer.getSpikeCount());
+		Assert.assertEquals(DECODE_TIME, streamer.getMaxLoadTime());
+		// Decoded before it is needed
+		streamer.prefetch("b", null);
+		streamer.beginFrame();
+		streamer.take("b", null);
+		streamer.addUploadTime(3 * MS);
+		streamer.beginFrame();
+		Assert.assertEquals(1, streamer.getSpikeCount());
+		Assert.assertEquals(3, streamer.getFrameCount());
+	}
+
+	private static void sleep(long nanos) {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException ignored) {
+		}
+	}
+
+	public static void main(String[] args) {
+		AliteLog.setInstance(new TestLogger());
+		// The textures of a system: star map, star, glow, planet, rings, clouds, atmosphere, station and ships
+		int textureCount = 17;
+		long decodeTime = 25 * MS;
+		long uploadTime = 3 * MS;
+		int countdownFrames = 60;
+		long frameTime = 16 * MS;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		for (int run = 0; run < 2; run++) {
+			TextureStreamer<String> streamer = new TextureStreamer<>((fileName, textureInputStream) -> {
+				sleep(decodeTime);
+				return fileName;
+			}, texture -> {}, executor, 24, 4 * MS, 16 * MS, 60000 * MS);
+			// All textures are decoded and uploaded by the GL thread when the system is entered
+			for (int i = 0; i < textureCount; i++) {
+				streamer.take("texture" + i, null);
+				sleep(uploadTime);
+				streamer.addUploadTime(uploadTime);
+			}
+			streamer.beginFrame();
+			System.out.println("Synchronous: " + streamer.getSpikeCount() + " spikes in " + streamer.getFrameCount() +
+				" frames, max " + streamer.getMaxLoadTime() / MS + " ms");
+
+			streamer = new TextureStreamer<>((fileName, textureInputStream) -> {
+				sleep(decodeTime);
+				return fileName;
+			}, texture -> {}, executor, 24, 4 * MS, 16 * MS, 60000 * MS);
+			// Prefetched during the hyperspace countdown, uploaded within the budget of the frames after the jump
+			for (int i = 0; i < textureCount; i++) {
+				streamer.prefetch("texture" + i, null);
+			}
+			for (int f = 0; f < countdownFrames; f++) {
+				sleep(frameTime);
+				streamer.beginFrame();
+			}
+			int uploaded = 0;
+			int frames = 0;
+			while (uploaded < textureCount) {
+				for (int i = uploaded; i < textureCount; i++) {
+					if (streamer.poll("texture" + i, null) == null) {
+						break;
+					}
+					sleep(uploadTime);
+					streamer.addUploadTime(uploadTime);
+					uploaded++;
+				}
+				streamer.beginFrame();
+				frames++;
+			}
+			System.out.println("Streamed: " + streamer.getSpikeCount() + " spikes in " + streamer.getFrameCount() +
+				" frames, max " + streamer.getMaxLoadTime() / MS + " ms, all textures uploaded after " + frames + " frames");
+		}
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,185 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.Texture;
+import de.phbouillon.android.games.alite.Alite;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BroadPhaseTest {
+	private static final float PROXIMITY_FACTOR = 18.0f;
+	private static final float EXTENT_FACTOR = (float) Math.sqrt(PROXIMITY_FACTOR);
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+		final Texture texture = new TestTexture();
+		new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+		};
+	}
+
+	@Test
+	public void sortedByXTest() {
+		List<AliteObject> objects = createObjects(new Random(1), 200, 20000);
+		BroadPhase broadPhase = new BroadPhase();
+		broadPhase.update(objects);
+		Assert.assertEquals(objects.size(), broadPhase.size());
+		for (int i = 1; i < broadPhase.size(); i++) {
+			Assert.assertTrue(broadPhase.getX(i - 1) <= broadPhase.getX(i));
+			Assert.assertEquals(broadPhase.get(i).getPosition().x, broadPhase.getX(i), 0);
+		}
+		for (float x = -25000; x <= 25000; x += 777) {
+			int index = broadPhase.lowerBound(x);
+			Assert.assertTrue(index == broadPhase.size() || broadPhase.getX(index) >= x);
+			Assert.assertTrue(index == 0 || broadPhase.getX(index - 1) < x);
+		}
+	}
+
+	@Test
+	public void shrinkingFrameTest() {
+		Random random = new Random(2);
+		BroadPhase broadPhase = new BroadPhase();
+		broadPhase.update(createObjects(random, 100, 5000));
+		List<AliteObject> objects = createObjects(random, 3, 5000);
+		broadPhase.update(objects);
+		Assert.assertEquals(3, broadPhase.size());
+		broadPhase.update(new ArrayList<>());
+		Assert.assertEquals(0, broadPhase.size());
+		Assert.assertEquals(0, broadPhase.lowerBound(0));
+	}
+
+	@Test
+	public void proximityPairsMatchBruteForceTest() {
+		Random random = new Random(3);
+		for (int run = 0; run < 10; run++) {
+			List<AliteObject> objects = createObjects(random, 150, 10000);
+			BroadPhase broadPhase = new BroadPhase();
+			broadPhase.update(objects);
+			Assert.assertEquals(bruteForcePairs(objects), sweepPairs(broadPhase));
+		}
+	}
+
+	private static List<AliteObject> createObjects(Random random, int count, float range) {
+		List<AliteObject> objects = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			float size = 5 + random.nextFloat() * 200;
+			SpaceObject object = new SpaceObject("object_" + i);
+			object.createFaces(new float[] {-size,0,0, size,0,0, 0,size,size}, new float[] {0,0,1, 0,0,1, 0,0,1}, 0, 1, 2);
+			object.setPosition((random.nextFloat() - 0.5f) * range, (random.nextFloat() - 0.5f) * range,
+				(random.nextFloat() - 0.5f) * range);
+			objects.add(object);
+		}
+		return objects;
+	}
+
+	private static boolean isInProximity(SpaceObject a, SpaceObject b) {
+		return a.getPosition().distanceSq(b.getPosition()) <=
+			a.getBoundingSphereRadiusSq() * PROXIMITY_FACTOR + b.getBoundingSphereRadiusSq() * PROXIMITY_FACTOR;
+	}
+
+	private static Set<String> bruteForcePairs(List<AliteObject> objects) {
+		Set<String> pairs = new HashSet<>();
+		for (int i = 0; i < objects.size() - 1; i++) {
+			for (int j = i + 1; j < objects.size(); j++) {
+				SpaceObject a = (SpaceObject) objects.get(i);
+				SpaceObject b = (SpaceObject) objects.get(j);
+				if (isInProximity(a, b)) {
+					pairs.add(pairKey(a, b));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static Set<String> sweepPairs(BroadPhase broadPhase) {
+		Set<String> pairs = new HashSet<>();
+		sweepPairs(broadPhase, pairs);
+		return pairs;
+	}
+
+	private static int sweepPairs(BroadPhase broadPhase, Set<String> pairs) {
+		int found = 0;
+		float maxExtent = broadPhase.getMaxBoundingSphereRadius() * EXTENT_FACTOR;
+		for (int i = 0; i < broadPhase.size() - 1; i++) {
+			SpaceObject a = broadPhase.get(i);
+			float maxX = broadPhase.getX(i) + a.getBoundingSphereRadius() * EXTENT_FACTOR + maxExtent;
+			for (int j = i + 1; j < broadPhase.size() && broadPhase.getX(j) <= maxX; j++) {
+				SpaceObject b = broadPhase.get(j);
+				if (isInProximity(a, b)) {
+					found++;
+					if (pairs != null) {
+						pairs.add(pairKey(a, b));
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	private static String pairKey(SpaceObject a, SpaceObject b) {
+		return a.getId().compareTo(b.getId()) < 0 ? a.getId() + "/" + b.getId() : b.getId() + "/" + a.getId();
+	}
+
+	public static void main(String[] args) {
+		beforeClass();
+		Random random = new Random(4);
+		BroadPhase broadPhase = new BroadPhase();
+		int runs = 200;
+		for (int count = 10; count <= 1000; count *= 10) {
+			List<AliteObject> objects = createObjects(random, count, 50000);
+			long start = System.nanoTime();
+			int found = 0;
+			for (int run = 0; run < runs; run++) {
+				for (int i = 0; i < count - 1; i++) {
+					for (int j = i + 1; j < count; j++) {
+						if (isInProximity((SpaceObject) objects.get(i), (SpaceObject) objects.get(j))) {
+							found++;
+						}
+					}
+				}
+			}
+			long bruteForce = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				broadPhase.update(objects);
+				found -= sweepPairs(broadPhase, null);
+			}
+			long sweep = System.nanoTime() - start;
+			System.out.println(count + " objects: all pairs " + bruteForce / runs / 1000 + " us, sweep and prune " +
+				sweep / runs / 1000 + " us per frame" + (found == 0 ? "" : " (pair count mismatch)"));
+		}
+	}
+}
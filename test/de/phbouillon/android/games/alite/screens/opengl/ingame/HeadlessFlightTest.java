@@ -0,0 +1,168 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.*;
+import de.phbouillon.android.games.alite.*;
+import de.phbouillon.android.games.alite.oxp.OXPLoader;
+import de.phbouillon.android.games.alite.oxp.OXPParser;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class HeadlessFlightTest {
+	private static final float FRAME_SECONDS = 1 / 60.0f;
+	private static final float FLIGHT_SECONDS = 5 * 60;
+	private static final String PLUGIN = "plugins" + File.separatorChar + "so.oxp";
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		AliteLog.setInstance(new TestLogger());
+		Settings.logLevel = AliteLog.ERROR;
+		L.getInstance().addDefaultResource(new File("res\\values").getAbsolutePath(), FileInputStream::new, "");
+		L.getInstance().setLocale(Locale.US);
+		final Input input = new TestInput();
+		final FileIO fileIO = new TestFileIO();
+		final Texture texture = new TestTexture();
+		new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+
+			@Override
+			public FileIO getFileIO() {
+				return fileIO;
+			}
+
+			@Override
+			public Input getInput() {
+				return input;
+			}
+
+			@Override
+			public Graphics getGraphics() {
+				// Any use of graphics by the flight fails
+				return null;
+			}
+		}.initialize();
+
+		// The ships bundled with the game
+		File plugin = new File("assets", PLUGIN);
+		OXPLoader loader = new OXPLoader(1);
+		loader.add(new OXPParser(PLUGIN, fileName -> new FileInputStream(new File(plugin, fileName)),
+			directory -> new File(plugin, directory).list()));
+		loader.load(null);
+	}
+
+	/**
+	 * The events of a flight: the objects appearing and disappearing in the order of their frames
+	 * and the positions of the objects at the end.
+	 */
+	private static List<String> fly(long seed, boolean fromStation) {
+		Alite.get().resetPlayer();
+		HeadlessFlight flight = new HeadlessFlight(seed, fromStation);
+		List<String> events = new ArrayList<>();
+		// Objects are numbered in the order they appear
+		Map<AliteObject,Integer> numbers = new IdentityHashMap<>();
+		List<AliteObject> previousObjects = new ArrayList<>();
+		try {
+			while (flight.getSimulatedSeconds() < FLIGHT_SECONDS && flight.run(FRAME_SECONDS, FRAME_SECONDS)) {
+				List<AliteObject> objects = flight.getObjects();
+				for (AliteObject object : objects) {
+					if (!numbers.containsKey(object)) {
+						numbers.put(object, numbers.size());
+						events.add(flight.getFrameCount() + ": spawned " + getName(object, numbers));
+					}
+				}
+				for (AliteObject object : previousObjects) {
+					if (!objects.contains(object)) {
+						events.add(flight.getFrameCount() + ": " + (object instanceof SpaceObject &&
+							((SpaceObject) object).getHullStrength() <= 0 ? "destroyed " : "removed ") + getName(object, numbers));
+					}
+				}
+				previousObjects = new ArrayList<>(objects);
+			}
+			events.add(flight.getFrameCount() + ": " + (flight.getNextScreen() != null ?
+				"ended with " + flight.getNextScreen().getClass().getSimpleName() :
+				flight.isPlayerAlive() ? "flying" : "player destroyed"));
+			events.add("player at " + flight.getInGameManager().getShip().getPosition());
+			for (AliteObject object : flight.getObjects()) {
+				events.add(getName(object, numbers) + " at " + object.getPosition());
+			}
+		} finally {
+			flight.close();
+		}
+		return events;
+	}
+
+	private static String getName(AliteObject object, Map<AliteObject,Integer> numbers) {
+		return object.getId() + " #" + numbers.get(object);
+	}
+
+	private static int count(List<String> events, String event) {
+		int count = 0;
+		for (String e : events) {
+			if (e.contains(": " + event)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void sameSeedTest() {
+		for (boolean fromStation : new boolean[] { true, false }) {
+			List<String> first = fly(42, fromStation);
+			List<String> second = fly(42, fromStation);
+			Assert.assertEquals(first, second);
+			// Not only the sun, its glow, the planet and the station
+			Assert.assertTrue(first.toString(), count(first, "spawned") > 4);
+		}
+	}
+
+	@Test
+	public void otherSeedTest() {
+		Assert.assertNotEquals(fly(1, false), fly(2, false));
+	}
+
+	public static void main(String[] args) throws IOException {
+		beforeClass();
+		long start = System.nanoTime();
+		List<String> events = fly(42, false);
+		long time = System.nanoTime() - start;
+		for (String event : events) {
+			System.out.println(event);
+		}
+		System.out.println(FLIGHT_SECONDS + " s flown in " + time / 1000000 + " ms, " + count(events, "spawned") +
+			" spawned, " + count(events, "destroyed") + " destroyed");
+	}
+}
@@ -0,0 +1,319 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.GameClock;
+import de.phbouillon.android.framework.VirtualClock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+public class TimedEventQueueTest {
+	// The timed events of a flight state of version 1, before the events were queued: running since 1000
+	// with a delay of 5 s, paused after 0.7 s of 2 s, locked and removed
+	private static final String LEGACY_EVENTS =
+		"rO0ABXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAAEdwQAAAAEc3IAQmRlLnBoYm91aWxsb24u" +
+		"YW5kcm9pZC5nYW1lcy5hbGl0ZS5zY3JlZW5zLm9wZW5nbC5pbmdhbWUuVGltZWRFdmVudJKJOEzpb/ApAgAGSgAFZGVsYXlaAAZs" +
+		"b2NrZWRKAAlwYXVzZVRpbWVaAAZyZW1vdmVMAAZtZXRob2R0AC1MZGUvcGhib3VpbGxvbi9hbmRyb2lkL2ZyYW1ld29yay9JTWV0" +
+		"aG9kSG9vaztMAAV0aW1lcnQAJ0xkZS9waGJvdWlsbG9uL2FuZHJvaWQvZnJhbWV3b3JrL1RpbWVyO3hwAAAAASoF8gAA////////" +
+		"//8AcHNyACVkZS5waGJvdWlsbG9uLmFuZHJvaWQuZnJhbWV3b3JrLlRpbWVytHdyJ8GRVaYCAARaAAlhdXRvUmVzZXRKAAtjdXJy" +
+		"ZW50VGltZVoADXNraXBGaXJzdENhbGxKAAlzdGFydFRpbWV4cAEAAA3hLxGzagAAAAAAAAAD6HNxAH4AAgAAAAB3NZQAAAAAAAAp" +
+		"uScAAHBzcQB+AAYBAAAN4S8R3wgAAAAAAAAAB9BzcQB+AAIAAAAAstBeAAH//////////wBwc3EAfgAGAQAADeEvEeRaAAAAAAAA" +
+		"AAu4c3EAfgACAAAAADuaygAA//////////8BcHNxAH4ABgEAAA3hLxHsDAAAAAAAAAAPoHg=";
+
+	private final VirtualClock clock = new VirtualClock();
+	private GameClock systemClock;
+	private TimedEventQueue queue;
+	private final List<String> performed = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		systemClock = GameClock.getInstance();
+		GameClock.setInstance(clock);
+		queue = new TimedEventQueue();
+	}
+
+	@After
+	public void tearDown() {
+		GameClock.setInstance(systemClock);
+	}
+
+	private TimedEvent event(String name, long delay) {
+		TimedEvent event = new TimedEvent(delay);
+		event.addAlarmEvent(deltaTime -> performed.add(name));
+		return event;
+	}
+
+	private void updateAt(long t) {
+		clock.setNanoTime(t);
+		queue.update();
+	}
+
+	@Test
+	public void periodicTest() {
+		queue.add(event("a", 100));
+		updateAt(100);
+		// An event is due if more than its delay has passed
+		Assert.assertTrue(performed.isEmpty());
+		updateAt(101);
+		Assert.assertEquals(1, performed.size());
+		updateAt(201);
+		Assert.assertEquals(1, performed.size());
+		// The delay starts again at the time of the execution, not at the time it was due
+		updateAt(202);
+		Assert.assertEquals(2, performed.size());
+		// Once per update only, even if several delays have passed
+		updateAt(1000);
+		Assert.assertEquals(3, performed.size());
+	}
+
+	@Test
+	public void orderTest() {
+		queue.add(event("a", 50));
+		queue.add(event("b", 10));
+		queue.add(event("c", 30));
+		updateAt(100);
+		// Events due at the same update are performed in the order they were added
+		Assert.assertEquals("[a, b, c]", performed.toString());
+		queue.add(event("d", 0));
+		updateAt(101);
+		updateAt(101);
+		updateAt(102);
+		Assert.assertEquals("[a, b, c, d, d]", performed.toString());
+	}
+
+	@Test
+	public void removeTest() {
+		TimedEvent b = event("b", 10);
+		TimedEvent once = new TimedEvent(10);
+		once.addAlarmEvent(deltaTime -> {
+			performed.add("once");
+			once.remove();
+			b.remove();
+		});
+		queue.add(once);
+		queue.add(b);
+		queue.add(event("c", 10));
+		Assert.assertEquals(3, queue.size());
+		updateAt(20);
+		// The removed event is not performed even though it was due at the same update
+		Assert.assertEquals("[once, c]", performed.toString());
+		Assert.assertEquals(1, queue.size());
+		updateAt(40);
+		Assert.assertEquals("[once, c, c]", performed.toString());
+		// A removed event can't be added again
+		queue.add(b);
+		Assert.assertEquals(1, queue.size());
+	}
+
+	@Test
+	public void pauseTest() {
+		TimedEvent a = event("a", 100);
+		queue.add(a);
+		updateAt(60);
+		Assert.assertEquals(60, a.pause());
+		Assert.assertEquals(0, queue.getScheduledCount());
+		updateAt(500);
+		Assert.assertTrue(performed.isEmpty());
+		// The remaining time is kept
+		a.resume();
+		Assert.assertEquals(40, a.timeToNextTrigger());
+		updateAt(540);
+		Assert.assertTrue(performed.isEmpty());
+		updateAt(541);
+		Assert.assertEquals(1, performed.size());
+
+		queue.setPaused(true);
+		updateAt(5000);
+		queue.setPaused(false);
+		Assert.assertEquals(1, performed.size());
+		Assert.assertEquals(100, a.timeToNextTrigger());
+	}
+
+	@Test
+	public void lockAndDelayTest() {
+		TimedEvent a = event("a", 100);
+		queue.add(a);
+		a.lock();
+		updateAt(200);
+		Assert.assertTrue(performed.isEmpty());
+		// Unlocking starts the delay again
+		a.unlock();
+		updateAt(300);
+		Assert.assertTrue(performed.isEmpty());
+		updateAt(301);
+		Assert.assertEquals(1, performed.size());
+
+		a.updateDelay(10);
+		updateAt(312);
+		Assert.assertEquals(2, performed.size());
+		TimedEvent b = new TimedEvent(10);
+		// Changing the delay of an event while it is performed applies from the current update
+		b.addAlarmEvent(deltaTime -> {
+			performed.add("b");
+			b.updateDelay(b.delay * 2);
+		});
+		queue.add(b);
+		updateAt(323);
+		updateAt(343);
+		updateAt(344);
+		Assert.assertEquals(2, count("b"));
+	}
+
+	private int count(String name) {
+		int count = 0;
+		for (String p : performed) {
+			if (p.equals(name)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void randomTest() {
+		Random random = new Random(1);
+		List<TimedEvent> events = new ArrayList<>();
+		long[] expected = new long[200];
+		long[] actual = new long[200];
+		for (int i = 0; i < expected.length; i++) {
+			int index = i;
+			TimedEvent event = new TimedEvent(random.nextInt(1000));
+			event.addAlarmEvent(deltaTime -> actual[index]++);
+			events.add(event);
+			queue.add(event);
+		}
+		long[] start = new long[expected.length];
+		for (long time = 1; time < 20000; time += 1 + random.nextInt(20)) {
+			clock.setNanoTime(time);
+			for (int i = 0; i < expected.length; i++) {
+				// The list based check each event used to do
+				if (time - start[i] > events.get(i).delay) {
+					start[i] = time;
+					expected[i]++;
+				}
+			}
+			queue.update();
+		}
+		Assert.assertArrayEquals(expected, actual);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void legacyEventsTest() throws IOException, ClassNotFoundException {
+		List<TimedEvent> events = (List<TimedEvent>) new ObjectInputStream(new ByteArrayInputStream(
+			Base64.getDecoder().decode(LEGACY_EVENTS))).readObject();
+		clock.setNanoTime(1000);
+		for (TimedEvent event : events) {
+			queue.add(event);
+		}
+		// The removed event is dropped, the locked and the paused one are not scheduled
+		Assert.assertEquals(3, queue.size());
+		Assert.assertEquals(1, queue.getScheduledCount());
+		Assert.assertEquals(1000, events.get(0).getLastExecutionTime());
+		Assert.assertEquals(5000000000L, events.get(0).timeToNextTrigger());
+		Assert.assertTrue(events.get(1).isPaused());
+		events.get(1).resume();
+		Assert.assertEquals(1300000000L, events.get(1).timeToNextTrigger());
+		Assert.assertEquals(2, queue.getScheduledCount());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void serializationTest() throws IOException, ClassNotFoundException {
+		List<TimedEvent> events = Arrays.asList(new TimedEvent(100), new TimedEvent(50), new TimedEvent(100));
+		queue.add(events.get(0));
+		queue.add(events.get(1));
+		updateAt(30);
+		queue.add(events.get(2));
+		events.get(1).pause();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(queue);
+			out.writeObject(events);
+		}
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		TimedEventQueue restoredQueue = (TimedEventQueue) in.readObject();
+		List<TimedEvent> restored = (List<TimedEvent>) in.readObject();
+		Assert.assertEquals(3, restoredQueue.size());
+		Assert.assertEquals(2, restoredQueue.getScheduledCount());
+		for (int i = 0; i < events.size(); i++) {
+			Assert.assertEquals(events.get(i).getLastExecutionTime(), restored.get(i).getLastExecutionTime());
+			Assert.assertEquals(events.get(i).sequence, restored.get(i).sequence);
+		}
+		Assert.assertEquals(20, restored.get(1).timeToNextTrigger());
+	}
+
+	public static void main(String[] args) {
+		int count = 5000;
+		int frames = 100000;
+		long frame = 16666667L;
+		for (int run = 0; run < 2; run++) {
+			Random random = new Random(1);
+			long[] delays = new long[count];
+			for (int i = 0; i < count; i++) {
+				// Mostly spawn timers and mission events which are due after minutes
+				delays[i] = i % 100 == 0 ? 359281437L : (60 + random.nextInt(600)) * 1000000000L;
+			}
+			// Every event checks its own timer at every frame, as the list of events did
+			long now = 0;
+			long[] starts = new long[count];
+			int listExecutions = 0;
+			long start = System.nanoTime();
+			for (int f = 0; f < frames; f++) {
+				now += frame;
+				for (int i = 0; i < count; i++) {
+					if (now - starts[i] > delays[i]) {
+						starts[i] = now;
+						listExecutions++;
+					}
+				}
+			}
+			long listTime = System.nanoTime() - start;
+
+			VirtualClock clock = new VirtualClock();
+			GameClock.setInstance(clock);
+			int[] executions = new int[1];
+			TimedEventQueue queue = new TimedEventQueue();
+			for (int i = 0; i < count; i++) {
+				queue.add(new TimedEvent(delays[i]).addAlarmEvent(deltaTime -> executions[0]++));
+			}
+			start = System.nanoTime();
+			for (int f = 0; f < frames; f++) {
+				clock.advance(frame);
+				queue.update();
+			}
+			long queueTime = System.nanoTime() - start;
+			System.out.println(count + " pending events, per frame: list " + listTime / frames + " ns (" +
+				listExecutions + " executions), queue " + queueTime / frames + " ns (" + executions[0] + " executions)");
+		}
+	}
+}
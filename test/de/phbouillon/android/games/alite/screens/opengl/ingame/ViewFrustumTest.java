@@ -0,0 +1,301 @@
+package de.phbouillon.android.games.alite.screens.opengl.ingame;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.Texture;
+import de.phbouillon.android.framework.math.Vector3f;
+import de.phbouillon.android.games.alite.Alite;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.Repository;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import de.phbouillon.android.games.alite.screens.opengl.objects.AliteObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObject;
+import de.phbouillon.android.games.alite.screens.opengl.objects.space.SpaceObjectFactory;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ViewFrustumTest {
+	private static final float ASPECT_RATIO = 1920.0f / 1080.0f;
+	private static final float SCREEN_HEIGHT = 1080;
+	private static int templateCount;
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+		final Texture texture = new TestTexture();
+		new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+		};
+	}
+
+	private static ViewFrustum createFrustum() {
+		ViewFrustum frustum = new ViewFrustum();
+		frustum.setPerspective(45.0f, ASPECT_RATIO, SCREEN_HEIGHT);
+		return frustum;
+	}
+
+	@Test
+	public void frustumTest() {
+		ViewFrustum frustum = createFrustum();
+		float tanY = (float) Math.tan(Math.toRadians(22.5));
+		float tanX = tanY * ASPECT_RATIO;
+		Assert.assertTrue(frustum.isVisible(0, 0, 1000, 10));
+		// Behind the eye, only if it reaches in front of it
+		Assert.assertFalse(frustum.isVisible(0, 0, -11, 10));
+		Assert.assertTrue(frustum.isVisible(0, 0, -9, 10));
+		// Centre beyond the side planes, but the sphere still reaches into the view
+		float distanceX = 10 / (float) Math.cos(Math.atan(tanX));
+		Assert.assertTrue(frustum.isVisible(tanX * 1000 + distanceX - 0.1f, 0, 1000, 10));
+		Assert.assertFalse(frustum.isVisible(tanX * 1000 + distanceX + 0.1f, 0, 1000, 10));
+		Assert.assertFalse(frustum.isVisible(-tanX * 1000 - distanceX - 0.1f, 0, 1000, 10));
+		float distanceY = 10 / (float) Math.cos(Math.atan(tanY));
+		Assert.assertTrue(frustum.isVisible(0, -tanY * 1000 - distanceY + 0.1f, 1000, 10));
+		Assert.assertFalse(frustum.isVisible(0, tanY * 1000 + distanceY + 0.1f, 1000, 10));
+		// The screen is wider than high
+		Assert.assertTrue(frustum.isVisible(tanY * 1500, 0, 1000, 10));
+		Assert.assertFalse(frustum.isVisible(0, tanY * 1500, 1000, 10));
+
+		// The full screen height at the depth where a unit length is one pixel
+		Assert.assertEquals(SCREEN_HEIGHT, frustum.getProjectedSize(SCREEN_HEIGHT / 2 / tanY, SCREEN_HEIGHT / 2), 0.01);
+		Assert.assertEquals(2, frustum.getProjectedSize(SCREEN_HEIGHT / 2 / tanY, 1), 0.0001);
+		Assert.assertEquals(Float.MAX_VALUE, frustum.getProjectedSize(5, 10), 0);
+	}
+
+	@Test
+	public void drawnRadiusTest() {
+		SpaceObject ship = createShip(new Random(1), "drawn_radius", 40, 100);
+		float[] box = ship.getBoundingBox();
+		for (int i = 0; i < 8; i++) {
+			float x = box[i & 1];
+			float y = box[2 + (i >> 1 & 1)];
+			float z = box[4 + (i >> 2 & 1)];
+			Assert.assertTrue(x * x + y * y + z * z <= ship.getMeshRadius() * ship.getMeshRadius() * 1.0001f);
+		}
+		// The target box is around the mesh
+		Assert.assertTrue(ship.getDrawnRadius() >= ship.getMeshRadius());
+	}
+
+	@Test
+	public void noVisibleObjectCulledTest() {
+		Random random = new Random(2);
+		for (int run = 0; run < 20; run++) {
+			Scene scene = createScene(random, 100, 20000, 5, 200);
+			SceneResult result = scene.render();
+			for (AliteObject object : scene.objects) {
+				if (isVertexOnScreen(scene, (SpaceObject) object)) {
+					Assert.assertFalse(object.getId(), result.culled.contains(object));
+				}
+			}
+			// Every object is still kept for the scanner and the game logic
+			Assert.assertEquals(scene.objects.size(), result.sorted.size());
+		}
+	}
+
+	@Test
+	public void culledObjectsTest() {
+		Scene scene = createScene(new Random(3), 100, 5000, 20, 100);
+		SceneResult result = scene.render();
+		// Less than a tenth of the space around the camera is in view
+		Assert.assertTrue(result.culled.size() + " culled", result.culled.size() > 50);
+		Assert.assertTrue(result.submittedTriangles < result.triangles);
+		for (AliteObject object : result.culled) {
+			float[] v = scene.toViewSpace(object.getPosition().x, object.getPosition().y, object.getPosition().z);
+			Assert.assertFalse(scene.frustum.isVisible(v[0], v[1], -v[2], ((SpaceObject) object).getDrawnRadius()));
+		}
+	}
+
+	@Test
+	public void tooSmallToRenderTest() {
+		Scene scene = new Scene(createFrustum(), new Vector3f(0, 0, 0), 0);
+		SpaceObject near = createShip(new Random(4), "near", 20, 40);
+		SpaceObject far = createShip(new Random(4), "far", 20, 40);
+		near.setPosition(0, 0, -1000);
+		far.setPosition(0, 0, -200000);
+		scene.objects.add(near);
+		scene.objects.add(far);
+		SceneResult result = scene.render();
+		Assert.assertTrue(result.culled.isEmpty());
+		Assert.assertFalse(near.isTooSmallToRender());
+		Assert.assertTrue(far.isTooSmallToRender());
+		Assert.assertEquals(near.getTriangleCount(), result.submittedTriangles);
+	}
+
+	private static boolean isVertexOnScreen(Scene scene, SpaceObject ship) {
+		float[] box = ship.getBoundingBox();
+		float tanY = (float) Math.tan(Math.toRadians(22.5));
+		float tanX = tanY * ASPECT_RATIO;
+		// The ships are not rotated, so the corners of the bounding box are in world space after a translation
+		for (int i = 0; i < 8; i++) {
+			float[] v = scene.toViewSpace(ship.getPosition().x + box[i & 1], ship.getPosition().y + box[2 + (i >> 1 & 1)],
+				ship.getPosition().z + box[4 + (i >> 2 & 1)]);
+			float depth = -v[2];
+			if (depth > 1 && Math.abs(v[0]) < tanX * depth && Math.abs(v[1]) < tanY * depth) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static SpaceObject createShip(Random random, String id, float size, int triangles) {
+		return SpaceObjectFactory.getInstance().getObjectById(createTemplate(random, id, size, triangles));
+	}
+
+	private static String createTemplate(Random random, String name, float size, int triangles) {
+		String id = "view_frustum_" + name + "_" + templateCount++;
+		SpaceObject template = new SpaceObject(id);
+		Repository<SpaceObject.Property> repo = template.getRepoHandler();
+		repo.setProperty(SpaceObject.Property.name, id);
+		repo.setProperty(SpaceObject.Property.roles, "trader");
+		repo.setProperty(SpaceObject.Property.model_scale_factor, 1L);
+		int vertexCount = triangles / 2 + 3;
+		float[] vertexData = new float[3 * vertexCount];
+		float[] normals = new float[3 * vertexCount];
+		for (int i = 0; i < vertexData.length; i++) {
+			vertexData[i] = (random.nextFloat() * 2 - 1) * size;
+			normals[i] = random.nextFloat() * 2 - 1;
+		}
+		int[] indices = new int[3 * triangles];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = random.nextInt(vertexCount);
+		}
+		template.createFaces(vertexData, normals, indices);
+		SpaceObjectFactory.getInstance().registerSpaceObject(template);
+		return id;
+	}
+
+	/**
+	 * Ships of the given size range spread around a camera which is turned around its up axis.
+	 */
+	private static Scene createScene(Random random, int count, float range, float minSize, float maxSize) {
+		Scene scene = new Scene(createFrustum(), new Vector3f(random.nextFloat() * 1000, 0, random.nextFloat() * 1000),
+			random.nextFloat() * (float) Math.PI * 2);
+		String[] templates = new String[8];
+		for (int i = 0; i < templates.length; i++) {
+			// The triangle counts of the original ship models
+			templates[i] = createTemplate(random, "ship", minSize + random.nextFloat() * (maxSize - minSize),
+				6 + random.nextInt(247));
+		}
+		for (int i = 0; i < count; i++) {
+			SpaceObject ship = SpaceObjectFactory.getInstance().getObjectById(templates[random.nextInt(templates.length)]);
+			ship.setId("ship_" + i);
+			ship.setPosition(scene.camera.x + (random.nextFloat() * 2 - 1) * range,
+				scene.camera.y + (random.nextFloat() * 2 - 1) * range, scene.camera.z + (random.nextFloat() * 2 - 1) * range);
+			scene.objects.add(ship);
+		}
+		return scene;
+	}
+
+	private static class Scene {
+		final ViewFrustum frustum;
+		final Vector3f camera;
+		final float[] viewMatrix = new float[16];
+		final List<AliteObject> objects = new ArrayList<>();
+
+		Scene(ViewFrustum frustum, Vector3f camera, float angle) {
+			this.frustum = frustum;
+			this.camera = camera;
+			// Inverse of the rotation around the y axis and the translation to the camera
+			float cos = (float) Math.cos(angle);
+			float sin = (float) Math.sin(angle);
+			viewMatrix[0] = cos;
+			viewMatrix[2] = sin;
+			viewMatrix[5] = 1;
+			viewMatrix[8] = -sin;
+			viewMatrix[10] = cos;
+			viewMatrix[12] = -(cos * camera.x - sin * camera.z);
+			viewMatrix[13] = -camera.y;
+			viewMatrix[14] = -(sin * camera.x + cos * camera.z);
+			viewMatrix[15] = 1;
+		}
+
+		float[] toViewSpace(float x, float y, float z) {
+			return new float[] {
+				viewMatrix[0] * x + viewMatrix[4] * y + viewMatrix[ 8] * z + viewMatrix[12],
+				viewMatrix[1] * x + viewMatrix[5] * y + viewMatrix[ 9] * z + viewMatrix[13],
+				viewMatrix[2] * x + viewMatrix[6] * y + viewMatrix[10] * z + viewMatrix[14] };
+		}
+
+		SceneResult render() {
+			List<DepthBucket> buckets = new ArrayList<>();
+			new ViewingTransformationHelper().sortObjects(objects, viewMatrix, frustum, new ArrayList<>(), buckets,
+				false, null);
+			SceneResult result = new SceneResult();
+			for (DepthBucket bucket : buckets) {
+				result.sorted.addAll(bucket.sortedObjects);
+				if (bucket.culled) {
+					result.culled.addAll(bucket.sortedObjects);
+					continue;
+				}
+				for (AliteObject object : bucket.sortedObjects) {
+					SpaceObject ship = (SpaceObject) object;
+					result.triangles += ship.getTriangleCount();
+					if (ship.isTooSmallToRender()) {
+						result.tooSmall++;
+					} else {
+						result.submittedTriangles += ship.getTriangleCount();
+					}
+				}
+			}
+			for (AliteObject object : result.culled) {
+				result.triangles += ((SpaceObject) object).getTriangleCount();
+			}
+			return result;
+		}
+	}
+
+	private static class SceneResult {
+		final List<AliteObject> sorted = new ArrayList<>();
+		final List<AliteObject> culled = new ArrayList<>();
+		int tooSmall;
+		int triangles;
+		int submittedTriangles;
+	}
+
+	public static void main(String[] args) {
+		beforeClass();
+		String[] names = { "dogfight", "trade lane", "scanner range" };
+		float[][] scenes = { { 30, 3000, 20, 120 }, { 60, 15000, 20, 200 }, { 150, 45000, 5, 40 } };
+		Random random = new Random(5);
+		for (int s = 0; s < scenes.length; s++) {
+			int objects = 0, culled = 0, tooSmall = 0, triangles = 0, submitted = 0;
+			int frames = 100;
+			for (int frame = 0; frame < frames; frame++) {
+				float[] p = scenes[s];
+				SceneResult result = createScene(random, (int) p[0], p[1], p[2], p[3]).render();
+				objects += result.sorted.size();
+				culled += result.culled.size();
+				tooSmall += result.tooSmall;
+				triangles += result.triangles;
+				submitted += result.submittedTriangles;
+			}
+			System.out.println(names[s] + ": " + objects / frames + " objects, " + culled / frames + " culled, " +
+				tooSmall / frames + " too small to render, " + submitted / frames + " of " + triangles / frames +
+				" triangles submitted");
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package de.phbouillon.android.games.alite.screens.opengl.objects.space;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+
+public class AIDispatchTableTest {
+	private static final int NUMBER_OF_CALLS = 1000000;
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger() {
+			@Override
+			public void debug(String title, String message) {
+			}
+		});
+	}
+
+	private static Map<String, Map<String, List<AIMethod>>> createAI() {
+		Map<String, List<AIMethod>> global = new HashMap<>();
+		global.put("UPDATE", Arrays.asList(new AIMethod("pauseAI", "1"), new AIMethod("noSuchMethod", null)));
+		global.put("ATTACKED", Collections.singletonList(new AIMethod("randomPauseAI", "1 2")));
+		Map<String, Map<String, List<AIMethod>>> ai = new HashMap<>();
+		ai.put(SpaceObjectAI.AI_STATE_GLOBAL, global);
+		ai.put(SpaceObjectAI.AI_STATE_ATTACK, new HashMap<>());
+		return ai;
+	}
+
+	@Test
+	public void dispatchTableTest() {
+		AIDispatchTable table = new AIDispatchTable(createAI());
+		int global = table.getStateId(SpaceObjectAI.AI_STATE_GLOBAL);
+		int attack = table.getStateId(SpaceObjectAI.AI_STATE_ATTACK);
+		Assert.assertTrue(global >= 0);
+		Assert.assertTrue(attack >= 0);
+		Assert.assertEquals(-1, table.getStateId(SpaceObjectAI.AI_STATE_FLEE));
+
+		AIMethod[] methods = table.getMethods(global, AIDispatchTable.MESSAGE_UPDATE);
+		Assert.assertEquals(1, methods.length);
+		Assert.assertEquals("pauseAI", methods[0].getName());
+		Assert.assertEquals("randomPauseAI", table.getMethods(global, AIDispatchTable.findMessageId("ATTACKED"))[0].getName());
+		Assert.assertNull(table.getMethods(attack, AIDispatchTable.MESSAGE_UPDATE));
+		Assert.assertNull(table.getMethods(-1, AIDispatchTable.MESSAGE_UPDATE));
+		Assert.assertNull(table.getMethods(global, AIDispatchTable.findMessageId("NO SUCH MESSAGE")));
+	}
+
+	@Test
+	public void messageIdTest() {
+		Assert.assertEquals(AIDispatchTable.MESSAGE_UPDATE, AIDispatchTable.findMessageId("UPDATE"));
+		int id = AIDispatchTable.getMessageId("MESSAGE_ID_TEST");
+		Assert.assertEquals(id, AIDispatchTable.getMessageId("MESSAGE_ID_TEST"));
+		Assert.assertEquals(id, AIDispatchTable.findMessageId("MESSAGE_ID_TEST"));
+	}
+
+	// Compares the reflection based dispatch (lookup, argument splitting and logging per call) with the dispatch table.
+	public static void main(String[] args) throws ReflectiveOperationException {
+		beforeClass();
+		SpaceObjectAI ai = new SpaceObjectAI(new SpaceObject("benchmark"));
+		Map<String, Map<String, List<AIMethod>>> aiDefinition = createAI();
+		AIDispatchTable table = new AIDispatchTable(aiDefinition);
+		for (int run = 0; run < 3; run++) {
+			long time = System.nanoTime();
+			for (int i = 0; i < NUMBER_OF_CALLS; i++) {
+				dispatchByReflection(ai, aiDefinition, SpaceObjectAI.AI_STATE_GLOBAL, "UPDATE");
+			}
+			long reflection = System.nanoTime() - time;
+
+			time = System.nanoTime();
+			int stateId = table.getStateId(SpaceObjectAI.AI_STATE_GLOBAL);
+			for (int i = 0; i < NUMBER_OF_CALLS; i++) {
+				for (AIMethod method : table.getMethods(stateId, AIDispatchTable.MESSAGE_UPDATE)) {
+					method.invoke(ai);
+				}
+			}
+			long dispatchTable = System.nanoTime() - time;
+			System.out.println("Run " + run + ": reflection " + reflection / NUMBER_OF_CALLS + " ns/message, dispatch table " +
+				dispatchTable / NUMBER_OF_CALLS + " ns/message");
+		}
+	}
+
+	private static void dispatchByReflection(SpaceObjectAI ai, Map<String, Map<String, List<AIMethod>>> aiDefinition,
+			String stateName, String message) throws IllegalAccessException {
+		for (AIMethod method : aiDefinition.get(stateName).get(message)) {
+			try {
+				java.lang.reflect.Method m = SpaceObjectAI.class.getDeclaredMethod(method.getName(), String[].class);
+				m.setAccessible(true);
+				m.invoke(ai, new Object[] { method.getParameter() == null ? new String[0] : method.getParameter().split(" ")});
+				AliteLog.d("AI methods", "AI method " + method.getName() + "(" +
+					(method.getParameter() == null ? "" : method.getParameter()) + ") called.");
+			} catch (NoSuchMethodException ignored) {
+			} catch (InvocationTargetException e) {
+				AliteLog.e("ai.syntax." + method.getName(), e.getCause().getMessage(), e.getCause());
+			}
+		}
+	}
+}
@@ -0,0 +1,240 @@
+package de.phbouillon.android.games.alite.screens.opengl.objects.space;
+
+/* Alite - Discover the Universe on your Favorite Android Device
+ * Copyright (C) 2015 Philipp Bouillon
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful and
+ * fun, but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see
+ * http://http://www.gnu.org/licenses/gpl-3.0.txt.
+ */
+
+import de.phbouillon.android.framework.Texture;
+import de.phbouillon.android.framework.math.Vector3f;
+import de.phbouillon.android.games.alite.Alite;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.model.Repository;
+import de.phbouillon.android.games.alite.model.generator.GalaxyGenerator;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import de.phbouillon.android.games.alite.screens.opengl.ingame.ObjectType;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SpaceObjectSerializationTest {
+	private static final int TEMPLATE_COUNT = 4;
+	private static final int VERTEX_COUNT = 120;
+	private static final int FACE_COUNT = 240;
+	// vertices, normals and texture coordinates of each face
+	private static final int MODEL_DATA_SIZE = FACE_COUNT * 3 * (3 + 3 + 2) * 4;
+	private static final int SHIP_COUNT = 60;
+	private static final ObjectType[] TYPES = { ObjectType.Trader, ObjectType.Pirate, ObjectType.Police, ObjectType.Missile };
+
+	@BeforeClass
+	public static void beforeClass() {
+		AliteLog.setInstance(new TestLogger());
+		final Texture texture = new TestTexture();
+		final GalaxyGenerator generator = new GalaxyGenerator();
+		new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+
+			@Override
+			public GalaxyGenerator getGenerator() {
+				// for the templates of other tests restricted to a galaxy
+				return generator;
+			}
+		};
+	}
+
+	@Test
+	public void busySceneTest() throws IOException, ClassNotFoundException {
+		List<SpaceObject> scene = createScene("busy_scene", true);
+		List<SpaceObject> fullScene = createScene("busy_scene_unregistered", false);
+		byte[] bytes = write(scene);
+		byte[] fullBytes = write(fullScene);
+		Assert.assertTrue(bytes.length + " bytes instead of " + fullBytes.length,
+			fullBytes.length - bytes.length > TEMPLATE_COUNT * MODEL_DATA_SIZE);
+		assertRestored(scene, read(bytes));
+		// Objects without template are saved with their model data and all of their properties
+		assertRestored(fullScene, read(fullBytes));
+	}
+
+	private static void assertRestored(List<SpaceObject> expected, List<SpaceObject> restored) {
+		Assert.assertEquals(expected.size(), restored.size());
+		Vector3f direction = new Vector3f(0, 0, -1);
+		for (int i = 0; i < expected.size(); i++) {
+			SpaceObject e = expected.get(i);
+			SpaceObject r = restored.get(i);
+			Assert.assertEquals(e.getId(), r.getId());
+			Assert.assertEquals(e.getType(), r.getType());
+			Assert.assertEquals(e.getName(), r.getName());
+			Assert.assertEquals(e.getHullStrength(), r.getHullStrength());
+			Assert.assertEquals(e.getSpeed(), r.getSpeed(), 0);
+			Assert.assertEquals(e.getPosition().x, r.getPosition().x, 0);
+			Assert.assertEquals(e.getPosition().y, r.getPosition().y, 0);
+			Assert.assertEquals(e.getPosition().z, r.getPosition().z, 0);
+			Assert.assertArrayEquals(e.getBoundingBox(), r.getBoundingBox(), 0);
+			Assert.assertEquals(e.getRepoHandler().getNumericProperty(SpaceObject.Property.missiles),
+				r.getRepoHandler().getNumericProperty(SpaceObject.Property.missiles), 0);
+			Assert.assertEquals(e.getRepoHandler().getNumericProperty(SpaceObject.Property.bounty),
+				r.getRepoHandler().getNumericProperty(SpaceObject.Property.bounty), 0);
+			Assert.assertEquals(e.getRepoHandler().getStringProperty(SpaceObject.Property.roles),
+				r.getRepoHandler().getStringProperty(SpaceObject.Property.roles));
+			Assert.assertEquals(e.getTarget() == null ? -1 : expected.indexOf(e.getTarget()),
+				r.getTarget() == null ? -1 : restored.indexOf(r.getTarget()));
+			Assert.assertEquals(e.getSource() == null ? -1 : expected.indexOf(e.getSource()),
+				r.getSource() == null ? -1 : restored.indexOf(r.getSource()));
+			Vector3f origin = new Vector3f(e.getPosition().x, e.getPosition().y, e.getPosition().z + 1000);
+			Assert.assertEquals(e.intersect(origin, direction, 1), r.intersect(origin, direction, 1));
+			r.render();
+		}
+	}
+
+	private static List<SpaceObject> createScene(String name, boolean registerTemplates) {
+		Random random = new Random(1);
+		List<SpaceObject> templates = new ArrayList<>();
+		for (int i = 0; i < TEMPLATE_COUNT; i++) {
+			templates.add(createTemplate(name + "_" + i, random, registerTemplates));
+		}
+		List<SpaceObject> scene = new ArrayList<>();
+		for (int i = 0; i < SHIP_COUNT; i++) {
+			int t = random.nextInt(TEMPLATE_COUNT);
+			SpaceObject ship = templates.get(t).cloneObject(TYPES[t]);
+			ship.setPosition(random.nextFloat() * 20000 - 10000, random.nextFloat() * 20000 - 10000,
+				random.nextFloat() * 20000 - 10000);
+			ship.setSpeed(-random.nextFloat() * 300);
+			ship.setHullStrength(random.nextInt(200));
+			if (random.nextBoolean()) {
+				ship.getRepoHandler().setProperty(SpaceObject.Property.missiles, 1L);
+			}
+			if (!scene.isEmpty() && TYPES[t] == ObjectType.Missile) {
+				ship.setTarget(scene.get(random.nextInt(scene.size())));
+				ship.setSource(scene.get(random.nextInt(scene.size())));
+			}
+			scene.add(ship);
+		}
+		scene.get(0).setId("Camera");
+		return scene;
+	}
+
+	private static SpaceObject createTemplate(String id, Random random, boolean register) {
+		SpaceObject template = new SpaceObject(id);
+		Repository<SpaceObject.Property> repo = template.getRepoHandler();
+		repo.setProperty(SpaceObject.Property.name, id);
+		repo.setProperty(SpaceObject.Property.roles, "trader pirate police missile");
+		repo.setProperty(SpaceObject.Property.model_scale_factor, 1L);
+		repo.setProperty(SpaceObject.Property.max_energy, 200L);
+		repo.setProperty(SpaceObject.Property.max_flight_speed, 300L);
+		repo.setProperty(SpaceObject.Property.max_flight_roll, 2.0);
+		repo.setProperty(SpaceObject.Property.max_flight_pitch, 1.0);
+		repo.setProperty(SpaceObject.Property.missiles, 2L);
+		repo.setProperty(SpaceObject.Property.bounty, 50L);
+		repo.setProperty(SpaceObject.Property.cargo_carried, 3L);
+		repo.setProperty(SpaceObject.Property.aggression_level, 5L);
+		repo.setProperty(SpaceObject.Property.laser_color, "redColor");
+		repo.setProperty(SpaceObject.Property.weapon_position_forward, "0 0 40");
+		repo.setProperty(SpaceObject.Property.exhaust_emissive_color, "0.7 0.9 1.0");
+
+		float[] vertexData = new float[3 * VERTEX_COUNT];
+		float[] normals = new float[3 * VERTEX_COUNT];
+		for (int i = 0; i < vertexData.length; i++) {
+			vertexData[i] = random.nextFloat() * 100 - 50;
+			normals[i] = random.nextFloat() * 2 - 1;
+		}
+		int[] indices = new int[3 * FACE_COUNT];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = random.nextInt(VERTEX_COUNT);
+		}
+		template.createFaces(vertexData, normals, indices);
+		float[] texCoords = new float[2 * indices.length];
+		for (int i = 0; i < texCoords.length; i++) {
+			texCoords[i] = random.nextFloat();
+		}
+		template.setTexture("textures/" + id + ".png", texCoords, null);
+		if (register) {
+			SpaceObjectFactory.getInstance().registerSpaceObject(template);
+		}
+		return template;
+	}
+
+	private static byte[] write(List<SpaceObject> scene) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+			oos.writeObject(new ArrayList<>(scene));
+		}
+		return bytes.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<SpaceObject> read(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (List<SpaceObject>) ois.readObject();
+		}
+	}
+
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		beforeClass();
+		List<SpaceObject> scene = createScene("benchmark", true);
+		List<SpaceObject> fullScene = createScene("benchmark_unregistered", false);
+		int runs = 50;
+		for (int warmUp = 0; warmUp < 2; warmUp++) {
+			long start = System.nanoTime();
+			byte[] fullBytes = null;
+			for (int run = 0; run < runs; run++) {
+				fullBytes = write(fullScene);
+			}
+			long fullWrite = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				read(fullBytes);
+			}
+			long fullRead = System.nanoTime() - start;
+			start = System.nanoTime();
+			byte[] bytes = null;
+			for (int run = 0; run < runs; run++) {
+				bytes = write(scene);
+			}
+			long write = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int run = 0; run < runs; run++) {
+				read(bytes);
+			}
+			long read = System.nanoTime() - start;
+			System.out.println(SHIP_COUNT + " ships with model data and all properties: " + fullBytes.length +
+				" bytes, write " + fullWrite / runs / 1000 + " us, read " + fullRead / runs / 1000 + " us; " +
+				"referencing templates: " + bytes.length + " bytes, write " + write / runs / 1000 + " us, read " +
+				read / runs / 1000 + " us");
+		}
+		SpaceObject template = SpaceObjectFactory.getInstance().getTemplateObject("benchmark_0");
+		int clones = 100000;
+		for (int warmUp = 0; warmUp < 2; warmUp++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < clones; i++) {
+				template.cloneObject(ObjectType.Trader);
+			}
+			System.out.println("cloneObject: " + (System.nanoTime() - start) / clones + " ns");
+		}
+	}
+}
@@ -18,6 +18,13 @@ package de.phbouillon.android.games.alite.screens.opengl.objects.space;
  * http://http://www.gnu.org/licenses/gpl-3.0.txt.
  */
 
+import de.phbouillon.android.framework.Texture;
+import de.phbouillon.android.framework.impl.gl.GlUtils;
+import de.phbouillon.android.games.alite.Alite;
+import de.phbouillon.android.games.alite.AliteLog;
+import de.phbouillon.android.games.alite.TestLogger;
+import de.phbouillon.android.games.alite.screens.opengl.TestTexture;
+import de.phbouillon.android.games.alite.screens.opengl.ingame.ObjectType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -49,6 +56,29 @@ public class SpaceObjectTest {
 		}
 	}
 
+	@Test
+	public void renderWithoutBufferAllocationTest() {
+		AliteLog.setInstance(new TestLogger());
+		final Texture texture = new TestTexture();
+		new Alite() {
+			@Override
+			public Texture getTextureManager() {
+				return texture;
+			}
+		};
+		SpaceObject template = new SpaceObject("render_test");
+		template.createFaces(new float[] {0,0,0, 1,0,0, 0,1,0}, new float[] {0,0,1, 0,0,1, 0,0,1}, 0, 1, 2);
+		template.setTexture("", new float[] {0,0, 1,0, 0,1}, null);
+		SpaceObject clone = template.cloneObject(ObjectType.Trader);
+
+		int allocatedBufferCount = GlUtils.getAllocatedBufferCount();
+		for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+			template.render();
+			clone.render();
+		}
+		Assert.assertEquals(allocatedBufferCount, GlUtils.getAllocatedBufferCount());
+	}
+
 	private int createRandomEnemyAlgorithm(int extraShip) {
 		int type = (int) (Math.random() * 100);
 		if (type == 0) { // 1%